@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous iterator over a distributed collection.
+ * <p>
+ * Asynchronous iterators read a collection from the cluster one page at a time, so iterating a large collection
+ * never requires the entire collection to be held in a single response or in memory. Pages are only read as the
+ * iterator advances:
+ * <pre>
+ *   {@code
+ *   map.cursor().forEach(entry -> {
+ *     ...
+ *   }).join();
+ *   }
+ * </pre>
+ * Iteration is weakly consistent. Elements present in the collection for the duration of the iteration are returned,
+ * and elements added or removed during the iteration may or may not be returned.
+ * <p>
+ * Asynchronous iterators are not thread safe. Each future returned by the iterator must be completed before the
+ * iterator is advanced again.
+ *
+ * @param <T> The element type.
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface AsyncIterator<T> {
+
+  /**
+   * Returns whether the iterator has more elements.
+   * <p>
+   * If no elements remain in the current page, the next page is read from the cluster.
+   *
+   * @return A completable future to be completed with a boolean indicating whether more elements remain.
+   */
+  CompletableFuture<Boolean> hasNext();
+
+  /**
+   * Returns the next element.
+   * <p>
+   * If no more elements remain, the returned future will be completed exceptionally with a
+   * {@link java.util.NoSuchElementException}.
+   *
+   * @return A completable future to be completed with the next element.
+   */
+  CompletableFuture<T> next();
+
+  /**
+   * Performs an action for each remaining element.
+   *
+   * @param action The action to perform for each element.
+   * @return A completable future to be completed once all remaining elements have been read.
+   * @throws NullPointerException if {@code action} is {@code null}
+   */
+  CompletableFuture<Void> forEach(Consumer<? super T> action);
+
+}
@@ -20,8 +20,11 @@ import io.atomix.catalyst.buffer.BufferOutput;
 import io.atomix.catalyst.concurrent.Listener;
 import io.atomix.catalyst.serializer.CatalystSerializable;
 import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.collections.internal.CursorIterator;
 import io.atomix.collections.internal.MapCommands;
 import io.atomix.collections.internal.MapEntry;
+import io.atomix.collections.internal.NearCache;
 import io.atomix.collections.util.DistributedMapFactory;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.resource.AbstractResource;
@@ -31,6 +34,8 @@ import io.atomix.resource.ResourceTypeInfo;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -72,6 +77,98 @@ import java.util.function.Consumer;
 @ResourceTypeInfo(id = -11, factory = DistributedMapFactory.class)
 public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>> {
 
+  /**
+   * Distributed map configuration.
+   */
+  public static class Config extends Resource.Config {
+    public Config() {
+    }
+
+    public Config(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the map key order.
+     * <p>
+     * Maps configured with {@link Order#NATURAL} key order store their keys sorted in their natural order and support
+     * key order queries such as {@link DistributedMap#subMap(Object, boolean, Object, boolean)} and
+     * {@link DistributedMap#prefixMap(String)}. All keys of a naturally ordered map must be mutually comparable.
+     *
+     * @param order The map key order.
+     * @return The map configuration.
+     */
+    public Config withKeyOrder(Order order) {
+      setProperty("order", Assert.notNull(order, "order").name().toLowerCase());
+      return this;
+    }
+
+    /**
+     * Returns the map key order.
+     *
+     * @return The map key order. Defaults to {@link Order#NONE}.
+     */
+    public Order getKeyOrder() {
+      return Order.valueOf(getProperty("order", Order.NONE.name().toLowerCase()).toUpperCase());
+    }
+
+    /**
+     * Enables the value index.
+     * <p>
+     * When the value index is enabled, each replica of the map maintains a count of the keys mapped to each value,
+     * allowing {@link DistributedMap#containsValue(Object)} to be answered without scanning the map. The index is
+     * maintained incrementally as entries are written and removed, at the cost of additional memory and write time.
+     * Values must implement {@link Object#hashCode()} consistently with {@link Object#equals(Object)}.
+     *
+     * @return The map configuration.
+     */
+    public Config withValueIndex() {
+      return withValueIndex(true);
+    }
+
+    /**
+     * Sets whether to enable the value index.
+     *
+     * @param indexValues Whether to enable the value index.
+     * @return The map configuration.
+     */
+    public Config withValueIndex(boolean indexValues) {
+      setProperty("index.values", String.valueOf(indexValues));
+      return this;
+    }
+
+    /**
+     * Returns whether the value index is enabled.
+     *
+     * @return Whether the value index is enabled.
+     */
+    public boolean isValueIndex() {
+      return Boolean.parseBoolean(getProperty("index.values", "false"));
+    }
+  }
+
+  /**
+   * Represents the order of keys in a map.
+   */
+  public enum Order {
+
+    /**
+     * Indicates that keys should be stored in natural order.
+     */
+    NATURAL,
+
+    /**
+     * Indicates that keys should be stored in insertion order.
+     */
+    INSERT,
+
+    /**
+     * Indicates that no order is required for keys.
+     */
+    NONE
+
+  }
+
   /**
    * Distributed map options.
    */
@@ -86,10 +183,22 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
     /**
      * Enables the local map cache.
      * <p>
-     * When local caching is enabled, the {@link DistributedMap} will update a local in-memory map each
-     * time a change event is received. The instance will hold the full map in memory and will service
-     * all {@link ReadConsistency#LOCAL} reads from the local map. Thus, this feature should be used with
-     * caution. <em>Do not enable caching on large maps.</em>
+     * When local caching is enabled, the {@link DistributedMap} keeps a bounded near cache of the entries it has
+     * recently read. {@link ReadConsistency#LOCAL} reads of individual keys are serviced from the cache, and a read
+     * that misses the cache loads the key from the cluster and subscribes the instance to changes to that key only.
+     * Cached keys are invalidated once changed in the cluster, and the least recently or least frequently used
+     * entries are evicted once the cache reaches its {@link #withLocalCacheSize(int) maximum size}.
+     * <p>
+     * The cache is not free for the cluster. Each cache miss is a {@code CacheGet} command written to the replicated
+     * log, and each eviction of a key that is still subscribed writes an {@code Uncache} command. The servers retain
+     * one {@code CacheGet} commit per session and cached key until the key changes or is evicted, so a cache of size
+     * {@code n} can keep up to {@code n} commits per client from being compacted. The cache therefore pays off for
+     * small sets of hot keys that are read far more often than they change, and a workload that reads many distinct
+     * keys or whose keys change often is better served by uncached {@link ReadConsistency#LOCAL} queries, which are
+     * never written to the log.
+     * <p>
+     * Cache misses are loaded with commands, so the local cache is disabled for {@link #isReadOnly() read-only}
+     * instances.
      *
      * @return The map options.
      */
@@ -100,10 +209,8 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
     /**
      * Sets whether to enable local caching.
      * <p>
-     * When local caching is enabled, the {@link DistributedMap} will update a local in-memory map each
-     * time a change event is received. The instance will hold the full map in memory and will service
-     * all {@link ReadConsistency#LOCAL} reads from the local map. Thus, this feature should be used with
-     * caution. <em>Do not enable caching on large maps.</em>
+     * When local caching is enabled, the {@link DistributedMap} keeps a bounded near cache of the entries it has
+     * recently read and services {@link ReadConsistency#LOCAL} reads of individual keys from the cache.
      *
      * @param enableCache Whether to enable local caching.
      * @return The map options.
@@ -115,19 +222,76 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
 
     /**
      * Returns whether local caching is enabled.
-     * <p>
-     * When local caching is enabled, the {@link DistributedMap} will update a local in-memory map each
-     * time a change event is received.
      *
      * @return Whether local caching is enabled.
      */
     public boolean isLocalCache() {
       return Boolean.parseBoolean(getProperty("cache", "false"));
     }
+
+    /**
+     * Sets the maximum number of entries held by the local cache.
+     *
+     * @param maxSize The maximum number of cached entries.
+     * @return The map options.
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public Options withLocalCacheSize(int maxSize) {
+      Assert.arg(maxSize > 0, "maxSize must be positive");
+      setProperty("cache.size", String.valueOf(maxSize));
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of entries held by the local cache.
+     *
+     * @return The maximum number of cached entries. Defaults to {@code 1024}.
+     */
+    public int getLocalCacheSize() {
+      return Integer.parseInt(getProperty("cache.size", "1024"));
+    }
+
+    /**
+     * Sets the policy by which entries are evicted from a full local cache.
+     *
+     * @param eviction The cache eviction policy.
+     * @return The map options.
+     * @throws NullPointerException if {@code eviction} is null
+     */
+    public Options withLocalCacheEviction(CacheEviction eviction) {
+      setProperty("cache.eviction", Assert.notNull(eviction, "eviction").name());
+      return this;
+    }
+
+    /**
+     * Returns the policy by which entries are evicted from a full local cache.
+     *
+     * @return The cache eviction policy. Defaults to {@link CacheEviction#LRU}.
+     */
+    public CacheEviction getLocalCacheEviction() {
+      return CacheEviction.valueOf(getProperty("cache.eviction", CacheEviction.LRU.name()));
+    }
+  }
+
+  /**
+   * Local cache eviction policy.
+   */
+  public enum CacheEviction {
+
+    /**
+     * Evicts the least recently read entry.
+     */
+    LRU,
+
+    /**
+     * Evicts the least frequently read entry, breaking ties by evicting the entry that was cached first.
+     */
+    LFU
+
   }
 
   private final Options options;
-  private final Map<K, V> cache;
+  private final NearCache<K, V> cache;
   private final Map<K, Map<Integer, Set<Consumer>>> eventListeners = new ConcurrentHashMap<>();
 
   public DistributedMap(CopycatClient client) {
@@ -137,13 +301,19 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
   public DistributedMap(CopycatClient client, Properties options) {
     super(client, options);
     this.options = new Options(options);
-    if (this.options.isLocalCache()) {
-      this.cache = new ConcurrentHashMap<>();
+    // Cached reads are loaded with commands, which read-only instances cannot submit.
+    if (this.options.isLocalCache() && !this.options.isReadOnly()) {
+      this.cache = new NearCache<>(this.options.getLocalCacheSize(), this.options.getLocalCacheEviction(), this::uncache);
     } else {
       this.cache = null;
     }
   }
 
+  @Override
+  public Resource.Config config() {
+    return new Config(super.config());
+  }
+
   @Override
   public Options options() {
     return options;
@@ -573,11 +743,38 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
   @SuppressWarnings("unchecked")
   public CompletableFuture<V> get(Object key, ReadConsistency consistency) {
     if (consistency == ReadConsistency.LOCAL && cache != null) {
-      return CompletableFuture.completedFuture(cache.get(key));
+      return getCached(key);
     }
     return client.submit(new MapCommands.Get(key, consistency.level())).thenApply(result -> (V) result);
   }
 
+  /**
+   * Reads a key from the local cache, loading the key from the cluster if it is not cached.
+   */
+  @SuppressWarnings("unchecked")
+  private CompletableFuture<V> getCached(Object key) {
+    NearCache.Value<V> value = cache.get(key);
+    if (value != null) {
+      return CompletableFuture.completedFuture(value.get());
+    }
+
+    long sequence = cache.load((K) key);
+    return client.submit(new MapCommands.CacheGet(key)).whenComplete((result, error) -> {
+      if (error == null) {
+        cache.complete((K) key, sequence, (V) result);
+      } else {
+        cache.fail((K) key, sequence);
+      }
+    }).thenApply(result -> (V) result);
+  }
+
+  /**
+   * Releases the subscription to changes to a key that is no longer cached.
+   */
+  private void uncache(K key) {
+    client.submit(new MapCommands.Uncache(key));
+  }
+
   /**
    * Gets the value of {@code key} or returns the given default value if {@code key} does not exist.
    * <p>
@@ -670,11 +867,61 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
   @SuppressWarnings("unchecked")
   public CompletableFuture<V> getOrDefault(Object key, V defaultValue, ReadConsistency consistency) {
     if (consistency == ReadConsistency.LOCAL && cache != null) {
-      return CompletableFuture.completedFuture(cache.getOrDefault(key, defaultValue));
+      return getCached(key).thenApply(value -> value != null ? value : defaultValue);
     }
     return client.submit(new MapCommands.GetOrDefault(key, defaultValue, consistency.level())).thenApply(result -> (V) result);
   }
 
+  /**
+   * Gets the values for a set of keys in a single operation.
+   * <p>
+   * The returned map contains an entry for each of the given {@code keys} that is present in the map. Keys that are
+   * not present in the map are omitted from the result.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} or {@link CompletableFuture#join()} method to block the calling thread:
+   * <pre>
+   *   {@code
+   *   Map<String, String> values = map.getAll(Arrays.asList("foo", "bar")).get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the operation is complete in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   map.getAll(Arrays.asList("foo", "bar")).thenAccept(values -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param keys The keys to get.
+   * @return A completable future to be completed with a map of the present keys and their values.
+   * @throws NullPointerException if {@code keys} is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map<K, V>> getAll(Collection<?> keys) {
+    return client.submit(new MapCommands.GetAll(keys)).thenApply(result -> (Map<K, V>) result);
+  }
+
+  /**
+   * Gets the values for a set of keys in a single operation.
+   * <p>
+   * The returned map contains an entry for each of the given {@code keys} that is present in the map. Keys that are
+   * not present in the map are omitted from the result. Bulk reads are not served from the local cache, so
+   * {@link ReadConsistency#LOCAL} reads are performed with {@link ReadConsistency#SEQUENTIAL} consistency.
+   *
+   * @param keys        The keys to get.
+   * @param consistency The read consistency level.
+   * @return A completable future to be completed with a map of the present keys and their values.
+   * @throws NullPointerException if {@code keys} is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map<K, V>> getAll(Collection<?> keys, ReadConsistency consistency) {
+    return client.submit(new MapCommands.GetAll(keys, consistency.level())).thenApply(result -> (Map<K, V>) result);
+  }
+
   /**
    * Puts a value in the map for the given {@code key}.
    * <p>
@@ -748,6 +995,73 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
     return client.submit(new MapCommands.Put(key, value, ttl.toMillis())).thenApply(result -> (V) result);
   }
 
+  /**
+   * Puts a set of entries in the map in a single operation.
+   * <p>
+   * All entries are applied atomically in a single commit, and any previous values associated with the given keys will
+   * be overridden. Change events for all entries are published together once the operation has been applied.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} or {@link CompletableFuture#join()} method to block the calling thread:
+   * <pre>
+   *   {@code
+   *   Map<String, String> oldValues = map.putAll(entries).get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the operation is complete in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   map.putAll(entries).thenAccept(oldValues -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param entries The entries to set.
+   * @return A completable future to be completed with a map of the previous values of keys that were present.
+   * @throws NullPointerException if {@code entries} is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map<K, V>> putAll(Map<? extends K, ? extends V> entries) {
+    return client.submit(new MapCommands.PutAll(entries, 0)).thenApply(result -> (Map<K, V>) result);
+  }
+
+  /**
+   * Puts a set of entries in the map in a single operation with a TTL.
+   * <p>
+   * All entries are applied atomically in a single commit and will remain in the map until the provided
+   * {@link Duration} of time has elapsed or they are overridden by a more recent put operation.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} or {@link CompletableFuture#join()} method to block the calling thread:
+   * <pre>
+   *   {@code
+   *   Map<String, String> oldValues = map.putAll(entries, Duration.ofSeconds(10)).get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the operation is complete in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   map.putAll(entries, Duration.ofSeconds(10)).thenAccept(oldValues -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param entries The entries to set.
+   * @param ttl     The duration after which to expire the keys.
+   * @return A completable future to be completed with a map of the previous values of keys that were present.
+   * @throws NullPointerException if {@code entries} is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map<K, V>> putAll(Map<? extends K, ? extends V> entries, Duration ttl) {
+    return client.submit(new MapCommands.PutAll(entries, ttl.toMillis())).thenApply(result -> (Map<K, V>) result);
+  }
+
   /**
    * Puts a value in the map if the given {@code key} does not exist.
    * <p>
@@ -854,6 +1168,39 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
     return client.submit(new MapCommands.Remove(key)).thenApply(result -> (V) result);
   }
 
+  /**
+   * Removes a set of keys from the map in a single operation.
+   * <p>
+   * All keys are removed atomically in a single commit, and change events for all removed entries are published
+   * together once the operation has been applied.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} or {@link CompletableFuture#join()} method to block the calling thread:
+   * <pre>
+   *   {@code
+   *   Map<String, String> removed = map.removeAll(Arrays.asList("foo", "bar")).get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the operation is complete in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   map.removeAll(Arrays.asList("foo", "bar")).thenAccept(removed -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param keys The keys to remove.
+   * @return A completable future to be completed with a map of the removed keys and their values.
+   * @throws NullPointerException if {@code keys} is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map<K, V>> removeAll(Collection<?> keys) {
+    return client.submit(new MapCommands.RemoveAll(keys)).thenApply(result -> (Map<K, V>) result);
+  }
+
   /**
    * Removes the given {@code key} from the map if its value matches the given {@code value}.
    * <p>
@@ -1096,18 +1443,14 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
    *   }
    * </pre>
    * <p>
-   * If the provided {@link ReadConsistency} is {@link ReadConsistency#LOCAL} and local caching is enabled for
-   * the map, reads will be serviced via the cache. Otherwise, reads will fall back to {@link ReadConsistency#SEQUENTIAL}
-   * if the cache is not enabled.
+   * The local cache only holds recently read entries, so {@link ReadConsistency#LOCAL} reads are always serviced
+   * with {@link ReadConsistency#SEQUENTIAL} consistency.
    *
    * @param consistency The read consistency level.
    * @return A completable future to be completed with the result once complete.
    */
   @SuppressWarnings("unchecked")
   public CompletableFuture<Set<K>> keySet(ReadConsistency consistency) {
-    if (consistency == ReadConsistency.LOCAL && cache != null) {
-      return CompletableFuture.completedFuture(cache.keySet());
-    }
     return client.submit(new MapCommands.KeySet(consistency.level())).thenApply(keys -> (Set<K>) keys);
   }
 
@@ -1166,18 +1509,14 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
    *   }
    * </pre>
    * <p>
-   * If the provided {@link ReadConsistency} is {@link ReadConsistency#LOCAL} and local caching is enabled for
-   * the map, reads will be serviced via the cache. Otherwise, reads will fall back to {@link ReadConsistency#SEQUENTIAL}
-   * if the cache is not enabled.
+   * The local cache only holds recently read entries, so {@link ReadConsistency#LOCAL} reads are always serviced
+   * with {@link ReadConsistency#SEQUENTIAL} consistency.
    *
    * @param consistency The read consistency level.
    * @return A completable future to be completed with the result once complete.
    */
   @SuppressWarnings("unchecked")
   public CompletableFuture<Collection<V>> values(ReadConsistency consistency) {
-    if (consistency == ReadConsistency.LOCAL && cache != null) {
-      return CompletableFuture.completedFuture(cache.values());
-    }
     return client.submit(new MapCommands.Values(consistency.level())).thenApply(values -> (Collection<V>) values);
   }
 
@@ -1236,21 +1575,342 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
    *   }
    * </pre>
    * <p>
-   * If the provided {@link ReadConsistency} is {@link ReadConsistency#LOCAL} and local caching is enabled for
-   * the map, reads will be serviced via the cache. Otherwise, reads will fall back to {@link ReadConsistency#SEQUENTIAL}
-   * if the cache is not enabled.
+   * The local cache only holds recently read entries, so {@link ReadConsistency#LOCAL} reads are always serviced
+   * with {@link ReadConsistency#SEQUENTIAL} consistency.
    *
    * @param consistency The read consistency level.
    * @return A completable future to be completed with the result once complete.
    */
   @SuppressWarnings("unchecked")
   public CompletableFuture<Set<Map.Entry<K, V>>> entrySet(ReadConsistency consistency) {
-    if (consistency == ReadConsistency.LOCAL && cache != null) {
-      return CompletableFuture.completedFuture(cache.entrySet());
-    }
     return client.submit(new MapCommands.EntrySet(consistency.level())).thenApply(entries -> (Set<Map.Entry<K, V>>) entries);
   }
 
+  /**
+   * Returns an asynchronous iterator over the entries in the map.
+   * <p>
+   * Unlike {@link #entrySet()}, the returned iterator reads the map from the cluster in pages of {@code 1000}
+   * entries as it advances rather than reading the entire map in a single response. Maps configured with
+   * {@link Order#NATURAL} or {@link Order#INSERT} key order are iterated in that order.
+   * <p>
+   * Each page resumes after the key of the last entry read, so iteration of an ordered map survives changes to the
+   * map between pages: entries present for the whole iteration are read exactly once. An insertion ordered map can
+   * only be resumed while the last key read is still in the map. Unordered maps have no stable order across changes,
+   * so iterating an unordered map fails with a {@link java.util.ConcurrentModificationException} if the map is
+   * changed between pages or the next page is read from a server that no longer holds the cursor.
+   * <pre>
+   *   {@code
+   *   map.cursor().forEach(entry -> {
+   *     ...
+   *   }).join();
+   *   }
+   * </pre>
+   *
+   * @return An asynchronous iterator over the entries in the map.
+   */
+  public AsyncIterator<Map.Entry<K, V>> cursor() {
+    return cursor(CursorIterator.DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * Returns an asynchronous iterator over the entries in the map.
+   *
+   * @param pageSize The number of entries to read from the cluster in each page.
+   * @return An asynchronous iterator over the entries in the map.
+   * @throws IllegalArgumentException if {@code pageSize} is not positive
+   */
+  @SuppressWarnings("unchecked")
+  public AsyncIterator<Map.Entry<K, V>> cursor(int pageSize) {
+    return new CursorIterator<>(pageSize, Map.Entry::getKey, (cursor, position, last, size) -> client.submit(new MapCommands.Cursor(cursor, position, last, size))
+      .thenApply(entries -> (List<Map.Entry<K, V>>) (List) entries));
+  }
+
+  /**
+   * Returns the lowest key in the map.
+   * <p>
+   * Key order queries require the map to be configured with {@link Order#NATURAL} key order. If the map is not
+   * sorted, the returned future will be completed exceptionally.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} or {@link CompletableFuture#join()} method to block the calling thread:
+   * <pre>
+   *   {@code
+   *   String key = map.firstKey().get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the operation is complete in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   map.firstKey().thenAccept(key -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @return A completable future to be completed with the lowest key, or {@code null} if the map is empty.
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<K> firstKey() {
+    return client.submit(new MapCommands.FirstKey()).thenApply(result -> (K) result);
+  }
+
+  /**
+   * Returns the highest key in the map.
+   * <p>
+   * Key order queries require the map to be configured with {@link Order#NATURAL} key order. If the map is not
+   * sorted, the returned future will be completed exceptionally.
+   *
+   * @return A completable future to be completed with the highest key, or {@code null} if the map is empty.
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<K> lastKey() {
+    return client.submit(new MapCommands.LastKey()).thenApply(result -> (K) result);
+  }
+
+  /**
+   * Returns the entry with the greatest key less than or equal to the given {@code key}.
+   * <p>
+   * Key order queries require the map to be configured with {@link Order#NATURAL} key order. If the map is not
+   * sorted, the returned future will be completed exceptionally.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} or {@link CompletableFuture#join()} method to block the calling thread:
+   * <pre>
+   *   {@code
+   *   Map.Entry<Long, String> entry = map.floorEntry(System.currentTimeMillis()).get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the operation is complete in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   map.floorEntry(System.currentTimeMillis()).thenAccept(entry -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param key The key to search for.
+   * @return A completable future to be completed with the matching entry, or {@code null} if no such key exists.
+   * @throws NullPointerException if {@code key} is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map.Entry<K, V>> floorEntry(K key) {
+    return client.submit(new MapCommands.FloorEntry(key)).thenApply(result -> (Map.Entry<K, V>) result);
+  }
+
+  /**
+   * Returns the entry with the least key greater than or equal to the given {@code key}.
+   * <p>
+   * Key order queries require the map to be configured with {@link Order#NATURAL} key order. If the map is not
+   * sorted, the returned future will be completed exceptionally.
+   *
+   * @param key The key to search for.
+   * @return A completable future to be completed with the matching entry, or {@code null} if no such key exists.
+   * @throws NullPointerException if {@code key} is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map.Entry<K, V>> ceilingEntry(K key) {
+    return client.submit(new MapCommands.CeilingEntry(key)).thenApply(result -> (Map.Entry<K, V>) result);
+  }
+
+  /**
+   * Returns the entries whose keys range from {@code fromKey} to {@code toKey}.
+   * <p>
+   * Key order queries require the map to be configured with {@link Order#NATURAL} key order. If the map is not
+   * sorted, the returned future will be completed exceptionally. The returned map iterates in key order.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} or {@link CompletableFuture#join()} method to block the calling thread:
+   * <pre>
+   *   {@code
+   *   Map<Long, String> entries = map.subMap(start, true, end, false).get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the operation is complete in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   map.subMap(start, true, end, false).thenAccept(entries -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param fromKey       The lower bound of the range.
+   * @param fromInclusive Whether to include {@code fromKey} in the range.
+   * @param toKey         The upper bound of the range.
+   * @param toInclusive   Whether to include {@code toKey} in the range.
+   * @return A completable future to be completed with the entries in the range.
+   * @throws NullPointerException if {@code fromKey} or {@code toKey} is {@code null}
+   */
+  public CompletableFuture<Map<K, V>> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+    Assert.notNull(fromKey, "fromKey");
+    Assert.notNull(toKey, "toKey");
+    return range(new MapCommands.Range(fromKey, fromInclusive, toKey, toInclusive, null, 0));
+  }
+
+  /**
+   * Returns up to {@code limit} entries whose keys range from {@code fromKey} to {@code toKey}.
+   * <p>
+   * Large ranges can be read a page at a time by starting each query exclusively after the last key of the
+   * previous page:
+   * <pre>
+   *   {@code
+   *   Map<Long, String> page = map.subMap(lastKey, false, end, false, 100).get();
+   *   }
+   * </pre>
+   *
+   * @param fromKey       The lower bound of the range.
+   * @param fromInclusive Whether to include {@code fromKey} in the range.
+   * @param toKey         The upper bound of the range.
+   * @param toInclusive   Whether to include {@code toKey} in the range.
+   * @param limit         The maximum number of entries to return.
+   * @return A completable future to be completed with the first {@code limit} entries in the range.
+   * @throws NullPointerException if {@code fromKey} or {@code toKey} is {@code null}
+   * @throws IllegalArgumentException if {@code limit} is not positive
+   */
+  public CompletableFuture<Map<K, V>> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive, int limit) {
+    Assert.notNull(fromKey, "fromKey");
+    Assert.notNull(toKey, "toKey");
+    Assert.arg(limit > 0, "limit must be positive");
+    return range(new MapCommands.Range(fromKey, fromInclusive, toKey, toInclusive, null, limit));
+  }
+
+  /**
+   * Returns the entries whose keys are less than (or equal to, if {@code inclusive} is true) {@code toKey}.
+   * <p>
+   * Key order queries require the map to be configured with {@link Order#NATURAL} key order. If the map is not
+   * sorted, the returned future will be completed exceptionally. The returned map iterates in key order.
+   *
+   * @param toKey     The upper bound of the range.
+   * @param inclusive Whether to include {@code toKey} in the range.
+   * @return A completable future to be completed with the entries in the range.
+   * @throws NullPointerException if {@code toKey} is {@code null}
+   */
+  public CompletableFuture<Map<K, V>> headMap(K toKey, boolean inclusive) {
+    return range(new MapCommands.Range(null, false, Assert.notNull(toKey, "toKey"), inclusive, null, 0));
+  }
+
+  /**
+   * Returns the entries whose keys are greater than (or equal to, if {@code inclusive} is true) {@code fromKey}.
+   * <p>
+   * Key order queries require the map to be configured with {@link Order#NATURAL} key order. If the map is not
+   * sorted, the returned future will be completed exceptionally. The returned map iterates in key order.
+   *
+   * @param fromKey   The lower bound of the range.
+   * @param inclusive Whether to include {@code fromKey} in the range.
+   * @return A completable future to be completed with the entries in the range.
+   * @throws NullPointerException if {@code fromKey} is {@code null}
+   */
+  public CompletableFuture<Map<K, V>> tailMap(K fromKey, boolean inclusive) {
+    return range(new MapCommands.Range(Assert.notNull(fromKey, "fromKey"), inclusive, null, false, null, 0));
+  }
+
+  /**
+   * Returns up to {@code limit} entries whose keys are greater than (or equal to, if {@code inclusive} is true)
+   * {@code fromKey}.
+   *
+   * @param fromKey   The lower bound of the range.
+   * @param inclusive Whether to include {@code fromKey} in the range.
+   * @param limit     The maximum number of entries to return.
+   * @return A completable future to be completed with the first {@code limit} entries in the range.
+   * @throws NullPointerException if {@code fromKey} is {@code null}
+   * @throws IllegalArgumentException if {@code limit} is not positive
+   */
+  public CompletableFuture<Map<K, V>> tailMap(K fromKey, boolean inclusive, int limit) {
+    Assert.arg(limit > 0, "limit must be positive");
+    return range(new MapCommands.Range(Assert.notNull(fromKey, "fromKey"), inclusive, null, false, null, limit));
+  }
+
+  /**
+   * Returns the entries whose {@link String} keys begin with the given {@code prefix}.
+   * <p>
+   * Prefix queries require the map to be configured with {@link Order#NATURAL} key order. Matching keys are stored
+   * contiguously, so only the matching entries are read. The returned map iterates in key order.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} or {@link CompletableFuture#join()} method to block the calling thread:
+   * <pre>
+   *   {@code
+   *   Map<String, String> entries = map.prefixMap("tenant1/").get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the operation is complete in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   map.prefixMap("tenant1/").thenAccept(entries -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param prefix The key prefix.
+   * @return A completable future to be completed with the entries whose keys begin with the prefix.
+   * @throws NullPointerException if {@code prefix} is {@code null}
+   */
+  public CompletableFuture<Map<K, V>> prefixMap(String prefix) {
+    return range(new MapCommands.Range(null, false, null, false, Assert.notNull(prefix, "prefix"), 0));
+  }
+
+  /**
+   * Returns up to {@code limit} entries whose {@link String} keys begin with the given {@code prefix}.
+   *
+   * @param prefix The key prefix.
+   * @param limit  The maximum number of entries to return.
+   * @return A completable future to be completed with the first {@code limit} entries whose keys begin with the prefix.
+   * @throws NullPointerException if {@code prefix} is {@code null}
+   * @throws IllegalArgumentException if {@code limit} is not positive
+   */
+  public CompletableFuture<Map<K, V>> prefixMap(String prefix, int limit) {
+    Assert.arg(limit > 0, "limit must be positive");
+    return range(new MapCommands.Range(null, false, null, false, Assert.notNull(prefix, "prefix"), limit));
+  }
+
+  /**
+   * Returns up to {@code limit} entries whose {@link String} keys begin with the given {@code prefix} and sort after
+   * {@code afterKey}.
+   * <p>
+   * This method pages through the keys with a prefix by passing the last key of the previous page as
+   * {@code afterKey}:
+   * <pre>
+   *   {@code
+   *   Map<String, String> page = map.prefixMap("tenant1/", lastKey, 100).get();
+   *   }
+   * </pre>
+   *
+   * @param prefix   The key prefix.
+   * @param afterKey The key after which to begin reading.
+   * @param limit    The maximum number of entries to return.
+   * @return A completable future to be completed with the next {@code limit} entries whose keys begin with the prefix.
+   * @throws NullPointerException if {@code prefix} or {@code afterKey} is {@code null}
+   * @throws IllegalArgumentException if {@code limit} is not positive
+   */
+  public CompletableFuture<Map<K, V>> prefixMap(String prefix, String afterKey, int limit) {
+    Assert.arg(limit > 0, "limit must be positive");
+    return range(new MapCommands.Range(Assert.notNull(afterKey, "afterKey"), false, null, false, Assert.notNull(prefix, "prefix"), limit));
+  }
+
+  /**
+   * Submits a range query and collects the resulting entries in key order.
+   */
+  @SuppressWarnings("unchecked")
+  private CompletableFuture<Map<K, V>> range(MapCommands.Range range) {
+    return client.submit(range).thenApply(entries -> {
+      Map<K, V> map = new LinkedHashMap<>(entries.size());
+      for (Map.Entry<Object, Object> entry : entries) {
+        map.put((K) entry.getKey(), (V) entry.getValue());
+      }
+      return map;
+    });
+  }
+
   /**
    * Removes all entries from the map.
    * <p>
@@ -1397,11 +2057,16 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
       return this;
     });
 
-    if (options.isLocalCache()) {
-      return future.thenCompose(v -> onAdd(this::onAdd))
-        .thenCompose(v -> onUpdate(this::onUpdate))
-        .thenCompose(v -> onRemove(this::onRemove))
-        .thenApply(v -> this);
+    if (cache != null) {
+      client.onEvent("invalidate", cache::invalidate);
+      client.onEvent("clear", cache::clear);
+
+      // Subscriptions are lost along with the session, so the cache cannot be trusted once disconnected.
+      onStateChange(state -> {
+        if (state != State.CONNECTED) {
+          cache.clear();
+        }
+      });
     }
     return future;
   }
@@ -1422,27 +2087,6 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
     }
   }
 
-  /**
-   * Updates the cache when an entry is added to the map.
-   */
-  private void onAdd(EntryEvent<K, V> event) {
-    cache.put(event.entry.getKey(), event.entry.getValue());
-  }
-
-  /**
-   * Updates the cache when an entry is updated in the map.
-   */
-  private void onUpdate(EntryEvent<K, V> event) {
-    cache.put(event.entry.getKey(), event.entry.getValue());
-  }
-
-  /**
-   * Updates the cache when an entry is removed from the map.
-   */
-  private void onRemove(EntryEvent<K, V> event) {
-    cache.remove(event.entry.getKey());
-  }
-
   /**
    * Distributed queue events.
    */
@@ -15,6 +15,7 @@
  */
 package io.atomix.collections;
 
+import io.atomix.collections.internal.CursorIterator;
 import io.atomix.collections.internal.MultiMapCommands;
 import io.atomix.collections.util.DistributedMultiMapFactory;
 import io.atomix.copycat.client.CopycatClient;
@@ -25,6 +26,8 @@ import io.atomix.resource.ResourceTypeInfo;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 
@@ -95,6 +98,41 @@ public class DistributedMultiMap<K, V> extends AbstractResource<DistributedMulti
     public Order getValueOrder() {
       return Order.valueOf(getProperty("order", Order.INSERT.name().toLowerCase()).toUpperCase());
     }
+
+    /**
+     * Enables the value index.
+     * <p>
+     * When the value index is enabled, each replica of the multimap maintains the set of keys associated with each
+     * value, allowing {@link DistributedMultiMap#containsValue(Object)} to be answered and
+     * {@link DistributedMultiMap#removeValue(Object)} to be applied without scanning the multimap. The index is
+     * maintained incrementally as entries are written and removed, at the cost of additional memory and write time.
+     * Values must implement {@link Object#hashCode()} consistently with {@link Object#equals(Object)}.
+     *
+     * @return The multimap configuration.
+     */
+    public Config withValueIndex() {
+      return withValueIndex(true);
+    }
+
+    /**
+     * Sets whether to enable the value index.
+     *
+     * @param indexValues Whether to enable the value index.
+     * @return The multimap configuration.
+     */
+    public Config withValueIndex(boolean indexValues) {
+      setProperty("index.values", String.valueOf(indexValues));
+      return this;
+    }
+
+    /**
+     * Returns whether the value index is enabled.
+     *
+     * @return Whether the value index is enabled.
+     */
+    public boolean isValueIndex() {
+      return Boolean.parseBoolean(getProperty("index.values", "false"));
+    }
   }
 
   /**
@@ -329,6 +367,35 @@ public class DistributedMultiMap<K, V> extends AbstractResource<DistributedMulti
     return client.submit(new MultiMapCommands.RemoveValue(value));
   }
 
+  /**
+   * Returns an asynchronous iterator over the key/value entries in the multimap.
+   * <p>
+   * Each value associated with a key is returned as a separate entry. The iterator reads the multimap from the
+   * cluster in pages of {@code 1000} entries as it advances rather than reading the entire multimap at once.
+   * <p>
+   * Entries are not read in a stable order across changes to the multimap, so the iterator fails with a
+   * {@link java.util.ConcurrentModificationException} if the multimap is modified between pages in a way that
+   * invalidates its position, or if the next page is read from a server that no longer holds the cursor.
+   *
+   * @return An asynchronous iterator over the entries in the multimap.
+   */
+  public AsyncIterator<Map.Entry<K, V>> cursor() {
+    return cursor(CursorIterator.DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * Returns an asynchronous iterator over the key/value entries in the multimap.
+   *
+   * @param pageSize The number of entries to read from the cluster in each page.
+   * @return An asynchronous iterator over the entries in the multimap.
+   * @throws IllegalArgumentException if {@code pageSize} is not positive
+   */
+  @SuppressWarnings("unchecked")
+  public AsyncIterator<Map.Entry<K, V>> cursor(int pageSize) {
+    return new CursorIterator<>(pageSize, (cursor, position, last, size) -> client.submit(new MultiMapCommands.Cursor(cursor, position, size))
+      .thenApply(entries -> (List<Map.Entry<K, V>>) (List) entries));
+  }
+
   /**
    * Removes all entries from the map.
    *
@@ -17,6 +17,7 @@ package io.atomix.collections;
 
 import java.time.Duration;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -27,6 +28,7 @@ import io.atomix.catalyst.buffer.BufferOutput;
 import io.atomix.catalyst.concurrent.Listener;
 import io.atomix.catalyst.serializer.CatalystSerializable;
 import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.collections.internal.CursorIterator;
 import io.atomix.collections.internal.SetCommands;
 import io.atomix.collections.util.DistributedSetFactory;
 import io.atomix.copycat.client.CopycatClient;
@@ -163,6 +165,35 @@ public class DistributedSet<T> extends AbstractResource<DistributedSet<T>> {
     return client.submit(new SetCommands.Iterator<T>()).thenApply(keys -> ((Set<T>)keys).iterator());
   }
 
+  /**
+   * Returns an asynchronous iterator over the values in the set.
+   * <p>
+   * Unlike {@link #iterator()}, the returned iterator reads the set from the cluster in pages of
+   * {@code 1000} values as it advances rather than reading the entire set at once.
+   * <p>
+   * Values are not read in a stable order across changes to the set, so the iterator fails with a
+   * {@link java.util.ConcurrentModificationException} if the set is modified between pages or the next page is
+   * read from a server that no longer holds the cursor.
+   *
+   * @return An asynchronous iterator over the values in the set.
+   */
+  public AsyncIterator<T> cursor() {
+    return cursor(CursorIterator.DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * Returns an asynchronous iterator over the values in the set.
+   *
+   * @param pageSize The number of values to read from the cluster in each page.
+   * @return An asynchronous iterator over the values in the set.
+   * @throws IllegalArgumentException if {@code pageSize} is not positive
+   */
+  @SuppressWarnings("unchecked")
+  public AsyncIterator<T> cursor(int pageSize) {
+    return new CursorIterator<>(pageSize, (cursor, position, last, size) -> client.submit(new SetCommands.Cursor(cursor, position, size))
+      .thenApply(values -> (List<T>) values));
+  }
+
   /**
    * Removes all values from the set.
    *
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections.internal;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.collections.AsyncIterator;
+
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Asynchronous iterator that reads a collection through a server-side cursor.
+ * <p>
+ * Each cursor is identified by a random ID. Pages are requested by the cursor ID, the number of elements already
+ * read, and the key of the last element read, and a page with fewer elements than the page size marks the end of
+ * the collection. If the server can no longer resume the cursor from that position without skipping or repeating
+ * elements, the page is read as {@code null} and the iterator fails with a {@link ConcurrentModificationException}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class CursorIterator<T> implements AsyncIterator<T> {
+
+  /**
+   * Reads a page of a cursor.
+   */
+  @FunctionalInterface
+  public interface PageReader<T> {
+
+    /**
+     * Reads a page of a cursor.
+     *
+     * @param cursor The cursor ID.
+     * @param position The number of elements already read through the cursor.
+     * @param last The key of the last element read through the cursor, or {@code null} if none has been read.
+     * @param size The maximum number of elements to read.
+     * @return A completable future to be completed with the page, or {@code null} if the cursor cannot be resumed.
+     */
+    CompletableFuture<List<T>> read(long cursor, long position, Object last, int size);
+  }
+
+  /**
+   * The default number of elements to read in each page.
+   */
+  public static final int DEFAULT_PAGE_SIZE = 1000;
+
+  private final long cursor = ThreadLocalRandom.current().nextLong();
+  private final int pageSize;
+  private final Function<? super T, ?> key;
+  private final PageReader<T> reader;
+  private Iterator<T> page = Collections.emptyIterator();
+  private long position;
+  private Object last;
+  private boolean complete;
+
+  /**
+   * Creates an iterator over a collection that cannot be resumed from a key.
+   *
+   * @param pageSize The number of elements to read in each page.
+   * @param reader The page reader.
+   * @throws NullPointerException if {@code reader} is null
+   * @throws IllegalArgumentException if {@code pageSize} is not positive
+   */
+  public CursorIterator(int pageSize, PageReader<T> reader) {
+    this(pageSize, element -> null, reader);
+  }
+
+  /**
+   * @param pageSize The number of elements to read in each page.
+   * @param key A function returning the key from which the cursor is resumed after an element.
+   * @param reader The page reader.
+   * @throws NullPointerException if {@code key} or {@code reader} is null
+   * @throws IllegalArgumentException if {@code pageSize} is not positive
+   */
+  public CursorIterator(int pageSize, Function<? super T, ?> key, PageReader<T> reader) {
+    this.pageSize = Assert.arg(pageSize, pageSize > 0, "pageSize must be positive");
+    this.key = Assert.notNull(key, "key");
+    this.reader = Assert.notNull(reader, "reader");
+  }
+
+  @Override
+  public CompletableFuture<Boolean> hasNext() {
+    if (page.hasNext()) {
+      return CompletableFuture.completedFuture(true);
+    } else if (complete) {
+      return CompletableFuture.completedFuture(false);
+    }
+    return reader.read(cursor, position, last, pageSize).thenApply(elements -> {
+      if (elements == null) {
+        throw new ConcurrentModificationException("cursor cannot be resumed after the collection was modified");
+      }
+      position += elements.size();
+      complete = elements.size() < pageSize;
+      if (!elements.isEmpty()) {
+        last = key.apply(elements.get(elements.size() - 1));
+      }
+      page = elements.iterator();
+      return page.hasNext();
+    });
+  }
+
+  @Override
+  public CompletableFuture<T> next() {
+    return hasNext().thenApply(hasNext -> {
+      if (!hasNext) {
+        throw new NoSuchElementException();
+      }
+      return page.next();
+    });
+  }
+
+  @Override
+  public CompletableFuture<Void> forEach(Consumer<? super T> action) {
+    Assert.notNull(action, "action");
+    return hasNext().thenCompose(hasNext -> {
+      if (!hasNext) {
+        return CompletableFuture.completedFuture(null);
+      }
+      while (page.hasNext()) {
+        action.accept(page.next());
+      }
+      return forEach(action);
+    });
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections.internal;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Server-side cache of open collection cursors.
+ * <p>
+ * A cursor reads a collection one page at a time so that large collections are never copied or sent in a single
+ * response. Cursors are identified by a client-generated ID, and each page request carries the number of elements
+ * already read through the cursor and the key of the last element read, which together form the cursor's
+ * continuation token. The iterator that served a page is kept open so that the next page at the same position
+ * resumes where the previous one stopped.
+ * <p>
+ * Open iterators are only a local optimization and are not part of the replicated state. A page requested from a
+ * server that does not hold the cursor, from a cursor that was evicted, or after the collection was modified, is
+ * resumed from the last key read if the collection supports it, as sorted maps do with {@code tailMap}. Otherwise,
+ * the cursor's position cannot be resumed without skipping or repeating elements, and the page is read as
+ * {@code null} so that the client fails the cursor rather than returning wrong results. Only a bounded number of
+ * the most recently used cursors are kept open, and a cursor is discarded once it has been exhausted.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class Cursors {
+  private static final int MAX_CURSORS = 64;
+
+  private final Map<Long, Cursor> cursors = new LinkedHashMap<Long, Cursor>(16, .75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, Cursor> eldest) {
+      return size() > MAX_CURSORS;
+    }
+  };
+
+  /**
+   * Reads the next page of a cursor.
+   * <p>
+   * Open iterators over the collection must be fail-fast, so that reading from an iterator over a collection that
+   * has been modified since the previous page throws {@link ConcurrentModificationException}.
+   *
+   * @param id The cursor ID.
+   * @param position The number of elements already read through the cursor.
+   * @param last The key of the last element read through the cursor, or {@code null} if no element has been read.
+   * @param size The maximum number of elements to read.
+   * @param source The collection being iterated, used to detect a collection that has been replaced.
+   * @param iterator A supplier of new iterators over the collection.
+   * @param resume A function returning an iterator over the elements following a key, or {@code null} if the key is
+   *               no longer in the collection, or {@code null} if the collection cannot be resumed from a key.
+   * @param mapper A function with which to convert elements to their result.
+   * @return The next page of up to {@code size} elements, or {@code null} if the cursor cannot be resumed. A page
+   *         with fewer than {@code size} elements is the last.
+   */
+  @SuppressWarnings("unchecked")
+  <T, R> List<R> next(long id, long position, Object last, int size, Object source, Supplier<Iterator<T>> iterator, Function<Object, Iterator<T>> resume, Function<? super T, ? extends R> mapper) {
+    Cursor cursor = cursors.remove(id);
+    if (cursor == null || cursor.source != source || cursor.position != position) {
+      Iterator<T> resumed = position == 0 ? iterator.get() : resume(last, resume);
+      if (resumed == null) {
+        return null;
+      }
+      cursor = new Cursor(source, resumed);
+    }
+
+    List<R> page = new ArrayList<>(size);
+    while (page.size() < size) {
+      try {
+        if (!cursor.iterator.hasNext()) {
+          return page;
+        }
+        page.add(mapper.apply((T) cursor.iterator.next()));
+      } catch (ConcurrentModificationException e) {
+        // The collection was modified since the previous page was read. Modifications are only applied between
+        // pages, so no element of this page has been read yet.
+        Iterator<T> resumed = position == 0 ? iterator.get() : resume(last, resume);
+        if (resumed == null) {
+          return null;
+        }
+        cursor.iterator = resumed;
+      }
+    }
+
+    cursor.position = position + page.size();
+    cursors.put(id, cursor);
+    return page;
+  }
+
+  /**
+   * Closes all open cursors.
+   */
+  void clear() {
+    cursors.clear();
+  }
+
+  /**
+   * Returns an iterator over the elements following the given key, or {@code null} if the cursor cannot be resumed.
+   */
+  private static <T> Iterator<T> resume(Object last, Function<Object, Iterator<T>> resume) {
+    return resume != null ? resume.apply(last) : null;
+  }
+
+  /**
+   * Returns an iterator over the entries following the given key in an iterator, or {@code null} if the key is not
+   * found.
+   * <p>
+   * This is used to resume cursors over collections that are iterated in a stable order but cannot seek to a key,
+   * such as insertion ordered maps, and costs a scan of the entries up to the key.
+   *
+   * @param iterator An iterator over the collection's entries.
+   * @param key The key to find.
+   * @return The iterator advanced past the key, or {@code null} if the key is not found.
+   */
+  static <K, V> Iterator<Map.Entry<K, V>> after(Iterator<Map.Entry<K, V>> iterator, Object key) {
+    while (iterator.hasNext()) {
+      if (iterator.next().getKey().equals(key)) {
+        return iterator;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Open cursor.
+   */
+  private static final class Cursor {
+    private final Object source;
+    private Iterator<?> iterator;
+    private long position;
+
+    private Cursor(Object source, Iterator<?> iterator) {
+      this.source = source;
+      this.iterator = iterator;
+    }
+  }
+
+}
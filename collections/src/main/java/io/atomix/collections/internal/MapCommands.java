@@ -26,7 +26,11 @@ import io.atomix.collections.DistributedMap;
 import io.atomix.copycat.Command;
 import io.atomix.copycat.Query;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -619,6 +623,429 @@ public class MapCommands {
     }
   }
 
+  /**
+   * Get all query.
+   * <p>
+   * Reads multiple keys in a single query. The output maps each key that is present in the map to its value.
+   */
+  public static class GetAll extends MapQuery<Map<Object, Object>> {
+    private Collection<Object> keys;
+
+    public GetAll() {
+    }
+
+    public GetAll(Collection<?> keys) {
+      this.keys = copyKeys(keys);
+    }
+
+    public GetAll(Collection<?> keys, ConsistencyLevel consistency) {
+      super(consistency);
+      this.keys = copyKeys(keys);
+    }
+
+    /**
+     * Returns the keys to get.
+     */
+    public Collection<Object> keys() {
+      return keys;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      writeKeys(keys, buffer, serializer);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      keys = readKeys(buffer, serializer);
+    }
+  }
+
+  /**
+   * Put all command.
+   * <p>
+   * Writes multiple entries in a single commit. The output maps each key that was present in the map before the
+   * command was applied to its previous value.
+   */
+  public static class PutAll extends MapCommand<Map<Object, Object>> {
+    private Map<Object, Object> entries;
+    private long ttl;
+
+    public PutAll() {
+    }
+
+    public PutAll(Map<?, ?> entries, long ttl) {
+      this.entries = new LinkedHashMap<>(Assert.notNull(entries, "entries"));
+      this.entries.keySet().forEach(key -> Assert.notNull(key, "key"));
+      this.ttl = ttl;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return ttl > 0 ? CompactionMode.EXPIRING : CompactionMode.QUORUM;
+    }
+
+    /**
+     * Returns the entries to put.
+     */
+    public Map<Object, Object> entries() {
+      return entries;
+    }
+
+    /**
+     * Returns the time to live in milliseconds.
+     *
+     * @return The time to live in milliseconds.
+     */
+    public long ttl() {
+      return ttl;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeLong(ttl);
+      buffer.writeInt(entries.size());
+      for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+        serializer.writeObject(entry.getKey(), buffer);
+        serializer.writeObject(entry.getValue(), buffer);
+      }
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      ttl = buffer.readLong();
+      int size = buffer.readInt();
+      entries = new LinkedHashMap<>(size);
+      for (int i = 0; i < size; i++) {
+        entries.put(serializer.readObject(buffer), serializer.readObject(buffer));
+      }
+    }
+  }
+
+  /**
+   * Remove all command.
+   * <p>
+   * Removes multiple keys in a single commit. The output maps each removed key to the value it was removed with.
+   */
+  public static class RemoveAll extends MapCommand<Map<Object, Object>> {
+    private Collection<Object> keys;
+
+    public RemoveAll() {
+    }
+
+    public RemoveAll(Collection<?> keys) {
+      this.keys = copyKeys(keys);
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.SEQUENTIAL;
+    }
+
+    /**
+     * Returns the keys to remove.
+     */
+    public Collection<Object> keys() {
+      return keys;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      writeKeys(keys, buffer, serializer);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      keys = readKeys(buffer, serializer);
+    }
+  }
+
+  /**
+   * Key range query.
+   * <p>
+   * Reads the entries of a sorted map between two optional bounds in key order. If a prefix is provided, only
+   * {@link String} keys beginning with the prefix are returned. A positive limit bounds the number of entries
+   * returned, allowing large ranges to be paged by starting the next query after the last key read.
+   */
+  public static class Range extends MapQuery<List<Map.Entry<Object, Object>>> {
+    private Object fromKey;
+    private boolean fromInclusive;
+    private Object toKey;
+    private boolean toInclusive;
+    private String prefix;
+    private int limit;
+
+    public Range() {
+    }
+
+    public Range(Object fromKey, boolean fromInclusive, Object toKey, boolean toInclusive, String prefix, int limit) {
+      Assert.argNot(limit < 0, "limit cannot be negative");
+      this.fromKey = fromKey;
+      this.fromInclusive = fromInclusive;
+      this.toKey = toKey;
+      this.toInclusive = toInclusive;
+      this.prefix = prefix;
+      this.limit = limit;
+    }
+
+    /**
+     * Returns the lower bound of the range, or {@code null} if the range has no lower bound.
+     */
+    public Object fromKey() {
+      return fromKey;
+    }
+
+    /**
+     * Returns whether the lower bound is included in the range.
+     */
+    public boolean fromInclusive() {
+      return fromInclusive;
+    }
+
+    /**
+     * Returns the upper bound of the range, or {@code null} if the range has no upper bound.
+     */
+    public Object toKey() {
+      return toKey;
+    }
+
+    /**
+     * Returns whether the upper bound is included in the range.
+     */
+    public boolean toInclusive() {
+      return toInclusive;
+    }
+
+    /**
+     * Returns the required key prefix, or {@code null} if keys are not filtered by prefix.
+     */
+    public String prefix() {
+      return prefix;
+    }
+
+    /**
+     * Returns the maximum number of entries to read, or {@code 0} if the range is unbounded.
+     */
+    public int limit() {
+      return limit;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      serializer.writeObject(fromKey, buffer);
+      buffer.writeBoolean(fromInclusive);
+      serializer.writeObject(toKey, buffer);
+      buffer.writeBoolean(toInclusive);
+      serializer.writeObject(prefix, buffer);
+      buffer.writeInt(limit);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      fromKey = serializer.readObject(buffer);
+      fromInclusive = buffer.readBoolean();
+      toKey = serializer.readObject(buffer);
+      toInclusive = buffer.readBoolean();
+      prefix = serializer.readObject(buffer);
+      limit = buffer.readInt();
+    }
+  }
+
+  /**
+   * First key query.
+   */
+  public static class FirstKey extends MapQuery<Object> {
+    public FirstKey() {
+    }
+
+    public FirstKey(ConsistencyLevel consistency) {
+      super(consistency);
+    }
+  }
+
+  /**
+   * Last key query.
+   */
+  public static class LastKey extends MapQuery<Object> {
+    public LastKey() {
+    }
+
+    public LastKey(ConsistencyLevel consistency) {
+      super(consistency);
+    }
+  }
+
+  /**
+   * Floor entry query.
+   */
+  public static class FloorEntry extends KeyQuery<Map.Entry<Object, Object>> {
+    public FloorEntry() {
+    }
+
+    public FloorEntry(Object key) {
+      super(key);
+    }
+
+    public FloorEntry(Object key, ConsistencyLevel consistency) {
+      super(key, consistency);
+    }
+  }
+
+  /**
+   * Ceiling entry query.
+   */
+  public static class CeilingEntry extends KeyQuery<Map.Entry<Object, Object>> {
+    public CeilingEntry() {
+    }
+
+    public CeilingEntry(Object key) {
+      super(key);
+    }
+
+    public CeilingEntry(Object key, ConsistencyLevel consistency) {
+      super(key, consistency);
+    }
+  }
+
+  /**
+   * Cursor query.
+   * <p>
+   * Reads the next page of entries through a cursor. The cursor's position is the number of entries already read
+   * through it, and a page with fewer than {@code size} entries is the last.
+   */
+  public static class Cursor extends MapQuery<List<Map.Entry<Object, Object>>> {
+    private long cursor;
+    private long position;
+    private Object last;
+    private int size;
+
+    public Cursor() {
+    }
+
+    public Cursor(long cursor, long position, Object last, int size) {
+      this.cursor = cursor;
+      this.position = Assert.argNot(position, position < 0, "position cannot be negative");
+      this.last = last;
+      this.size = Assert.arg(size, size > 0, "size must be positive");
+    }
+
+    /**
+     * Returns the cursor ID.
+     */
+    public long cursor() {
+      return cursor;
+    }
+
+    /**
+     * Returns the number of entries already read through the cursor.
+     */
+    public long position() {
+      return position;
+    }
+
+    /**
+     * Returns the key of the last entry read through the cursor, or {@code null} if no entry has been read.
+     */
+    public Object last() {
+      return last;
+    }
+
+    /**
+     * Returns the maximum number of entries to read.
+     */
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(cursor).writeLong(position).writeInt(size);
+      buffer.writeBoolean(last != null);
+      if (last != null) {
+        serializer.writeObject(last, buffer);
+      }
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      cursor = buffer.readLong();
+      position = buffer.readLong();
+      size = buffer.readInt();
+      last = buffer.readBoolean() ? serializer.readObject(buffer) : null;
+    }
+  }
+
+  /**
+   * Copies a collection of keys, checking that no key is null.
+   */
+  private static Collection<Object> copyKeys(Collection<?> keys) {
+    Collection<Object> copy = new ArrayList<>(Assert.notNull(keys, "keys"));
+    copy.forEach(key -> Assert.notNull(key, "key"));
+    return copy;
+  }
+
+  /**
+   * Writes a collection of keys to the given buffer.
+   */
+  private static void writeKeys(Collection<Object> keys, BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeInt(keys.size());
+    for (Object key : keys) {
+      serializer.writeObject(key, buffer);
+    }
+  }
+
+  /**
+   * Reads a collection of keys from the given buffer.
+   */
+  private static Collection<Object> readKeys(BufferInput<?> buffer, Serializer serializer) {
+    int size = buffer.readInt();
+    Collection<Object> keys = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      keys.add(serializer.readObject(buffer));
+    }
+    return keys;
+  }
+
+  /**
+   * Cache get command.
+   * <p>
+   * Reads the value of a key and subscribes the session to a single invalidation of the key. The subscription is
+   * retained until the key changes, the session releases it via {@link Uncache}, or the session is closed.
+   */
+  public static class CacheGet extends KeyCommand<Object> {
+    public CacheGet() {
+    }
+
+    public CacheGet(Object key) {
+      super(key);
+    }
+  }
+
+  /**
+   * Uncache command.
+   * <p>
+   * Releases a session's subscription to invalidations of a key that is no longer cached by the session.
+   */
+  public static class Uncache extends KeyCommand<Void> {
+    public Uncache() {
+    }
+
+    public Uncache(Object key) {
+      super(key);
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.TOMBSTONE;
+    }
+  }
+
   /**
    * Map command type resolver.
    */
@@ -644,6 +1071,17 @@ public class MapCommands {
       registry.register(DistributedMap.EntryEvent.class, -78);
       registry.register(KeyListen.class, -168);
       registry.register(KeyUnlisten.class, -169);
+      registry.register(CacheGet.class, -134);
+      registry.register(Uncache.class, -135);
+      registry.register(GetAll.class, -136);
+      registry.register(PutAll.class, -141);
+      registry.register(RemoveAll.class, -142);
+      registry.register(Range.class, -146);
+      registry.register(FirstKey.class, -147);
+      registry.register(LastKey.class, -148);
+      registry.register(FloorEntry.class, -149);
+      registry.register(CeilingEntry.class, -150);
+      registry.register(Cursor.class, -151);
     }
   }
 
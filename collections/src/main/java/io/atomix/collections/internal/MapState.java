@@ -16,12 +16,14 @@
 package io.atomix.collections.internal;
 
 import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.collections.DistributedMap;
 import io.atomix.copycat.server.Commit;
 import io.atomix.copycat.server.session.ServerSession;
 import io.atomix.resource.ResourceStateMachine;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Function;
 
 import static io.atomix.collections.DistributedMap.EntryEvent;
 import static io.atomix.collections.DistributedMap.Events;
@@ -32,15 +34,51 @@ import static io.atomix.collections.DistributedMap.Events;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class MapState extends ResourceStateMachine {
-  private final Map<Object, Value> map = new HashMap<>();
+  private final DistributedMap.Order order;
+  private Map<Object, Value> map;
+  private Map<Object, Integer> index;
   private final Map<Object, Map<Integer, Map<Long, Commit<MapCommands.KeyListen>>>> listeners = new HashMap<>();
+  private final Map<Object, Map<Long, Commit<MapCommands.CacheGet>>> cached = new HashMap<>();
+  private final Map<Long, Set<Object>> cachedKeys = new HashMap<>();
+  private final Cursors cursors = new Cursors();
 
   public MapState(Properties config) {
     super(config);
+    this.order = DistributedMap.Order.valueOf(config.getProperty("order", DistributedMap.Order.NONE.name().toLowerCase()).toUpperCase());
+    this.map = createMap();
+    if (Boolean.parseBoolean(config.getProperty("index.values", "false"))) {
+      this.index = new HashMap<>();
+    }
+  }
+
+  /**
+   * Creates a new map for the configured key order.
+   */
+  private Map<Object, Value> createMap() {
+    switch (order) {
+      case NATURAL:
+        return new TreeMap<>();
+      case INSERT:
+        return new LinkedHashMap<>();
+      default:
+        return new HashMap<>();
+    }
   }
 
   @Override
   public void close(ServerSession session) {
+    // Remove the session's cache subscriptions.
+    Set<Object> keys = cachedKeys.remove(session.id());
+    if (keys != null) {
+      for (Object key : keys) {
+        Map<Long, Commit<MapCommands.CacheGet>> sessions = cached.get(key);
+        sessions.remove(session.id()).release();
+        if (sessions.isEmpty()) {
+          cached.remove(key);
+        }
+      }
+    }
+
     // Remove the session from event listeners.
     Iterator<Map.Entry<Object, Map<Integer, Map<Long, Commit<MapCommands.KeyListen>>>>> keyIterator = listeners.entrySet().iterator();
     while (keyIterator.hasNext()) {
@@ -63,6 +101,21 @@ public class MapState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Notifies clients of an entry event if any client is listening for the key or event type.
+   * <p>
+   * Sessions that cache the key are sent an invalidation regardless of the event type.
+   * <p>
+   * The event is only constructed if it will be published, so operations on maps without
+   * listeners do not allocate events.
+   */
+  private void notify(Events type, Object key, Object value) {
+    invalidate(key);
+    if (listeners.containsKey(key) || hasListeners(type)) {
+      notify(new EntryEvent<>(type, new MapEntry<>(key, value)));
+    }
+  }
+
   /**
    * Notifies clients of an entry event.
    *
@@ -120,6 +173,85 @@ public class MapState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Sends an invalidation to each session that caches the given key and releases the sessions' subscriptions.
+   */
+  private void invalidate(Object key) {
+    Map<Long, Commit<MapCommands.CacheGet>> sessions = cached.remove(key);
+    if (sessions != null) {
+      for (Commit<MapCommands.CacheGet> commit : sessions.values()) {
+        Set<Object> keys = cachedKeys.get(commit.session().id());
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          cachedKeys.remove(commit.session().id());
+        }
+        commit.session().publish("invalidate", key);
+        commit.release();
+      }
+    }
+  }
+
+  /**
+   * Sends a single invalidation of all keys to each session that caches any key and releases all subscriptions.
+   */
+  private void invalidateAll() {
+    for (Map<Long, Commit<MapCommands.CacheGet>> sessions : cached.values()) {
+      for (Commit<MapCommands.CacheGet> commit : sessions.values()) {
+        if (cachedKeys.remove(commit.session().id()) != null) {
+          commit.session().publish("clear");
+        }
+        commit.release();
+      }
+    }
+    cached.clear();
+  }
+
+  /**
+   * Reads a key and subscribes the session to the next change to the key.
+   * <p>
+   * The value is read in the same commit that registers the subscription, so a session that caches the value
+   * is guaranteed to be sent an invalidation for any later change to the key. Subscriptions are one-shot: the
+   * commit is released once the invalidation has been sent, and the session must read the key again to
+   * resubscribe.
+   */
+  public Object cacheGet(Commit<MapCommands.CacheGet> commit) {
+    Object key = commit.operation().key();
+    Map<Long, Commit<MapCommands.CacheGet>> sessions = cached.computeIfAbsent(key, k -> new HashMap<>());
+    if (sessions.putIfAbsent(commit.session().id(), commit) == null) {
+      cachedKeys.computeIfAbsent(commit.session().id(), id -> new HashSet<>()).add(key);
+    } else {
+      commit.release();
+    }
+
+    Value value = map.get(key);
+    return value != null ? value.value : null;
+  }
+
+  /**
+   * Releases a session's subscription to a key it no longer caches.
+   */
+  public void uncache(Commit<MapCommands.Uncache> commit) {
+    try {
+      Map<Long, Commit<MapCommands.CacheGet>> sessions = cached.get(commit.operation().key());
+      if (sessions != null) {
+        Commit<MapCommands.CacheGet> cache = sessions.remove(commit.session().id());
+        if (cache != null) {
+          cache.release();
+          if (sessions.isEmpty()) {
+            cached.remove(commit.operation().key());
+          }
+          Set<Object> keys = cachedKeys.get(commit.session().id());
+          keys.remove(commit.operation().key());
+          if (keys.isEmpty()) {
+            cachedKeys.remove(commit.session().id());
+          }
+        }
+      }
+    } finally {
+      commit.release();
+    }
+  }
+
   /**
    * Handles a contains key commit.
    */
@@ -133,11 +265,17 @@ public class MapState extends ResourceStateMachine {
 
   /**
    * Handles a contains value commit.
+   * <p>
+   * If the map is configured with a value index, the value is looked up in the index. Otherwise, all values in the
+   * map are scanned.
    */
   public boolean containsValue(Commit<MapCommands.ContainsValue> commit) {
     try {
+      if (index != null) {
+        return index.containsKey(commit.operation().value());
+      }
       for (Value value : map.values()) {
-        if (value.commit.operation().value().equals(commit.operation().value())) {
+        if (Objects.equals(value.value, commit.operation().value())) {
           return true;
         }
       }
@@ -153,7 +291,7 @@ public class MapState extends ResourceStateMachine {
   public Object get(Commit<MapCommands.Get> commit) {
     try {
       Value value = map.get(commit.operation().key());
-      return value != null ? value.commit.operation().value() : null;
+      return value != null ? value.value : null;
     } finally {
       commit.close();
     }
@@ -165,12 +303,67 @@ public class MapState extends ResourceStateMachine {
   public Object getOrDefault(Commit<MapCommands.GetOrDefault> commit) {
     try {
       Value value = map.get(commit.operation().key());
-      return value != null ? value.commit.operation().value() : commit.operation().defaultValue();
+      return value != null ? value.value : commit.operation().defaultValue();
     } finally {
       commit.close();
     }
   }
 
+  /**
+   * Puts an entry in the map, updating the value index if one is configured.
+   */
+  private Value putEntry(Object key, Value value) {
+    Value previous = map.put(key, value);
+    if (index != null) {
+      if (previous != null) {
+        unindex(previous.value);
+      }
+      index.merge(value.value, 1, Integer::sum);
+    }
+    return previous;
+  }
+
+  /**
+   * Removes an entry from the map, updating the value index if one is configured.
+   */
+  private Value removeEntry(Object key) {
+    Value removed = map.remove(key);
+    if (removed != null && index != null) {
+      unindex(removed.value);
+    }
+    return removed;
+  }
+
+  /**
+   * Decrements the count of a value in the value index, removing the value once no key maps to it.
+   */
+  private void unindex(Object value) {
+    index.computeIfPresent(value, (v, count) -> count > 1 ? count - 1 : null);
+  }
+
+  /**
+   * Schedules the removal of a key once its TTL expires.
+   * <p>
+   * Entries detached from the map by a clear or delete are reclaimed incrementally, so their timers may
+   * still fire. The timer only removes the key if the map has not been detached since it was scheduled.
+   */
+  private Scheduled expire(Object key, long ttl) {
+    if (ttl <= 0) {
+      return null;
+    }
+
+    final Map<Object, Value> map = this.map;
+    return executor.schedule(Duration.ofMillis(ttl), () -> {
+      if (map == this.map) {
+        Value removed = removeEntry(key);
+        if (removed != null) {
+          notify(Events.REMOVE, key, removed.value);
+          removed.commit.release();
+        }
+      }
+    });
+  }
+
   /**
    * Handles a put commit.
    */
@@ -179,26 +372,20 @@ public class MapState extends ResourceStateMachine {
       final Object key = commit.command().key();
       final long ttl = commit.command().ttl();
 
-      final Scheduled timer = ttl > 0 ? executor.schedule(Duration.ofMillis(ttl), () -> {
-        Value removed = map.remove(key);
-        if (removed != null) {
-          notify(new EntryEvent<>(Events.REMOVE, new MapEntry<>(key, removed.commit.command().value())));
-          removed.commit.close();
-        }
-      }) : null;
+      final Scheduled timer = expire(key, ttl);
 
-      Value value = map.put(key, new Value(commit, timer));
+      Value value = putEntry(key, new Value(commit, commit.operation().value(), timer));
       if (value != null) {
         try {
           if (value.timer != null)
             value.timer.cancel();
-          notify(new EntryEvent<>(Events.UPDATE, new MapEntry<>(key, commit.operation().value())));
-          return value.commit.operation().value();
+          notify(Events.UPDATE, key, commit.operation().value());
+          return value.value;
         } finally {
-          value.commit.close();
+          value.commit.release();
         }
       } else {
-        notify(new EntryEvent<>(Events.ADD, new MapEntry<>(key, commit.operation().value())));
+        notify(Events.ADD, key, commit.operation().value());
       }
       return null;
     } catch (Exception e) {
@@ -217,20 +404,14 @@ public class MapState extends ResourceStateMachine {
 
       final Value value = map.get(key);
       if (value == null) {
-        final Scheduled timer = ttl > 0 ? executor.schedule(Duration.ofMillis(ttl), () -> {
-          Value removed = map.remove(key);
-          if (removed != null) {
-            notify(new EntryEvent<>(Events.REMOVE, new MapEntry<>(key, removed.commit.command().value())));
-            removed.commit.close();
-          }
-        }) : null;
+        final Scheduled timer = expire(key, ttl);
 
-        map.put(key, new Value(commit, timer));
-        notify(new EntryEvent<>(Events.ADD, new MapEntry<>(key, commit.command().value())));
+        putEntry(key, new Value(commit, commit.operation().value(), timer));
+        notify(Events.ADD, key, commit.command().value());
         return null;
       } else {
         commit.close();
-        return value.commit.command().value();
+        return value.value;
       }
     } catch (Exception e) {
       commit.close();
@@ -243,15 +424,15 @@ public class MapState extends ResourceStateMachine {
    */
   public Object remove(Commit<MapCommands.Remove> commit) {
     try {
-      Value value = map.remove(commit.operation().key());
+      Value value = removeEntry(commit.operation().key());
       if (value != null) {
         try {
           if (value.timer != null)
             value.timer.cancel();
-          notify(new EntryEvent<>(Events.REMOVE, new MapEntry<>(value.commit.operation().key(), value.commit.operation().value())));
-          return value.commit.operation().value();
+          notify(Events.REMOVE, commit.operation().key(), value.value);
+          return value.value;
         } finally {
-          value.commit.close();
+          value.commit.release();
         }
       }
       return null;
@@ -266,18 +447,18 @@ public class MapState extends ResourceStateMachine {
   public boolean removeIfPresent(Commit<MapCommands.RemoveIfPresent> commit) {
     try {
       Value value = map.get(commit.operation().key());
-      if (value == null || ((value.commit.operation().value() == null && commit.operation().value() != null)
-        || (value.commit.operation().value() != null && !value.commit.operation().value().equals(commit.operation().value())))) {
+      if (value == null || ((value.value == null && commit.operation().value() != null)
+        || (value.value != null && !value.value.equals(commit.operation().value())))) {
         return false;
       } else {
         try {
-          map.remove(commit.operation().key());
+          removeEntry(commit.operation().key());
           if (value.timer != null)
             value.timer.cancel();
-          notify(new EntryEvent<>(Events.REMOVE, new MapEntry<>(value.commit.operation().key(), value.commit.operation().value())));
+          notify(Events.REMOVE, commit.operation().key(), value.value);
           return true;
         } finally {
-          value.commit.close();
+          value.commit.release();
         }
       }
     } finally {
@@ -298,19 +479,13 @@ public class MapState extends ResourceStateMachine {
         if (value.timer != null)
           value.timer.cancel();
 
-        final Scheduled timer = ttl > 0 ? executor.schedule(Duration.ofMillis(ttl), () -> {
-          Value removed = map.remove(key);
-          if (removed != null) {
-            notify(new EntryEvent<>(Events.REMOVE, new MapEntry<>(key, removed.commit.command().value())));
-            removed.commit.close();
-          }
-        }) : null;
+        final Scheduled timer = expire(key, ttl);
 
-        map.put(key, new Value(commit, timer));
-        notify(new EntryEvent<>(Events.UPDATE, new MapEntry<>(key, commit.command().value())));
-        return value.commit.operation().value();
+        putEntry(key, new Value(commit, commit.operation().value(), timer));
+        notify(Events.UPDATE, key, commit.command().value());
+        return value.value;
       } finally {
-        value.commit.close();
+        value.commit.release();
       }
     } else {
       commit.close();
@@ -330,23 +505,17 @@ public class MapState extends ResourceStateMachine {
       return false;
     }
 
-    if ((value.commit.operation().value() == null && commit.operation().replace() == null)
-      || (value.commit.operation().value() != null && value.commit.operation().value().equals(commit.operation().replace()))) {
+    if ((value.value == null && commit.operation().replace() == null)
+      || (value.value != null && value.value.equals(commit.operation().replace()))) {
       if (value.timer != null)
         value.timer.cancel();
 
       final long ttl = commit.command().ttl();
-      final Scheduled timer = ttl > 0 ? executor.schedule(Duration.ofMillis(ttl), () -> {
-        Value removed = map.remove(key);
-        if (removed != null) {
-          notify(new EntryEvent<>(Events.REMOVE, new MapEntry<>(key, removed.commit.command().value())));
-          removed.commit.close();
-        }
-      }) : null;
+      final Scheduled timer = expire(key, ttl);
 
-      map.put(key, new Value(commit, timer));
-      notify(new EntryEvent<>(Events.UPDATE, new MapEntry<>(key, commit.operation().value())));
-      value.commit.close();
+      putEntry(key, new Value(commit, commit.operation().value(), timer));
+      notify(Events.UPDATE, key, commit.operation().value());
+      value.commit.release();
       return true;
     } else {
       commit.close();
@@ -354,6 +523,270 @@ public class MapState extends ResourceStateMachine {
     return false;
   }
 
+  /**
+   * Handles a get all query.
+   */
+  public Map<Object, Object> getAll(Commit<MapCommands.GetAll> commit) {
+    try {
+      Collection<Object> keys = commit.operation().keys();
+      Map<Object, Object> results = new HashMap<>(keys.size());
+      for (Object key : keys) {
+        Value value = map.get(key);
+        if (value != null) {
+          results.put(key, value.value);
+        }
+      }
+      return results;
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles a put all commit.
+   * <p>
+   * Each entry written by the commit holds its own reference to the commit, so the commit is retained until every
+   * entry it wrote has been overwritten, removed, or expired.
+   */
+  public Map<Object, Object> putAll(Commit<MapCommands.PutAll> commit) {
+    Map<Object, Object> entries = commit.operation().entries();
+    long ttl = commit.operation().ttl();
+
+    // Validate every key before changing the map so that an invalid key fails the operation as a whole
+    // rather than leaving it partially applied.
+    try {
+      checkKeys(entries.keySet());
+    } catch (RuntimeException e) {
+      commit.close();
+      throw e;
+    }
+
+    if (entries.isEmpty()) {
+      commit.close();
+      return new HashMap<>();
+    }
+
+    for (int i = 1; i < entries.size(); i++) {
+      commit.acquire();
+    }
+
+    int remaining = entries.size();
+    try {
+      Map<Object, Object> previous = new HashMap<>();
+      for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+        Object key = entry.getKey();
+        Value value = putEntry(key, new Value(commit, entry.getValue(), expire(key, ttl)));
+        remaining--;
+        if (value != null) {
+          previous.put(key, value.value);
+          value.release();
+          notify(Events.UPDATE, key, entry.getValue());
+        } else {
+          notify(Events.ADD, key, entry.getValue());
+        }
+      }
+      return previous;
+    } catch (RuntimeException e) {
+      // Release the references held for entries that were not stored in the map.
+      for (int i = 0; i < remaining; i++) {
+        commit.release();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Checks that the given keys can be stored in the map.
+   * <p>
+   * Keys of a naturally ordered map must be comparable to each other and to the keys already in the map.
+   */
+  @SuppressWarnings("unchecked")
+  private void checkKeys(Collection<Object> keys) {
+    Object reference = order == DistributedMap.Order.NATURAL && !map.isEmpty() ? sorted().firstKey() : null;
+    for (Object key : keys) {
+      if (key == null) {
+        throw new NullPointerException("key cannot be null");
+      }
+      if (order == DistributedMap.Order.NATURAL) {
+        if (!(key instanceof Comparable)) {
+          throw new IllegalArgumentException("key is not comparable: " + key);
+        }
+        if (reference == null) {
+          reference = key;
+        }
+        try {
+          ((Comparable<Object>) key).compareTo(reference);
+        } catch (ClassCastException e) {
+          throw new IllegalArgumentException("key is not comparable to the keys in the map: " + key);
+        }
+      }
+    }
+  }
+
+  /**
+   * Handles a remove all commit.
+   */
+  public Map<Object, Object> removeAll(Commit<MapCommands.RemoveAll> commit) {
+    try {
+      Map<Object, Object> removed = new HashMap<>();
+      for (Object key : commit.operation().keys()) {
+        Value value = removeEntry(key);
+        if (value != null) {
+          removed.put(key, value.value);
+          value.release();
+          notify(Events.REMOVE, key, value.value);
+        }
+      }
+      return removed;
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles a key range query.
+   */
+  @SuppressWarnings("unchecked")
+  public List<Map.Entry<Object, Object>> range(Commit<MapCommands.Range> commit) {
+    try {
+      NavigableMap<Object, Value> map = sorted();
+      MapCommands.Range range = commit.operation();
+
+      // A prefix raises the lower bound to the prefix itself, since no key sorting before it can match.
+      Object fromKey = range.fromKey();
+      boolean fromInclusive = range.fromInclusive();
+      String prefix = range.prefix();
+      if (prefix != null && (fromKey == null || ((Comparable<Object>) fromKey).compareTo(prefix) < 0)) {
+        fromKey = prefix;
+        fromInclusive = true;
+      }
+
+      Object toKey = range.toKey();
+      NavigableMap<Object, Value> entries;
+      if (fromKey != null && toKey != null) {
+        if (((Comparable<Object>) fromKey).compareTo(toKey) > 0) {
+          return new ArrayList<>(0);
+        }
+        entries = map.subMap(fromKey, fromInclusive, toKey, range.toInclusive());
+      } else if (fromKey != null) {
+        entries = map.tailMap(fromKey, fromInclusive);
+      } else if (toKey != null) {
+        entries = map.headMap(toKey, range.toInclusive());
+      } else {
+        entries = map;
+      }
+
+      List<Map.Entry<Object, Object>> results = new ArrayList<>(range.limit() > 0 ? Math.min(range.limit(), entries.size()) : entries.size());
+      for (Map.Entry<Object, Value> entry : entries.entrySet()) {
+        if (prefix != null && !(entry.getKey() instanceof String && ((String) entry.getKey()).startsWith(prefix))) {
+          break;
+        }
+        results.add(new MapEntry<>(entry.getKey(), entry.getValue().value));
+        if (results.size() == range.limit()) {
+          break;
+        }
+      }
+      return results;
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles a first key query.
+   */
+  public Object firstKey(Commit<MapCommands.FirstKey> commit) {
+    try {
+      NavigableMap<Object, Value> map = sorted();
+      return map.isEmpty() ? null : map.firstKey();
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles a last key query.
+   */
+  public Object lastKey(Commit<MapCommands.LastKey> commit) {
+    try {
+      NavigableMap<Object, Value> map = sorted();
+      return map.isEmpty() ? null : map.lastKey();
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles a floor entry query.
+   */
+  public Map.Entry<Object, Object> floorEntry(Commit<MapCommands.FloorEntry> commit) {
+    try {
+      return entry(sorted().floorEntry(commit.operation().key()));
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles a ceiling entry query.
+   */
+  public Map.Entry<Object, Object> ceilingEntry(Commit<MapCommands.CeilingEntry> commit) {
+    try {
+      return entry(sorted().ceilingEntry(commit.operation().key()));
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Returns the map as a navigable map, failing the operation if the map is not sorted.
+   */
+  private NavigableMap<Object, Value> sorted() {
+    if (!(map instanceof NavigableMap)) {
+      throw new IllegalStateException("map keys are not sorted");
+    }
+    return (NavigableMap<Object, Value>) map;
+  }
+
+  /**
+   * Converts an internal map entry to an entry that can be returned to the client.
+   */
+  private static Map.Entry<Object, Object> entry(Map.Entry<Object, Value> entry) {
+    return entry != null ? new MapEntry<>(entry.getKey(), entry.getValue().value) : null;
+  }
+
+  /**
+   * Handles a cursor query.
+   * <p>
+   * Cursors over sorted maps resume from the last key read with {@code tailMap}, and cursors over insertion ordered
+   * maps resume by scanning for the last key read, failing if it has been removed. Unordered maps have no stable
+   * order across modifications, so a cursor over an unordered map fails if the map is modified during iteration
+   * or the page is read from a server that does not hold the cursor.
+   */
+  public List<Map.Entry<Object, Object>> cursor(Commit<MapCommands.Cursor> commit) {
+    try {
+      MapCommands.Cursor cursor = commit.operation();
+      return cursors.next(cursor.cursor(), cursor.position(), cursor.last(), cursor.size(), map, () -> map.entrySet().iterator(), resume(), MapState::entry);
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Returns a function that resumes iteration after a key for the configured key order, or {@code null} if the
+   * map cannot be resumed from a key.
+   */
+  private Function<Object, Iterator<Map.Entry<Object, Value>>> resume() {
+    switch (order) {
+      case NATURAL:
+        return key -> sorted().tailMap(key, false).entrySet().iterator();
+      case INSERT:
+        return key -> Cursors.after(map.entrySet().iterator(), key);
+      default:
+        return null;
+    }
+  }
+
   /**
    * Handles a values query.
    */
@@ -361,7 +794,7 @@ public class MapState extends ResourceStateMachine {
     try {
       Collection<Object> values = new ArrayList<>();
       for (Value value : map.values()) {
-        values.add(value.commit.operation().value());
+        values.add(value.value);
       }
       return values;
     } finally {
@@ -387,7 +820,7 @@ public class MapState extends ResourceStateMachine {
     try {
       Set<Map.Entry<Object, Object>> entries = new HashSet<>();
       for (Map.Entry<Object, Value> entry : map.entrySet()) {
-        entries.add(new MapEntry<>(entry.getKey(), entry.getValue().commit.operation().value()));
+        entries.add(new MapEntry<>(entry.getKey(), entry.getValue().value));
       }
       return entries;
     } finally {
@@ -428,30 +861,49 @@ public class MapState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Detaches all entries from the map and reclaims them incrementally.
+   */
   @Override
   public void delete() {
-    Iterator<Map.Entry<Object, Value>> iterator = map.entrySet().iterator();
-    while (iterator.hasNext()) {
-      Map.Entry<Object, Value> entry = iterator.next();
-      Value value = entry.getValue();
-      if (value.timer != null)
-        value.timer.cancel();
-      value.commit.close();
-      iterator.remove();
+    // Cached misses hold commits even when the map is empty, so caches are invalidated unconditionally.
+    invalidateAll();
+    cursors.clear();
+    if (!map.isEmpty()) {
+      Map<Object, Value> detached = map;
+      map = createMap();
+      if (index != null) {
+        index = new HashMap<>();
+      }
+      reclaim(detached.values().iterator(), Value::release);
     }
   }
 
   /**
    * Map value.
+   * <p>
+   * The value holds a reference to the commit that wrote it. Commits that write multiple keys are acquired once
+   * for each key, so values always release rather than close their commit.
    */
   private static class Value {
-    private final Commit<? extends MapCommands.TtlCommand> commit;
+    private final Commit<?> commit;
+    private final Object value;
     private final Scheduled timer;
 
-    private Value(Commit<? extends MapCommands.TtlCommand> commit, Scheduled timer) {
+    private Value(Commit<?> commit, Object value, Scheduled timer) {
       this.commit = commit;
+      this.value = value;
       this.timer = timer;
     }
+
+    /**
+     * Cancels the value's timer and releases its commit.
+     */
+    private void release() {
+      if (timer != null)
+        timer.cancel();
+      commit.release();
+    }
   }
 
 }
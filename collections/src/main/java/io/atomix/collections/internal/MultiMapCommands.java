@@ -26,6 +26,8 @@ import io.atomix.copycat.Command;
 import io.atomix.copycat.Query;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Map commands.
@@ -480,6 +482,62 @@ public class MultiMapCommands {
     }
   }
 
+  /**
+   * Cursor query.
+   * <p>
+   * Reads the next page of key/value entries through a cursor. The cursor's position is the number of entries already read
+   * through it, and a page with fewer than {@code size} entries is the last.
+   */
+  public static class Cursor extends MultiMapQuery<List<Map.Entry<Object, Object>>> {
+    private long cursor;
+    private long position;
+    private int size;
+
+    public Cursor() {
+    }
+
+    public Cursor(long cursor, long position, int size) {
+      this.cursor = cursor;
+      this.position = Assert.argNot(position, position < 0, "position cannot be negative");
+      this.size = Assert.arg(size, size > 0, "size must be positive");
+    }
+
+    /**
+     * Returns the cursor ID.
+     */
+    public long cursor() {
+      return cursor;
+    }
+
+    /**
+     * Returns the number of entries already read through the cursor.
+     */
+    public long position() {
+      return position;
+    }
+
+    /**
+     * Returns the maximum number of entries to read.
+     */
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(cursor).writeLong(position).writeInt(size);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      cursor = buffer.readLong();
+      position = buffer.readLong();
+      size = buffer.readInt();
+    }
+  }
+
   /**
    * Clear command.
    */
@@ -507,6 +565,7 @@ public class MultiMapCommands {
       registry.register(IsEmpty.class, -87);
       registry.register(Size.class, -88);
       registry.register(Clear.class, -89);
+      registry.register(Cursor.class, -153);
     }
   }
 
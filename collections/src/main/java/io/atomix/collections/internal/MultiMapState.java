@@ -29,13 +29,39 @@ import java.util.*;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class MultiMapState extends ResourceStateMachine {
-  private final Map<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>> map = new HashMap<>();
-  private final Map<Long, Scheduled> timers = new HashMap<>();
+  private Map<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>> map = new HashMap<>();
+  private Map<Long, Scheduled> timers = new HashMap<>();
+  private Map<Object, Set<Object>> index;
   private final DistributedMultiMap.Order order;
+  private final Cursors cursors = new Cursors();
 
   public MultiMapState(Properties properties) {
     super(properties);
     this.order = DistributedMultiMap.Order.valueOf(config.getProperty("order", DistributedMultiMap.Order.INSERT.name().toLowerCase()).toUpperCase());
+    if (Boolean.parseBoolean(config.getProperty("index.values", "false"))) {
+      this.index = new HashMap<>();
+    }
+  }
+
+  /**
+   * Adds a key to the set of keys associated with a value in the value index, if one is configured.
+   */
+  private void index(Object key, Object value) {
+    if (index != null) {
+      index.computeIfAbsent(value, v -> new HashSet<>()).add(key);
+    }
+  }
+
+  /**
+   * Removes a key from the set of keys associated with a value in the value index, if one is configured.
+   */
+  private void unindex(Object key, Object value) {
+    if (index != null) {
+      Set<Object> keys = index.get(value);
+      if (keys != null && keys.remove(key) && keys.isEmpty()) {
+        index.remove(value);
+      }
+    }
   }
 
   /**
@@ -85,6 +111,40 @@ public class MultiMapState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Handles a contains entry commit.
+   */
+  public boolean containsEntry(Commit<MultiMapCommands.ContainsEntry> commit) {
+    try {
+      Map<Object, Commit<? extends MultiMapCommands.TtlCommand>> values = map.get(commit.operation().key());
+      return values != null && values.containsKey(commit.operation().value());
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles a contains value commit.
+   * <p>
+   * If the map is configured with a value index, the value is looked up in the index. Otherwise, the values of all
+   * keys in the map are scanned.
+   */
+  public boolean containsValue(Commit<MultiMapCommands.ContainsValue> commit) {
+    try {
+      if (index != null) {
+        return index.containsKey(commit.operation().value());
+      }
+      for (Map<Object, Commit<? extends MultiMapCommands.TtlCommand>> values : map.values()) {
+        if (values.containsKey(commit.operation().value())) {
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      commit.close();
+    }
+  }
+
   /**
    * Handles a put commit.
    */
@@ -96,12 +156,19 @@ public class MultiMapState extends ResourceStateMachine {
         map.put(commit.operation().key(), values);
       }
 
+      final Map<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>> keys = map;
       final Map<Object, Commit<? extends MultiMapCommands.TtlCommand>> keyValues = values;
       if (!values.containsKey(commit.operation().value())) {
+        // Values detached by a clear or delete are reclaimed incrementally, so the timer only removes
+        // the value if the map has not been detached since the timer was scheduled.
         Scheduled timer = commit.operation().ttl() > 0 ? executor.schedule(Duration.ofMillis(commit.operation().ttl()), () -> {
-          keyValues.remove(commit.operation().value()).close();
+          if (keys == map) {
+            keyValues.remove(commit.operation().value()).close();
+            unindex(commit.operation().key(), commit.operation().value());
+          }
         }) : null;
         values.put(commit.operation().value(), commit);
+        index(commit.operation().key(), commit.operation().value());
         timers.put(commit.index(), timer);
         return true;
       } else {
@@ -135,6 +202,7 @@ public class MultiMapState extends ResourceStateMachine {
           timer.cancel();
 
         previous.close();
+        unindex(commit.operation().key(), commit.operation().value());
 
         if (values.isEmpty())
           map.remove(commit.operation().key());
@@ -148,6 +216,7 @@ public class MultiMapState extends ResourceStateMachine {
             if (timer != null)
               timer.cancel();
             results.add(value.operation().value());
+            unindex(commit.operation().key(), value.operation().value());
             value.close();
           }
           return results;
@@ -161,9 +230,30 @@ public class MultiMapState extends ResourceStateMachine {
 
   /**
    * Handles a remove value commit.
+   * <p>
+   * If the map is configured with a value index, only the keys associated with the value are visited. Otherwise,
+   * the values of all keys in the map are scanned.
    */
   public void removeValue(Commit<MultiMapCommands.RemoveValue> commit) {
     try {
+      if (index != null) {
+        Set<Object> keys = index.remove(commit.operation().value());
+        if (keys != null) {
+          for (Object key : keys) {
+            Map<Object, Commit<? extends MultiMapCommands.TtlCommand>> values = map.get(key);
+            Commit<? extends MultiMapCommands.TtlCommand> value = values.remove(commit.operation().value());
+            Scheduled timer = timers.remove(value.index());
+            if (timer != null)
+              timer.cancel();
+            value.close();
+            if (values.isEmpty()) {
+              map.remove(key);
+            }
+          }
+        }
+        return;
+      }
+
       Iterator<Map.Entry<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>>> outerIterator = map.entrySet().iterator();
       while (outerIterator.hasNext()) {
         Map<Object, Commit<? extends MultiMapCommands.TtlCommand>> map = outerIterator.next().getValue();
@@ -220,6 +310,51 @@ public class MultiMapState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Handles a cursor query.
+   * <p>
+   * Keys are stored in a {@link HashMap}, which has no stable order across modifications, so a cursor fails if the
+   * map is modified in a way that invalidates its position or the page is read from a server that does not hold
+   * the cursor.
+   */
+  public List<Map.Entry<Object, Object>> cursor(Commit<MultiMapCommands.Cursor> commit) {
+    try {
+      MultiMapCommands.Cursor cursor = commit.operation();
+      return cursors.next(cursor.cursor(), cursor.position(), null, cursor.size(), map, this::entries, null, entry -> entry);
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Returns a fail-fast iterator over the key-value pairs in the map.
+   */
+  private Iterator<Map.Entry<Object, Object>> entries() {
+    Iterator<Map.Entry<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>>> keys = map.entrySet().iterator();
+    return new Iterator<Map.Entry<Object, Object>>() {
+      private Object key;
+      private Iterator<Object> values = Collections.emptyIterator();
+
+      @Override
+      public boolean hasNext() {
+        while (!values.hasNext() && keys.hasNext()) {
+          Map.Entry<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>> entry = keys.next();
+          key = entry.getKey();
+          values = entry.getValue().keySet().iterator();
+        }
+        return values.hasNext();
+      }
+
+      @Override
+      public Map.Entry<Object, Object> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return new MapEntry<>(key, values.next());
+      }
+    };
+  }
+
   /**
    * Handles a clear commit.
    */
@@ -231,18 +366,29 @@ public class MultiMapState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Detaches all keys and values from the map and reclaims them incrementally.
+   * <p>
+   * Each detached key is reclaimed by queueing its values to be reclaimed in turn, so keys with many
+   * values are also released in bounded slices.
+   */
   @Override
   public void delete() {
-    Iterator<Map.Entry<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>>> iterator = map.entrySet().iterator();
-    while (iterator.hasNext()) {
-      Map.Entry<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>> entry = iterator.next();
-      for (Commit<? extends MultiMapCommands.TtlCommand> value : entry.getValue().values()) {
-        Scheduled timer = timers.remove(value.index());
+    if (!map.isEmpty()) {
+      cursors.clear();
+      Map<Object, Map<Object, Commit<? extends MultiMapCommands.TtlCommand>>> detached = map;
+      Map<Long, Scheduled> detachedTimers = timers;
+      map = new HashMap<>();
+      timers = new HashMap<>();
+      if (index != null) {
+        index = new HashMap<>();
+      }
+      reclaim(detached.values().iterator(), values -> reclaim(values.values().iterator(), value -> {
+        Scheduled timer = detachedTimers.remove(value.index());
         if (timer != null)
           timer.cancel();
         value.close();
-      }
-      iterator.remove();
+      }));
     }
   }
 
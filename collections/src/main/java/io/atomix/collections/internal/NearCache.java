@@ -0,0 +1,250 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections.internal;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.collections.DistributedMap;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Bounded client-side cache of map entries.
+ * <p>
+ * The near cache holds the entries most recently read by a {@link DistributedMap} instance. Entries are added when
+ * a read misses the cache and the value has been loaded from the cluster, and are removed when the cluster reports
+ * that the key has changed or when the cache exceeds its maximum size. Entries are evicted either by recency or by
+ * frequency of use, with ties between equally used entries broken by age.
+ * <p>
+ * A key may be invalidated while its value is being loaded. Loads are numbered, and a load whose value is received
+ * after the key was invalidated is discarded rather than cached. The release callback is called for keys that are
+ * evicted or discarded so the cluster can stop reporting changes to them.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class NearCache<K, V> {
+  private final int maxSize;
+  private final DistributedMap.CacheEviction eviction;
+  private final Consumer<K> release;
+  private final LinkedHashMap<K, Value<V>> entries;
+  private final TreeMap<Long, LinkedHashSet<K>> frequencies = new TreeMap<>();
+  private final Map<K, Load> loads = new HashMap<>();
+  private long sequence;
+
+  /**
+   * @param maxSize The maximum number of entries to cache.
+   * @param eviction The eviction policy.
+   * @param release The callback to call with keys that are no longer cached.
+   * @throws NullPointerException if {@code eviction} or {@code release} are null
+   * @throws IllegalArgumentException if {@code maxSize} is not positive
+   */
+  public NearCache(int maxSize, DistributedMap.CacheEviction eviction, Consumer<K> release) {
+    this.maxSize = Assert.arg(maxSize, maxSize > 0, "maxSize must be positive");
+    this.eviction = Assert.notNull(eviction, "eviction");
+    this.release = Assert.notNull(release, "release");
+    this.entries = new LinkedHashMap<>(16, 0.75f, eviction == DistributedMap.CacheEviction.LRU);
+  }
+
+  /**
+   * Returns the cached value for the given key.
+   *
+   * @param key The key to get.
+   * @return The cached value, or {@code null} if the key is not cached.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized Value<V> get(Object key) {
+    Value<V> value = entries.get(key);
+    if (value != null && eviction == DistributedMap.CacheEviction.LFU) {
+      removeFrequency(key, value.frequency);
+      addFrequency((K) key, ++value.frequency);
+    }
+    return value;
+  }
+
+  /**
+   * Records the start of a load for the given key.
+   *
+   * @param key The key being loaded.
+   * @return The load sequence number to pass to {@link #complete(Object, long, Object)} or {@link #fail(Object, long)}.
+   */
+  public synchronized long load(K key) {
+    Load load = loads.computeIfAbsent(key, k -> new Load());
+    load.outstanding++;
+    load.issued = ++sequence;
+    return load.issued;
+  }
+
+  /**
+   * Caches a loaded value unless the key was invalidated since the load started.
+   *
+   * @param key The loaded key.
+   * @param sequence The load sequence number.
+   * @param value The loaded value.
+   */
+  public synchronized void complete(K key, long sequence, V value) {
+    Load load = loads.get(key);
+    if (load == null) {
+      return;
+    }
+
+    boolean valid = sequence > load.invalidated;
+    if (--load.outstanding == 0) {
+      loads.remove(key);
+    }
+
+    if (valid) {
+      put(key, value);
+    } else if (load.outstanding == 0 && !entries.containsKey(key)) {
+      release.accept(key);
+    }
+  }
+
+  /**
+   * Records the failure of a load.
+   *
+   * @param key The key that failed to load.
+   * @param sequence The load sequence number.
+   */
+  public synchronized void fail(K key, long sequence) {
+    Load load = loads.get(key);
+    if (load != null && --load.outstanding == 0) {
+      loads.remove(key);
+    }
+  }
+
+  /**
+   * Caches a value, evicting entries if the cache is full.
+   */
+  private void put(K key, V value) {
+    Value<V> existing = entries.get(key);
+    if (existing != null) {
+      existing.value = value;
+      return;
+    }
+
+    entries.put(key, new Value<>(value));
+    if (eviction == DistributedMap.CacheEviction.LFU) {
+      addFrequency(key, 1);
+    }
+
+    while (entries.size() > maxSize) {
+      K victim = eviction == DistributedMap.CacheEviction.LFU
+        ? frequencies.firstEntry().getValue().iterator().next()
+        : entries.keySet().iterator().next();
+      remove(victim);
+      release.accept(victim);
+    }
+  }
+
+  /**
+   * Removes the given key from the cache because it changed in the cluster.
+   *
+   * @param key The key to invalidate.
+   */
+  public synchronized void invalidate(Object key) {
+    remove(key);
+  }
+
+  /**
+   * Removes all keys from the cache because the map was cleared or the session was lost.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    frequencies.clear();
+    for (Load load : loads.values()) {
+      load.invalidated = load.issued;
+    }
+  }
+
+  /**
+   * Removes a key and invalidates any outstanding load for the key.
+   */
+  private void remove(Object key) {
+    Value<V> value = entries.remove(key);
+    if (value != null && eviction == DistributedMap.CacheEviction.LFU) {
+      removeFrequency(key, value.frequency);
+    }
+    Load load = loads.get(key);
+    if (load != null) {
+      load.invalidated = load.issued;
+    }
+  }
+
+  /**
+   * Adds a key to the given frequency bucket.
+   */
+  private void addFrequency(K key, long frequency) {
+    frequencies.computeIfAbsent(frequency, f -> new LinkedHashSet<>()).add(key);
+  }
+
+  /**
+   * Removes a key from the given frequency bucket.
+   */
+  private void removeFrequency(Object key, long frequency) {
+    LinkedHashSet<K> keys = frequencies.get(frequency);
+    if (keys != null) {
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        frequencies.remove(frequency);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of cached entries.
+   *
+   * @return The number of cached entries.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Cached value.
+   */
+  public static final class Value<V> {
+    private V value;
+    private long frequency = 1;
+
+    private Value(V value) {
+      this.value = value;
+    }
+
+    /**
+     * Returns the cached value.
+     *
+     * @return The cached value.
+     */
+    public V get() {
+      return value;
+    }
+  }
+
+  /**
+   * Outstanding loads for a key.
+   */
+  private static final class Load {
+    private int outstanding;
+    private long issued;
+    private long invalidated;
+  }
+
+}
@@ -32,7 +32,7 @@ import static io.atomix.collections.DistributedQueue.ValueEvent;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class QueueState extends ResourceStateMachine {
-  private final Queue<Commit<? extends QueueCommands.ValueCommand>> queue = new ArrayDeque<>();
+  private Queue<Commit<? extends QueueCommands.ValueCommand>> queue = new ArrayDeque<>();
 
   public QueueState(Properties properties) {
     super(properties);
@@ -59,7 +59,7 @@ public class QueueState extends ResourceStateMachine {
   public boolean add(Commit<QueueCommands.Add> commit) {
     try {
       queue.add(commit);
-      notify(new ValueEvent<>(Events.ADD, commit.command().value()));
+      notify(Events.ADD, commit.command().value());
     } catch (Exception e) {
       commit.release();
       throw e;
@@ -73,7 +73,7 @@ public class QueueState extends ResourceStateMachine {
   public boolean offer(Commit<QueueCommands.Offer> commit) {
     try {
       if (queue.offer(commit)) {
-        notify(new ValueEvent<>(Events.ADD, commit.command().value()));
+        notify(Events.ADD, commit.command().value());
         return true;
       } else {
         commit.release();
@@ -108,7 +108,7 @@ public class QueueState extends ResourceStateMachine {
       Commit<? extends QueueCommands.ValueCommand> value = queue.poll();
       if (value != null) {
         try {
-          notify(new ValueEvent<>(Events.REMOVE, value.command().value()));
+          notify(Events.REMOVE, value.command().value());
           return value.operation().value();
         } finally {
           value.release();
@@ -150,7 +150,7 @@ public class QueueState extends ResourceStateMachine {
           Commit<? extends QueueCommands.ValueCommand> value = iterator.next();
           if (value.operation().value().equals(commit.operation().value())) {
             iterator.remove();
-            notify(new ValueEvent<>(Events.REMOVE, value.command().value()));
+            notify(Events.REMOVE, value.command().value());
             value.release();
             return true;
           }
@@ -160,7 +160,7 @@ public class QueueState extends ResourceStateMachine {
         Commit<? extends QueueCommands.ValueCommand> value = queue.remove();
         if (value != null) {
           try {
-            notify(new ValueEvent<>(Events.REMOVE, value.command().value()));
+            notify(Events.REMOVE, value.command().value());
             return value.operation().value();
           } finally {
             value.release();
@@ -206,13 +206,24 @@ public class QueueState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Detaches all values from the queue and reclaims them incrementally.
+   */
   @Override
   public void delete() {
-    Iterator<Commit<? extends QueueCommands.ValueCommand>> iterator = queue.iterator();
-    while (iterator.hasNext()) {
-      Commit<? extends QueueCommands.ValueCommand> value = iterator.next();
-      value.release();
-      iterator.remove();
+    if (!queue.isEmpty()) {
+      Queue<Commit<? extends QueueCommands.ValueCommand>> detached = queue;
+      queue = new ArrayDeque<>();
+      reclaim(detached.iterator(), Commit::release);
+    }
+  }
+
+  /**
+   * Notifies clients of a value event if any client is listening for the event type.
+   */
+  private void notify(Events type, Object value) {
+    if (hasListeners(type)) {
+      notify(new ValueEvent<>(type, value));
     }
   }
 
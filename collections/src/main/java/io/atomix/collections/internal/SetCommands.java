@@ -15,6 +15,7 @@
  */
 package io.atomix.collections.internal;
 
+import java.util.List;
 import java.util.Set;
 
 import io.atomix.catalyst.buffer.BufferInput;
@@ -23,6 +24,7 @@ import io.atomix.catalyst.serializer.CatalystSerializable;
 import io.atomix.catalyst.serializer.SerializableTypeResolver;
 import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.catalyst.util.Assert;
 import io.atomix.collections.DistributedSet;
 import io.atomix.copycat.Command;
 import io.atomix.copycat.Query;
@@ -278,6 +280,62 @@ public class SetCommands {
   public static class Iterator<V> extends SetQuery<Set<V>> {
   }
 
+  /**
+   * Cursor query.
+   * <p>
+   * Reads the next page of values through a cursor. The cursor's position is the number of entries already read
+   * through it, and a page with fewer than {@code size} entries is the last.
+   */
+  public static class Cursor extends SetQuery<List<Object>> {
+    private long cursor;
+    private long position;
+    private int size;
+
+    public Cursor() {
+    }
+
+    public Cursor(long cursor, long position, int size) {
+      this.cursor = cursor;
+      this.position = Assert.argNot(position, position < 0, "position cannot be negative");
+      this.size = Assert.arg(size, size > 0, "size must be positive");
+    }
+
+    /**
+     * Returns the cursor ID.
+     */
+    public long cursor() {
+      return cursor;
+    }
+
+    /**
+     * Returns the number of values already read through the cursor.
+     */
+    public long position() {
+      return position;
+    }
+
+    /**
+     * Returns the maximum number of values to read.
+     */
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(cursor).writeLong(position).writeInt(size);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      cursor = buffer.readLong();
+      position = buffer.readLong();
+      size = buffer.readInt();
+    }
+  }
+
   /**
    * Clear command.
    */
@@ -301,6 +359,7 @@ public class SetCommands {
       registry.register(Size.class, -104);
       registry.register(Clear.class, -105);
       registry.register(Iterator.class, -106);
+      registry.register(Cursor.class, -152);
       registry.register(DistributedSet.ValueEvent.class, -48);
     }
   }
@@ -31,7 +31,8 @@ import static io.atomix.collections.DistributedSet.ValueEvent;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class SetState extends ResourceStateMachine {
-  private final Map<Object, Value> map = new HashMap<>();
+  private Map<Object, Value> map = new HashMap<>();
+  private final Cursors cursors = new Cursors();
 
   public SetState(Properties properties) {
     super(properties);
@@ -48,6 +49,25 @@ public class SetState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Schedules the removal of a value once its TTL expires.
+   * <p>
+   * Values detached from the set by a clear or delete are reclaimed incrementally, so their timers may
+   * still fire. The timer only removes the value if the set has not been detached since it was scheduled.
+   */
+  private Scheduled expire(Object value, long ttl) {
+    if (ttl <= 0) {
+      return null;
+    }
+
+    final Map<Object, Value> map = this.map;
+    return executor.schedule(Duration.ofMillis(ttl), () -> {
+      if (map == this.map) {
+        map.remove(value).commit.close();
+      }
+    });
+  }
+
   /**
    * Handles an add commit.
    */
@@ -55,11 +75,9 @@ public class SetState extends ResourceStateMachine {
     try {
       Value value = map.get(commit.operation().value());
       if (value == null) {
-        Scheduled timer = commit.operation().ttl() > 0 ? executor.schedule(Duration.ofMillis(commit.operation().ttl()), () -> {
-          map.remove(commit.operation().value()).commit.close();
-        }) : null;
+        Scheduled timer = expire(commit.operation().value(), commit.operation().ttl());
         map.put(commit.operation().value(), new Value(commit, timer));
-        notify(new ValueEvent<>(Events.ADD, commit.operation().value()));
+        notify(Events.ADD, commit.operation().value());
       } else {
         commit.close();
       }
@@ -81,7 +99,7 @@ public class SetState extends ResourceStateMachine {
           if (value.timer != null) {
             value.timer.cancel();
           }
-          notify(new ValueEvent<>(Events.REMOVE, commit.operation().value()));
+          notify(Events.REMOVE, commit.operation().value());
           return true;
         } finally {
           value.commit.close();
@@ -126,6 +144,21 @@ public class SetState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Handles a cursor query.
+   * <p>
+   * Values are stored in a {@link HashMap}, which has no stable order across modifications, so a cursor fails if
+   * the set is modified during iteration or the page is read from a server that does not hold the cursor.
+   */
+  public List<Object> cursor(Commit<SetCommands.Cursor> commit) {
+    try {
+      SetCommands.Cursor cursor = commit.operation();
+      return cursors.next(cursor.cursor(), cursor.position(), null, cursor.size(), map, () -> map.keySet().iterator(), null, value -> value);
+    } finally {
+      commit.close();
+    }
+  }
+
   /**
    * Handles a clear commit.
    */
@@ -137,16 +170,16 @@ public class SetState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Detaches all values from the set and reclaims them incrementally.
+   */
   @Override
   public void delete() {
-    Iterator<Map.Entry<Object, Value>> iterator = map.entrySet().iterator();
-    while (iterator.hasNext()) {
-      Map.Entry<Object, Value> entry = iterator.next();
-      Value value = entry.getValue();
-      if (value.timer != null)
-        value.timer.cancel();
-      value.commit.close();
-      iterator.remove();
+    if (!map.isEmpty()) {
+      cursors.clear();
+      Map<Object, Value> detached = map;
+      map = new HashMap<>();
+      reclaim(detached.values().iterator(), Value::release);
     }
   }
 
@@ -161,6 +194,24 @@ public class SetState extends ResourceStateMachine {
       this.commit = commit;
       this.timer = timer;
     }
+
+    /**
+     * Cancels the value's timer and releases its commit.
+     */
+    private void release() {
+      if (timer != null)
+        timer.cancel();
+      commit.close();
+    }
+  }
+
+  /**
+   * Notifies clients of a value event if any client is listening for the event type.
+   */
+  private void notify(Events type, Object value) {
+    if (hasListeners(type)) {
+      notify(new ValueEvent<>(type, value));
+    }
   }
 
 }
@@ -20,10 +20,21 @@ import io.atomix.testing.AbstractCopycatTest;
 import org.testng.annotations.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
 /**
  * Distributed map test.
  *
@@ -342,6 +353,64 @@ public class DistributedMapTest extends AbstractCopycatTest<DistributedMap> {
     await(10000);
   }
 
+  /**
+   * Tests bulk map operations.
+   */
+  public void testMapBulkOperations() throws Throwable {
+    createServers(3);
+
+    DistributedMap<String, String> map1 = createResource();
+    DistributedMap<String, String> map2 = createResource();
+
+    map2.onAdd(event -> resume()).thenRun(this::resume);
+    map2.onRemove(event -> {
+      threadAssertNotNull(event.entry().getValue());
+      resume();
+    }).thenRun(this::resume);
+    await(5000, 2);
+
+    map1.put("foo", "Hello world!").thenRun(this::resume);
+    await(5000, 2);
+
+    Map<String, String> entries = new LinkedHashMap<>();
+    entries.put("foo", "foo");
+    entries.put("bar", "bar");
+    entries.put("baz", "baz");
+    map1.putAll(entries).thenAccept(result -> {
+      threadAssertEquals(result.size(), 1);
+      threadAssertEquals(result.get("foo"), "Hello world!");
+      resume();
+    });
+    await(5000, 3);
+
+    map1.getAll(Arrays.asList("foo", "bar", "missing")).thenAccept(result -> {
+      threadAssertEquals(result.size(), 2);
+      threadAssertEquals(result.get("foo"), "foo");
+      threadAssertEquals(result.get("bar"), "bar");
+      resume();
+    });
+    await(5000);
+
+    map1.removeAll(Arrays.asList("foo", "bar", "missing")).thenAccept(result -> {
+      threadAssertEquals(result.size(), 2);
+      threadAssertEquals(result.get("foo"), "foo");
+      threadAssertEquals(result.get("bar"), "bar");
+      resume();
+    });
+    await(5000, 3);
+
+    map1.putAll(entries, Duration.ofSeconds(1)).thenRun(this::resume);
+    await(5000, 3);
+
+    await(10000, 3);
+
+    map1.size().thenAccept(size -> {
+      threadAssertEquals(size, 0);
+      resume();
+    });
+    await(5000);
+  }
+
   /**
    * Tests clearing a map.
    */
@@ -375,6 +444,245 @@ public class DistributedMapTest extends AbstractCopycatTest<DistributedMap> {
     await(10000);
   }
 
+  /**
+   * Tests key order queries on a sorted map.
+   */
+  public void testSortedMapQueries() throws Throwable {
+    createServers(3, new DistributedMap.Config().withKeyOrder(DistributedMap.Order.NATURAL));
+
+    DistributedMap<String, String> map = createResource();
+
+    Map<String, String> entries = new LinkedHashMap<>();
+    entries.put("b/2", "b2");
+    entries.put("a/2", "a2");
+    entries.put("c/1", "c1");
+    entries.put("a/1", "a1");
+    entries.put("b/1", "b1");
+    map.putAll(entries).thenRun(this::resume);
+    await(5000);
+
+    map.firstKey().thenAccept(key -> {
+      threadAssertEquals(key, "a/1");
+      resume();
+    });
+    map.lastKey().thenAccept(key -> {
+      threadAssertEquals(key, "c/1");
+      resume();
+    });
+    await(5000, 2);
+
+    map.floorEntry("b/0").thenAccept(entry -> {
+      threadAssertEquals(entry.getKey(), "a/2");
+      threadAssertEquals(entry.getValue(), "a2");
+      resume();
+    });
+    map.ceilingEntry("b/0").thenAccept(entry -> {
+      threadAssertEquals(entry.getKey(), "b/1");
+      resume();
+    });
+    map.ceilingEntry("d").thenAccept(entry -> {
+      threadAssertNull(entry);
+      resume();
+    });
+    await(5000, 3);
+
+    map.subMap("a/2", true, "c/1", false).thenAccept(result -> {
+      threadAssertEquals(new ArrayList<>(result.keySet()), Arrays.asList("a/2", "b/1", "b/2"));
+      resume();
+    });
+    map.headMap("b/1", true).thenAccept(result -> {
+      threadAssertEquals(new ArrayList<>(result.keySet()), Arrays.asList("a/1", "a/2", "b/1"));
+      resume();
+    });
+    map.tailMap("a/2", false, 2).thenAccept(result -> {
+      threadAssertEquals(new ArrayList<>(result.keySet()), Arrays.asList("b/1", "b/2"));
+      resume();
+    });
+    await(5000, 3);
+
+    map.prefixMap("b/").thenAccept(result -> {
+      threadAssertEquals(new ArrayList<>(result.keySet()), Arrays.asList("b/1", "b/2"));
+      threadAssertEquals(result.get("b/1"), "b1");
+      resume();
+    });
+    map.prefixMap("a/", 1).thenAccept(result -> {
+      threadAssertEquals(new ArrayList<>(result.keySet()), Arrays.asList("a/1"));
+      resume();
+    });
+    map.prefixMap("a/", "a/1", 1).thenAccept(result -> {
+      threadAssertEquals(new ArrayList<>(result.keySet()), Arrays.asList("a/2"));
+      resume();
+    });
+    await(5000, 3);
+  }
+
+  /**
+   * Tests that a bulk put containing a key that cannot be sorted fails without changing the map.
+   */
+  public void testSortedMapPutAllInvalidKey() throws Throwable {
+    createServers(3, new DistributedMap.Config().withKeyOrder(DistributedMap.Order.NATURAL));
+
+    DistributedMap<Object, String> map = createResource();
+    map.put("a", "a").thenRun(this::resume);
+    await(5000);
+
+    Map<Object, String> entries = new LinkedHashMap<>();
+    entries.put("b", "b");
+    entries.put(1, "1");
+    map.putAll(entries).whenComplete((result, error) -> {
+      threadAssertNotNull(error);
+      resume();
+    });
+    await(5000);
+
+    map.size().thenAccept(size -> {
+      threadAssertEquals(size, 1);
+      resume();
+    });
+    map.containsKey("b").thenAccept(result -> {
+      threadAssertFalse(result);
+      resume();
+    });
+    await(5000, 2);
+  }
+
+  /**
+   * Tests that key order queries fail on an unsorted map.
+   */
+  public void testUnsortedMapQueries() throws Throwable {
+    createServers(3);
+
+    DistributedMap<String, String> map = createResource();
+
+    map.put("foo", "Hello world!").thenRun(this::resume);
+    await(5000);
+
+    map.firstKey().whenComplete((result, error) -> {
+      threadAssertNotNull(error);
+      resume();
+    });
+    await(5000);
+  }
+
+  /**
+   * Tests containsValue on a map with a value index.
+   */
+  public void testMapValueIndex() throws Throwable {
+    createServers(3, new DistributedMap.Config().withValueIndex());
+
+    DistributedMap<String, String> map = createResource();
+
+    map.put("foo", "a").thenRun(this::resume);
+    map.put("bar", "a").thenRun(this::resume);
+    await(5000, 2);
+
+    map.remove("foo").thenRun(this::resume);
+    await(5000);
+
+    map.containsValue("a").thenAccept(result -> {
+      threadAssertTrue(result);
+      resume();
+    });
+    await(5000);
+
+    map.put("bar", "b").thenRun(this::resume);
+    await(5000);
+
+    map.containsValue("a").thenAccept(result -> {
+      threadAssertFalse(result);
+      resume();
+    });
+    map.containsValue("b").thenAccept(result -> {
+      threadAssertTrue(result);
+      resume();
+    });
+    await(5000, 2);
+
+    map.clear().thenRun(this::resume);
+    await(5000);
+
+    map.containsValue("b").thenAccept(result -> {
+      threadAssertFalse(result);
+      resume();
+    });
+    await(5000);
+  }
+
+  /**
+   * Tests iterating a map through a cursor.
+   */
+  public void testMapCursor() throws Throwable {
+    createServers(3);
+
+    DistributedMap<String, String> map = createResource();
+
+    Map<String, String> entries = new LinkedHashMap<>();
+    for (int i = 0; i < 25; i++) {
+      entries.put("key" + i, "value" + i);
+    }
+    map.putAll(entries).thenRun(this::resume);
+    await(5000);
+
+    Map<String, String> results = new HashMap<>();
+    map.cursor(10).forEach(entry -> {
+      threadAssertNull(results.put(entry.getKey(), entry.getValue()));
+    }).thenRun(this::resume);
+    await(10000);
+    assertEquals(results, entries);
+
+    // An unordered map cannot be resumed once it changes between pages, so the cursor fails.
+    AsyncIterator<Map.Entry<String, String>> iterator = map.cursor(10);
+    iterator.next().thenRun(this::resume);
+    await(5000);
+
+    map.put("foo", "bar").thenRun(this::resume);
+    await(5000);
+
+    iterator.forEach(entry -> {}).whenComplete((result, error) -> {
+      threadAssertTrue(error.getCause() instanceof ConcurrentModificationException);
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests that a cursor over a sorted map resumes from the last key read when the map changes between pages.
+   */
+  public void testSortedMapCursor() throws Throwable {
+    createServers(3, new DistributedMap.Config().withKeyOrder(DistributedMap.Order.NATURAL));
+
+    DistributedMap<String, String> map = createResource();
+
+    Map<String, String> entries = new TreeMap<>();
+    for (int i = 0; i < 25; i++) {
+      entries.put(String.format("key%02d", i), "value" + i);
+    }
+    map.putAll(entries).thenRun(this::resume);
+    await(5000);
+
+    AsyncIterator<Map.Entry<String, String>> iterator = map.cursor(10);
+    List<String> keys = new ArrayList<>();
+    iterator.next().thenAccept(entry -> {
+      keys.add(entry.getKey());
+      resume();
+    });
+    await(5000);
+
+    // Remove the last key read and an unread key, and add a key beyond the end of the map.
+    map.remove("key00").thenRun(this::resume);
+    map.remove("key20").thenRun(this::resume);
+    map.put("key99", "value99").thenRun(this::resume);
+    await(5000, 3);
+
+    iterator.forEach(entry -> keys.add(entry.getKey())).thenRun(this::resume);
+    await(10000);
+
+    List<String> expected = new ArrayList<>(entries.keySet());
+    expected.remove("key20");
+    expected.add("key99");
+    assertEquals(keys, expected);
+  }
+
   /**
    * Tests reading from the local map cache.
    */
@@ -386,7 +694,8 @@ public class DistributedMapTest extends AbstractCopycatTest<DistributedMap> {
 
     map1.onAdd(event -> {
       resume();
-    });
+    }).thenRun(this::resume);
+    await(5000);
 
     map2.put("foo", "Hello world!").thenRun(this::resume);
     await(5000, 2);
@@ -398,6 +707,66 @@ public class DistributedMapTest extends AbstractCopycatTest<DistributedMap> {
     await(5000);
   }
 
+  /**
+   * Tests that cached keys are invalidated when changed by another instance.
+   */
+  public void testMapCacheInvalidation() throws Throwable {
+    createServers(3);
+
+    DistributedMap<String, String> map1 = createResource(new DistributedMap.Options().withLocalCache());
+    DistributedMap<String, String> map2 = createResource();
+
+    map2.put("foo", "Hello world!").join();
+    threadAssertNull(map1.get("bar", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS));
+    threadAssertEquals(map1.get("foo", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "Hello world!");
+
+    map1.onUpdate("foo", event -> resume()).join();
+    map1.onAdd("bar", event -> resume()).join();
+    map2.put("foo", "Hello world again!").join();
+    map2.put("bar", "baz").join();
+    await(5000, 2);
+
+    threadAssertEquals(map1.get("foo", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "Hello world again!");
+    threadAssertEquals(map1.getOrDefault("bar", "default", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "baz");
+
+    map1.onAdd("foo", event -> resume()).join();
+    map2.clear().join();
+    map2.put("foo", "bar").join();
+    await(5000);
+    threadAssertEquals(map1.get("foo", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "bar");
+    threadAssertNull(map1.get("bar", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Tests that keys evicted from a full cache are reloaded on the next read.
+   */
+  public void testMapCacheEviction() throws Throwable {
+    createServers(3);
+
+    DistributedMap<String, String> map1 = createResource(new DistributedMap.Options()
+      .withLocalCache()
+      .withLocalCacheSize(2)
+      .withLocalCacheEviction(DistributedMap.CacheEviction.LFU));
+    DistributedMap<String, String> map2 = createResource();
+
+    map2.put("a", "1").join();
+    map2.put("b", "2").join();
+    map2.put("c", "3").join();
+    for (int i = 0; i < 3; i++) {
+      threadAssertEquals(map1.get("a", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "1");
+    }
+    threadAssertEquals(map1.get("b", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "2");
+    threadAssertEquals(map1.get("c", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "3");
+
+    // The evicted key is no longer subscribed to, so it must be reloaded rather than served stale.
+    map2.put("b", "4").join();
+    map1.onUpdate("a", event -> resume()).join();
+    map2.put("a", "5").join();
+    await(5000);
+    threadAssertEquals(map1.get("a", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "5");
+    threadAssertEquals(map1.get("b", ReadConsistency.LOCAL).get(5, TimeUnit.SECONDS), "4");
+  }
+
   /**
    * Tests various map events.
    */
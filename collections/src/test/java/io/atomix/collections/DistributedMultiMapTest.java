@@ -18,7 +18,12 @@ package io.atomix.collections;
 import io.atomix.testing.AbstractCopycatTest;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Distributed multi map test.
@@ -125,4 +130,68 @@ public class DistributedMultiMapTest extends AbstractCopycatTest<DistributedMult
     await(10000);
   }
 
+  /**
+   * Tests value operations on a multimap with a value index.
+   */
+  public void testValueIndex() throws Throwable {
+    createServers(3, new DistributedMultiMap.Config().withValueIndex());
+
+    DistributedMultiMap<String, String> map = createResource();
+
+    map.put("foo", "a").thenRun(this::resume);
+    map.put("bar", "a").thenRun(this::resume);
+    map.put("bar", "b").thenRun(this::resume);
+    await(10000, 3);
+
+    map.containsValue("a").thenAccept(result -> {
+      threadAssertTrue(result);
+      resume();
+    });
+    await(10000);
+
+    map.removeValue("a").thenRun(this::resume);
+    await(10000);
+
+    map.containsValue("a").thenAccept(result -> {
+      threadAssertFalse(result);
+      resume();
+    });
+    map.containsValue("b").thenAccept(result -> {
+      threadAssertTrue(result);
+      resume();
+    });
+    map.containsEntry("bar", "b").thenAccept(result -> {
+      threadAssertTrue(result);
+      resume();
+    });
+    map.containsKey("foo").thenAccept(result -> {
+      threadAssertFalse(result);
+      resume();
+    });
+    await(10000, 4);
+  }
+
+  /**
+   * Tests iterating a multimap through a cursor.
+   */
+  public void testCursor() throws Throwable {
+    createServers(3);
+
+    DistributedMultiMap<String, String> map = createResource();
+
+    for (int i = 0; i < 5; i++) {
+      for (int j = 0; j < 5; j++) {
+        map.put("key" + i, "value" + j).thenRun(this::resume);
+      }
+    }
+    await(10000, 25);
+
+    Set<String> entries = new HashSet<>();
+    map.cursor(10).forEach(entry -> threadAssertTrue(entries.add(entry.getKey() + "=" + entry.getValue()))).thenRun(this::resume);
+    await(10000);
+
+    assertEquals(entries.size(), 25);
+    assertTrue(entries.contains("key4=value4"));
+  }
+
 }
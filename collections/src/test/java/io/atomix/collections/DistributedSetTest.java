@@ -18,11 +18,14 @@ package io.atomix.collections;
 import io.atomix.testing.AbstractCopycatTest;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -85,6 +88,29 @@ public class DistributedSetTest extends AbstractCopycatTest<DistributedSet> {
     await(10000);
   }
 
+  /**
+   * Tests {@link DistributedSet#cursor(int)}.
+   */
+  public void testCursor() throws Throwable {
+    createServers(3);
+
+    DistributedSet<String> set = createResource();
+
+    for (int i = 0; i < 25; i++) {
+      set.add("test" + i).thenRun(this::resume);
+    }
+    await(10, TimeUnit.SECONDS, 25);
+
+    Set<String> values = new HashSet<>();
+    set.cursor(10).forEach(value -> threadAssertTrue(values.add(value))).thenRun(this::resume);
+    await(10000);
+
+    assertEquals(values.size(), 25);
+    for (int i = 0; i < 25; i++) {
+      assertTrue(values.contains("test" + i));
+    }
+  }
+
   /**
    * Tests various set events.
    */
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections.internal;
+
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.session.ServerSession;
+import org.testng.annotations.Test;
+
+import java.util.Properties;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * Map state machine test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class MapStateTest {
+
+  /**
+   * Tests that deleting an empty map releases commits held for cached misses.
+   */
+  @SuppressWarnings("unchecked")
+  public void testDeleteEmptyMapReleasesCachedMisses() {
+    ServerSession session = mock(ServerSession.class);
+    when(session.id()).thenReturn(1L);
+
+    Commit<MapCommands.CacheGet> commit = mock(Commit.class);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new MapCommands.CacheGet("foo"));
+
+    MapState state = new MapState(new Properties());
+    assertNull(state.cacheGet(commit));
+    verify(commit, never()).release();
+
+    state.delete();
+    verify(commit).release();
+    verify(session).publish("clear");
+  }
+
+}
@@ -24,15 +24,21 @@ import io.atomix.collections.DistributedQueue;
 import io.atomix.collections.DistributedSet;
 import io.atomix.concurrent.DistributedLock;
 import io.atomix.group.DistributedGroup;
+import io.atomix.manager.ResourceBatch;
 import io.atomix.manager.ResourceClient;
+import io.atomix.manager.ResourceKeyPage;
 import io.atomix.manager.ResourceManager;
+import io.atomix.manager.ResourceMetrics;
 import io.atomix.resource.Resource;
 import io.atomix.resource.ResourceType;
 import io.atomix.variables.DistributedLong;
 import io.atomix.variables.DistributedValue;
+import io.atomix.variables.DistributedVariables;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -58,6 +64,7 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     new ResourceType(DistributedQueue.class),
     new ResourceType(DistributedValue.class),
     new ResourceType(DistributedLong.class),
+    new ResourceType(DistributedVariables.class),
     new ResourceType(DistributedLock.class),
     new ResourceType(DistributedGroup.class)
   );
@@ -801,6 +808,28 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     return getResource(key, DistributedLong.class, config, options);
   }
 
+  /**
+   * Gets or creates a distributed variables resource with default configuration and options.
+   * <p>
+   * The returned resource stores many lightweight {@link DistributedLong} and {@link DistributedValue} variables
+   * in a single state machine. Variables are retrieved from the resource locally without communicating with the
+   * cluster, and a variable only consumes memory in the cluster while it holds a non-default value:
+   * <pre>
+   *   {@code
+   *   DistributedVariables counters = atomix.getVariables("counters").get();
+   *   counters.getLong("user-123").incrementAndGet().join();
+   *   }
+   * </pre>
+   * If no variables resource exists at the given {@code key}, a new resource will be created. If a resource with
+   * the given key already exists, a reference to the resource will be returned in the {@link CompletableFuture}.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the variables resource has been created.
+   */
+  public CompletableFuture<DistributedVariables> getVariables(String key) {
+    return getResource(key, DistributedVariables.class);
+  }
+
   /**
    * Gets or creates a distributed lock with default configuration and options.
    * <p>
@@ -1022,6 +1051,27 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     return client.type(type);
   }
 
+  /**
+   * Creates a new atomic batch of operations on resources.
+   * <p>
+   * Operations on multiple resources can be added to the batch and submitted to the cluster as a single
+   * log entry, optionally guarded by conditions on the state of resources:
+   * <pre>
+   *   {@code
+   *   ResourceBatch batch = atomix.batch();
+   *   batch.add(() -> map.put("foo", "bar"));
+   *   batch.add(() -> counter.incrementAndGet());
+   *   batch.submit().join();
+   *   }
+   * </pre>
+   * All resources in a batch must belong to the same partition. See {@link ResourceBatch} for details.
+   *
+   * @return A new resource batch.
+   */
+  public ResourceBatch batch() {
+    return client.batch();
+  }
+
   @Override
   public CompletableFuture<Boolean> exists(String key) {
     return client.exists(key);
@@ -1042,6 +1092,11 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     return client.keys(type).thenApply(this::cleanKeys);
   }
 
+  @Override
+  public CompletableFuture<ResourceKeyPage> keys(String prefix, ResourceType type, String pageToken, int limit) {
+    return client.keys(prefix, type, pageToken, limit).thenApply(this::cleanKeys);
+  }
+
   /**
    * Cleans the key set.
    */
@@ -1050,6 +1105,29 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     return keys;
   }
 
+  /**
+   * Cleans the key page.
+   */
+  private ResourceKeyPage cleanKeys(ResourceKeyPage page) {
+    if (!page.keys().isEmpty() && page.keys().get(0).isEmpty()) {
+      return new ResourceKeyPage(page.keys().subList(1, page.keys().size()), page.nextPageToken());
+    }
+    return page;
+  }
+
+  @Override
+  public CompletableFuture<List<ResourceMetrics>> metrics() {
+    return client.metrics().thenApply(this::cleanMetrics);
+  }
+
+  /**
+   * Cleans the resource metrics.
+   */
+  private List<ResourceMetrics> cleanMetrics(List<ResourceMetrics> metrics) {
+    metrics.removeIf(m -> m.key().isEmpty());
+    return metrics;
+  }
+
   @Override
   public <T extends Resource> CompletableFuture<T> getResource(String key, Class<? super T> type) {
     Assert.argNot(key.trim().length() == 0, "invalid resource key: key must be of non-zero length");
@@ -1098,6 +1176,45 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     return client.getResource(key, type, config, options);
   }
 
+  @Override
+  public <T extends Resource> CompletableFuture<T> getReadOnlyResource(String key, Class<? super T> type) {
+    Assert.argNot(key.trim().length() == 0, "invalid resource key: key must be of non-zero length");
+    return client.getReadOnlyResource(key, type);
+  }
+
+  @Override
+  public <T extends Resource> CompletableFuture<T> getReadOnlyResource(String key, ResourceType type) {
+    Assert.argNot(key.trim().length() == 0, "invalid resource key: key must be of non-zero length");
+    return client.getReadOnlyResource(key, type);
+  }
+
+  /**
+   * Gets or creates multiple distributed resources of the same type.
+   * <p>
+   * Resources that are not already open are created or opened in a single commit per partition.
+   * See {@link #getResources(Collection, Class)} for details.
+   *
+   * @param type The expected resource type.
+   * @param keys The keys at which to get the resources.
+   * @param <T> The resource type.
+   * @return A completable future to be completed with the resources mapped by key in the order of the given keys.
+   */
+  public <T extends Resource> CompletableFuture<Map<String, T>> getResources(Class<? super T> type, String... keys) {
+    return getResources(Arrays.asList(keys), type);
+  }
+
+  @Override
+  public <T extends Resource> CompletableFuture<Map<String, T>> getResources(Collection<String> keys, Class<? super T> type) {
+    keys.forEach(key -> Assert.argNot(key.trim().length() == 0, "invalid resource key: key must be of non-zero length"));
+    return client.getResources(keys, type);
+  }
+
+  @Override
+  public <T extends Resource> CompletableFuture<Map<String, T>> getResources(Collection<String> keys, ResourceType type) {
+    keys.forEach(key -> Assert.argNot(key.trim().length() == 0, "invalid resource key: key must be of non-zero length"));
+    return client.getResources(keys, type);
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName();
@@ -243,6 +243,32 @@ public class AtomixClient extends Atomix {
       return this;
     }
 
+    /**
+     * Sets the number of partitions in the cluster.
+     * <p>
+     * The number of partitions must match the number of partitions configured on each server in the cluster.
+     *
+     * @param partitions The number of partitions.
+     * @return The client builder.
+     * @throws IllegalArgumentException if {@code partitions} is not positive
+     */
+    public Builder withPartitions(int partitions) {
+      builder.withPartitions(partitions);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of resource commands to submit in a single batch.
+     *
+     * @param batchSize The maximum number of commands in a batch, or {@code 1} to disable batching.
+     * @return The client builder.
+     * @throws IllegalArgumentException if {@code batchSize} is not positive
+     */
+    public Builder withBatchSize(int batchSize) {
+      builder.withBatchSize(batchSize);
+      return this;
+    }
+
     /**
      * Sets the available resource types.
      *
@@ -34,14 +34,17 @@ import io.atomix.copycat.server.storage.Storage;
 import io.atomix.copycat.session.Session;
 import io.atomix.manager.ResourceClient;
 import io.atomix.manager.ResourceManagerException;
+import io.atomix.manager.ResourceOperationTracer;
 import io.atomix.manager.ResourceServer;
 import io.atomix.manager.internal.ResourceManagerState;
 import io.atomix.manager.options.ServerOptions;
 import io.atomix.manager.util.ResourceManagerTypeResolver;
+import io.atomix.manager.util.SlowOperationLogger;
 import io.atomix.resource.Resource;
 import io.atomix.resource.ResourceRegistry;
 import io.atomix.resource.ResourceType;
 
+import java.io.File;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -119,6 +122,11 @@ import java.util.stream.Collectors;
  * {@link io.atomix.copycat.server.storage.StorageLevel} is used, user code should simply configure the replica
  * consistently based on the <em>initial</em> replica configuration, and the replica will recover from the last
  * known cluster configuration in the event of a failure.
+ * <p>
+ * A replica always hosts a single partition. Clusters that are partitioned to scale writes must be built from
+ * {@link io.atomix.manager.ResourceServer}s configured with
+ * {@link io.atomix.manager.ResourceServer.Builder#withPartitions(int) partitions}, and {@link AtomixClient}s
+ * connecting to a cluster of replicas must not be configured with more than one partition.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
@@ -590,6 +598,9 @@ public final class AtomixReplica extends Atomix {
     private Transport serverTransport;
     private ClusterManager clusterManager;
     private LocalServerRegistry localRegistry = new LocalServerRegistry();
+    private Storage storage;
+    private Duration hibernationTimeout;
+    private ResourceOperationTracer tracer;
 
     private Builder(Address clientAddress, Address serverAddress) {
       Serializer serializer = new Serializer();
@@ -727,6 +738,7 @@ public final class AtomixReplica extends Atomix {
      */
     public Builder withStorage(Storage storage) {
       serverBuilder.withStorage(storage);
+      this.storage = storage;
       return this;
     }
 
@@ -780,6 +792,60 @@ public final class AtomixReplica extends Atomix {
       return this;
     }
 
+    /**
+     * Sets the duration after which idle resources are hibernated.
+     * <p>
+     * Snapshottable resources that have no open sessions and have not been accessed within the hibernation timeout
+     * are serialized and released from memory, and are restored the next time they're accessed. If the replica's
+     * {@link Storage} is persistent, hibernated resources are written to a directory within the storage directory.
+     * Hibernated state is written and read synchronously on the state machine thread, delaying the operations applied
+     * after it, so the timeout should be long enough that resources in use are rarely hibernated.
+     * By default, resources are never hibernated.
+     *
+     * @param hibernationTimeout The duration after which idle resources are hibernated.
+     * @return The replica builder.
+     * @throws NullPointerException if {@code hibernationTimeout} is null
+     * @throws IllegalArgumentException if {@code hibernationTimeout} is not positive
+     */
+    public Builder withHibernationTimeout(Duration hibernationTimeout) {
+      Assert.notNull(hibernationTimeout, "hibernationTimeout");
+      Assert.arg(!hibernationTimeout.isNegative() && !hibernationTimeout.isZero(), "hibernationTimeout must be positive");
+      this.hibernationTimeout = hibernationTimeout;
+      return this;
+    }
+
+    /**
+     * Adds a tracer to be invoked for each operation applied to a resource.
+     * <p>
+     * Tracers are invoked on the state machine thread once each resource command or query has been applied,
+     * with the resource key and type, the operation class, index, apply time and result size. If multiple
+     * tracers are added, they're invoked in the order in which they were added.
+     *
+     * @param tracer The resource operation tracer.
+     * @return The replica builder.
+     * @throws NullPointerException if {@code tracer} is null
+     */
+    public Builder withOperationTracer(ResourceOperationTracer tracer) {
+      Assert.notNull(tracer, "tracer");
+      this.tracer = this.tracer != null ? this.tracer.andThen(tracer) : tracer;
+      return this;
+    }
+
+    /**
+     * Sets the threshold above which resource operations are logged as slow.
+     * <p>
+     * Operations that take at least the given duration to apply are logged at {@code WARN} level by a
+     * {@link SlowOperationLogger}. By default, slow operations are not logged.
+     *
+     * @param threshold The slow operation threshold.
+     * @return The replica builder.
+     * @throws NullPointerException if {@code threshold} is null
+     * @throws IllegalArgumentException if {@code threshold} is negative
+     */
+    public Builder withSlowOperationThreshold(Duration threshold) {
+      return withOperationTracer(new SlowOperationLogger(threshold));
+    }
+
     /**
      * Sets the replica's global suspend timeout.
      * <p>
@@ -926,7 +992,8 @@ public final class AtomixReplica extends Atomix {
       }
 
       // Set the server resource state machine.
-      serverBuilder.withStateMachine(ResourceManagerState::new);
+      File hibernationDirectory = ResourceManagerState.hibernationDirectory(storage, "atomix");
+      serverBuilder.withStateMachine(() -> new ResourceManagerState(hibernationTimeout, hibernationDirectory, tracer));
 
       CopycatServer server = serverBuilder.build();
       server.serializer().resolve(new ResourceManagerTypeResolver());
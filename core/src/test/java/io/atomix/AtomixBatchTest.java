@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix;
+
+import io.atomix.collections.DistributedMap;
+import io.atomix.collections.DistributedQueue;
+import io.atomix.manager.ResourceBatch;
+import io.atomix.variables.DistributedLong;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Atomix resource batch test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class AtomixBatchTest extends AbstractAtomixTest {
+  @BeforeClass
+  protected void setupCluster() throws Throwable {
+    createReplicas(3);
+  }
+
+  /**
+   * Tests applying a batch of operations on multiple resources.
+   */
+  public void testBatch() throws Throwable {
+    Atomix client = createClient();
+    DistributedMap<String, String> map = client.<String, String>getMap("test-batch-map").get(5, TimeUnit.SECONDS);
+    DistributedLong counter = client.getLong("test-batch-long").get(5, TimeUnit.SECONDS);
+    DistributedQueue<String> queue = client.<String>getQueue("test-batch-queue").get(5, TimeUnit.SECONDS);
+
+    ResourceBatch batch = client.batch();
+    CompletableFuture<String> put = batch.add(() -> map.put("foo", "bar"));
+    CompletableFuture<Long> increment = batch.add(counter::incrementAndGet);
+    CompletableFuture<Boolean> offer = batch.add(() -> queue.offer("foo"));
+    threadAssertTrue(batch.submit().get(5, TimeUnit.SECONDS));
+    threadAssertNull(put.get(5, TimeUnit.SECONDS));
+    threadAssertEquals(increment.get(5, TimeUnit.SECONDS), 1L);
+    threadAssertTrue(offer.get(5, TimeUnit.SECONDS));
+
+    threadAssertEquals(map.get("foo").get(5, TimeUnit.SECONDS), "bar");
+    threadAssertEquals(counter.get().get(5, TimeUnit.SECONDS), 1L);
+    threadAssertEquals(queue.peek().get(5, TimeUnit.SECONDS), "foo");
+  }
+
+  /**
+   * Tests that a batch is not applied if one of its conditions is not met.
+   */
+  public void testBatchCondition() throws Throwable {
+    Atomix client = createClient();
+    DistributedMap<String, String> map = client.<String, String>getMap("test-batch-condition-map").get(5, TimeUnit.SECONDS);
+    DistributedLong counter = client.getLong("test-batch-condition-long").get(5, TimeUnit.SECONDS);
+    map.put("foo", "bar").get(5, TimeUnit.SECONDS);
+
+    ResourceBatch batch1 = client.batch();
+    batch1.require(() -> map.get("foo"), "baz");
+    CompletableFuture<Long> increment1 = batch1.add(counter::incrementAndGet);
+    threadAssertFalse(batch1.submit().get(5, TimeUnit.SECONDS));
+    threadAssertTrue(increment1.isCompletedExceptionally());
+    threadAssertEquals(counter.get().get(5, TimeUnit.SECONDS), 0L);
+
+    ResourceBatch batch2 = client.batch();
+    batch2.require(() -> map.get("foo"), "bar");
+    batch2.add(() -> map.put("foo", "baz"));
+    CompletableFuture<Long> increment2 = batch2.add(counter::incrementAndGet);
+    threadAssertTrue(batch2.submit().get(5, TimeUnit.SECONDS));
+    threadAssertEquals(increment2.get(5, TimeUnit.SECONDS), 1L);
+    threadAssertEquals(map.get("foo").get(5, TimeUnit.SECONDS), "baz");
+  }
+
+}
@@ -20,6 +20,7 @@ import io.atomix.copycat.Query;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.copycat.server.Commit;
 import io.atomix.resource.*;
+import io.atomix.variables.DistributedLong;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -185,6 +186,53 @@ public class AtomixClientTest extends AbstractAtomixTest {
     await(10000);
   }
 
+  /**
+   * Tests opening a read-only resource instance.
+   */
+  public void testGetReadOnlyResource() throws Throwable {
+    createReplicas(3, new ResourceType(TestResource.class));
+    Atomix client = createClient(new ResourceType(TestResource.class));
+
+    client.getReadOnlyResource("test", TestResource.class).whenComplete((result, error) -> {
+      threadAssertNotNull(error);
+      resume();
+    });
+    await(10000);
+
+    client.getResource("test", TestResource.class).get(5, TimeUnit.SECONDS);
+    TestResource resource = client.<TestResource>getReadOnlyResource("test", TestResource.class).get(5, TimeUnit.SECONDS);
+    threadAssertEquals(resource.query("Hello world!").get(5, TimeUnit.SECONDS), "Hello world!");
+
+    resource.command("Hello world!").whenComplete((result, error) -> {
+      threadAssertTrue(error instanceof IllegalStateException);
+      resume();
+    });
+    await(10000);
+
+    resource.close().get(5, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Tests that opening and closing a read-only resource does not stop events to a read-write instance.
+   */
+  public void testReadOnlyResourceEvents() throws Throwable {
+    createReplicas(3);
+    Atomix client = createClient();
+
+    DistributedLong value = client.getLong("test").get(5, TimeUnit.SECONDS);
+    value.onChange(event -> {
+      threadAssertEquals(event.newValue(), 1L);
+      resume();
+    }).get(5, TimeUnit.SECONDS);
+
+    DistributedLong readOnly = client.<DistributedLong>getReadOnlyResource("test", DistributedLong.class).get(5, TimeUnit.SECONDS);
+    threadAssertEquals(readOnly.get().get(5, TimeUnit.SECONDS), 0L);
+    readOnly.close().get(5, TimeUnit.SECONDS);
+
+    value.incrementAndGet().get(5, TimeUnit.SECONDS);
+    await(5000);
+  }
+
   /**
    * Test resource.
    */
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix;
+
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.local.LocalTransport;
+import io.atomix.copycat.server.CopycatServer;
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
+import io.atomix.manager.ResourceBatch;
+import io.atomix.manager.ResourceKeyPage;
+import io.atomix.manager.ResourceManagerMXBean;
+import io.atomix.manager.ResourceMetrics;
+import io.atomix.manager.ResourceServer;
+import io.atomix.manager.internal.ResourceManagerPartitions;
+import io.atomix.variables.DistributedLong;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partitioned resource manager test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class AtomixPartitionTest extends AbstractAtomixTest {
+  private static final int PARTITIONS = 3;
+  private List<ResourceServer> servers;
+
+  @BeforeMethod
+  protected void beforeMethod() {
+    init();
+    servers = new ArrayList<>();
+  }
+
+  @AfterMethod
+  protected void afterMethod() throws Throwable {
+    cleanup();
+    for (ResourceServer server : servers) {
+      server.shutdown().whenComplete((result, error) -> resume());
+      await(30000);
+    }
+  }
+
+  /**
+   * Tests that resources are spread across partitions and remain reachable from all clients.
+   */
+  public void testPartitionedResources() throws Throwable {
+    createServers(3);
+
+    Atomix client1 = createPartitionedClient();
+    Atomix client2 = createPartitionedClient();
+
+    for (int i = 0; i < 10; i++) {
+      DistributedLong value = client1.getLong("test-partition-" + i).get(10, TimeUnit.SECONDS);
+      value.set((long) i).get(10, TimeUnit.SECONDS);
+    }
+
+    for (int i = 0; i < 10; i++) {
+      DistributedLong value = client2.getLong("test-partition-" + i).get(10, TimeUnit.SECONDS);
+      threadAssertEquals(value.get().get(10, TimeUnit.SECONDS), (long) i);
+    }
+
+    Set<String> keys = client2.keys().get(10, TimeUnit.SECONDS);
+    for (int i = 0; i < 10; i++) {
+      threadAssertTrue(keys.contains("test-partition-" + i));
+    }
+    threadAssertTrue(client2.exists("test-partition-0").get(10, TimeUnit.SECONDS));
+    threadAssertFalse(client2.exists("test-partition-missing").get(10, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Tests opening many resources across partitions in bulk.
+   */
+  public void testPartitionedGetResources() throws Throwable {
+    createServers(3);
+
+    Atomix client1 = createPartitionedClient();
+    Atomix client2 = createPartitionedClient();
+
+    String[] keys = new String[10];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = "test-bulk-" + i;
+    }
+
+    DistributedLong existing = client1.getLong(keys[0]).get(10, TimeUnit.SECONDS);
+    Map<String, DistributedLong> values1 = client1.<DistributedLong>getResources(DistributedLong.class, keys).get(10, TimeUnit.SECONDS);
+    threadAssertEquals(values1.size(), keys.length);
+    threadAssertTrue(values1.get(keys[0]) == existing);
+    for (int i = 0; i < keys.length; i++) {
+      values1.get(keys[i]).set((long) i).get(10, TimeUnit.SECONDS);
+    }
+
+    Map<String, DistributedLong> values2 = client2.<DistributedLong>getResources(DistributedLong.class, keys).get(10, TimeUnit.SECONDS);
+    int i = 0;
+    for (Map.Entry<String, DistributedLong> entry : values2.entrySet()) {
+      threadAssertEquals(entry.getKey(), keys[i]);
+      threadAssertEquals(entry.getValue().get().get(10, TimeUnit.SECONDS), (long) i);
+      i++;
+    }
+  }
+
+  /**
+   * Tests reading resource metrics across partitions.
+   */
+  public void testPartitionedMetrics() throws Throwable {
+    createServers(3);
+
+    Atomix client = createPartitionedClient();
+    for (int i = 0; i < 6; i++) {
+      DistributedLong value = client.getLong("test-metrics-" + i).get(10, TimeUnit.SECONDS);
+      value.set((long) i).get(10, TimeUnit.SECONDS);
+    }
+
+    Map<String, ResourceMetrics> metrics = new HashMap<>();
+    for (ResourceMetrics resource : client.metrics().get(10, TimeUnit.SECONDS)) {
+      metrics.put(resource.key(), resource);
+    }
+    threadAssertEquals(metrics.size(), 6);
+    for (int i = 0; i < 6; i++) {
+      threadAssertTrue(metrics.get("test-metrics-" + i).commands() > 0);
+    }
+
+    MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    Set<ObjectName> names = mbeanServer.queryNames(new ObjectName(String.format("io.atomix:type=ResourceManager,address=%s,*", ObjectName.quote(members.get(0).toString()))), null);
+    threadAssertEquals(names.size(), PARTITIONS);
+    for (ObjectName name : names) {
+      ResourceManagerMXBean mbean = JMX.newMXBeanProxy(mbeanServer, name, ResourceManagerMXBean.class);
+      threadAssertEquals(mbean.getCommandCounts().size(), mbean.getResourceCount());
+    }
+  }
+
+  /**
+   * Tests listing resource keys by page across partitions.
+   */
+  public void testPartitionedKeyPages() throws Throwable {
+    createServers(3);
+
+    Atomix client = createPartitionedClient();
+    for (int i = 0; i < 10; i++) {
+      client.getLong("test-page/" + i).get(10, TimeUnit.SECONDS);
+    }
+    client.getLong("test-other").get(10, TimeUnit.SECONDS);
+
+    List<String> keys = new ArrayList<>();
+    ResourceKeyPage page = client.keys("test-page/", null, null, 3).get(10, TimeUnit.SECONDS);
+    keys.addAll(page.keys());
+    while (page.nextPageToken() != null) {
+      threadAssertEquals(page.keys().size(), 3);
+      page = client.keys("test-page/", null, page.nextPageToken(), 3).get(10, TimeUnit.SECONDS);
+      keys.addAll(page.keys());
+    }
+
+    threadAssertEquals(keys.size(), 10);
+    for (int i = 0; i < 10; i++) {
+      threadAssertEquals(keys.get(i), "test-page/" + i);
+    }
+  }
+
+  /**
+   * Tests that a batch cannot span multiple partitions.
+   */
+  public void testBatchAcrossPartitions() throws Throwable {
+    createServers(3);
+
+    Atomix client = createPartitionedClient();
+    String key1 = "test-batch-partition-0";
+    String key2 = key1;
+    for (int i = 1; ResourceManagerPartitions.partition(key2, PARTITIONS) == ResourceManagerPartitions.partition(key1, PARTITIONS); i++) {
+      key2 = "test-batch-partition-" + i;
+    }
+
+    DistributedLong value1 = client.getLong(key1).get(10, TimeUnit.SECONDS);
+    DistributedLong value2 = client.getLong(key2).get(10, TimeUnit.SECONDS);
+    ResourceBatch batch = client.batch();
+    batch.add(value1::incrementAndGet);
+    try {
+      batch.add(value2::incrementAndGet);
+      threadFail("expected batch across partitions to fail");
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  /**
+   * Creates a set of partitioned servers.
+   */
+  private void createServers(int nodes) throws Throwable {
+    List<Address> members = new ArrayList<>();
+    for (int i = 0; i < nodes; i++) {
+      members.add(new Address("localhost", port));
+      port += PARTITIONS;
+    }
+    this.members.addAll(members);
+
+    for (int i = 0; i < nodes; i++) {
+      ResourceServer server = ResourceServer.builder(members.get(i))
+        .withTransport(new LocalTransport(registry))
+        .withStorage(new Storage(StorageLevel.MEMORY))
+        .withResourceTypes(DistributedLong.class)
+        .withPartitions(PARTITIONS)
+        .withJmxEnabled(true)
+        .build();
+      for (CopycatServer partition : server.partitions()) {
+        partition.serializer().disableWhitelist();
+      }
+      server.bootstrap(members).thenRun(this::resume);
+      servers.add(server);
+    }
+
+    await(30000 * nodes, nodes);
+  }
+
+  /**
+   * Creates a partitioned client.
+   */
+  private AtomixClient createPartitionedClient() throws Throwable {
+    AtomixClient client = AtomixClient.builder()
+      .withTransport(new LocalTransport(registry))
+      .withPartitions(PARTITIONS)
+      .build();
+    client.serializer().disableWhitelist();
+    client.connect(members).thenRun(this::resume);
+    clients.add(client);
+    await(10000);
+    return client;
+  }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.manager.resource.internal.InstanceBatch;
+import io.atomix.manager.resource.internal.InstanceCommand;
+import io.atomix.manager.resource.internal.InstanceQuery;
+import io.atomix.manager.resource.internal.InstanceRecorder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Atomic batch of write operations on multiple resources.
+ * <p>
+ * A resource batch collects operations on multiple {@link io.atomix.resource.Resource} instances and submits them
+ * to the cluster as a single log entry. All operations in the batch are applied together in a single round trip,
+ * and no other operation is applied between operations in the same batch. Operations are added to the batch by
+ * calling methods on resource instances from within the provided supplier:
+ * <pre>
+ *   {@code
+ *   ResourceBatch batch = atomix.batch();
+ *   batch.require(() -> map.get("foo"), "bar");
+ *   CompletableFuture<Object> put = batch.add(() -> map.put("foo", "baz"));
+ *   CompletableFuture<Long> increment = batch.add(() -> counter.incrementAndGet());
+ *   CompletableFuture<Boolean> offer = batch.add(() -> queue.offer("foo"));
+ *   batch.submit().thenAccept(applied -> {
+ *     ...
+ *   });
+ *   }
+ * </pre>
+ * Each supplier must submit exactly one operation, and only one operation can be added per resource. The future
+ * returned by each supplier is completed once the batch has been applied.
+ * <p>
+ * Conditions added via {@link #require(Supplier, Object)} are evaluated before any operation in the batch is applied.
+ * If the output of any condition does not equal its expected value, no operation is applied, the batch completes
+ * with {@code false}, and the futures for the batch's operations are cancelled. Operations that fail once applied do
+ * not roll back the operations that preceded them in the batch. The future for a failed operation is completed with
+ * the same {@link io.atomix.copycat.error.ApplicationException} the operation would fail with outside a batch.
+ * <p>
+ * All resources in a batch must belong to the same partition.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ResourceBatch {
+  private final List<InstanceCommand<?, ?>> commands = new ArrayList<>();
+  private final List<CompletableFuture<Object>> futures = new ArrayList<>();
+  private final List<InstanceQuery<?, ?>> conditions = new ArrayList<>();
+  private final List<Object> expected = new ArrayList<>();
+  private final Set<Long> resources = new HashSet<>();
+  private CopycatClient client;
+  private boolean submitted;
+
+  ResourceBatch() {
+  }
+
+  /**
+   * Adds an operation to the batch.
+   *
+   * @param operation A supplier that calls a single write operation on a resource instance.
+   * @param <T> The operation result type.
+   * @return The future returned by the supplier, to be completed once the batch has been applied.
+   * @throws NullPointerException if {@code operation} is null
+   * @throws IllegalArgumentException if the supplier does not submit exactly one write operation, if an operation
+   *         has already been added for the same resource, or if the resource belongs to a different partition
+   * @throws IllegalStateException if the batch has already been submitted
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <T> CompletableFuture<T> add(Supplier<CompletableFuture<T>> operation) {
+    Assert.state(!submitted, "batch already submitted");
+    InstanceRecorder recorder = InstanceRecorder.record(operation);
+    Assert.arg(recorder.operation() instanceof InstanceCommand, "batch operations must be write operations");
+    InstanceCommand<?, ?> command = (InstanceCommand<?, ?>) recorder.operation();
+    partition(recorder);
+    Assert.arg(resources.add(command.resource()), "batch already contains an operation for the resource");
+    commands.add(command);
+    futures.add(recorder.future());
+    return (CompletableFuture<T>) recorder.result();
+  }
+
+  /**
+   * Adds a condition to the batch.
+   * <p>
+   * The supplier must call a single read operation on a resource instance. The output of the operation is compared
+   * with the expected value using {@link Object#equals(Object)} before any operation in the batch is applied.
+   *
+   * @param condition A supplier that calls a single read operation on a resource instance.
+   * @param expected The expected output of the read operation.
+   * @param <T> The operation result type.
+   * @return The resource batch.
+   * @throws NullPointerException if {@code condition} is null
+   * @throws IllegalArgumentException if the supplier does not submit exactly one read operation or if the
+   *         resource belongs to a different partition
+   * @throws IllegalStateException if the batch has already been submitted
+   */
+  public synchronized <T> ResourceBatch require(Supplier<CompletableFuture<T>> condition, T expected) {
+    Assert.state(!submitted, "batch already submitted");
+    InstanceRecorder recorder = InstanceRecorder.record(condition);
+    Assert.arg(recorder.operation() instanceof InstanceQuery, "batch conditions must be read operations");
+    partition(recorder);
+    conditions.add((InstanceQuery<?, ?>) recorder.operation());
+    this.expected.add(expected);
+    return this;
+  }
+
+  /**
+   * Checks that the recorded operation belongs to the batch's partition.
+   */
+  private void partition(InstanceRecorder recorder) {
+    if (client == null) {
+      client = recorder.client();
+    } else {
+      Assert.arg(client == recorder.client(), "all resources in a batch must belong to the same partition");
+    }
+  }
+
+  /**
+   * Submits the batch to the cluster.
+   *
+   * @return A completable future to be completed with {@code true} if the batch was applied or {@code false}
+   *         if one of the batch's conditions was not met.
+   * @throws IllegalStateException if the batch has already been submitted
+   */
+  public synchronized CompletableFuture<Boolean> submit() {
+    Assert.state(!submitted, "batch already submitted");
+    submitted = true;
+    if (commands.isEmpty() && conditions.isEmpty()) {
+      return CompletableFuture.completedFuture(true);
+    }
+
+    CompletableFuture<Boolean> future = new CompletableFuture<>();
+    client.submit(new InstanceBatch(commands, conditions, expected)).whenComplete((results, error) -> {
+      if (error != null) {
+        futures.forEach(f -> f.completeExceptionally(error));
+        future.completeExceptionally(error);
+      } else if (results == null) {
+        futures.forEach(f -> f.cancel(false));
+        future.complete(false);
+      } else {
+        for (int i = 0; i < futures.size(); i++) {
+          Object result = results.get(i);
+          if (result instanceof InstanceBatch.Failure) {
+            futures.get(i).completeExceptionally(((InstanceBatch.Failure) result).exception());
+          } else {
+            futures.get(i).complete(result);
+          }
+        }
+        future.complete(true);
+      }
+    });
+    return future;
+  }
+
+}
@@ -23,10 +23,18 @@ import io.atomix.catalyst.transport.Transport;
 import io.atomix.catalyst.util.Assert;
 import io.atomix.catalyst.util.ConfigurationException;
 import io.atomix.copycat.client.*;
+import io.atomix.manager.internal.GetResourceKeyPage;
 import io.atomix.manager.internal.GetResourceKeys;
+import io.atomix.manager.internal.GetResourceMetrics;
+import io.atomix.manager.internal.GetResources;
 import io.atomix.manager.internal.ResourceExists;
+import io.atomix.manager.internal.ResourceInfo;
+import io.atomix.manager.internal.ResourceManagerPartitions;
 import io.atomix.manager.options.ClientOptions;
+import io.atomix.manager.resource.internal.BatchingCopycatClient;
 import io.atomix.manager.resource.internal.InstanceClient;
+import io.atomix.manager.resource.internal.InstanceEventDispatcher;
+import io.atomix.manager.resource.internal.InstanceRecovery;
 import io.atomix.manager.resource.internal.ResourceInstance;
 import io.atomix.manager.util.ResourceManagerTypeResolver;
 import io.atomix.resource.Resource;
@@ -114,7 +122,14 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
       .withSerializer(clientProperties.serializer());
   }
 
+  private static final int DEFAULT_BATCH_SIZE = 128;
+  private static final int MAX_IN_FLIGHT = 4;
+
   private final CopycatClient client;
+  private final List<CopycatClient> partitions;
+  private final List<CopycatClient> batchers;
+  private final List<InstanceEventDispatcher> dispatchers;
+  private final List<InstanceRecovery> recoveries;
   private final Map<Class<? extends Resource<?>>, ResourceType> types = new ConcurrentHashMap<>();
   private final Map<String, Resource<?>> instances = new ConcurrentHashMap<>();
   private final Map<String, CompletableFuture> futures = new ConcurrentHashMap<>();
@@ -123,11 +138,34 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
    * @throws NullPointerException if {@code client} or {@code registry} are null
    */
   public ResourceClient(CopycatClient client) {
-    this.client = Assert.notNull(client, "client");
+    this(Collections.singletonList(Assert.notNull(client, "client")));
+  }
+
+  /**
+   * @throws NullPointerException if {@code partitions} is null
+   * @throws IllegalArgumentException if {@code partitions} is empty
+   */
+  public ResourceClient(List<CopycatClient> partitions) {
+    this(partitions, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * @throws NullPointerException if {@code partitions} is null
+   * @throws IllegalArgumentException if {@code partitions} is empty or {@code batchSize} is not positive
+   */
+  public ResourceClient(List<CopycatClient> partitions, int batchSize) {
+    Assert.argNot(Assert.notNull(partitions, "partitions").isEmpty(), "partitions cannot be empty");
+    this.partitions = Collections.unmodifiableList(new ArrayList<>(partitions));
+    this.client = this.partitions.get(0);
+    this.batchers = this.partitions.stream().map(p -> new BatchingCopycatClient(p, batchSize, MAX_IN_FLIGHT)).collect(Collectors.toList());
+    this.dispatchers = this.partitions.stream().map(InstanceEventDispatcher::new).collect(Collectors.toList());
+    this.recoveries = this.batchers.stream().map(InstanceRecovery::new).collect(Collectors.toList());
   }
 
   /**
    * Returns the underlying Copycat client.
+   * <p>
+   * If the client is connected to multiple partitions, the client for the first partition is returned.
    *
    * @return The underlying Copycat client.
    */
@@ -135,6 +173,50 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
     return client;
   }
 
+  /**
+   * Returns the underlying Copycat clients for each partition.
+   *
+   * @return The underlying Copycat clients for each partition.
+   */
+  public List<CopycatClient> partitions() {
+    return partitions;
+  }
+
+  /**
+   * Returns the Copycat client for the partition to which the given key belongs.
+   */
+  private CopycatClient partition(String key) {
+    return partitions.get(partitionIndex(key));
+  }
+
+  /**
+   * Returns the index of the partition to which the given key belongs.
+   */
+  private int partitionIndex(String key) {
+    return partitions.size() == 1 ? 0 : ResourceManagerPartitions.partition(key, partitions.size());
+  }
+
+  /**
+   * Submits the given keys query to all partitions and merges the results.
+   */
+  private CompletableFuture<Set<String>> keys(GetResourceKeys query) {
+    if (partitions.size() == 1) {
+      return client.submit(query);
+    }
+
+    List<CompletableFuture<Set<String>>> futures = new ArrayList<>(partitions.size());
+    for (CopycatClient partition : partitions) {
+      futures.add(partition.submit(query));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(v -> {
+      Set<String> keys = new HashSet<>();
+      for (CompletableFuture<Set<String>> future : futures) {
+        keys.addAll(future.join());
+      }
+      return keys;
+    });
+  }
+
   @Override
   public ThreadContext context() {
     return client.context();
@@ -150,14 +232,26 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
     return types.computeIfAbsent(type, ResourceType::new);
   }
 
+  /**
+   * Creates a new atomic batch of operations on resources in this client.
+   * <p>
+   * Operations on resources created by this client can be added to the batch and submitted to the cluster
+   * as a single log entry. See {@link ResourceBatch} for details.
+   *
+   * @return A new resource batch.
+   */
+  public ResourceBatch batch() {
+    return new ResourceBatch();
+  }
+
   @Override
   public CompletableFuture<Boolean> exists(String key) {
-    return client.submit(new ResourceExists(key));
+    return partition(Assert.notNull(key, "key")).submit(new ResourceExists(key));
   }
 
   @Override
   public CompletableFuture<Set<String>> keys() {
-    return client.submit(new GetResourceKeys());
+    return keys(new GetResourceKeys());
   }
 
   @Override
@@ -168,7 +262,56 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
 
   @Override
   public CompletableFuture<Set<String>> keys(ResourceType type) {
-    return client.submit(new GetResourceKeys(Assert.notNull(type, "type").id()));
+    return keys(new GetResourceKeys(Assert.notNull(type, "type").id()));
+  }
+
+  @Override
+  public CompletableFuture<ResourceKeyPage> keys(String prefix, ResourceType type, String pageToken, int limit) {
+    GetResourceKeyPage query = new GetResourceKeyPage(prefix, type != null ? type.id() : 0, pageToken, limit);
+    if (partitions.size() == 1) {
+      return client.submit(query);
+    }
+
+    // Each partition returns up to the limit of its own keys following the token, so the first page
+    // of the merged keys is the first limit keys across all partitions.
+    List<CompletableFuture<ResourceKeyPage>> futures = new ArrayList<>(partitions.size());
+    for (CopycatClient partition : partitions) {
+      futures.add(partition.submit(query));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(v -> {
+      List<String> keys = new ArrayList<>();
+      boolean more = false;
+      for (CompletableFuture<ResourceKeyPage> future : futures) {
+        ResourceKeyPage page = future.join();
+        keys.addAll(page.keys());
+        more |= page.nextPageToken() != null;
+      }
+      Collections.sort(keys);
+      if (keys.size() > limit) {
+        return new ResourceKeyPage(new ArrayList<>(keys.subList(0, limit)), keys.get(limit - 1));
+      }
+      return new ResourceKeyPage(keys, more && !keys.isEmpty() ? keys.get(keys.size() - 1) : null);
+    });
+  }
+
+  @Override
+  public CompletableFuture<List<ResourceMetrics>> metrics() {
+    GetResourceMetrics query = new GetResourceMetrics();
+    if (partitions.size() == 1) {
+      return client.submit(query);
+    }
+
+    List<CompletableFuture<List<ResourceMetrics>>> futures = new ArrayList<>(partitions.size());
+    for (CopycatClient partition : partitions) {
+      futures.add(partition.submit(query));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(v -> {
+      List<ResourceMetrics> metrics = new ArrayList<>();
+      for (CompletableFuture<List<ResourceMetrics>> future : futures) {
+        metrics.addAll(future.join());
+      }
+      return metrics;
+    });
   }
 
   @Override
@@ -215,24 +358,20 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
 
   @Override
   @SuppressWarnings("unchecked")
-  public synchronized <T extends Resource> CompletableFuture<T> getResource(String key, ResourceType type, Resource.Config config, Resource.Options options) {
+  public <T extends Resource> CompletableFuture<T> getResource(String key, ResourceType type, Resource.Config config, Resource.Options options) {
     Assert.notNull(key, "key");
     Assert.notNull(type, "type");
     Assert.notNull(config, "config");
     Assert.notNull(options, "options");
     T resource;
 
-    // Determine whether a singleton instance of the given resource key already exists.
-    Resource<?> check = instances.get(key);
-    if (check == null) {
-      ResourceInstance instance = new ResourceInstance(key, type, config, this::close);
-      InstanceClient client = new InstanceClient(instance, this.client);
-      try {
-        check = type.factory().newInstance().createInstance(client, options);
-        instances.put(key, check);
-      } catch (InstantiationException | IllegalAccessException e) {
-        return Futures.exceptionalFuture(e);
-      }
+    // Get or create the singleton instance of the given resource key. Instances are created atomically
+    // by the instances map, so opening different resources concurrently does not contend on a shared lock.
+    Resource<?> check;
+    try {
+      check = instances.computeIfAbsent(key, k -> createInstance(k, type, config, options, null));
+    } catch (ResourceManagerException e) {
+      return Futures.exceptionalFuture(e.getCause());
     }
 
     // Ensure the existing singleton instance type matches the requested instance type. If the instance
@@ -248,12 +387,128 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
     return futures.computeIfAbsent(key, k -> resource.open());
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends Resource> CompletableFuture<T> getReadOnlyResource(String key, Class<? super T> type) {
+    return this.<T>getReadOnlyResource(key, type((Class<? extends Resource<?>>) type));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends Resource> CompletableFuture<T> getReadOnlyResource(String key, ResourceType type) {
+    Assert.notNull(key, "key");
+    Assert.notNull(type, "type");
+
+    // Read-only instances are not shared. Each handle resolves the resource with a query, so it holds no
+    // session on the resource, and it's never registered to receive events, so opening or closing it does
+    // not affect other instances of the same resource.
+    ResourceInstance instance = new ResourceInstance(key, type, new Resource.Config(), i -> {});
+    int partition = partitionIndex(key);
+    InstanceClient client = new InstanceClient(instance, batchers.get(partition), dispatchers.get(partition), recoveries.get(partition), true);
+    try {
+      return (CompletableFuture<T>) type.factory().newInstance().createInstance(client, new Resource.Options().withReadOnly()).open();
+    } catch (InstantiationException | IllegalAccessException e) {
+      return Futures.exceptionalFuture(new ResourceManagerException(e));
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends Resource> CompletableFuture<Map<String, T>> getResources(Collection<String> keys, Class<? super T> type) {
+    return getResources(keys, type((Class<? extends Resource<?>>) type));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends Resource> CompletableFuture<Map<String, T>> getResources(Collection<String> keys, ResourceType type) {
+    Assert.notNull(keys, "keys");
+    Assert.notNull(type, "type");
+    Resource.Config config = new Resource.Config();
+
+    // Get or create the singleton instance of each key, recording the clients of instances created by this call.
+    Map<String, InstanceClient> created = new LinkedHashMap<>();
+    Map<String, Resource<?>> resources = new LinkedHashMap<>();
+    for (String key : keys) {
+      Resource<?> resource;
+      try {
+        resource = instances.computeIfAbsent(Assert.notNull(key, "key"), k -> createInstance(k, type, config, new Resource.Options(), created));
+      } catch (ResourceManagerException e) {
+        return Futures.exceptionalFuture(e.getCause());
+      }
+      if (resource.type().id() != type.id()) {
+        return Futures.exceptionalFuture(new IllegalArgumentException("inconsistent resource type: " + type));
+      }
+      resources.put(key, resource);
+    }
+
+    // Connect the new instances to futures to be completed by the bulk commands before opening any instance,
+    // so opening an instance does not submit another command to the cluster.
+    Map<String, CompletableFuture<ResourceInfo>> pending = new HashMap<>();
+    for (Map.Entry<String, InstanceClient> entry : created.entrySet()) {
+      CompletableFuture<ResourceInfo> future = new CompletableFuture<>();
+      entry.getValue().connect(future);
+      pending.put(entry.getKey(), future);
+    }
+
+    CompletableFuture<?>[] openFutures = new CompletableFuture[resources.size()];
+    int i = 0;
+    for (Map.Entry<String, Resource<?>> entry : resources.entrySet()) {
+      Resource<?> resource = entry.getValue();
+      openFutures[i++] = futures.computeIfAbsent(entry.getKey(), k -> resource.open());
+    }
+
+    // Create or open the new instances with a single command per partition.
+    Map<Integer, List<String>> partitionKeys = new HashMap<>();
+    for (String key : created.keySet()) {
+      partitionKeys.computeIfAbsent(partitionIndex(key), p -> new ArrayList<>()).add(key);
+    }
+    for (Map.Entry<Integer, List<String>> entry : partitionKeys.entrySet()) {
+      List<String> openKeys = entry.getValue();
+      batchers.get(entry.getKey()).submit(new GetResources(openKeys, type, config)).whenComplete((results, error) -> {
+        for (int j = 0; j < openKeys.size(); j++) {
+          String key = openKeys.get(j);
+          if (error == null && results.get(j) != null) {
+            pending.get(key).complete(results.get(j));
+          } else {
+            // Remove the instances that failed to open so they can be opened again.
+            instances.remove(key, resources.get(key));
+            futures.remove(key);
+            pending.get(key).completeExceptionally(error != null ? error : new ResourceManagerException("failed to open resource: " + key));
+          }
+        }
+      });
+    }
+
+    return CompletableFuture.allOf(openFutures).thenApply(v -> (Map<String, T>) Collections.unmodifiableMap(resources));
+  }
+
+  /**
+   * Creates a new resource instance.
+   *
+   * @param clients A map to which to add the instance client, or {@code null}.
+   * @throws ResourceManagerException if the resource instance cannot be instantiated
+   */
+  private Resource<?> createInstance(String key, ResourceType type, Resource.Config config, Resource.Options options, Map<String, InstanceClient> clients) {
+    ResourceInstance instance = new ResourceInstance(key, type, config, this::close);
+    int partition = partitionIndex(key);
+    InstanceClient client = new InstanceClient(instance, batchers.get(partition), dispatchers.get(partition), recoveries.get(partition));
+    try {
+      Resource<?> resource = type.factory().newInstance().createInstance(client, options);
+      if (clients != null) {
+        clients.put(key, client);
+      }
+      return resource;
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new ResourceManagerException(e);
+    }
+  }
+
   /**
    * Closes the given resource instance.
    *
    * @param instance The instance to close.
    */
-  private synchronized void close(ResourceInstance instance) {
+  private void close(ResourceInstance instance) {
     instances.remove(instance.key());
     futures.remove(instance.key());
   }
@@ -282,9 +537,19 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
    *
    * @param cluster The cluster configuration to which to connect the client.
    * @return A completable future to be completed once the client is connected.
+   * @throws IllegalArgumentException if the partition port ranges of the cluster members overlap
    */
   public CompletableFuture<ResourceClient> connect(Collection<Address> cluster) {
-    return client.connect(cluster).thenApply(v -> this);
+    ResourceManagerPartitions.validate(cluster, partitions.size());
+    if (partitions.size() == 1) {
+      return client.connect(cluster).thenApply(v -> this);
+    }
+
+    CompletableFuture<?>[] futures = new CompletableFuture[partitions.size()];
+    for (int i = 0; i < partitions.size(); i++) {
+      futures[i] = partitions.get(i).connect(ResourceManagerPartitions.addresses(cluster, i));
+    }
+    return CompletableFuture.allOf(futures).thenApply(v -> this);
   }
 
   /**
@@ -298,7 +563,13 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
     for (Resource<?> instance : instances.values()) {
       futures[i++] = instance.close();
     }
-    return CompletableFuture.allOf(futures).thenCompose(v -> client.close());
+    return CompletableFuture.allOf(futures).thenCompose(v -> {
+      CompletableFuture<?>[] closeFutures = new CompletableFuture[partitions.size()];
+      for (int j = 0; j < partitions.size(); j++) {
+        closeFutures[j] = partitions.get(j).close();
+      }
+      return CompletableFuture.allOf(closeFutures);
+    });
   }
 
   @Override
@@ -323,6 +594,8 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
     private final ResourceRegistry registry = new ResourceRegistry();
     private CopycatClient.Builder clientBuilder;
     private Transport transport;
+    private int partitions = 1;
+    private int batchSize = DEFAULT_BATCH_SIZE;
 
     protected Builder() {
       clientBuilder = CopycatClient.builder()
@@ -384,6 +657,39 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
       return this;
     }
 
+    /**
+     * Sets the number of partitions in the cluster.
+     * <p>
+     * The number of partitions must match the number of partitions configured on each
+     * {@link ResourceServer.Builder#withPartitions(int) server} in the cluster. Defaults to {@code 1}.
+     *
+     * @param partitions The number of partitions.
+     * @return The client builder.
+     * @throws IllegalArgumentException if {@code partitions} is not positive
+     */
+    public Builder withPartitions(int partitions) {
+      Assert.arg(partitions > 0, "partitions must be positive");
+      this.partitions = partitions;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of resource commands to submit in a single batch.
+     * <p>
+     * While the client has many commands in flight, commands submitted to different resources are coalesced
+     * into batches that are written to the log as a single entry. A batch size of {@code 1} disables batching.
+     * Defaults to {@code 128}.
+     *
+     * @param batchSize The maximum number of commands in a batch.
+     * @return The client builder.
+     * @throws IllegalArgumentException if {@code batchSize} is not positive
+     */
+    public Builder withBatchSize(int batchSize) {
+      Assert.arg(batchSize > 0, "batchSize must be positive");
+      this.batchSize = batchSize;
+      return this;
+    }
+
     /**
      * Sets the available resource types.
      *
@@ -446,7 +752,14 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
         }
       }
 
-      CopycatClient client = clientBuilder.build();
+      // Build a client for each partition. Clients built from the same builder share a serializer,
+      // so types only need to be registered with the first client's serializer.
+      List<CopycatClient> clients = new ArrayList<>(partitions);
+      for (int i = 0; i < partitions; i++) {
+        clients.add(clientBuilder.build());
+      }
+
+      CopycatClient client = clients.get(0);
       client.serializer().resolve(new ResourceManagerTypeResolver());
 
       for (ResourceType type : registry.types()) {
@@ -457,7 +770,7 @@ public class ResourceClient implements ResourceManager<ResourceClient> {
         }
       }
 
-      return new ResourceClient(client);
+      return new ResourceClient(clients, batchSize);
     }
   }
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of resource keys.
+ * <p>
+ * Resource key pages are returned by {@link ResourceManager#keys(String, io.atomix.resource.ResourceType, String, int)}.
+ * Keys within a page are sorted in lexicographical order. If more keys remain to be listed, the page's
+ * {@link #nextPageToken() next page token} can be passed to a subsequent call to list the next page:
+ * <pre>
+ *   {@code
+ *   ResourceKeyPage page = atomix.keys("tenant/", null, null, 100).get();
+ *   while (page.nextPageToken() != null) {
+ *     page = atomix.keys("tenant/", null, page.nextPageToken(), 100).get();
+ *   }
+ *   }
+ * </pre>
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ResourceKeyPage implements CatalystSerializable {
+  private List<String> keys;
+  private String nextPageToken;
+
+  public ResourceKeyPage() {
+  }
+
+  /**
+   * @throws NullPointerException if {@code keys} is null
+   */
+  public ResourceKeyPage(List<String> keys, String nextPageToken) {
+    this.keys = Assert.notNull(keys, "keys");
+    this.nextPageToken = nextPageToken;
+  }
+
+  /**
+   * Returns the keys in the page.
+   *
+   * @return The sorted keys in the page.
+   */
+  public List<String> keys() {
+    return keys;
+  }
+
+  /**
+   * Returns the token with which to request the next page.
+   *
+   * @return The token for the next page, or {@code null} if this is the last page.
+   */
+  public String nextPageToken() {
+    return nextPageToken;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeInt(keys.size());
+    for (String key : keys) {
+      buffer.writeUTF8(key);
+    }
+    buffer.writeBoolean(nextPageToken != null);
+    if (nextPageToken != null) {
+      buffer.writeUTF8(nextPageToken);
+    }
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    int size = buffer.readInt();
+    List<String> keys = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      keys.add(buffer.readUTF8());
+    }
+    this.keys = Collections.unmodifiableList(keys);
+    nextPageToken = buffer.readBoolean() ? buffer.readUTF8() : null;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[keys=%d, nextPageToken=%s]", getClass().getSimpleName(), keys.size(), nextPageToken);
+  }
+
+}
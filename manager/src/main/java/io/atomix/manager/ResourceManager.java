@@ -20,6 +20,9 @@ import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.resource.Resource;
 import io.atomix.resource.ResourceType;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -183,6 +186,42 @@ public interface ResourceManager<T extends ResourceManager<T>> {
    */
   CompletableFuture<Set<String>> keys(ResourceType type);
 
+  /**
+   * Returns a page of the keys of existing resources that begin with a prefix.
+   * <p>
+   * Keys are returned in lexicographical order and at most {@code limit} keys are returned in a single page.
+   * If additional keys remain, the returned page's {@link ResourceKeyPage#nextPageToken() next page token}
+   * can be passed to a subsequent call to list the following page. Listing keys by page avoids returning the
+   * full set of keys in a single response when many resources exist.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} method:
+   * <pre>
+   *   {@code
+   *   ResourceKeyPage page = atomix.keys("tenant/", null, null, 100).get();
+   *   }
+   * </pre>
+   * Alternatively, to execute the operation asynchronous and be notified once the result is received in a different
+   * thread, use one of the many completable future callbacks:
+   * <pre>
+   *   {@code
+   *   atomix.keys("tenant/", null, null, 100).thenAccept(page -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param prefix The prefix by which to filter resource keys. Use an empty string to list all keys.
+   * @param type The resource type by which to filter resources, or {@code null} to list resources of all types.
+   * @param pageToken The token returned with the previous page, or {@code null} to list the first page.
+   * @param limit The maximum number of keys to return.
+   * @return A completable future to be completed with the page of resource keys.
+   * @throws NullPointerException if {@code prefix} is null
+   * @throws IllegalArgumentException if {@code limit} is not positive
+   */
+  CompletableFuture<ResourceKeyPage> keys(String prefix, ResourceType type, String pageToken, int limit);
+
   /**
    * Gets or creates the given resource and acquires a singleton reference to it.
    * <p>
@@ -495,4 +534,107 @@ public interface ResourceManager<T extends ResourceManager<T>> {
    */
   <T extends Resource> CompletableFuture<T> getResource(String key, ResourceType type, Resource.Config config, Resource.Options options);
 
+  /**
+   * Opens a read-only instance of an existing distributed resource.
+   * <p>
+   * Unlike {@link #getResource(String, Class)}, a read-only instance does not create the resource and does not
+   * open a session on it in the cluster. The resource is resolved with a single query, so opening and closing
+   * read-only instances writes nothing to the replicated log and retains no state on the servers. Read operations
+   * on the returned instance behave as they do for any other instance, but write operations fail with an
+   * {@link IllegalStateException}, and events published by the resource to its sessions are not received.
+   * Read-only instances are created with {@link Resource.Options#isReadOnly() read-only} options, so resource
+   * features that read through commands, such as a map's local cache, are disabled.
+   * <p>
+   * Each call returns a new instance which must be closed independently of any other instance of the resource:
+   * <pre>
+   *   {@code
+   *   DistributedMap<String, String> map = atomix.<DistributedMap<String, String>>getReadOnlyResource("map", DistributedMap.class).get();
+   *   map.get("foo").thenAccept(value -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param key The key of the resource to open.
+   * @param type The expected resource type.
+   * @param <T> The resource type.
+   * @return A completable future to be completed once the resource has been resolved. The future is completed
+   *         exceptionally if no resource exists at the given key or the resource is of a different type.
+   * @throws NullPointerException if {@code key} or {@code type} are null
+   */
+  <T extends Resource> CompletableFuture<T> getReadOnlyResource(String key, Class<? super T> type);
+
+  /**
+   * Opens a read-only instance of an existing distributed resource.
+   * <p>
+   * See {@link #getReadOnlyResource(String, Class)} for the semantics of read-only instances.
+   *
+   * @param key The key of the resource to open.
+   * @param type The expected resource type.
+   * @param <T> The resource type.
+   * @return A completable future to be completed once the resource has been resolved.
+   * @throws NullPointerException if {@code key} or {@code type} are null
+   */
+  <T extends Resource> CompletableFuture<T> getReadOnlyResource(String key, ResourceType type);
+
+  /**
+   * Gets or creates multiple distributed resources of the same type.
+   * <p>
+   * Resources that are not already open in this instance are created or opened in the cluster in a single commit
+   * per partition, avoiding a round trip for each resource:
+   * <pre>
+   *   {@code
+   *   Map<String, DistributedLock> locks = atomix.<DistributedLock>getResources(Arrays.asList("a", "b"), DistributedLock.class).get();
+   *   }
+   * </pre>
+   * If any key is already associated with a resource of a different type, none of the resources in the same
+   * partition are opened and the returned future is completed exceptionally.
+   *
+   * @param keys The keys at which to get the resources.
+   * @param type The expected resource type.
+   * @param <T> The resource type.
+   * @return A completable future to be completed with the resources mapped by key in the order of the given keys.
+   * @throws NullPointerException if {@code keys} or {@code type} are null
+   */
+  <T extends Resource> CompletableFuture<Map<String, T>> getResources(Collection<String> keys, Class<? super T> type);
+
+  /**
+   * Gets or creates multiple distributed resources of the same type.
+   * <p>
+   * Resources that are not already open in this instance are created or opened in the cluster in a single commit
+   * per partition, avoiding a round trip for each resource. If any key is already associated with a resource of
+   * a different type, none of the resources in the same partition are opened and the returned future is completed
+   * exceptionally.
+   *
+   * @param keys The keys at which to get the resources.
+   * @param type The expected resource type.
+   * @param <T> The resource type.
+   * @return A completable future to be completed with the resources mapped by key in the order of the given keys.
+   * @throws NullPointerException if {@code keys} or {@code type} are null
+   */
+  <T extends Resource> CompletableFuture<Map<String, T>> getResources(Collection<String> keys, ResourceType type);
+
+  /**
+   * Returns operation metrics for all existing resources.
+   * <p>
+   * Metrics are recorded by each server as operations are applied to resource state machines and are read
+   * from the server to which the client is connected in each partition. The returned metrics describe the operations
+   * applied since that server was started, and query counts include only queries evaluated by that server. Reading
+   * metrics does not write to the log.
+   * <p>
+   * This method returns a {@link CompletableFuture} which can be used to block until the operation completes
+   * or to be notified in a separate thread once the operation completes. To block until the operation completes,
+   * use the {@link CompletableFuture#get()} method:
+   * <pre>
+   *   {@code
+   *   for (ResourceMetrics metrics : atomix.metrics().get()) {
+   *     System.out.println(metrics.key() + ": " + metrics.commands());
+   *   }
+   *   }
+   * </pre>
+   *
+   * @return A completable future to be completed with the metrics for each existing resource.
+   */
+  CompletableFuture<List<ResourceMetrics>> metrics();
+
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX management interface for the resources managed by a single {@link ResourceServer} partition.
+ * <p>
+ * Resource manager MBeans are registered with the platform MBean server for each partition when a server is built
+ * with {@link ResourceServer.Builder#withJmxEnabled(boolean) JMX enabled}. All attributes are read from the
+ * metrics recorded locally by the server and are mapped by resource key. See {@link ResourceMetrics} for the
+ * meaning of each metric.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface ResourceManagerMXBean {
+
+  /**
+   * Returns the number of resources managed by the partition.
+   *
+   * @return The number of resources managed by the partition.
+   */
+  int getResourceCount();
+
+  /**
+   * Returns the number of commands applied to each resource.
+   *
+   * @return The number of commands applied, mapped by resource key.
+   */
+  Map<String, Long> getCommandCounts();
+
+  /**
+   * Returns the number of queries applied to each resource.
+   *
+   * @return The number of queries applied, mapped by resource key.
+   */
+  Map<String, Long> getQueryCounts();
+
+  /**
+   * Returns the number of events published by each resource.
+   *
+   * @return The number of events published, mapped by resource key.
+   */
+  Map<String, Long> getEventCounts();
+
+  /**
+   * Returns the number of operation commits retained by each resource.
+   *
+   * @return The number of retained commits, mapped by resource key.
+   */
+  Map<String, Long> getRetainedCommitCounts();
+
+  /**
+   * Returns the serialized size of the operation commits retained by each resource.
+   *
+   * @return The size in bytes of the retained commits, mapped by resource key.
+   */
+  Map<String, Long> getRetainedBytes();
+
+  /**
+   * Returns the keys of the resources suspected of failing to release commits.
+   *
+   * @return The keys of the resources whose number of retained commits has been growing without interruption.
+   */
+  List<String> getLeakSuspects();
+
+  /**
+   * Returns the total time spent applying operations to each resource.
+   *
+   * @return The total apply time in nanoseconds, mapped by resource key.
+   */
+  Map<String, Long> getApplyTimes();
+
+  /**
+   * Returns the number of operations applied to a resource by operation type.
+   *
+   * @param key The resource key.
+   * @return The number of operations applied by operation type, or an empty map if the resource does not exist.
+   */
+  Map<String, Long> getOperationCounts(String key);
+
+  /**
+   * Returns the number of commits retained by a resource by operation type.
+   *
+   * @param key The resource key.
+   * @return The number of retained commits by operation type, or an empty map if the resource does not exist.
+   */
+  Map<String, Long> getRetainedOperationCounts(String key);
+
+  /**
+   * Returns the serialized size of the commits retained by a resource by operation type.
+   *
+   * @param key The resource key.
+   * @return The size in bytes of the retained commits by operation type, or an empty map if the resource does not exist.
+   */
+  Map<String, Long> getRetainedOperationBytes(String key);
+
+  /**
+   * Returns the apply time histogram for a resource.
+   *
+   * @param key The resource key.
+   * @return The apply time histogram, or an empty array if the resource does not exist.
+   */
+  long[] getApplyTimeHistogram(String key);
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Operation metrics for a single resource.
+ * <p>
+ * Resource metrics are recorded by each server as it applies operations to a resource's state machine and are
+ * returned by {@link ResourceManager#metrics()}. Commands are applied on every server, so command counts are
+ * consistent across the cluster, whereas queries are only counted by the server that evaluated them. Metrics
+ * are not persisted and are reset when a server restarts.
+ * <p>
+ * Apply times are recorded in a histogram with power of two buckets. The count at index {@code i} of the
+ * {@link #applyTimeHistogram() histogram} is the number of operations whose apply time was at least
+ * 2<sup>i</sup> microseconds and less than 2<sup>i+1</sup> microseconds, except that the first bucket also
+ * includes operations that took less than a microsecond and the last bucket includes all slower operations.
+ * <p>
+ * Retained commits are the commits a resource's state machine has applied but not yet released. The log cannot
+ * be compacted beyond a retained commit, so {@link #retainedBytes()} and {@link #retainedOperations()} identify the
+ * resources and operation types that are holding log segments. A resource whose number of retained commits has
+ * grown without interruption for several minutes is reported as {@link #isLeakSuspected() suspected} of failing
+ * to release commits.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ResourceMetrics implements CatalystSerializable {
+  private String key;
+  private int type;
+  private long commands;
+  private long queries;
+  private long events;
+  private long retainedCommits;
+  private long retainedBytes;
+  private boolean leakSuspected;
+  private long applyTime;
+  private long maxApplyTime;
+  private long[] applyTimeHistogram;
+  private Map<String, Long> operations;
+  private Map<String, Long> retainedOperations;
+  private Map<String, Long> retainedOperationBytes;
+
+  public ResourceMetrics() {
+  }
+
+  public ResourceMetrics(String key, int type, long commands, long queries, long events, long retainedCommits, long retainedBytes, boolean leakSuspected,
+      long applyTime, long maxApplyTime, long[] applyTimeHistogram, Map<String, Long> operations, Map<String, Long> retainedOperations, Map<String, Long> retainedOperationBytes) {
+    this.key = key;
+    this.type = type;
+    this.commands = commands;
+    this.queries = queries;
+    this.events = events;
+    this.retainedCommits = retainedCommits;
+    this.retainedBytes = retainedBytes;
+    this.leakSuspected = leakSuspected;
+    this.applyTime = applyTime;
+    this.maxApplyTime = maxApplyTime;
+    this.applyTimeHistogram = applyTimeHistogram;
+    this.operations = operations;
+    this.retainedOperations = retainedOperations;
+    this.retainedOperationBytes = retainedOperationBytes;
+  }
+
+  /**
+   * Returns the resource key.
+   *
+   * @return The resource key.
+   */
+  public String key() {
+    return key;
+  }
+
+  /**
+   * Returns the resource type ID.
+   *
+   * @return The resource type ID.
+   */
+  public int type() {
+    return type;
+  }
+
+  /**
+   * Returns the number of commands applied to the resource.
+   *
+   * @return The number of commands applied to the resource.
+   */
+  public long commands() {
+    return commands;
+  }
+
+  /**
+   * Returns the number of queries applied to the resource.
+   *
+   * @return The number of queries applied to the resource.
+   */
+  public long queries() {
+    return queries;
+  }
+
+  /**
+   * Returns the number of events published by the resource.
+   *
+   * @return The number of events published to client sessions by the resource.
+   */
+  public long events() {
+    return events;
+  }
+
+  /**
+   * Returns the number of operation commits currently retained by the resource.
+   * <p>
+   * Retained commits prevent the log entries that contain them from being compacted.
+   *
+   * @return The number of operation commits that have been applied but not yet released by the resource.
+   */
+  public long retainedCommits() {
+    return retainedCommits;
+  }
+
+  /**
+   * Returns the serialized size of the operation commits currently retained by the resource.
+   *
+   * @return The total size in bytes of the operations retained by the resource.
+   */
+  public long retainedBytes() {
+    return retainedBytes;
+  }
+
+  /**
+   * Returns the number of operation commits currently retained by the resource by operation type.
+   *
+   * @return The number of retained commits by the simple name of the operation class. Operation types for which
+   *         no commits are retained are omitted.
+   */
+  public Map<String, Long> retainedOperations() {
+    return retainedOperations;
+  }
+
+  /**
+   * Returns the serialized size of the operation commits currently retained by the resource by operation type.
+   *
+   * @return The size in bytes of the retained operations by the simple name of the operation class.
+   */
+  public Map<String, Long> retainedOperationBytes() {
+    return retainedOperationBytes;
+  }
+
+  /**
+   * Returns whether the resource is suspected of failing to release commits.
+   *
+   * @return Whether the number of commits retained by the resource has been growing without interruption.
+   */
+  public boolean isLeakSuspected() {
+    return leakSuspected;
+  }
+
+  /**
+   * Returns the total time spent applying operations to the resource.
+   *
+   * @return The total apply time in nanoseconds.
+   */
+  public long applyTime() {
+    return applyTime;
+  }
+
+  /**
+   * Returns the longest time spent applying a single operation to the resource.
+   *
+   * @return The maximum apply time in nanoseconds.
+   */
+  public long maxApplyTime() {
+    return maxApplyTime;
+  }
+
+  /**
+   * Returns the apply time histogram.
+   *
+   * @return The number of operations in each power of two microsecond bucket.
+   */
+  public long[] applyTimeHistogram() {
+    return applyTimeHistogram;
+  }
+
+  /**
+   * Returns the number of operations applied to the resource by operation type.
+   *
+   * @return The number of operations applied by the simple name of the operation class.
+   */
+  public Map<String, Long> operations() {
+    return operations;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeUTF8(key);
+    buffer.writeInt(type);
+    buffer.writeLong(commands);
+    buffer.writeLong(queries);
+    buffer.writeLong(events);
+    buffer.writeLong(retainedCommits);
+    buffer.writeLong(retainedBytes);
+    buffer.writeBoolean(leakSuspected);
+    buffer.writeLong(applyTime);
+    buffer.writeLong(maxApplyTime);
+    buffer.writeByte(applyTimeHistogram.length);
+    for (long count : applyTimeHistogram) {
+      buffer.writeLong(count);
+    }
+    writeCounts(operations, buffer);
+    writeCounts(retainedOperations, buffer);
+    writeCounts(retainedOperationBytes, buffer);
+  }
+
+  /**
+   * Writes a map of counts to the given buffer.
+   */
+  private static void writeCounts(Map<String, Long> counts, BufferOutput<?> buffer) {
+    buffer.writeInt(counts.size());
+    for (Map.Entry<String, Long> entry : counts.entrySet()) {
+      buffer.writeUTF8(entry.getKey());
+      buffer.writeLong(entry.getValue());
+    }
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    key = buffer.readUTF8();
+    type = buffer.readInt();
+    commands = buffer.readLong();
+    queries = buffer.readLong();
+    events = buffer.readLong();
+    retainedCommits = buffer.readLong();
+    retainedBytes = buffer.readLong();
+    leakSuspected = buffer.readBoolean();
+    applyTime = buffer.readLong();
+    maxApplyTime = buffer.readLong();
+    applyTimeHistogram = new long[buffer.readByte()];
+    for (int i = 0; i < applyTimeHistogram.length; i++) {
+      applyTimeHistogram[i] = buffer.readLong();
+    }
+    operations = readCounts(buffer);
+    retainedOperations = readCounts(buffer);
+    retainedOperationBytes = readCounts(buffer);
+  }
+
+  /**
+   * Reads a map of counts from the given buffer.
+   */
+  private static Map<String, Long> readCounts(BufferInput<?> buffer) {
+    int size = buffer.readInt();
+    Map<String, Long> counts = new HashMap<>(size);
+    for (int i = 0; i < size; i++) {
+      counts.put(buffer.readUTF8(), buffer.readLong());
+    }
+    return Collections.unmodifiableMap(counts);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[key=%s, commands=%d, queries=%d, events=%d, retainedCommits=%d, retainedBytes=%d]", getClass().getSimpleName(), key, commands, queries, events, retainedCommits, retainedBytes);
+  }
+
+}
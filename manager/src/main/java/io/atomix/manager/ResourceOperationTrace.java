@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager;
+
+import io.atomix.resource.ResourceType;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Describes an operation applied to a resource, as passed to a {@link ResourceOperationTracer}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ResourceOperationTrace {
+  private final String key;
+  private final ResourceType type;
+  private final Class<?> operation;
+  private final boolean command;
+  private final long index;
+  private final long duration;
+  private final int resultSize;
+  private final boolean failed;
+
+  public ResourceOperationTrace(String key, ResourceType type, Class<?> operation, boolean command, long index, long duration, int resultSize, boolean failed) {
+    this.key = key;
+    this.type = type;
+    this.operation = operation;
+    this.command = command;
+    this.index = index;
+    this.duration = duration;
+    this.resultSize = resultSize;
+    this.failed = failed;
+  }
+
+  /**
+   * Returns the size of an operation result.
+   * <p>
+   * The size of a collection or map is the number of elements it contains, the size of {@code null} is {@code 0},
+   * and the size of any other result is {@code 1}.
+   *
+   * @param result The operation result.
+   * @return The size of the result.
+   */
+  public static int resultSize(Object result) {
+    if (result == null) {
+      return 0;
+    } else if (result instanceof Collection) {
+      return ((Collection<?>) result).size();
+    } else if (result instanceof Map) {
+      return ((Map<?, ?>) result).size();
+    }
+    return 1;
+  }
+
+  /**
+   * Returns the resource key.
+   *
+   * @return The resource key.
+   */
+  public String key() {
+    return key;
+  }
+
+  /**
+   * Returns the resource type.
+   *
+   * @return The resource type.
+   */
+  public ResourceType type() {
+    return type;
+  }
+
+  /**
+   * Returns the operation class.
+   *
+   * @return The class of the applied command or query.
+   */
+  public Class<?> operation() {
+    return operation;
+  }
+
+  /**
+   * Returns a boolean indicating whether the operation is a command.
+   *
+   * @return Indicates whether the operation is a command rather than a query.
+   */
+  public boolean isCommand() {
+    return command;
+  }
+
+  /**
+   * Returns the index at which the operation was applied.
+   * <p>
+   * For commands, this is the index of the log entry containing the command. For queries, it is the index of the
+   * state machine at the time the query was applied.
+   *
+   * @return The index at which the operation was applied.
+   */
+  public long index() {
+    return index;
+  }
+
+  /**
+   * Returns the time taken to apply the operation.
+   *
+   * @return The time taken to apply the operation in nanoseconds.
+   */
+  public long duration() {
+    return duration;
+  }
+
+  /**
+   * Returns the size of the operation result.
+   *
+   * @return The size of the operation result as defined by {@link #resultSize(Object)}.
+   */
+  public int resultSize() {
+    return resultSize;
+  }
+
+  /**
+   * Returns a boolean indicating whether the operation failed.
+   *
+   * @return Indicates whether the resource state machine threw an exception while applying the operation.
+   */
+  public boolean isFailed() {
+    return failed;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[key=%s, operation=%s, index=%d, duration=%d, resultSize=%d]", getClass().getSimpleName(), key, operation.getSimpleName(), index, duration, resultSize);
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager;
+
+import io.atomix.catalyst.util.Assert;
+
+/**
+ * Instrumentation hook invoked for each operation applied to a resource state machine.
+ * <p>
+ * Tracers are configured on a {@link ResourceServer.Builder#withOperationTracer(ResourceOperationTracer) server}
+ * or replica and are invoked on the state machine thread once each command or query has been applied to a resource.
+ * Because resources are applied serially, tracers should return quickly and must not block. Exceptions thrown by a
+ * tracer are logged and otherwise ignored.
+ * <pre>
+ *   {@code
+ *   ResourceServer server = ResourceServer.builder(address)
+ *     .withOperationTracer(trace -> histogram.record(trace.operation(), trace.duration()))
+ *     .build();
+ *   }
+ * </pre>
+ *
+ * @see io.atomix.manager.util.SlowOperationLogger
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@FunctionalInterface
+public interface ResourceOperationTracer {
+
+  /**
+   * Called once an operation has been applied to a resource.
+   *
+   * @param trace The applied operation.
+   */
+  void trace(ResourceOperationTrace trace);
+
+  /**
+   * Returns a tracer that invokes this tracer followed by the given tracer.
+   *
+   * @param after The tracer to invoke after this tracer.
+   * @return The composed tracer.
+   * @throws NullPointerException if {@code after} is null
+   */
+  default ResourceOperationTracer andThen(ResourceOperationTracer after) {
+    Assert.notNull(after, "after");
+    return trace -> {
+      trace(trace);
+      after.trace(trace);
+    };
+  }
+
+}
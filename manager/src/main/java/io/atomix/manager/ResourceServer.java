@@ -24,18 +24,25 @@ import io.atomix.catalyst.util.ConfigurationException;
 import io.atomix.copycat.server.CopycatServer;
 import io.atomix.copycat.server.cluster.Member;
 import io.atomix.copycat.server.storage.Storage;
+import io.atomix.manager.internal.ResourceManagerMonitor;
+import io.atomix.manager.internal.ResourceManagerPartitions;
 import io.atomix.manager.internal.ResourceManagerState;
 import io.atomix.manager.options.ServerOptions;
 import io.atomix.manager.util.ResourceManagerTypeResolver;
+import io.atomix.manager.util.SlowOperationLogger;
 import io.atomix.resource.Resource;
 import io.atomix.resource.ResourceRegistry;
 import io.atomix.resource.ResourceType;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Properties;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -76,6 +83,16 @@ import java.util.stream.Collectors;
  * servers in the cluster but does not participate in elections or other quorum-based aspects of the
  * underlying consensus algorithm. Once the joining server is caught up with the rest of the cluster, the
  * leader will promote it to a full voting member.
+ * <p>
+ * <b>Partitions</b>
+ * <p>
+ * By default, all resources on a server are multiplexed onto a single replicated log and state machine. To scale
+ * write throughput beyond a single leader, servers can be configured to host multiple {@link Builder#withPartitions(int) partitions}.
+ * Each partition is an independent Raft group with its own log, state machine, and leader, and partition {@code i}
+ * listens on the configured ports plus {@code i}. Addresses sharing a host must therefore be at least as many ports
+ * apart as there are partitions, and overlapping port ranges are rejected when the server is built or the cluster
+ * is bootstrapped or joined. Resources are assigned to partitions by hashing resource keys,
+ * so all servers and {@link ResourceClient clients} in a cluster must be configured with the same number of partitions.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
@@ -154,12 +171,29 @@ public final class ResourceServer {
   }
 
   private final CopycatServer server;
+  private final List<CopycatServer> partitions;
+  private final List<ObjectName> mbeans;
 
   /**
    * @throws NullPointerException if {@code server} is null
    */
   public ResourceServer(CopycatServer server) {
-    this.server = Assert.notNull(server, "server");
+    this(Collections.singletonList(Assert.notNull(server, "server")));
+  }
+
+  /**
+   * @throws NullPointerException if {@code partitions} is null
+   * @throws IllegalArgumentException if {@code partitions} is empty
+   */
+  public ResourceServer(List<CopycatServer> partitions) {
+    this(partitions, Collections.emptyList());
+  }
+
+  private ResourceServer(List<CopycatServer> partitions, List<ObjectName> mbeans) {
+    Assert.argNot(Assert.notNull(partitions, "partitions").isEmpty(), "partitions cannot be empty");
+    this.partitions = Collections.unmodifiableList(new ArrayList<>(partitions));
+    this.server = this.partitions.get(0);
+    this.mbeans = mbeans;
   }
 
   /**
@@ -186,6 +220,8 @@ public final class ResourceServer {
 
   /**
    * Returns the underlying Copycat server.
+   * <p>
+   * If the server hosts multiple partitions, the server for the first partition is returned.
    *
    * @return The underlying Copycat server.
    */
@@ -193,6 +229,15 @@ public final class ResourceServer {
     return server;
   }
 
+  /**
+   * Returns the underlying Copycat servers for each partition hosted by this server.
+   *
+   * @return The underlying Copycat servers for each partition.
+   */
+  public List<CopycatServer> partitions() {
+    return partitions;
+  }
+
   /**
    * Bootstraps a single-node cluster.
    * <p>
@@ -218,7 +263,11 @@ public final class ResourceServer {
    */
   @SuppressWarnings("unchecked")
   public CompletableFuture<ResourceServer> bootstrap() {
-    return server.bootstrap().thenApply(v -> this);
+    CompletableFuture<?>[] futures = new CompletableFuture[partitions.size()];
+    for (int i = 0; i < partitions.size(); i++) {
+      futures[i] = partitions.get(i).bootstrap();
+    }
+    return CompletableFuture.allOf(futures).thenApply(v -> this);
   }
 
   /**
@@ -245,6 +294,7 @@ public final class ResourceServer {
    *
    * @param cluster The bootstrap cluster configuration.
    * @return A completable future to be completed once the cluster has been bootstrapped.
+   * @throws IllegalArgumentException if the partition port ranges of the cluster members overlap
    */
   public CompletableFuture<ResourceServer> bootstrap(Address... cluster) {
     return bootstrap(Arrays.asList(cluster));
@@ -274,9 +324,15 @@ public final class ResourceServer {
    *
    * @param cluster The bootstrap cluster configuration.
    * @return A completable future to be completed once the cluster has been bootstrapped.
+   * @throws IllegalArgumentException if the partition port ranges of the cluster members overlap
    */
   public CompletableFuture<ResourceServer> bootstrap(Collection<Address> cluster) {
-    return server.bootstrap(cluster).thenApply(v -> this);
+    ResourceManagerPartitions.validate(cluster, partitions.size());
+    CompletableFuture<?>[] futures = new CompletableFuture[partitions.size()];
+    for (int i = 0; i < partitions.size(); i++) {
+      futures[i] = partitions.get(i).bootstrap(ResourceManagerPartitions.addresses(cluster, i));
+    }
+    return CompletableFuture.allOf(futures).thenApply(v -> this);
   }
 
   /**
@@ -308,6 +364,7 @@ public final class ResourceServer {
    *
    * @param cluster A collection of cluster member addresses to join.
    * @return A completable future to be completed once the local server has joined the cluster.
+   * @throws IllegalArgumentException if the partition port ranges of the cluster members overlap
    */
   public CompletableFuture<ResourceServer> join(Address... cluster) {
     return join(Arrays.asList(cluster));
@@ -342,18 +399,31 @@ public final class ResourceServer {
    *
    * @param cluster A collection of cluster member addresses to join.
    * @return A completable future to be completed once the local server has joined the cluster.
+   * @throws IllegalArgumentException if the partition port ranges of the cluster members overlap
    */
   public CompletableFuture<ResourceServer> join(Collection<Address> cluster) {
-    return server.join(cluster).thenApply(v -> this);
+    ResourceManagerPartitions.validate(cluster, partitions.size());
+    CompletableFuture<?>[] futures = new CompletableFuture[partitions.size()];
+    for (int i = 0; i < partitions.size(); i++) {
+      futures[i] = partitions.get(i).join(ResourceManagerPartitions.addresses(cluster, i));
+    }
+    return CompletableFuture.allOf(futures).thenApply(v -> this);
   }
 
   /**
    * Returns a boolean indicating whether the server is running.
+   * <p>
+   * The server is considered running only if all of its partitions are running.
    *
    * @return Indicates whether the server is running.
    */
   public boolean isRunning() {
-    return server.isRunning();
+    for (CopycatServer partition : partitions) {
+      if (!partition.isRunning()) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -362,7 +432,11 @@ public final class ResourceServer {
    * @return A completable future to be completed once the server has been shutdown.
    */
   public CompletableFuture<Void> shutdown() {
-    return server.shutdown();
+    CompletableFuture<?>[] futures = new CompletableFuture[partitions.size()];
+    for (int i = 0; i < partitions.size(); i++) {
+      futures[i] = partitions.get(i).shutdown();
+    }
+    return CompletableFuture.allOf(futures).whenComplete((result, error) -> unregisterMBeans());
   }
 
   /**
@@ -371,7 +445,27 @@ public final class ResourceServer {
    * @return A completable future to be completed once the server has left the cluster.
    */
   public CompletableFuture<Void> leave() {
-    return server.leave();
+    CompletableFuture<?>[] futures = new CompletableFuture[partitions.size()];
+    for (int i = 0; i < partitions.size(); i++) {
+      futures[i] = partitions.get(i).leave();
+    }
+    return CompletableFuture.allOf(futures).whenComplete((result, error) -> unregisterMBeans());
+  }
+
+  /**
+   * Unregisters the server's resource manager MBeans, if any.
+   */
+  private void unregisterMBeans() {
+    MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    for (ObjectName mbean : mbeans) {
+      try {
+        if (mbeanServer.isRegistered(mbean)) {
+          mbeanServer.unregisterMBean(mbean);
+        }
+      } catch (JMException e) {
+        // The MBean was unregistered concurrently.
+      }
+    }
   }
 
   /**
@@ -399,11 +493,27 @@ public final class ResourceServer {
    */
   public static class Builder implements io.atomix.catalyst.util.Builder<ResourceServer> {
     private static final String SERVER_NAME = "atomix";
-    private final CopycatServer.Builder builder;
+    private final Address clientAddress;
+    private final Address serverAddress;
+    private final List<Consumer<CopycatServer.Builder>> configurers = new ArrayList<>();
     private final ResourceRegistry registry = new ResourceRegistry();
+    private int partitions = 1;
+    private Storage storage;
+    private Duration hibernationTimeout;
+    private boolean jmxEnabled;
+    private ResourceOperationTracer tracer;
 
     private Builder(Address clientAddress, Address serverAddress) {
-      this.builder = CopycatServer.builder(clientAddress, serverAddress).withName(SERVER_NAME);
+      this.clientAddress = Assert.notNull(clientAddress, "clientAddress");
+      this.serverAddress = Assert.notNull(serverAddress, "serverAddress");
+    }
+
+    /**
+     * Applies the given configuration to the Copycat server builder of each partition.
+     */
+    private Builder configure(Consumer<CopycatServer.Builder> configurer) {
+      configurers.add(configurer);
+      return this;
     }
 
     /**
@@ -418,8 +528,8 @@ public final class ResourceServer {
      * @throws NullPointerException if {@code transport} is null
      */
     public Builder withTransport(Transport transport) {
-      builder.withTransport(transport);
-      return this;
+      Assert.notNull(transport, "transport");
+      return configure(b -> b.withTransport(transport));
     }
 
     /**
@@ -434,8 +544,8 @@ public final class ResourceServer {
      * @throws NullPointerException if {@code transport} is null
      */
     public Builder withClientTransport(Transport transport) {
-      builder.withClientTransport(transport);
-      return this;
+      Assert.notNull(transport, "transport");
+      return configure(b -> b.withClientTransport(transport));
     }
 
     /**
@@ -450,8 +560,8 @@ public final class ResourceServer {
      * @throws NullPointerException if {@code transport} is null
      */
     public Builder withServerTransport(Transport transport) {
-      builder.withServerTransport(transport);
-      return this;
+      Assert.notNull(transport, "transport");
+      return configure(b -> b.withServerTransport(transport));
     }
 
     /**
@@ -464,8 +574,8 @@ public final class ResourceServer {
      * @throws NullPointerException if {@code serializer} is null
      */
     public Builder withSerializer(Serializer serializer) {
-      builder.withSerializer(serializer);
-      return this;
+      Assert.notNull(serializer, "serializer");
+      return configure(b -> b.withSerializer(serializer));
     }
 
     /**
@@ -498,8 +608,8 @@ public final class ResourceServer {
      * @throws NullPointerException if {@code storage} is null
      */
     public Builder withStorage(Storage storage) {
-      builder.withStorage(storage);
-      return this;
+      this.storage = Assert.notNull(storage, "storage");
+      return configure(b -> b.withStorage(storage));
     }
 
     /**
@@ -514,8 +624,8 @@ public final class ResourceServer {
      * @throws NullPointerException if {@code electionTimeout} is null
      */
     public Builder withElectionTimeout(Duration electionTimeout) {
-      builder.withElectionTimeout(electionTimeout);
-      return this;
+      Assert.notNull(electionTimeout, "electionTimeout");
+      return configure(b -> b.withElectionTimeout(electionTimeout));
     }
 
     /**
@@ -530,8 +640,8 @@ public final class ResourceServer {
      * @throws NullPointerException if {@code heartbeatInterval} is null
      */
     public Builder withHeartbeatInterval(Duration heartbeatInterval) {
-      builder.withHeartbeatInterval(heartbeatInterval);
-      return this;
+      Assert.notNull(heartbeatInterval, "heartbeatInterval");
+      return configure(b -> b.withHeartbeatInterval(heartbeatInterval));
     }
 
     /**
@@ -547,7 +657,95 @@ public final class ResourceServer {
      * @throws NullPointerException if {@code sessionTimeout} is null
      */
     public Builder withSessionTimeout(Duration sessionTimeout) {
-      builder.withSessionTimeout(sessionTimeout);
+      Assert.notNull(sessionTimeout, "sessionTimeout");
+      return configure(b -> b.withSessionTimeout(sessionTimeout));
+    }
+
+    /**
+     * Sets the number of partitions hosted by the server.
+     * <p>
+     * Each partition is an independent Raft group with its own replicated log and state machine. Partition
+     * {@code i} listens on the configured client and server ports plus {@code i}, so the ports following the
+     * configured ports must be reserved for the server. All servers and clients in the cluster must be configured
+     * with the same number of partitions. Defaults to {@code 1}.
+     *
+     * @param partitions The number of partitions.
+     * @return The server builder.
+     * @throws IllegalArgumentException if {@code partitions} is not positive
+     */
+    public Builder withPartitions(int partitions) {
+      Assert.arg(partitions > 0, "partitions must be positive");
+      this.partitions = partitions;
+      return this;
+    }
+
+    /**
+     * Sets the duration after which idle resources are hibernated.
+     * <p>
+     * Snapshottable resources that have no open sessions and have not been accessed within the hibernation timeout
+     * are serialized and released from memory, and are restored the next time they're accessed. If the server's
+     * {@link Storage} is persistent, hibernated resources are written to a directory within the storage directory.
+     * Hibernated state is written and read synchronously on the state machine thread, delaying the operations applied
+     * after it, so the timeout should be long enough that resources in use are rarely hibernated.
+     * By default, resources are never hibernated.
+     *
+     * @param hibernationTimeout The duration after which idle resources are hibernated.
+     * @return The server builder.
+     * @throws NullPointerException if {@code hibernationTimeout} is null
+     * @throws IllegalArgumentException if {@code hibernationTimeout} is not positive
+     */
+    public Builder withHibernationTimeout(Duration hibernationTimeout) {
+      Assert.notNull(hibernationTimeout, "hibernationTimeout");
+      Assert.arg(!hibernationTimeout.isNegative() && !hibernationTimeout.isZero(), "hibernationTimeout must be positive");
+      this.hibernationTimeout = hibernationTimeout;
+      return this;
+    }
+
+    /**
+     * Adds a tracer to be invoked for each operation applied to a resource.
+     * <p>
+     * Tracers are invoked on the state machine thread once each resource command or query has been applied,
+     * with the resource key and type, the operation class, index, apply time and result size. If multiple
+     * tracers are added, they're invoked in the order in which they were added.
+     *
+     * @param tracer The resource operation tracer.
+     * @return The server builder.
+     * @throws NullPointerException if {@code tracer} is null
+     */
+    public Builder withOperationTracer(ResourceOperationTracer tracer) {
+      Assert.notNull(tracer, "tracer");
+      this.tracer = this.tracer != null ? this.tracer.andThen(tracer) : tracer;
+      return this;
+    }
+
+    /**
+     * Sets the threshold above which resource operations are logged as slow.
+     * <p>
+     * Operations that take at least the given duration to apply are logged at {@code WARN} level by a
+     * {@link SlowOperationLogger}. By default, slow operations are not logged.
+     *
+     * @param threshold The slow operation threshold.
+     * @return The server builder.
+     * @throws NullPointerException if {@code threshold} is null
+     * @throws IllegalArgumentException if {@code threshold} is negative
+     */
+    public Builder withSlowOperationThreshold(Duration threshold) {
+      return withOperationTracer(new SlowOperationLogger(threshold));
+    }
+
+    /**
+     * Sets whether to expose resource metrics via JMX.
+     * <p>
+     * If JMX is enabled, a {@link ResourceManagerMXBean} is registered with the platform MBean server for each
+     * partition when the server is built, with the object name
+     * {@code io.atomix:type=ResourceManager,address="<server address>",partition=<partition>}. The MBeans are
+     * unregistered when the server is shut down or leaves the cluster. JMX is disabled by default.
+     *
+     * @param jmxEnabled Whether to expose resource metrics via JMX.
+     * @return The server builder.
+     */
+    public Builder withJmxEnabled(boolean jmxEnabled) {
+      this.jmxEnabled = jmxEnabled;
       return this;
     }
 
@@ -614,24 +812,66 @@ public final class ResourceServer {
      * call the asynchronous {@link #bootstrap()} or {@link #join(Address...)} method.
      *
      * @return The built server.
-     * @throws ConfigurationException if the server is misconfigured
+     * @throws ConfigurationException if the server is misconfigured or the partition port ranges of the
+     *         client and server addresses overlap
      */
     @Override
     public ResourceServer build() {
-      // Construct the underlying CopycatServer. The server should have been configured with a CombinedTransport
-      // that facilitates the local client connecting directly to the server.
-      CopycatServer server = builder.withStateMachine(ResourceManagerState::new).build();
-      server.serializer().resolve(new ResourceManagerTypeResolver());
-
-      for (ResourceType type : registry.types()) {
-        try {
-          type.factory().newInstance().createSerializableTypeResolver().resolve(server.serializer().registry());
-        } catch (InstantiationException | IllegalAccessException e) {
-          throw new ResourceManagerException(e);
+      // Partition i listens on the configured ports plus i, so distinct client and server addresses on the
+      // same host must be far enough apart that no two partitions are bound to the same port.
+      try {
+        ResourceManagerPartitions.validate(Arrays.asList(clientAddress, serverAddress), partitions);
+      } catch (IllegalArgumentException e) {
+        throw new ConfigurationException(e, e.getMessage());
+      }
+
+      // Construct an underlying CopycatServer for each partition. Each partition listens on its own
+      // ports and writes to its own log within the configured storage.
+      List<CopycatServer> servers = new ArrayList<>(partitions);
+      List<ObjectName> mbeans = new ArrayList<>(jmxEnabled ? partitions : 0);
+      for (int i = 0; i < partitions; i++) {
+        String name = ResourceManagerPartitions.name(SERVER_NAME, i);
+        CopycatServer.Builder builder = CopycatServer.builder(ResourceManagerPartitions.address(clientAddress, i), ResourceManagerPartitions.address(serverAddress, i))
+          .withName(name);
+        for (Consumer<CopycatServer.Builder> configurer : configurers) {
+          configurer.accept(builder);
+        }
+
+        File hibernationDirectory = ResourceManagerState.hibernationDirectory(storage, name);
+        CopycatServer server;
+        if (jmxEnabled) {
+          ResourceManagerMonitor monitor = new ResourceManagerMonitor();
+          server = builder.withStateMachine(() -> monitor.monitor(new ResourceManagerState(hibernationTimeout, hibernationDirectory, tracer))).build();
+          mbeans.add(registerMBean(monitor, i));
+        } else {
+          server = builder.withStateMachine(() -> new ResourceManagerState(hibernationTimeout, hibernationDirectory, tracer)).build();
+        }
+        server.serializer().resolve(new ResourceManagerTypeResolver());
+
+        for (ResourceType type : registry.types()) {
+          try {
+            type.factory().newInstance().createSerializableTypeResolver().resolve(server.serializer().registry());
+          } catch (InstantiationException | IllegalAccessException e) {
+            throw new ResourceManagerException(e);
+          }
         }
+        servers.add(server);
       }
 
-      return new ResourceServer(server);
+      return new ResourceServer(servers, mbeans);
+    }
+
+    /**
+     * Registers the given partition's resource manager MBean with the platform MBean server.
+     */
+    private ObjectName registerMBean(ResourceManagerMonitor monitor, int partition) {
+      try {
+        ObjectName name = new ObjectName(String.format("io.atomix:type=ResourceManager,address=%s,partition=%d", ObjectName.quote(serverAddress.toString()), partition));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, name);
+        return name;
+      } catch (JMException e) {
+        throw new ResourceManagerException(e, "failed to register resource manager MBean");
+      }
     }
   }
 
@@ -26,10 +26,12 @@ import java.util.Properties;
 
 /**
  * Get resource command.
+ * <p>
+ * The command output is the {@link ResourceInfo} of the created or opened resource.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class GetResource extends KeyOperation<Long> implements Command<Long> {
+public class GetResource extends KeyOperation<ResourceInfo> implements Command<ResourceInfo> {
   private ResourceType type;
   private Properties config;
 
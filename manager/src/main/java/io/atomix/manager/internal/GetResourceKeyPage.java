@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.Query;
+import io.atomix.manager.ResourceKeyPage;
+
+/**
+ * Get resource key page query.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class GetResourceKeyPage implements Query<ResourceKeyPage>, CatalystSerializable {
+  private String prefix;
+  private int type;
+  private String token;
+  private int limit;
+
+  public GetResourceKeyPage() {
+  }
+
+  /**
+   * @throws NullPointerException if {@code prefix} is null
+   * @throws IllegalArgumentException if {@code limit} is not positive
+   */
+  public GetResourceKeyPage(String prefix, int type, String token, int limit) {
+    this.prefix = Assert.notNull(prefix, "prefix");
+    this.type = type;
+    this.token = token;
+    this.limit = Assert.arg(limit, limit > 0, "limit must be positive");
+  }
+
+  /**
+   * Returns the key prefix.
+   *
+   * @return The key prefix.
+   */
+  public String prefix() {
+    return prefix;
+  }
+
+  /**
+   * Returns the resource type ID, or {@code 0} for all types.
+   *
+   * @return The resource type ID.
+   */
+  public int type() {
+    return type;
+  }
+
+  /**
+   * Returns the page token after which to list keys.
+   *
+   * @return The page token, or {@code null} to list keys from the start of the prefix.
+   */
+  public String token() {
+    return token;
+  }
+
+  /**
+   * Returns the maximum number of keys to return.
+   *
+   * @return The maximum number of keys to return.
+   */
+  public int limit() {
+    return limit;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeUTF8(prefix);
+    buffer.writeShort((short) type);
+    buffer.writeBoolean(token != null);
+    if (token != null) {
+      buffer.writeUTF8(token);
+    }
+    buffer.writeInt(limit);
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    prefix = buffer.readUTF8();
+    type = buffer.readShort();
+    token = buffer.readBoolean() ? buffer.readUTF8() : null;
+    limit = buffer.readInt();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[prefix=%s, type=%d, token=%s, limit=%d]", getClass().getSimpleName(), prefix, type, token, limit);
+  }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.copycat.Query;
+import io.atomix.manager.ResourceMetrics;
+
+import java.util.List;
+
+/**
+ * Get resource metrics query.
+ * <p>
+ * Metrics are recorded locally by each server, so the query is evaluated by the server to which the
+ * client is connected rather than the leader.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class GetResourceMetrics implements Query<List<ResourceMetrics>>, CatalystSerializable {
+
+  @Override
+  public ConsistencyLevel consistency() {
+    return ConsistencyLevel.SEQUENTIAL;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+  }
+
+}
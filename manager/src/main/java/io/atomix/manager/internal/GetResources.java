@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.Command;
+import io.atomix.resource.ResourceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Get resources command.
+ * <p>
+ * Creates or opens a session on multiple resources of the same type in a single log entry. The command
+ * output is a list containing the {@link ResourceInfo} for each key in the order in which keys were provided.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class GetResources implements Command<List<ResourceInfo>>, CatalystSerializable {
+  private List<String> keys;
+  private ResourceType type;
+  private Properties config;
+
+  public GetResources() {
+  }
+
+  /**
+   * @throws NullPointerException if {@code keys} or {@code type} are null
+   */
+  public GetResources(List<String> keys, ResourceType type, Properties config) {
+    this.keys = Assert.notNull(keys, "keys");
+    this.type = Assert.notNull(type, "type");
+    this.config = config;
+  }
+
+  @Override
+  public CompactionMode compaction() {
+    return CompactionMode.QUORUM;
+  }
+
+  /**
+   * Returns the resource keys.
+   *
+   * @return The resource keys.
+   */
+  public List<String> keys() {
+    return keys;
+  }
+
+  /**
+   * Returns the resource type.
+   *
+   * @return The resource type.
+   */
+  public ResourceType type() {
+    return type;
+  }
+
+  /**
+   * Returns the resource configuration.
+   *
+   * @return The resource configuration.
+   */
+  public Properties config() {
+    return config;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeInt(keys.size());
+    for (String key : keys) {
+      buffer.writeUTF8(key);
+    }
+    serializer.writeObject(type, buffer);
+    serializer.writeObject(config, buffer);
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    int size = buffer.readInt();
+    keys = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      keys.add(buffer.readUTF8());
+    }
+    type = serializer.readObject(buffer);
+    config = serializer.readObject(buffer);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[keys=%d, type=%s]", getClass().getSimpleName(), keys.size(), type);
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.Query;
+import io.atomix.resource.ResourceType;
+
+/**
+ * Lookup resource query.
+ * <p>
+ * Resolves the {@link ResourceInfo} of an existing resource without opening a session on the resource.
+ * The query output is {@code null} if the resource does not exist.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class LookupResource extends KeyOperation<ResourceInfo> implements Query<ResourceInfo> {
+  private ResourceType type;
+
+  public LookupResource() {
+  }
+
+  /**
+   * @throws NullPointerException if {@code key} or {@code type} are null
+   */
+  public LookupResource(String key, ResourceType type) {
+    super(key);
+    this.type = Assert.notNull(type, "type");
+  }
+
+  @Override
+  public ConsistencyLevel consistency() {
+    return ConsistencyLevel.LINEARIZABLE;
+  }
+
+  /**
+   * Returns the resource type.
+   *
+   * @return The resource type.
+   */
+  public ResourceType type() {
+    return type;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    super.writeObject(buffer, serializer);
+    serializer.writeObject(type, buffer);
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    super.readObject(buffer, serializer);
+    type = serializer.readObject(buffer);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[key=%s, type=%s]", getClass().getSimpleName(), key, type);
+  }
+
+}
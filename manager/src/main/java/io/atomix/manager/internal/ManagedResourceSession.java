@@ -29,14 +29,54 @@ import java.util.function.Consumer;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 final class ManagedResourceSession implements ServerSession {
-  private final long resource;
-  final Commit commit;
-  private final ServerSession parent;
+  private long resource;
+  Commit commit;
+  private ServerSession parent;
+  private ResourceMetricsRecorder metrics;
 
-  public ManagedResourceSession(long resource, Commit commit, ServerSession parent) {
+  /**
+   * Creates an unbound session to be {@link #bind(long, ServerSession, ResourceMetricsRecorder) bound} to each
+   * query applied by a session that is not registered with the queried resource.
+   */
+  ManagedResourceSession() {
+  }
+
+  public ManagedResourceSession(long resource, Commit commit, ServerSession parent, ResourceMetricsRecorder metrics) {
     this.resource = resource;
     this.commit = commit;
     this.parent = parent;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Binds an unregistered session to the resource and client session of the query being applied.
+   * <p>
+   * Queries are applied synchronously and unregistered sessions are never retained by resource state machines,
+   * so a single unregistered session is shared by all such queries rather than allocated for each one.
+   */
+  ManagedResourceSession bind(long resource, ServerSession parent, ResourceMetricsRecorder metrics) {
+    this.resource = resource;
+    this.parent = parent;
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * Unbinds an unregistered session once the query has been applied.
+   */
+  void unbind() {
+    this.parent = null;
+    this.metrics = null;
+  }
+
+  /**
+   * Releases the commit that opened the session, if any.
+   */
+  void release() {
+    if (commit != null) {
+      commit.close();
+      commit = null;
+    }
   }
 
   @Override
@@ -56,11 +96,13 @@ final class ManagedResourceSession implements ServerSession {
 
   @Override
   public Session publish(String event) {
+    metrics.recordEvent();
     return parent.publish(event, new InstanceEvent<>(resource, null));
   }
 
   @Override
   public Session publish(String event, Object message) {
+    metrics.recordEvent();
     return parent.publish(event, new InstanceEvent<>(resource, message));
   }
 
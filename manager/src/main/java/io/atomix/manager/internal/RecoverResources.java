@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.Command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recover resources command.
+ * <p>
+ * Reopens multiple resources of any type in a single log entry when a client's session has been lost. Each
+ * resource is opened as if by its own {@link GetResource} command. The command output is a list containing the
+ * {@link ResourceInfo} for each resource in order, or {@code null} for resources that could not be opened.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class RecoverResources implements Command<List<ResourceInfo>>, CatalystSerializable {
+  private List<GetResource> resources;
+
+  public RecoverResources() {
+  }
+
+  /**
+   * @throws NullPointerException if {@code resources} is null
+   */
+  public RecoverResources(List<GetResource> resources) {
+    this.resources = Assert.notNull(resources, "resources");
+  }
+
+  @Override
+  public CompactionMode compaction() {
+    return CompactionMode.QUORUM;
+  }
+
+  /**
+   * Returns the resources to recover.
+   *
+   * @return The get resource operations for the resources to recover.
+   */
+  public List<GetResource> resources() {
+    return resources;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeInt(resources.size());
+    for (GetResource resource : resources) {
+      resource.writeObject(buffer, serializer);
+    }
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    int size = buffer.readInt();
+    resources = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      GetResource resource = new GetResource();
+      resource.readObject(buffer, serializer);
+      resources.add(resource);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[resources=%d]", getClass().getSimpleName(), resources.size());
+  }
+
+}
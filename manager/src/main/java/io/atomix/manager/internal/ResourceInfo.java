@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+
+import java.util.Properties;
+
+/**
+ * Output of a {@link GetResource} or {@link GetResources} command.
+ * <p>
+ * The resource info carries the ID of the opened resource along with the cluster-wide configuration of its
+ * state machine, allowing resource instances to be opened without querying the configuration separately.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ResourceInfo implements CatalystSerializable {
+  private long id;
+  private Properties config;
+
+  public ResourceInfo() {
+  }
+
+  public ResourceInfo(long id, Properties config) {
+    this.id = id;
+    this.config = config;
+  }
+
+  /**
+   * Returns the resource ID.
+   *
+   * @return The resource ID.
+   */
+  public long id() {
+    return id;
+  }
+
+  /**
+   * Returns the resource configuration.
+   *
+   * @return The resource configuration.
+   */
+  public Properties config() {
+    return config;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeLong(id);
+    serializer.writeObject(config, buffer);
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    id = buffer.readLong();
+    config = serializer.readObject(buffer);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[id=%d]", getClass().getSimpleName(), id);
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.copycat.Operation;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.manager.resource.internal.InstanceBatch;
+
+import java.time.Instant;
+
+/**
+ * Commit for a single operation in a batched commit such as an {@link InstanceBatch} or {@link GetResources}.
+ * <p>
+ * Each operation in a batch holds one reference to the batch commit, and the batch commit is released
+ * once all of its operations have been closed. Closing a batched operation releases only the references
+ * held by that operation.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class ResourceManagerBatchCommit<T extends Operation<?>> implements Commit<T> {
+  private final Commit<?> parent;
+  private final T operation;
+  private final long index;
+  private final ServerSession session;
+  private final Instant time;
+  private int references = 1;
+
+  ResourceManagerBatchCommit(Commit<?> parent, T operation) {
+    this.parent = parent;
+    this.operation = operation;
+    this.index = parent.index();
+    this.session = parent.session();
+    this.time = parent.time();
+  }
+
+  @Override
+  public long index() {
+    return index;
+  }
+
+  @Override
+  public ServerSession session() {
+    return session;
+  }
+
+  @Override
+  public Instant time() {
+    return time;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Class type() {
+    return operation.getClass();
+  }
+
+  @Override
+  public T operation() {
+    return operation;
+  }
+
+  @Override
+  public Commit<T> acquire() {
+    references++;
+    parent.acquire();
+    return this;
+  }
+
+  @Override
+  public boolean release() {
+    if (references > 0) {
+      references--;
+      parent.release();
+    }
+    return references == 0;
+  }
+
+  @Override
+  public int references() {
+    return references;
+  }
+
+  @Override
+  public void close() {
+    while (references > 0) {
+      release();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[index=%d, session=%s, time=%s, operation=%s]", getClass().getSimpleName(), index, session, time, operation);
+  }
+
+}
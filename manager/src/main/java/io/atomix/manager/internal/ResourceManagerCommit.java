@@ -31,6 +31,9 @@ class ResourceManagerCommit implements Commit {
   private final ResourceManagerCommitPool pool;
   private Commit<InstanceOperation<?, ?>> commit;
   private ServerSession session;
+  private ResourceMetricsRecorder metrics;
+  private ResourceMetricsRecorder.Retention retention;
+  private int size;
 
   public ResourceManagerCommit(ResourceManagerCommitPool pool) {
     this.pool = pool;
@@ -41,10 +44,15 @@ class ResourceManagerCommit implements Commit {
    *
    * @param commit The parent commit.
    * @param session The resource session.
+   * @param metrics The resource metrics recorder.
    */
-  void reset(Commit<InstanceOperation<?, ?>> commit, ServerSession session) {
+  void reset(Commit<InstanceOperation<?, ?>> commit, ServerSession session, ResourceMetricsRecorder metrics) {
     this.commit = commit;
     this.session = session;
+    this.metrics = metrics;
+    InstanceOperation<?, ?> operation = commit.operation();
+    this.size = operation.size();
+    this.retention = metrics.retainCommit(operation.operation().getClass(), size);
   }
 
   @Override
@@ -81,6 +89,7 @@ class ResourceManagerCommit implements Commit {
   @Override
   public boolean release() {
     if (commit.release()) {
+      metrics.releaseCommit(retention, size);
       pool.release(this);
       return true;
     }
@@ -95,6 +104,7 @@ class ResourceManagerCommit implements Commit {
   @Override
   public void close() {
     commit.close();
+    metrics.releaseCommit(retention, size);
     pool.release(this);
   }
 
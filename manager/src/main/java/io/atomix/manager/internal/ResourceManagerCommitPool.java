@@ -18,31 +18,36 @@ package io.atomix.manager.internal;
 import io.atomix.copycat.server.Commit;
 import io.atomix.copycat.server.session.ServerSession;
 
+import java.util.ArrayDeque;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Resource commit pool.
+ * <p>
+ * Commits are only ever acquired and released on the state machine thread, so the pool is backed by an
+ * {@link ArrayDeque} rather than a concurrent queue. Unlike a linked queue, returning a commit to the pool
+ * does not allocate.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 class ResourceManagerCommitPool {
-  private final Queue<ResourceManagerCommit> pool = new ConcurrentLinkedQueue<>();
+  private final Queue<ResourceManagerCommit> pool = new ArrayDeque<>();
 
   /**
    * Acquires a commit from the pool.
    *
    * @param commit The commit to acquire.
    * @param session The resource session.
+   * @param metrics The resource metrics recorder.
    * @return The acquired resource commit.
    */
   @SuppressWarnings("unchecked")
-  public ResourceManagerCommit acquire(Commit commit, ServerSession session) {
+  public ResourceManagerCommit acquire(Commit commit, ServerSession session, ResourceMetricsRecorder metrics) {
     ResourceManagerCommit resourceCommit = pool.poll();
     if (resourceCommit == null) {
       resourceCommit = new ResourceManagerCommit(this);
     }
-    resourceCommit.reset(commit, session);
+    resourceCommit.reset(commit, session, metrics);
     return resourceCommit;
   }
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.manager.ResourceManagerException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Store for the serialized state of hibernated resources.
+ * <p>
+ * If the store is constructed with a directory, each hibernated resource's state is written to a file named by
+ * the resource ID within the directory and read back when the resource is rehydrated. Otherwise, the serialized
+ * state is retained in memory, which still frees the resource's state machine, executor, and sessions. Hibernated
+ * state is rebuilt from the log and snapshots whenever the state machine is recreated, so any files remaining from
+ * a previous instance of the state machine are deleted when the store is created.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class ResourceManagerHibernationStore implements AutoCloseable {
+  private final File directory;
+  private final Map<Long, byte[]> resources = new HashMap<>();
+
+  ResourceManagerHibernationStore(File directory) {
+    this.directory = directory;
+    if (directory != null) {
+      clear();
+      directory.mkdirs();
+    }
+  }
+
+  /**
+   * Stores the serialized state of a resource.
+   */
+  void put(long resourceId, byte[] bytes) {
+    if (directory == null) {
+      resources.put(resourceId, bytes);
+    } else {
+      try {
+        Files.write(file(resourceId).toPath(), bytes);
+      } catch (IOException e) {
+        throw new ResourceManagerException("failed to hibernate resource: " + resourceId, e);
+      }
+    }
+  }
+
+  /**
+   * Reads the serialized state of a resource.
+   */
+  byte[] get(long resourceId) {
+    if (directory == null) {
+      return resources.get(resourceId);
+    }
+    try {
+      return Files.readAllBytes(file(resourceId).toPath());
+    } catch (IOException e) {
+      throw new ResourceManagerException("failed to read hibernated resource: " + resourceId, e);
+    }
+  }
+
+  /**
+   * Deletes the serialized state of a resource.
+   */
+  void remove(long resourceId) {
+    if (directory == null) {
+      resources.remove(resourceId);
+    } else {
+      file(resourceId).delete();
+    }
+  }
+
+  /**
+   * Returns the file for the given resource.
+   */
+  private File file(long resourceId) {
+    return new File(directory, resourceId + ".resource");
+  }
+
+  /**
+   * Deletes all hibernated resources.
+   */
+  private void clear() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    resources.clear();
+    if (directory != null) {
+      clear();
+    }
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.manager.ResourceManagerMXBean;
+import io.atomix.manager.ResourceMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Exposes the metrics of a partition's resource manager state machine via JMX.
+ * <p>
+ * Copycat constructs a new state machine each time a server is started, so the monitor reads from the
+ * most recently {@link #monitor(ResourceManagerState) monitored} state machine.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ResourceManagerMonitor implements ResourceManagerMXBean {
+  private volatile ResourceManagerState state;
+
+  /**
+   * Sets the state machine to monitor.
+   *
+   * @param state The state machine to monitor.
+   * @return The monitored state machine.
+   */
+  public ResourceManagerState monitor(ResourceManagerState state) {
+    this.state = state;
+    return state;
+  }
+
+  /**
+   * Returns the metrics for the monitored state machine.
+   */
+  private List<ResourceMetrics> metrics() {
+    ResourceManagerState state = this.state;
+    return state != null ? state.metrics() : Collections.emptyList();
+  }
+
+  /**
+   * Returns the metrics for the given resource key, or {@code null} if the resource does not exist.
+   */
+  private ResourceMetrics metrics(String key) {
+    for (ResourceMetrics metrics : metrics()) {
+      if (metrics.key().equals(key)) {
+        return metrics;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Maps a metric for each resource by resource key.
+   */
+  private Map<String, Long> metrics(ToLongFunction<ResourceMetrics> metric) {
+    List<ResourceMetrics> metrics = metrics();
+    Map<String, Long> values = new HashMap<>(metrics.size());
+    for (ResourceMetrics resource : metrics) {
+      values.put(resource.key(), metric.applyAsLong(resource));
+    }
+    return values;
+  }
+
+  @Override
+  public int getResourceCount() {
+    return metrics().size();
+  }
+
+  @Override
+  public Map<String, Long> getCommandCounts() {
+    return metrics(ResourceMetrics::commands);
+  }
+
+  @Override
+  public Map<String, Long> getQueryCounts() {
+    return metrics(ResourceMetrics::queries);
+  }
+
+  @Override
+  public Map<String, Long> getEventCounts() {
+    return metrics(ResourceMetrics::events);
+  }
+
+  @Override
+  public Map<String, Long> getRetainedCommitCounts() {
+    return metrics(ResourceMetrics::retainedCommits);
+  }
+
+  @Override
+  public Map<String, Long> getRetainedBytes() {
+    return metrics(ResourceMetrics::retainedBytes);
+  }
+
+  @Override
+  public List<String> getLeakSuspects() {
+    List<String> keys = new ArrayList<>();
+    for (ResourceMetrics metrics : metrics()) {
+      if (metrics.isLeakSuspected()) {
+        keys.add(metrics.key());
+      }
+    }
+    return keys;
+  }
+
+  @Override
+  public Map<String, Long> getApplyTimes() {
+    return metrics(ResourceMetrics::applyTime);
+  }
+
+  @Override
+  public Map<String, Long> getOperationCounts(String key) {
+    ResourceMetrics metrics = metrics(key);
+    return metrics != null ? metrics.operations() : Collections.emptyMap();
+  }
+
+  @Override
+  public Map<String, Long> getRetainedOperationCounts(String key) {
+    ResourceMetrics metrics = metrics(key);
+    return metrics != null ? metrics.retainedOperations() : Collections.emptyMap();
+  }
+
+  @Override
+  public Map<String, Long> getRetainedOperationBytes(String key) {
+    ResourceMetrics metrics = metrics(key);
+    return metrics != null ? metrics.retainedOperationBytes() : Collections.emptyMap();
+  }
+
+  @Override
+  public long[] getApplyTimeHistogram(String key) {
+    ResourceMetrics metrics = metrics(key);
+    return metrics != null ? metrics.applyTimeHistogram() : new long[0];
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Resource manager partition utilities.
+ * <p>
+ * Each partition is an independent Raft group with its own log and {@link ResourceManagerState}. Partition
+ * {@code i} of a node is reached at the node's configured port plus {@code i}, so partition {@code 0} is always
+ * reachable at the configured address. Resources are assigned to partitions by hashing their key, and clients
+ * and servers must therefore agree on the number of partitions in the cluster.
+ * <p>
+ * Because partition ports are derived from the configured ports, the port ranges of addresses that share a host
+ * must not overlap. Use {@link #validate(Collection, int)} to fail fast on configurations in which two partitions
+ * would otherwise be bound to or connect to the same port.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+public final class ResourceManagerPartitions {
+
+  private static final int MAX_PORT = 65535;
+
+  private ResourceManagerPartitions() {
+  }
+
+  /**
+   * Returns the partition to which the given resource key belongs.
+   *
+   * @param key The resource key.
+   * @param partitions The total number of partitions.
+   * @return The partition for the given key.
+   * @throws NullPointerException if {@code key} is null
+   * @throws IllegalArgumentException if {@code partitions} is not positive
+   */
+  public static int partition(String key, int partitions) {
+    Assert.notNull(key, "key");
+    Assert.arg(partitions > 0, "partitions must be positive");
+    return (key.hashCode() & Integer.MAX_VALUE) % partitions;
+  }
+
+  /**
+   * Returns the address of the given partition for a node address.
+   *
+   * @param address The node address.
+   * @param partition The partition number.
+   * @return The address of the partition on the node.
+   */
+  public static Address address(Address address, int partition) {
+    Assert.notNull(address, "address");
+    return partition == 0 ? address : new Address(address.host(), address.port() + partition);
+  }
+
+  /**
+   * Returns the addresses of the given partition for a collection of node addresses.
+   *
+   * @param addresses The node addresses.
+   * @param partition The partition number.
+   * @return The addresses of the partition on the nodes.
+   */
+  public static List<Address> addresses(Collection<Address> addresses, int partition) {
+    Assert.notNull(addresses, "addresses");
+    List<Address> partitionAddresses = new ArrayList<>(addresses.size());
+    for (Address address : addresses) {
+      partitionAddresses.add(address(address, partition));
+    }
+    return partitionAddresses;
+  }
+
+  /**
+   * Validates that the partition port ranges of the given addresses do not overlap.
+   * <p>
+   * Each address reserves the ports {@code [port, port + partitions)}. Duplicate addresses are ignored, but two
+   * distinct addresses on the same host whose ranges overlap would cause partitions to collide, as would a range
+   * that extends beyond the maximum port number.
+   *
+   * @param addresses The addresses to validate.
+   * @param partitions The total number of partitions.
+   * @throws NullPointerException if {@code addresses} is null
+   * @throws IllegalArgumentException if {@code partitions} is not positive or any two port ranges overlap
+   */
+  public static void validate(Collection<Address> addresses, int partitions) {
+    Assert.notNull(addresses, "addresses");
+    Assert.arg(partitions > 0, "partitions must be positive");
+    List<Address> distinct = new ArrayList<>(new LinkedHashSet<>(addresses));
+    for (int i = 0; i < distinct.size(); i++) {
+      Address address = distinct.get(i);
+      Assert.arg(address.port() + partitions - 1 <= MAX_PORT, "partition ports for %s exceed %s", address, MAX_PORT);
+      for (int j = i + 1; j < distinct.size(); j++) {
+        Address other = distinct.get(j);
+        Assert.arg(!address.host().equals(other.host()) || Math.abs(address.port() - other.port()) >= partitions,
+          "partition ports for %s and %s overlap: addresses on the same host must be at least %s ports apart", address, other, partitions);
+      }
+    }
+  }
+
+  /**
+   * Returns the name of the given partition.
+   * <p>
+   * The name of partition {@code 0} is the base name so that logs written by single partition servers
+   * can still be read by the first partition.
+   *
+   * @param name The base server name.
+   * @param partition The partition number.
+   * @return The partition name.
+   */
+  public static String name(String name, int partition) {
+    return partition == 0 ? name : String.format("%s-%d", name, partition);
+  }
+
+}
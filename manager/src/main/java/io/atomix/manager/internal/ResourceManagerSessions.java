@@ -28,7 +28,6 @@ import java.util.*;
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 public class ResourceManagerSessions implements Sessions, AutoCloseable {
-  private ManagedResourceSession first;
   private final Map<Long, ManagedResourceSession> sessions = new HashMap<>();
   private final Set<SessionListener> listeners = new HashSet<>();
 
@@ -38,13 +37,9 @@ public class ResourceManagerSessions implements Sessions, AutoCloseable {
   }
 
   void register(ManagedResourceSession session) {
-    // If this is the first registered session, store it so it can be removed once all sessions are removed.
-    if (first == null)
-      first = session;
-
     // If a session was already registered for the session ID, release the new commit.
     if (sessions.containsKey(session.id())) {
-      session.commit.close();
+      session.release();
     } else {
       sessions.put(session.id(), session);
       for (SessionListener listener : listeners) {
@@ -77,12 +72,33 @@ public class ResourceManagerSessions implements Sessions, AutoCloseable {
       for (SessionListener listener : listeners) {
         listener.close(session);
       }
-      if (session.commit != first.commit) {
-        session.commit.close();
+      session.release();
+    }
+  }
+
+  /**
+   * Releases the commits of all sessions opened at or before the given index.
+   * <p>
+   * This is called once the sessions have been persisted in a snapshot, after which the sessions can be
+   * restored from the snapshot rather than from the commits that opened them.
+   *
+   * @param index The index up to which to release session commits.
+   */
+  void release(long index) {
+    for (ManagedResourceSession session : sessions.values()) {
+      if (session.commit != null && session.commit.index() <= index) {
+        session.release();
       }
     }
   }
 
+  /**
+   * Returns a boolean indicating whether no sessions are open.
+   */
+  boolean isEmpty() {
+    return sessions.isEmpty();
+  }
+
   @Override
   public Sessions addListener(SessionListener listener) {
     listeners.add(Assert.notNull(listener, "listener"));
@@ -104,7 +120,7 @@ public class ResourceManagerSessions implements Sessions, AutoCloseable {
   @Override
   public void close() {
     for (ManagedResourceSession session : sessions.values()) {
-      session.commit.close();
+      session.release();
     }
   }
 
@@ -15,65 +15,364 @@
  */
 package io.atomix.manager.internal;
 
+import io.atomix.catalyst.util.Assert;
 import io.atomix.copycat.server.Commit;
 import io.atomix.copycat.server.Snapshottable;
 import io.atomix.copycat.server.StateMachine;
 import io.atomix.copycat.server.StateMachineExecutor;
 import io.atomix.copycat.server.session.ServerSession;
 import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
+import io.atomix.copycat.server.storage.snapshot.Snapshot;
 import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotStore;
 import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
+import io.atomix.manager.ResourceKeyPage;
 import io.atomix.manager.ResourceManagerException;
+import io.atomix.manager.ResourceMetrics;
+import io.atomix.manager.ResourceOperationTrace;
+import io.atomix.manager.ResourceOperationTracer;
+import io.atomix.manager.resource.internal.InstanceBatch;
+import io.atomix.manager.resource.internal.InstanceCommand;
 import io.atomix.manager.resource.internal.InstanceOperation;
+import io.atomix.manager.resource.internal.InstanceQuery;
 import io.atomix.resource.Resource;
 import io.atomix.resource.ResourceStateMachine;
 import io.atomix.resource.ResourceType;
+import io.atomix.resource.internal.HashedTimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Resource manager.
+ * <p>
+ * If the state machine is constructed with a hibernation timeout, {@link Snapshottable} resources that have no open
+ * sessions and no scheduled tasks and that have not been accessed within the timeout are hibernated. A hibernated
+ * resource's state machine is serialized to a {@link ResourceManagerHibernationStore} and its state machine, executor,
+ * and sessions are released. The resource is rehydrated from its serialized state the next time it's accessed.
+ * Resources are hibernated by a task scheduled on the state machine executor, so hibernation is driven by the
+ * state machine clock and occurs at the same point in the log on every replica. Only commands wake and touch
+ * resources. Queries against a hibernated resource are applied to a temporary copy of its state machine, so the
+ * hibernation schedule is unaffected by reads, which are applied only on the server that serves them.
+ * <p>
+ * Hibernation store IO is performed synchronously on the state machine thread: hibernating a resource writes its
+ * state and waking it, or querying it while hibernated, reads it back. With a persistent store, that IO adds to the
+ * latency of the operation being applied and of every operation queued behind it, so the hibernation timeout should
+ * be long enough that resources are rarely hibernated while still in use.
+ * <p>
+ * If the state machine is constructed with a {@link ResourceOperationTracer}, the tracer is invoked on the state
+ * machine thread after each resource operation has been applied.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class ResourceManagerState extends StateMachine implements SessionListener, Snapshottable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResourceManagerState.class);
+  private static final int RECLAIM_LIMIT = 1024;
+  private static final Duration RECLAIM_INTERVAL = Duration.ofMillis(100);
+  private static final Duration RETENTION_CHECK_INTERVAL = Duration.ofMinutes(1);
+  private static final int RETENTION_CHECK_LIMIT = 5;
   private StateMachineExecutor executor;
-  private final Map<String, Long> keys = new HashMap<>();
+  private HashedTimerWheel timers;
+  private final NavigableMap<String, Long> keys = new TreeMap<>();
+  private final Map<Integer, NavigableSet<String>> typeKeys = new HashMap<>();
   private final Map<Long, ResourceHolder> resources = new HashMap<>();
+  private final Map<Long, ResourceMetricsRecorder> metrics = new ConcurrentHashMap<>();
+  private final Map<Long, Set<Long>> sessions = new HashMap<>();
   private final ResourceManagerCommitPool commits = new ResourceManagerCommitPool();
+  private final ManagedResourceSession querySession = new ManagedResourceSession();
+  private final Map<Long, ResourceHolder> idle = new LinkedHashMap<>(16, 0.75f, true);
+  private final Set<ResourceStateMachine> reclaiming = new LinkedHashSet<>();
+  private final Duration hibernationTimeout;
+  private final ResourceManagerHibernationStore hibernated;
+  private final ResourceOperationTracer tracer;
+  private SnapshotStore scratchSnapshots;
+  private long snapshotIndex;
+  private boolean scheduled;
+
+  public ResourceManagerState() {
+    this(null, null);
+  }
+
+  /**
+   * @param hibernationTimeout The duration after which idle resources are hibernated, or {@code null} to disable hibernation.
+   * @param hibernationDirectory The directory in which to store hibernated resources, or {@code null} to store them in memory.
+   * @throws IllegalArgumentException if {@code hibernationTimeout} is not positive
+   */
+  public ResourceManagerState(Duration hibernationTimeout, File hibernationDirectory) {
+    this(hibernationTimeout, hibernationDirectory, null);
+  }
+
+  /**
+   * @param hibernationTimeout The duration after which idle resources are hibernated, or {@code null} to disable hibernation.
+   * @param hibernationDirectory The directory in which to store hibernated resources, or {@code null} to store them in memory.
+   * @param tracer The tracer to invoke for each applied resource operation, or {@code null} to disable tracing.
+   * @throws IllegalArgumentException if {@code hibernationTimeout} is not positive
+   */
+  public ResourceManagerState(Duration hibernationTimeout, File hibernationDirectory, ResourceOperationTracer tracer) {
+    Assert.arg(hibernationTimeout == null || (!hibernationTimeout.isNegative() && !hibernationTimeout.isZero()), "hibernationTimeout must be positive");
+    this.hibernationTimeout = hibernationTimeout;
+    this.hibernated = hibernationTimeout != null ? new ResourceManagerHibernationStore(hibernationDirectory) : null;
+    this.tracer = tracer;
+  }
+
+  /**
+   * Returns the directory in which to store hibernated resources for the given storage.
+   *
+   * @param storage The server storage.
+   * @param name The server name.
+   * @return The hibernation directory, or {@code null} if the storage is in memory.
+   */
+  public static File hibernationDirectory(Storage storage, String name) {
+    if (storage == null || storage.level() == StorageLevel.MEMORY) {
+      return null;
+    }
+    return new File(storage.directory(), name + "-resources");
+  }
 
   @Override
   public void configure(StateMachineExecutor executor) {
     this.executor = executor;
+    this.timers = new HashedTimerWheel(executor);
     executor.register(InstanceOperation.class, (Function<Commit<InstanceOperation>, Object>) this::operateResource);
-    executor.register(GetResource.class, this::getResource);
+    executor.register(InstanceBatch.class, this::operateBatch);
+    executor.register(GetResource.class, this::openResource);
     executor.register(GetResourceIfExists.class, this::getResourceIfExists);
+    executor.register(LookupResource.class, this::lookupResource);
+    executor.register(GetResources.class, this::getResources);
+    executor.register(RecoverResources.class, this::recoverResources);
     executor.register(CloseResource.class, this::closeResource);
     executor.register(DeleteResource.class, this::deleteResource);
     executor.register(ResourceExists.class, this::resourceExists);
     executor.register(GetResourceKeys.class, this::getResourceKeys);
+    executor.register(GetResourceKeyPage.class, this::getResourceKeyPage);
+    executor.register(GetResourceMetrics.class, this::getResourceMetrics);
+  }
+
+  /**
+   * Schedules the periodic hibernation, reclamation, and retention check tasks.
+   * <p>
+   * Callbacks can only be scheduled while a command is being applied, so the tasks are scheduled by the first
+   * command that creates, deletes, or writes to a resource rather than when the state machine is configured.
+   */
+  private void scheduleTasks() {
+    if (!scheduled) {
+      scheduled = true;
+      if (hibernationTimeout != null) {
+        executor.schedule(hibernationTimeout, hibernationTimeout, this::hibernateResources);
+      }
+      executor.schedule(RECLAIM_INTERVAL, RECLAIM_INTERVAL, this::reclaimResources);
+      executor.schedule(RETENTION_CHECK_INTERVAL, RETENTION_CHECK_INTERVAL, this::checkRetention);
+    }
+  }
+
+  /**
+   * Checks whether any resource's retained commits are growing without bound.
+   * <p>
+   * Resources that fail to release commits eventually prevent the log from being compacted. A warning is logged
+   * for each resource whose number of retained commits has grown in several consecutive checks, and the resource
+   * is reported as a suspected leak in its {@link ResourceMetrics} until its retained commits stop growing.
+   */
+  void checkRetention() {
+    for (ResourceMetricsRecorder recorder : metrics.values()) {
+      if (recorder.checkRetention(RETENTION_CHECK_LIMIT)) {
+        LOGGER.warn("Resource {} has retained more commits in {} consecutive checks and now retains {} commits ({} bytes); unreleased commits prevent log compaction",
+          recorder.key(), RETENTION_CHECK_LIMIT, recorder.retainedCommits(), recorder.retainedBytes());
+      }
+    }
   }
 
+  /**
+   * Takes a snapshot of the resource registry.
+   * <p>
+   * The snapshot contains a section for each resource, ordered by resource ID. Each section contains the resource
+   * ID, key, type, configuration, and open session IDs, followed by the length of the resource state machine's
+   * snapshot and the snapshot itself. If the resource state machine is not {@link Snapshottable}, the length is
+   * {@code -1} and the resource's state is instead restored by replaying the commits retained in the log.
+   * <p>
+   * Once a snapshot has been taken, the commits that created and opened sessions on snapshottable resources
+   * are no longer needed to restore the state machine. However, the snapshot is not guaranteed to be persisted
+   * until the next snapshot is taken, so commits covered by the previous snapshot are released here.
+   */
   @Override
   public void snapshot(SnapshotWriter writer) {
     List<ResourceHolder> resources = new ArrayList<>(this.resources.values());
-    Collections.sort(resources, (r1, r2) -> (int) (r1.id - r2.id));
+    Collections.sort(resources, (r1, r2) -> Long.compare(r1.id, r2.id));
+
+    releaseCommits(snapshotIndex);
+    snapshotIndex = executor.context().index();
+
+    writer.writeInt(resources.size());
     for (ResourceHolder resource : resources) {
-      if (resource.stateMachine instanceof Snapshottable) {
-        ((Snapshottable) resource.stateMachine).snapshot(writer);
+      writer.writeLong(resource.id);
+      writer.writeString(resource.key);
+      writer.writeObject(resource.type);
+      writer.writeObject(resource.config);
+
+      List<Long> sessions = new ArrayList<>();
+      if (resource.executor != null) {
+        for (ServerSession session : resource.executor.context.sessions) {
+          sessions.add(session.id());
+        }
+      }
+      writer.writeInt(sessions.size());
+      for (long session : sessions) {
+        writer.writeLong(session);
+      }
+
+      if (resource.isHibernated()) {
+        byte[] bytes = hibernated.get(resource.id);
+        writer.writeInt(bytes.length);
+        writer.write(bytes);
+      } else if (resource.stateMachine instanceof Snapshottable) {
+        byte[] bytes = snapshotResource((Snapshottable) resource.stateMachine);
+        writer.writeInt(bytes.length);
+        writer.write(bytes);
+      } else {
+        writer.writeInt(-1);
       }
     }
   }
 
+  /**
+   * Releases commits of snapshottable resources that were applied at or before the given index.
+   */
+  private void releaseCommits(long index) {
+    if (index == 0) {
+      return;
+    }
+
+    for (ResourceHolder resource : resources.values()) {
+      if (resource.isHibernated()) {
+        if (resource.commit != null && resource.commit.index() <= index) {
+          resource.commit.close();
+          resource.commit = null;
+        }
+      } else if (resource.stateMachine instanceof Snapshottable) {
+        if (resource.commit != null && resource.commit.index() <= index) {
+          resource.commit.close();
+          resource.commit = null;
+        }
+        resource.executor.context.sessions.release(index);
+      }
+    }
+  }
+
+  /**
+   * Writes a snapshot of the given resource state machine to a byte array.
+   */
+  private byte[] snapshotResource(Snapshottable stateMachine) {
+    Snapshot snapshot = scratchSnapshots().createSnapshot(executor.context().index());
+    try {
+      try (SnapshotWriter writer = snapshot.writer()) {
+        stateMachine.snapshot(writer);
+      }
+      try (SnapshotReader reader = snapshot.complete().reader()) {
+        byte[] bytes = new byte[(int) reader.remaining()];
+        reader.read(bytes);
+        return bytes;
+      }
+    } finally {
+      snapshot.close();
+    }
+  }
+
+  /**
+   * Installs a resource state machine snapshot from a byte array.
+   */
+  private void installResource(Snapshottable stateMachine, byte[] bytes) {
+    Snapshot snapshot = scratchSnapshots().createSnapshot(executor.context().index());
+    try {
+      try (SnapshotWriter writer = snapshot.writer()) {
+        writer.write(bytes);
+      }
+      try (SnapshotReader reader = snapshot.complete().reader()) {
+        stateMachine.install(reader);
+      }
+    } finally {
+      snapshot.close();
+    }
+  }
+
+  /**
+   * Returns the in-memory snapshot store used to delimit resource state machine snapshots.
+   */
+  private SnapshotStore scratchSnapshots() {
+    if (scratchSnapshots == null) {
+      scratchSnapshots = new SnapshotStore("resources", new Storage(StorageLevel.MEMORY), executor.serializer());
+    }
+    return scratchSnapshots;
+  }
+
+  /**
+   * Installs a snapshot of the resource registry.
+   * <p>
+   * Snapshots are installed once the state machine has applied all entries retained in the log up to the snapshot
+   * index, so some resources may already have been recreated by replaying their creation commits. Resources that
+   * already exist are merged with the snapshot, missing resources are recreated from the snapshot, and resources
+   * that are not present in the snapshot are deleted since they must have been deleted prior to the snapshot.
+   */
   @Override
   public void install(SnapshotReader reader) {
-    List<ResourceHolder> resources = new ArrayList<>(this.resources.values());
-    Collections.sort(resources, (r1, r2) -> (int)(r1.id - r2.id));
-    for (ResourceHolder resource : resources) {
-      if (resource.stateMachine instanceof Snapshottable) {
-        ((Snapshottable) resource.stateMachine).install(reader);
+    Set<Long> installed = new HashSet<>();
+    int count = reader.readInt();
+    for (int i = 0; i < count; i++) {
+      long resourceId = reader.readLong();
+      String key = reader.readString();
+      ResourceType type = reader.readObject();
+      Properties config = reader.readObject();
+
+      int sessionCount = reader.readInt();
+      long[] sessions = new long[sessionCount];
+      for (int j = 0; j < sessionCount; j++) {
+        sessions[j] = reader.readLong();
+      }
+
+      byte[] bytes = null;
+      int length = reader.readInt();
+      if (length >= 0) {
+        bytes = new byte[length];
+        reader.read(bytes);
+      }
+
+      ResourceHolder resource = resources.get(resourceId);
+      if (resource == null) {
+        resource = createResource(resourceId, key, type, config, null);
+      } else if (resource.isHibernated() && bytes != null && sessionCount == 0) {
+        // If the resource is hibernated and has no sessions to restore, replace its hibernated state.
+        hibernated.put(resourceId, bytes);
+        installed.add(resourceId);
+        continue;
+      } else {
+        wakeResource(resource);
+      }
+      touchResource(resource);
+
+      // Restore sessions that are still open on the server but were not reopened while replaying the log.
+      for (long sessionId : sessions) {
+        if (resource.executor.context.sessions.session(sessionId) == null) {
+          ServerSession session = executor.context().sessions().session(sessionId);
+          if (session != null) {
+            registerSession(resource, new ManagedResourceSession(resourceId, null, session, resource.metrics));
+          }
+        }
+      }
+
+      if (bytes != null && resource.stateMachine instanceof Snapshottable) {
+        installResource((Snapshottable) resource.stateMachine, bytes);
+      }
+      installed.add(resourceId);
+    }
+
+    for (ResourceHolder resource : new ArrayList<>(resources.values())) {
+      if (!installed.contains(resource.id)) {
+        removeResource(resource);
       }
     }
   }
@@ -90,22 +389,175 @@ public class ResourceManagerState extends StateMachine implements SessionListene
       throw new ResourceManagerException("unknown resource: " + resourceId);
     }
 
+    // Only commands wake and touch resources. Queries are applied only on the server that serves them, so a
+    // query against a hibernated resource is applied to a temporary copy of the resource's state machine that's
+    // discarded afterwards, leaving the resource hibernated and its idle time unchanged on every server.
+    boolean command = commit.operation() instanceof InstanceCommand;
+    ResourceHolder target = resource;
+    if (command) {
+      scheduleTasks();
+      wakeResource(resource);
+      touchResource(resource);
+    } else if (resource.isHibernated()) {
+      target = loadResource(resource);
+    }
+
     // If the session exists for the resource, use the existing session.
-    ManagedResourceSession resourceSession = resource.executor.context.sessions.session(commit.session().id());
+    ManagedResourceSession resourceSession = target.executor.context.sessions.session(commit.session().id());
 
-    // If the session is not open for this resource, add the commit session to the resource.
+    // If the session is not open for this resource, apply the operation with an unregistered session. Queries
+    // share a single unregistered session, while commands may retain their commit and session.
     if (resourceSession == null) {
-      resourceSession = new ManagedResourceSession(resourceId, commit, commit.session());
+      resourceSession = command
+        ? new ManagedResourceSession(resourceId, commit, commit.session(), resource.metrics)
+        : querySession.bind(resourceId, commit.session(), resource.metrics);
+    }
+
+    // Execute the operation, recording the time taken to apply it. The commit may be closed once it has
+    // been applied, so the operation must be read beforehand.
+    InstanceOperation<?, ?> operation = commit.operation();
+    long index = commit.index();
+    long start = System.nanoTime();
+    Object result = null;
+    boolean failed = true;
+    try {
+      result = target.executor.execute(commits.acquire(commit, resourceSession, resource.metrics));
+      failed = false;
+      return result;
+    } finally {
+      if (resourceSession == querySession) {
+        querySession.unbind();
+      }
+      if (target != resource) {
+        target.executor.close();
+      }
+      long duration = System.nanoTime() - start;
+      resource.metrics.recordOperation(operation.operation().getClass(), operation instanceof InstanceCommand, duration);
+      if (tracer != null) {
+        trace(resource, operation, index, duration, result, failed);
+      }
+      // Reclamation frees state on every server, so it's only advanced by commands and the scheduled task,
+      // which are applied at the same point in the log everywhere, and never by queries.
+      if (command) {
+        if (resource.stateMachine.isReclaiming()) {
+          reclaiming.add(resource.stateMachine);
+        }
+        if (!reclaiming.isEmpty()) {
+          reclaimResources();
+        }
+      }
     }
+  }
 
-    // Execute the operation.
-    return resource.executor.execute(commits.acquire(commit, resourceSession));
+  /**
+   * Releases a bounded slice of the state detached by deleted or cleared resources.
+   * <p>
+   * Resource state machines detach large state when deleted or cleared rather than releasing it in a single
+   * operation. The detached state is released in slices after each resource command and periodically, bounding
+   * the time added to any single apply.
+   */
+  private void reclaimResources() {
+    int limit = RECLAIM_LIMIT;
+    Iterator<ResourceStateMachine> iterator = reclaiming.iterator();
+    while (limit > 0 && iterator.hasNext()) {
+      ResourceStateMachine stateMachine = iterator.next();
+      limit -= stateMachine.reclaim(limit);
+      if (!stateMachine.isReclaiming()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Passes an applied operation to the operation tracer.
+   */
+  private void trace(ResourceHolder resource, InstanceOperation<?, ?> operation, long index, long duration, Object result, boolean failed) {
+    try {
+      tracer.trace(new ResourceOperationTrace(resource.key, resource.type, operation.operation().getClass(),
+        operation instanceof InstanceCommand, index, duration, ResourceOperationTrace.resultSize(result), failed));
+    } catch (RuntimeException e) {
+      LOGGER.warn("Resource operation tracer failed", e);
+    }
+  }
+
+  /**
+   * Performs a batch of operations on one or more resources.
+   * <p>
+   * Each condition and operation is applied with its own commit holding a reference to the batch commit, so the
+   * batch entry is retained until every operation in the batch has been released by its resource state machine.
+   * Conditions are evaluated before any operation is applied. If a condition's output does not match its expected
+   * value, the references held for the remaining conditions and operations are released and {@code null} is returned.
+   */
+  @SuppressWarnings("unchecked")
+  protected List<Object> operateBatch(Commit<InstanceBatch> commit) {
+    List<InstanceQuery<?, ?>> conditions = commit.operation().conditions();
+    List<Object> expected = commit.operation().expected();
+    List<InstanceCommand<?, ?>> operations = commit.operation().commands();
+    int size = conditions.size() + operations.size();
+    if (size == 0) {
+      commit.close();
+      return Collections.emptyList();
+    }
+
+    // Acquire a reference to the batch commit for each operation before any operation can release it.
+    for (int i = 1; i < size; i++) {
+      commit.acquire();
+    }
+
+    for (int i = 0; i < conditions.size(); i++) {
+      Object result;
+      try {
+        result = operateResource((Commit) new ResourceManagerBatchCommit<>(commit, conditions.get(i)));
+      } catch (Exception e) {
+        result = e;
+      }
+
+      if (!Objects.equals(result, expected.get(i))) {
+        for (int j = i + 1; j < size; j++) {
+          commit.release();
+        }
+        return null;
+      }
+    }
+
+    List<Object> results = new ArrayList<>(operations.size());
+    for (InstanceCommand<?, ?> operation : operations) {
+      try {
+        results.add(operateResource((Commit) new ResourceManagerBatchCommit<>(commit, operation)));
+      } catch (Exception e) {
+        results.add(new InstanceBatch.Failure(e));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Opens a resource, returning the resource ID and configuration.
+   */
+  protected ResourceInfo openResource(Commit<GetResource> commit) {
+    return resourceInfo(getResource(commit));
+  }
+
+  /**
+   * Returns the resource info for the given resource ID.
+   */
+  private ResourceInfo resourceInfo(long resourceId) {
+    return new ResourceInfo(resourceId, resources.get(resourceId).config);
   }
 
   /**
    * Gets a resource.
    */
   protected long getResource(Commit<? extends GetResource> commit) {
+    // The first time a resource is created, the resource ID is the index of the commit that created it.
+    return getResource(commit, commit.index());
+  }
+
+  /**
+   * Gets a resource, creating it with the given resource ID if it does not exist.
+   */
+  private long getResource(Commit<? extends GetResource> commit, long newResourceId) {
+    scheduleTasks();
     String key = commit.operation().key();
     ResourceType type = commit.operation().type();
 
@@ -114,32 +566,16 @@ public class ResourceManagerState extends StateMachine implements SessionListene
 
     // If no resource ID was found, create the resource.
     if (resourceId == null) {
+      resourceId = newResourceId;
+      ResourceHolder resource = createResource(resourceId, key, type, commit.operation().config(), commit);
+      touchResource(resource);
 
-      // The first time a resource is created, the resource ID is the index of the commit that created it.
-      resourceId = commit.index();
-      keys.put(key, resourceId);
-
-      try {
-        // For the new resource, construct a state machine and store the resource info.
-        ResourceStateMachine stateMachine = type.factory().newInstance().createStateMachine(new Resource.Config(commit.operation().config()));
-        ResourceManagerStateMachineExecutor executor = new ResourceManagerStateMachineExecutor(resourceId, this.executor);
-
-        // Store the resource to be referenced by its resource ID.
-        ResourceHolder resource = new ResourceHolder(resourceId, key, type, commit, stateMachine, executor);
-        resources.put(resourceId, resource);
-
-        // Initialize the resource state machine.
-        stateMachine.init(executor);
+      // Create a resource session for the client resource instance. The creation commit is owned by the
+      // resource rather than the session, so the session is registered without a commit.
+      registerSession(resource, new ManagedResourceSession(resourceId, null, commit.session(), resource.metrics));
 
-        // Create a resource session for the client resource instance.
-        ManagedResourceSession resourceSession = new ManagedResourceSession(resourceId, commit, commit.session());
-        resource.executor.context.sessions.register(resourceSession);
-
-        // Returns the session ID for the resource client session.
-        return resourceId;
-      } catch (InstantiationException | IllegalAccessException e) {
-        throw new ResourceManagerException("failed to instantiate state machine", e);
-      }
+      // Returns the session ID for the resource client session.
+      return resourceId;
     } else {
       // If a resource was found, validate that the resource type matches.
       ResourceHolder resource = resources.get(resourceId);
@@ -147,27 +583,287 @@ public class ResourceManagerState extends StateMachine implements SessionListene
         throw new ResourceManagerException("inconsistent resource type: " + commit.operation().type());
       }
 
+      wakeResource(resource);
+      touchResource(resource);
+
       // Create a resource session for the client resource instance.
-      ManagedResourceSession resourceSession = new ManagedResourceSession(resourceId, commit, commit.session());
-      resource.executor.context.sessions.register(resourceSession);
+      registerSession(resource, new ManagedResourceSession(resourceId, commit, commit.session(), resource.metrics));
 
       return resourceId;
     }
   }
 
+  /**
+   * Resolves an existing resource without registering a session on it.
+   * <p>
+   * Clients that only read from a resource do not need to receive events, so their queries can be applied with an
+   * unregistered session rather than retaining a session commit for each reader.
+   */
+  protected ResourceInfo lookupResource(Commit<LookupResource> commit) {
+    try {
+      Long resourceId = keys.get(commit.operation().key());
+      if (resourceId == null) {
+        return null;
+      }
+
+      ResourceHolder resource = resources.get(resourceId);
+      if (!resource.type.equals(commit.operation().type())) {
+        throw new ResourceManagerException("inconsistent resource type: " + commit.operation().type());
+      }
+      return new ResourceInfo(resourceId, resource.config);
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Gets or creates multiple resources of the same type in a single commit.
+   * <p>
+   * Resource types are validated before any resource is created or opened, so either all resources are
+   * opened or none are.
+   */
+  protected List<ResourceInfo> getResources(Commit<GetResources> commit) {
+    List<String> keys = commit.operation().keys();
+    ResourceType type = commit.operation().type();
+    for (String key : keys) {
+      Long resourceId = this.keys.get(key);
+      if (resourceId != null && !resources.get(resourceId).type.equals(type)) {
+        commit.close();
+        throw new ResourceManagerException("inconsistent resource type: " + type);
+      }
+    }
+
+    List<GetResource> operations = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      operations.add(new GetResource(key, type, commit.operation().config()));
+    }
+    return openResources(commit, operations);
+  }
+
+  /**
+   * Reopens multiple resources of any type in a single commit.
+   */
+  protected List<ResourceInfo> recoverResources(Commit<RecoverResources> commit) {
+    return openResources(commit, commit.operation().resources());
+  }
+
+  /**
+   * Gets or creates a resource for each of the given operations.
+   * <p>
+   * Each resource is opened with its own commit holding a reference to the bulk commit. The first resource
+   * created by the commit is identified by the commit index like any other resource. Commit indexes never
+   * approach 2<sup>48</sup>, so subsequent resources are identified by the commit index with their position
+   * in the commit set in the high bits. If a resource cannot be opened, its output is {@code null}.
+   */
+  private List<ResourceInfo> openResources(Commit<?> commit, List<GetResource> operations) {
+    if (operations.isEmpty()) {
+      commit.close();
+      return Collections.emptyList();
+    }
+
+    // Acquire a reference to the bulk commit for each resource before any resource can release it.
+    for (int i = 1; i < operations.size(); i++) {
+      commit.acquire();
+    }
+
+    List<ResourceInfo> results = new ArrayList<>(operations.size());
+    long created = 0;
+    for (GetResource operation : operations) {
+      boolean exists = keys.containsKey(operation.key());
+      Commit<GetResource> resourceCommit = new ResourceManagerBatchCommit<>(commit, operation);
+      try {
+        long resourceId = getResource(resourceCommit, commit.index() | created << 48);
+        if (!exists) {
+          created++;
+        }
+        results.add(resourceInfo(resourceId));
+      } catch (ResourceManagerException e) {
+        resourceCommit.close();
+        results.add(null);
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Creates and initializes a resource state machine.
+   */
+  private ResourceHolder createResource(long resourceId, String key, ResourceType type, Properties config, Commit<? extends GetResource> commit) {
+    // Store the resource to be referenced by its resource ID.
+    ResourceHolder resource = new ResourceHolder(resourceId, key, type, config, commit);
+    resources.put(resourceId, resource);
+    metrics.put(resourceId, resource.metrics);
+    keys.put(key, resourceId);
+    typeKeys.computeIfAbsent(type.id(), id -> new TreeSet<>()).add(key);
+
+    initResource(resource);
+    return resource;
+  }
+
+  /**
+   * Constructs and initializes the state machine and executor for a resource.
+   */
+  private void initResource(ResourceHolder resource) {
+    try {
+      resource.stateMachine = resource.type.factory().newInstance().createStateMachine(new Resource.Config(resource.config));
+      resource.executor = new ResourceManagerStateMachineExecutor(resource.id, this.executor, timers);
+      resource.stateMachine.init(resource.executor);
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new ResourceManagerException("failed to instantiate state machine", e);
+    }
+  }
+
+  /**
+   * Records an access to a resource, deferring its hibernation.
+   */
+  private void touchResource(ResourceHolder resource) {
+    if (hibernationTimeout != null && resource.stateMachine instanceof Snapshottable) {
+      resource.accessed = executor.context().clock().millis();
+
+      // Idle resources are kept in access order, so accessing a resource moves it to the end of the map in place.
+      if (idle.get(resource.id) == null) {
+        idle.put(resource.id, resource);
+      }
+    }
+  }
+
+  /**
+   * Hibernates resources that have not been accessed within the hibernation timeout.
+   * <p>
+   * Idle resources are ordered by the time they were last accessed, so only the resources whose timeout has
+   * expired are visited. Resources that still have open sessions or scheduled tasks are touched and checked
+   * again once the timeout expires.
+   */
+  void hibernateResources() {
+    long expired = executor.context().clock().millis() - hibernationTimeout.toMillis();
+    List<ResourceHolder> active = new ArrayList<>();
+    Iterator<ResourceHolder> iterator = idle.values().iterator();
+    while (iterator.hasNext()) {
+      ResourceHolder resource = iterator.next();
+      if (resource.accessed > expired) {
+        break;
+      }
+
+      iterator.remove();
+      if (resource.executor.context.sessions.isEmpty() && !resource.executor.hasTasks()) {
+        hibernateResource(resource);
+      } else {
+        active.add(resource);
+      }
+    }
+
+    for (ResourceHolder resource : active) {
+      touchResource(resource);
+    }
+  }
+
+  /**
+   * Serializes a resource's state machine to the hibernation store and releases its state machine and executor.
+   */
+  private void hibernateResource(ResourceHolder resource) {
+    hibernated.put(resource.id, snapshotResource((Snapshottable) resource.stateMachine));
+    resource.executor.close();
+    resource.stateMachine = null;
+    resource.executor = null;
+  }
+
+  /**
+   * Rehydrates a hibernated resource from its serialized state.
+   */
+  private void wakeResource(ResourceHolder resource) {
+    if (resource.isHibernated()) {
+      byte[] bytes = hibernated.get(resource.id);
+      hibernated.remove(resource.id);
+      initResource(resource);
+      installResource((Snapshottable) resource.stateMachine, bytes);
+    }
+  }
+
+  /**
+   * Loads a temporary copy of a hibernated resource from its serialized state without waking the resource.
+   */
+  private ResourceHolder loadResource(ResourceHolder resource) {
+    ResourceHolder copy = new ResourceHolder(resource.id, resource.key, resource.type, resource.config, null);
+    initResource(copy);
+    installResource((Snapshottable) copy.stateMachine, hibernated.get(resource.id));
+    return copy;
+  }
+
+  /**
+   * Registers a session with a resource and indexes the resource by the session ID.
+   */
+  private void registerSession(ResourceHolder resource, ManagedResourceSession session) {
+    resource.executor.context.sessions.register(session);
+    sessions.computeIfAbsent(session.id(), id -> new HashSet<>()).add(resource.id);
+  }
+
+  /**
+   * Removes a resource from the set of resources indexed by the given session ID.
+   */
+  private void unindexSession(long sessionId, long resourceId) {
+    Set<Long> resourceIds = sessions.get(sessionId);
+    if (resourceIds != null) {
+      resourceIds.remove(resourceId);
+      if (resourceIds.isEmpty()) {
+        sessions.remove(sessionId);
+      }
+    }
+  }
+
+  /**
+   * Deletes a resource state machine and releases its commits.
+   */
+  private void removeResource(ResourceHolder resource) {
+    resources.remove(resource.id);
+    metrics.remove(resource.id);
+    idle.remove(resource.id);
+
+    if (resource.isHibernated()) {
+      // Hibernated resources have no state machine to delete, so just discard the serialized state.
+      hibernated.remove(resource.id);
+    } else {
+      for (ServerSession session : resource.executor.context.sessions) {
+        unindexSession(session.id(), resource.id);
+      }
+
+      // Delete the resource state machine and close the resource state machine executor. State detached
+      // by the state machine is reclaimed after the resource has been removed.
+      resource.stateMachine.delete();
+      if (resource.stateMachine.isReclaiming()) {
+        reclaiming.add(resource.stateMachine);
+      }
+      resource.executor.close();
+    }
+
+    if (resource.commit != null) {
+      resource.commit.close();
+      resource.commit = null;
+    }
+
+    keys.remove(resource.key);
+    NavigableSet<String> typeKeys = this.typeKeys.get(resource.type.id());
+    if (typeKeys != null) {
+      typeKeys.remove(resource.key);
+      if (typeKeys.isEmpty()) {
+        this.typeKeys.remove(resource.type.id());
+      }
+    }
+  }
+
   /**
    * Applies a get resource if exists commit.
    */
   @SuppressWarnings("unchecked")
-  private long getResourceIfExists(Commit<GetResourceIfExists> commit) {
+  private ResourceInfo getResourceIfExists(Commit<GetResourceIfExists> commit) {
     String key = commit.operation().key();
 
     // Lookup the resource ID for the resource key.
     Long resourceId = keys.get(key);
     if (resourceId != null) {
-      return getResource(commit);
+      return resourceInfo(getResource(commit));
     }
-    return 0;
+    commit.close();
+    return null;
   }
 
   /**
@@ -192,8 +888,13 @@ public class ResourceManagerState extends StateMachine implements SessionListene
         throw new ResourceManagerException("unknown resource: " + resourceId);
       }
 
-      resource.executor.context.sessions.unregister(commit.session().id());
-      resource.executor.context.sessions.close(commit.session().id());
+      // Hibernated resources have no open sessions.
+      if (!resource.isHibernated()) {
+        resource.executor.context.sessions.unregister(commit.session().id());
+        resource.executor.context.sessions.close(commit.session().id());
+        unindexSession(commit.session().id(), resourceId);
+        touchResource(resource);
+      }
     } finally {
       commit.close();
     }
@@ -204,17 +905,13 @@ public class ResourceManagerState extends StateMachine implements SessionListene
    */
   protected boolean deleteResource(Commit<DeleteResource> commit) {
     try {
-      ResourceHolder resource = resources.remove(commit.operation().resource());
+      ResourceHolder resource = resources.get(commit.operation().resource());
       if (resource == null) {
         throw new ResourceManagerException("unknown resource: " + commit.operation().resource());
       }
 
-      // Delete the resource state machine and close the resource state machine executor.
-      resource.stateMachine.delete();
-      resource.executor.close();
-      resource.commit.close();
-
-      keys.remove(resource.key);
+      scheduleTasks();
+      removeResource(resource);
       return true;
     } finally {
       commit.close();
@@ -226,42 +923,133 @@ public class ResourceManagerState extends StateMachine implements SessionListene
    */
   protected Set<String> getResourceKeys(Commit<GetResourceKeys> commit) {
     try {
-      if (commit.operation().type() == 0) {
-        return new HashSet<>(keys.keySet());
+      return new HashSet<>(typeKeys(commit.operation().type()));
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles get resource key page commit.
+   * <p>
+   * Keys are listed in sorted order from the sorted key index or the index for the requested resource type,
+   * starting after the page token if one is provided or at the prefix otherwise. One key beyond the limit is
+   * read to determine whether another page follows.
+   */
+  protected ResourceKeyPage getResourceKeyPage(Commit<GetResourceKeyPage> commit) {
+    try {
+      GetResourceKeyPage query = commit.operation();
+      String prefix = query.prefix();
+      String token = query.token();
+      NavigableSet<String> keys = typeKeys(query.type());
+      NavigableSet<String> tail = token != null && token.compareTo(prefix) >= 0 ? keys.tailSet(token, false) : keys.tailSet(prefix, true);
+
+      List<String> page = new ArrayList<>(Math.min(query.limit(), 1024));
+      for (String key : tail) {
+        if (!key.startsWith(prefix)) {
+          break;
+        }
+        if (page.size() == query.limit()) {
+          return new ResourceKeyPage(page, page.get(page.size() - 1));
+        }
+        page.add(key);
       }
+      return new ResourceKeyPage(page, null);
+    } finally {
+      commit.close();
+    }
+  }
 
-      return new HashSet<>(resources.entrySet()
-        .stream()
-        .filter(e -> e.getValue().type.id() == commit.operation().type())
-        .map(e -> e.getValue().key)
-        .collect(Collectors.toSet()));
+  /**
+   * Returns the sorted set of keys for the given resource type, or all keys if the type is {@code 0}.
+   */
+  private NavigableSet<String> typeKeys(int type) {
+    if (type == 0) {
+      return keys.navigableKeySet();
+    }
+    NavigableSet<String> keys = typeKeys.get(type);
+    return keys != null ? keys : Collections.emptyNavigableSet();
+  }
+
+  /**
+   * Handles get resource metrics query.
+   */
+  protected List<ResourceMetrics> getResourceMetrics(Commit<GetResourceMetrics> commit) {
+    try {
+      return metrics();
     } finally {
       commit.close();
     }
   }
 
+  /**
+   * Returns a snapshot of the metrics for all resources managed by the state machine.
+   * <p>
+   * Metrics are recorded on the state machine thread, but this method may safely be called from any thread.
+   *
+   * @return A list of metrics for each resource, in no particular order.
+   */
+  public List<ResourceMetrics> metrics() {
+    List<ResourceMetrics> metrics = new ArrayList<>(this.metrics.size());
+    for (ResourceMetricsRecorder recorder : this.metrics.values()) {
+      metrics.add(recorder.snapshot());
+    }
+    return metrics;
+  }
+
   @Override
   public void register(ServerSession session) {
   }
 
+  /**
+   * Returns the resources on which the given session is open.
+   * <p>
+   * Sessions are indexed by the resources they open so that session events only need to visit the resources
+   * the session actually uses rather than every resource managed by the state machine.
+   */
+  private List<ResourceHolder> sessionResources(long sessionId) {
+    Set<Long> resourceIds = sessions.get(sessionId);
+    if (resourceIds == null) {
+      return Collections.emptyList();
+    }
+
+    List<ResourceHolder> resources = new ArrayList<>(resourceIds.size());
+    for (long resourceId : resourceIds) {
+      ResourceHolder resource = this.resources.get(resourceId);
+      if (resource != null) {
+        resources.add(resource);
+      }
+    }
+    return resources;
+  }
+
   @Override
   public void expire(ServerSession session) {
-    for (ResourceHolder resource : resources.values()) {
+    for (ResourceHolder resource : sessionResources(session.id())) {
       resource.executor.context.sessions.expire(session.id());
     }
   }
 
   @Override
   public void unregister(ServerSession session) {
-    for (ResourceHolder resource : resources.values()) {
+    for (ResourceHolder resource : sessionResources(session.id())) {
       resource.executor.context.sessions.unregister(session.id());
     }
   }
 
   @Override
   public void close(ServerSession session) {
-    for (ResourceHolder resource : resources.values()) {
+    for (ResourceHolder resource : sessionResources(session.id())) {
       resource.executor.context.sessions.close(session.id());
+      touchResource(resource);
+    }
+    sessions.remove(session.id());
+  }
+
+  @Override
+  public void close() {
+    if (hibernated != null) {
+      hibernated.close();
     }
   }
 
@@ -272,17 +1060,27 @@ public class ResourceManagerState extends StateMachine implements SessionListene
     private final long id;
     private final String key;
     private final ResourceType type;
-    private final Commit<? extends GetResource> commit;
-    private final ResourceStateMachine stateMachine;
-    private final ResourceManagerStateMachineExecutor executor;
+    private final Properties config;
+    private Commit<? extends GetResource> commit;
+    private ResourceStateMachine stateMachine;
+    private ResourceManagerStateMachineExecutor executor;
+    private final ResourceMetricsRecorder metrics;
+    private long accessed;
 
-    private ResourceHolder(long id, String key, ResourceType type, Commit<? extends GetResource> commit, ResourceStateMachine stateMachine, ResourceManagerStateMachineExecutor executor) {
+    private ResourceHolder(long id, String key, ResourceType type, Properties config, Commit<? extends GetResource> commit) {
       this.id = id;
       this.key = key;
       this.type = type;
+      this.config = config;
       this.commit = commit;
-      this.stateMachine = stateMachine;
-      this.executor = executor;
+      this.metrics = new ResourceMetricsRecorder(key, type.id());
+    }
+
+    /**
+     * Returns a boolean indicating whether the resource's state machine has been hibernated.
+     */
+    private boolean isHibernated() {
+      return stateMachine == null;
     }
   }
 
@@ -22,10 +22,12 @@ import io.atomix.catalyst.util.Assert;
 import io.atomix.copycat.Operation;
 import io.atomix.copycat.server.Commit;
 import io.atomix.copycat.server.StateMachineExecutor;
+import io.atomix.resource.internal.HashedTimerWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -44,14 +46,18 @@ import java.util.function.Supplier;
 class ResourceManagerStateMachineExecutor implements StateMachineExecutor {
   final StateMachineExecutor parent;
   final ResourceManagerStateMachineContext context;
-  private final Logger logger;
+  private final long resource;
+  private final HashedTimerWheel timers;
+  private Logger logger;
   private final Map<Class, Function> operations = new HashMap<>();
   private final Set<Scheduled> tasks = new HashSet<>();
+  private final Consumer<Scheduled> taskCompleter = tasks::remove;
 
-  ResourceManagerStateMachineExecutor(long resource, StateMachineExecutor parent) {
+  ResourceManagerStateMachineExecutor(long resource, StateMachineExecutor parent, HashedTimerWheel timers) {
+    this.resource = resource;
     this.parent = parent;
+    this.timers = timers;
     this.context = new ResourceManagerStateMachineContext(parent.context());
-    this.logger = LoggerFactory.getLogger(String.format("%s-%d", getClass().getName(), resource));
   }
 
   @Override
@@ -61,6 +67,11 @@ class ResourceManagerStateMachineExecutor implements StateMachineExecutor {
 
   @Override
   public Logger logger() {
+    // Loggers are cached by the logging framework for the life of the process, so the per-resource logger
+    // is only created once a resource state machine actually logs.
+    if (logger == null) {
+      logger = LoggerFactory.getLogger(String.format("%s-%d", getClass().getName(), resource));
+    }
     return logger;
   }
 
@@ -104,14 +115,14 @@ class ResourceManagerStateMachineExecutor implements StateMachineExecutor {
 
   @Override
   public Scheduled schedule(Duration delay, Runnable callback) {
-    Scheduled task = parent.schedule(delay, callback);
+    Scheduled task = timers.schedule(delay, Duration.ZERO, callback, taskCompleter);
     tasks.add(task);
     return task;
   }
 
   @Override
   public Scheduled schedule(Duration initialDelay, Duration interval, Runnable callback) {
-    Scheduled task = parent.schedule(initialDelay, interval, callback);
+    Scheduled task = timers.schedule(initialDelay, interval, callback, taskCompleter);
     tasks.add(task);
     return task;
   }
@@ -135,9 +146,16 @@ class ResourceManagerStateMachineExecutor implements StateMachineExecutor {
     return this;
   }
 
+  /**
+   * Returns a boolean indicating whether the resource state machine has scheduled tasks pending.
+   */
+  boolean hasTasks() {
+    return !tasks.isEmpty();
+  }
+
   @Override
   public void close() {
-    tasks.forEach(Scheduled::cancel);
+    new ArrayList<>(tasks).forEach(Scheduled::cancel);
     context.close();
   }
 
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.manager.ResourceMetrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records operation metrics for a single resource.
+ * <p>
+ * Metrics are recorded on the state machine thread and may be read from any thread, for instance by JMX.
+ * Counters are striped {@link LongAdder}s, so recording never blocks or allocates once an operation type
+ * has been seen.
+ * <p>
+ * Retained commits are counted along with their serialized size, in total and by operation type. Commits that
+ * are never released prevent log compaction, so the recorder also tracks whether the number of retained commits
+ * has kept growing across successive {@link #checkRetention(int) retention checks}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class ResourceMetricsRecorder {
+  private static final int BUCKETS = 24;
+  private final String key;
+  private final int type;
+  private final LongAdder commands = new LongAdder();
+  private final LongAdder queries = new LongAdder();
+  private final LongAdder events = new LongAdder();
+  private final LongAdder retainedCommits = new LongAdder();
+  private final LongAdder retainedBytes = new LongAdder();
+  private final LongAdder applyTime = new LongAdder();
+  private final LongAccumulator maxApplyTime = new LongAccumulator(Math::max, 0);
+  private final LongAdder[] applyTimeHistogram = new LongAdder[BUCKETS];
+  private final ConcurrentMap<Class<?>, LongAdder> operations = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, Retention> retained = new ConcurrentHashMap<>();
+  private long lastRetainedCommits;
+  private int retentionGrowth;
+  private volatile boolean leakSuspected;
+
+  ResourceMetricsRecorder(String key, int type) {
+    this.key = key;
+    this.type = type;
+    for (int i = 0; i < BUCKETS; i++) {
+      applyTimeHistogram[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records an applied operation.
+   *
+   * @param operation The operation class.
+   * @param command Whether the operation is a command.
+   * @param nanos The time taken to apply the operation.
+   */
+  void recordOperation(Class<?> operation, boolean command, long nanos) {
+    if (command) {
+      commands.increment();
+    } else {
+      queries.increment();
+    }
+
+    LongAdder counter = operations.get(operation);
+    if (counter == null) {
+      counter = operations.computeIfAbsent(operation, o -> new LongAdder());
+    }
+    counter.increment();
+
+    applyTime.add(nanos);
+    maxApplyTime.accumulate(nanos);
+    long micros = nanos / 1000;
+    int bucket = micros == 0 ? 0 : Math.min(63 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+    applyTimeHistogram[bucket].increment();
+  }
+
+  /**
+   * Records an event published by the resource.
+   */
+  void recordEvent() {
+    events.increment();
+  }
+
+  /**
+   * Records an operation commit retained by the resource.
+   *
+   * @param operation The operation class.
+   * @param size The serialized size of the operation.
+   * @return The retention counters for the operation type, to be passed to {@link #releaseCommit(Retention, int)}.
+   */
+  Retention retainCommit(Class<?> operation, int size) {
+    retainedCommits.increment();
+    retainedBytes.add(size);
+    Retention retention = retained.get(operation);
+    if (retention == null) {
+      retention = retained.computeIfAbsent(operation, o -> new Retention());
+    }
+    retention.commits.increment();
+    retention.bytes.add(size);
+    return retention;
+  }
+
+  /**
+   * Records the release of an operation commit retained by the resource.
+   *
+   * @param retention The retention counters returned when the commit was retained.
+   * @param size The serialized size of the operation.
+   */
+  void releaseCommit(Retention retention, int size) {
+    retainedCommits.decrement();
+    retainedBytes.add(-size);
+    retention.commits.decrement();
+    retention.bytes.add(-size);
+  }
+
+  /**
+   * Checks whether the number of retained commits has grown since the previous check.
+   * <p>
+   * A resource is suspected of leaking commits once the number of retained commits has grown in the given number
+   * of consecutive checks. The suspicion is cleared by the first check at which the number of retained commits has
+   * not grown. This method must only be called on the state machine thread.
+   *
+   * @param limit The number of consecutive checks with growth after which a leak is suspected.
+   * @return Whether this check raised the suspicion of a leak.
+   */
+  boolean checkRetention(int limit) {
+    long commits = retainedCommits.sum();
+    retentionGrowth = commits > lastRetainedCommits ? retentionGrowth + 1 : 0;
+    lastRetainedCommits = commits;
+    boolean suspected = retentionGrowth >= limit;
+    boolean raised = suspected && !leakSuspected;
+    leakSuspected = suspected;
+    return raised;
+  }
+
+  /**
+   * Returns the number of commits currently retained by the resource.
+   */
+  long retainedCommits() {
+    return retainedCommits.sum();
+  }
+
+  /**
+   * Returns the serialized size of the commits currently retained by the resource.
+   */
+  long retainedBytes() {
+    return retainedBytes.sum();
+  }
+
+  /**
+   * Returns the resource key.
+   */
+  String key() {
+    return key;
+  }
+
+  /**
+   * Returns a snapshot of the resource's metrics.
+   */
+  ResourceMetrics snapshot() {
+    long[] histogram = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      histogram[i] = applyTimeHistogram[i].sum();
+    }
+    Map<String, Long> operations = new HashMap<>(this.operations.size());
+    for (Map.Entry<Class<?>, LongAdder> entry : this.operations.entrySet()) {
+      operations.merge(entry.getKey().getSimpleName(), entry.getValue().sum(), Long::sum);
+    }
+    Map<String, Long> retainedOperations = new HashMap<>();
+    Map<String, Long> retainedOperationBytes = new HashMap<>();
+    for (Map.Entry<Class<?>, Retention> entry : retained.entrySet()) {
+      long commits = entry.getValue().commits.sum();
+      if (commits > 0) {
+        retainedOperations.merge(entry.getKey().getSimpleName(), commits, Long::sum);
+        retainedOperationBytes.merge(entry.getKey().getSimpleName(), entry.getValue().bytes.sum(), Long::sum);
+      }
+    }
+    return new ResourceMetrics(key, type, commands.sum(), queries.sum(), events.sum(), retainedCommits.sum(),
+      retainedBytes.sum(), leakSuspected, applyTime.sum(), maxApplyTime.get(), histogram, Collections.unmodifiableMap(operations),
+      Collections.unmodifiableMap(retainedOperations), Collections.unmodifiableMap(retainedOperationBytes));
+  }
+
+  /**
+   * Counts the commits retained for a single operation type.
+   */
+  static final class Retention {
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+  }
+
+}
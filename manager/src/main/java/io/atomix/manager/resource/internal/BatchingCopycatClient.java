@@ -0,0 +1,255 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.resource.internal;
+
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.Transport;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.copycat.session.Session;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * {@link CopycatClient} wrapper that coalesces {@link InstanceCommand}s for different resources into
+ * {@link InstanceBatch}es.
+ * <p>
+ * All resource instances for a partition share a single client, so commands submitted by many instances at
+ * the same time can be applied as a single log entry. Commands are submitted immediately as long as fewer than
+ * {@code maxInFlight} submissions are awaiting a response. Once that limit is reached, commands are queued in
+ * pending batches until a response is received. The time a command lingers therefore adapts to the number of
+ * operations in flight, and an idle client submits commands without any added latency.
+ * <p>
+ * Commands are always submitted to the underlying client in the order in which they were submitted to this
+ * client. Queries and commands that cannot be batched flush all pending batches before being submitted,
+ * ensuring queries observe the client's prior commands.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class BatchingCopycatClient implements CopycatClient {
+  private final CopycatClient client;
+  private final int maxBatchSize;
+  private final int maxInFlight;
+  private final Deque<Batch> batches = new ArrayDeque<>();
+  private int inFlight;
+
+  /**
+   * @throws NullPointerException if {@code client} is null
+   * @throws IllegalArgumentException if {@code maxBatchSize} or {@code maxInFlight} is not positive
+   */
+  public BatchingCopycatClient(CopycatClient client, int maxBatchSize, int maxInFlight) {
+    this.client = Assert.notNull(client, "client");
+    Assert.arg(maxBatchSize > 0, "maxBatchSize must be positive");
+    Assert.arg(maxInFlight > 0, "maxInFlight must be positive");
+    this.maxBatchSize = maxBatchSize;
+    this.maxInFlight = maxInFlight;
+  }
+
+  @Override
+  public State state() {
+    return client.state();
+  }
+
+  @Override
+  public Listener<State> onStateChange(Consumer<State> callback) {
+    return client.onStateChange(callback);
+  }
+
+  @Override
+  public ThreadContext context() {
+    return client.context();
+  }
+
+  @Override
+  public Transport transport() {
+    return client.transport();
+  }
+
+  @Override
+  public Serializer serializer() {
+    return client.serializer();
+  }
+
+  @Override
+  public Session session() {
+    return client.session();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public synchronized <T> CompletableFuture<T> submit(Command<T> command) {
+    if (maxBatchSize == 1 || !(command instanceof InstanceCommand) || !InstanceBatch.isBatchable(command)) {
+      flush();
+      return client.submit(command);
+    }
+
+    // If no commands are pending and the client is not saturated, submit the command immediately.
+    if (batches.isEmpty() && inFlight < maxInFlight) {
+      return (CompletableFuture<T>) submitCommand((InstanceCommand<?, ?>) command);
+    }
+
+    // Add the command to the last pending batch. Commands for a resource that's already in the batch
+    // must be submitted in a subsequent batch.
+    InstanceCommand<?, ?> instanceCommand = (InstanceCommand<?, ?>) command;
+    Batch batch = batches.peekLast();
+    if (batch == null || batch.commands.size() == maxBatchSize || batch.resources.contains(instanceCommand.resource())) {
+      batch = new Batch();
+      batches.add(batch);
+    }
+    return (CompletableFuture<T>) batch.add(instanceCommand);
+  }
+
+  @Override
+  public synchronized <T> CompletableFuture<T> submit(Query<T> query) {
+    flush();
+    return client.submit(query);
+  }
+
+  /**
+   * Submits a single command, counting it as in flight.
+   */
+  private CompletableFuture<Object> submitCommand(InstanceCommand<?, ?> command) {
+    inFlight++;
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    client.submit(command).whenComplete((result, error) -> {
+      complete();
+      if (error == null) {
+        future.complete(result);
+      } else {
+        future.completeExceptionally(error);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Submits a batch of commands, counting it as in flight.
+   */
+  private void submitBatch(Batch batch) {
+    if (batch.commands.size() == 1) {
+      submitCommand(batch.commands.get(0)).whenComplete((result, error) -> {
+        if (error == null) {
+          batch.futures.get(0).complete(result);
+        } else {
+          batch.futures.get(0).completeExceptionally(error);
+        }
+      });
+      return;
+    }
+
+    inFlight++;
+    client.submit(new InstanceBatch(batch.commands)).whenComplete((results, error) -> {
+      complete();
+      for (int i = 0; i < batch.futures.size(); i++) {
+        CompletableFuture<Object> future = batch.futures.get(i);
+        if (error != null) {
+          future.completeExceptionally(error);
+        } else {
+          Object result = results.get(i);
+          if (result instanceof InstanceBatch.Failure) {
+            future.completeExceptionally(((InstanceBatch.Failure) result).exception());
+          } else {
+            future.complete(result);
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Handles the completion of an in-flight submission, submitting pending batches while the client is not saturated.
+   */
+  private synchronized void complete() {
+    inFlight--;
+    while (inFlight < maxInFlight && !batches.isEmpty()) {
+      submitBatch(batches.remove());
+    }
+  }
+
+  /**
+   * Submits all pending batches regardless of the number of submissions in flight.
+   */
+  private void flush() {
+    while (!batches.isEmpty()) {
+      submitBatch(batches.remove());
+    }
+  }
+
+  @Override
+  public Listener<Void> onEvent(String event, Runnable callback) {
+    return client.onEvent(event, callback);
+  }
+
+  @Override
+  public <T> Listener<T> onEvent(String event, Consumer<T> callback) {
+    return client.onEvent(event, callback);
+  }
+
+  @Override
+  public CompletableFuture<CopycatClient> connect(Collection<Address> members) {
+    return client.connect(members);
+  }
+
+  @Override
+  public CompletableFuture<CopycatClient> recover() {
+    return client.recover();
+  }
+
+  @Override
+  public synchronized CompletableFuture<Void> close() {
+    flush();
+    return client.close();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[client=%s]", getClass().getSimpleName(), client);
+  }
+
+  /**
+   * Pending batch of commands.
+   */
+  private static final class Batch {
+    private final List<InstanceCommand<?, ?>> commands = new ArrayList<>();
+    private final List<CompletableFuture<Object>> futures = new ArrayList<>();
+    private final Set<Long> resources = new HashSet<>();
+
+    /**
+     * Adds a command to the batch.
+     */
+    private CompletableFuture<Object> add(InstanceCommand<?, ?> command) {
+      CompletableFuture<Object> future = new CompletableFuture<>();
+      commands.add(command);
+      futures.add(future);
+      resources.add(command.resource());
+      return future;
+    }
+  }
+
+}
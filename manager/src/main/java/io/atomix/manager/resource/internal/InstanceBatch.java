@@ -0,0 +1,266 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.resource.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.error.ApplicationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Batch of instance commands submitted to multiple resources in a single log entry.
+ * <p>
+ * Instance batches are submitted by the {@link BatchingCopycatClient} to reduce the number of log entries
+ * and round trips required for clients that submit many small commands to different resources. Commands in a
+ * batch are applied in order, and the batch output is a list containing the output of each command, or
+ * {@link Failure} for commands that failed.
+ * <p>
+ * Because all commands in a batch are applied as a single log entry, no other operation is ever applied between
+ * two commands in the same batch. Batches may also carry conditions, which are queries that are evaluated before
+ * any command in the batch is applied. If the output of any condition is not equal to its expected value, none of
+ * the batch's commands are applied and the batch output is {@code null}.
+ * <p>
+ * Resource state machines may use the commit index to identify commands, so a batch never contains more
+ * than one command for the same resource.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class InstanceBatch implements Command<List<Object>>, CatalystSerializable {
+  private List<InstanceCommand<?, ?>> commands;
+  private List<InstanceQuery<?, ?>> conditions;
+  private List<Object> expected;
+  private CompactionMode compaction;
+
+  public InstanceBatch() {
+  }
+
+  /**
+   * @throws NullPointerException if {@code commands} is null
+   */
+  public InstanceBatch(List<InstanceCommand<?, ?>> commands) {
+    this(commands, Collections.emptyList(), Collections.emptyList());
+  }
+
+  /**
+   * @throws NullPointerException if {@code commands}, {@code conditions} or {@code expected} are null
+   * @throws IllegalArgumentException if the number of conditions and expected values differ
+   */
+  public InstanceBatch(List<InstanceCommand<?, ?>> commands, List<InstanceQuery<?, ?>> conditions, List<Object> expected) {
+    this.commands = Assert.notNull(commands, "commands");
+    this.conditions = Assert.notNull(conditions, "conditions");
+    this.expected = Assert.notNull(expected, "expected");
+    Assert.arg(conditions.size() == expected.size(), "conditions and expected values must be the same size");
+    this.compaction = compaction(commands);
+  }
+
+  /**
+   * Returns a boolean indicating whether the given command can be batched automatically.
+   * <p>
+   * Only commands that are compacted once released are batched automatically. The batch entry is retained
+   * until all of its commands have been released, so commands that are compacted by snapshots or according
+   * to the default compaction mode are always submitted on their own unless explicitly batched.
+   *
+   * @param command The command to check.
+   * @return Indicates whether the command can be batched.
+   */
+  public static boolean isBatchable(Command<?> command) {
+    switch (command.compaction()) {
+      case QUORUM:
+      case RELEASE:
+      case EXPIRING:
+      case SEQUENTIAL:
+      case TOMBSTONE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Returns the compaction mode for the given commands.
+   * <p>
+   * If all commands may be compacted once released and committed, the batch is compacted in the same
+   * way. Otherwise, the batch is compacted sequentially, retaining the entry until all of its commands
+   * and all prior entries have been released.
+   */
+  private static CompactionMode compaction(List<InstanceCommand<?, ?>> commands) {
+    for (InstanceCommand<?, ?> command : commands) {
+      CompactionMode mode = command.compaction();
+      if (mode != CompactionMode.QUORUM && mode != CompactionMode.RELEASE) {
+        return CompactionMode.SEQUENTIAL;
+      }
+    }
+    return CompactionMode.QUORUM;
+  }
+
+  /**
+   * Returns the batched commands.
+   *
+   * @return The batched commands.
+   */
+  public List<InstanceCommand<?, ?>> commands() {
+    return commands;
+  }
+
+  /**
+   * Returns the batch conditions.
+   *
+   * @return The batch conditions.
+   */
+  public List<InstanceQuery<?, ?>> conditions() {
+    return conditions;
+  }
+
+  /**
+   * Returns the expected output of each batch condition.
+   *
+   * @return The expected output of each batch condition.
+   */
+  public List<Object> expected() {
+    return expected;
+  }
+
+  @Override
+  public CompactionMode compaction() {
+    return compaction;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeByte(compaction.ordinal());
+    buffer.writeInt(commands.size());
+    for (InstanceCommand<?, ?> command : commands) {
+      InstanceOperation.writeVarLong(command.resource(), buffer);
+      serializer.writeObject(command.operation(), buffer);
+    }
+    buffer.writeInt(conditions.size());
+    for (int i = 0; i < conditions.size(); i++) {
+      InstanceOperation.writeVarLong(conditions.get(i).resource(), buffer);
+      serializer.writeObject(conditions.get(i).operation(), buffer);
+      serializer.writeObject(expected.get(i), buffer);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    compaction = CompactionMode.values()[buffer.readByte()];
+    int size = buffer.readInt();
+    commands = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      long remaining = buffer.remaining();
+      long resource = InstanceOperation.readVarLong(buffer);
+      InstanceCommand<?, ?> command = new InstanceCommand<>(resource, serializer.readObject(buffer));
+      command.size = (int) (remaining - buffer.remaining());
+      commands.add(command);
+    }
+    int conditionsSize = buffer.readInt();
+    conditions = new ArrayList<>(conditionsSize);
+    expected = new ArrayList<>(conditionsSize);
+    for (int i = 0; i < conditionsSize; i++) {
+      long resource = InstanceOperation.readVarLong(buffer);
+      conditions.add(new InstanceQuery<>(resource, serializer.readObject(buffer)));
+      expected.add(serializer.readObject(buffer));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[commands=%d, conditions=%d]", getClass().getSimpleName(), commands.size(), conditions.size());
+  }
+
+  /**
+   * Output of a batched command that failed.
+   * <p>
+   * Arbitrary exceptions can't be serialized, so the failure carries the class name and message of the exception
+   * thrown by the resource state machine. The client completes the failed command with an
+   * {@link ApplicationException} just as Copycat does for a command that fails outside a batch, so the type
+   * of the exception a caller sees does not depend on whether the command happened to be batched.
+   */
+  public static final class Failure implements CatalystSerializable {
+    private String type;
+    private String message;
+
+    public Failure() {
+    }
+
+    /**
+     * @throws NullPointerException if {@code error} is null
+     */
+    public Failure(Throwable error) {
+      this.type = Assert.notNull(error, "error").getClass().getName();
+      this.message = error.getMessage();
+    }
+
+    /**
+     * Returns the class name of the exception thrown by the resource state machine.
+     *
+     * @return The class name of the exception thrown by the resource state machine.
+     */
+    public String type() {
+      return type;
+    }
+
+    /**
+     * Returns the message of the exception thrown by the resource state machine.
+     *
+     * @return The message of the exception thrown by the resource state machine.
+     */
+    public String message() {
+      return message;
+    }
+
+    /**
+     * Returns the exception with which the failed command should be completed.
+     *
+     * @return An application exception carrying the original exception's type and message.
+     */
+    public ApplicationException exception() {
+      if (type == null) {
+        return new ApplicationException("an application error occurred");
+      }
+      return new ApplicationException("%s: %s", type, message);
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeString(type);
+      buffer.writeBoolean(message != null);
+      if (message != null) {
+        buffer.writeString(message);
+      }
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      type = buffer.readString();
+      message = buffer.readBoolean() ? buffer.readString() : null;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[type=%s, message=%s]", getClass().getSimpleName(), type, message);
+    }
+  }
+
+}
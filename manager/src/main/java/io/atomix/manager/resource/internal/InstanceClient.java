@@ -28,13 +28,17 @@ import io.atomix.copycat.client.CopycatClient;
 import io.atomix.copycat.session.Session;
 import io.atomix.manager.internal.CloseResource;
 import io.atomix.manager.internal.DeleteResource;
+import io.atomix.manager.ResourceManagerException;
 import io.atomix.manager.internal.GetResource;
+import io.atomix.manager.internal.LookupResource;
+import io.atomix.manager.internal.ResourceInfo;
 import io.atomix.resource.Resource;
 import io.atomix.resource.internal.ResourceCommand;
+import io.atomix.resource.internal.ResourceQuery;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -48,27 +52,52 @@ import java.util.function.Consumer;
  * The instance client handles submission of {@link Command commands} and {@link Query queries}
  * for a {@link Resource} instance. It handles wrapping client operations in {@link InstanceCommand}
  * and {@link InstanceQuery} to route resource operations to the appropriate replicated state machine.
+ * <p>
+ * The resource configuration is returned by the cluster when the resource is opened, so
+ * {@link ResourceQuery.Config} queries are completed locally once the instance has been opened.
+ * <p>
+ * Read-only instance clients resolve an existing resource with a {@link LookupResource} query rather than
+ * opening a session on the resource, and reject all commands. Because no session is registered with the
+ * resource, read-only instances retain no state in the cluster and are closed without contacting it.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public final class InstanceClient implements CopycatClient {
   private volatile long resource;
+  private volatile Properties config;
   private final ResourceInstance instance;
   private final CopycatClient client;
+  private final InstanceEventDispatcher dispatcher;
+  private final InstanceRecovery recovery;
+  private final boolean readOnly;
   private volatile Session clientSession;
   private volatile InstanceSession session;
   private volatile State state;
   private final Listener<State> changeListener;
   private final Map<String, Set<EventListener>> eventListeners = new ConcurrentHashMap<>();
-  private final Map<String, Listener<InstanceEvent<?>>> listeners = new ConcurrentHashMap<>();
   private final Set<StateChangeListener> changeListeners = new CopyOnWriteArraySet<>();
   private volatile CompletableFuture<CopycatClient> openFuture;
   private volatile CompletableFuture<CopycatClient> recoverFuture;
   private volatile CompletableFuture<Void> closeFuture;
 
   public InstanceClient(ResourceInstance instance, CopycatClient client) {
+    this(instance, client, new InstanceEventDispatcher(client));
+  }
+
+  public InstanceClient(ResourceInstance instance, CopycatClient client, InstanceEventDispatcher dispatcher) {
+    this(instance, client, dispatcher, new InstanceRecovery(client));
+  }
+
+  public InstanceClient(ResourceInstance instance, CopycatClient client, InstanceEventDispatcher dispatcher, InstanceRecovery recovery) {
+    this(instance, client, dispatcher, recovery, false);
+  }
+
+  public InstanceClient(ResourceInstance instance, CopycatClient client, InstanceEventDispatcher dispatcher, InstanceRecovery recovery, boolean readOnly) {
+    this.readOnly = readOnly;
     this.instance = Assert.notNull(instance, "instance");
     this.client = Assert.notNull(client, "client");
+    this.dispatcher = Assert.notNull(dispatcher, "dispatcher");
+    this.recovery = Assert.notNull(recovery, "recovery");
     this.state = State.CLOSED;
     this.changeListener = client.onStateChange(this::onStateChange);
   }
@@ -78,6 +107,15 @@ public final class InstanceClient implements CopycatClient {
     return state;
   }
 
+  /**
+   * Returns a boolean indicating whether the instance is read-only.
+   *
+   * @return Indicates whether the instance is read-only.
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
   /**
    * Called when the parent client's state changes.
    */
@@ -132,16 +170,36 @@ public final class InstanceClient implements CopycatClient {
 
   @Override
   public <T> CompletableFuture<T> submit(Command<T> command) {
+    if (readOnly) {
+      return Futures.exceptionalFuture(new IllegalStateException("cannot submit commands to a read-only resource"));
+    }
+
+    InstanceRecorder recorder = InstanceRecorder.current();
+    if (recorder != null) {
+      Assert.argNot(command instanceof ResourceCommand.Delete, "cannot batch resource deletion");
+      return recorder.record(client, new InstanceCommand<>(resource, command));
+    }
+
+    // Deleting the resource from the resource manager deletes the resource state machine.
     if (command instanceof ResourceCommand.Delete) {
-      return client.submit(new InstanceCommand<>(resource, command))
-        .thenCompose(v -> client.submit(new DeleteResource(resource)))
-        .thenApply(result -> null);
+      return client.submit(new DeleteResource(resource)).thenApply(result -> null);
     }
     return client.submit(new InstanceCommand<>(resource, command));
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T> CompletableFuture<T> submit(Query<T> query) {
+    InstanceRecorder recorder = InstanceRecorder.current();
+    if (recorder != null) {
+      return recorder.record(client, new InstanceQuery<>(resource, query));
+    }
+
+    // The resource configuration cannot change once the resource has been created.
+    Properties config = this.config;
+    if (config != null && query instanceof ResourceQuery.Config) {
+      return CompletableFuture.completedFuture((T) config);
+    }
     return client.submit(new InstanceQuery<>(resource, query));
   }
 
@@ -158,9 +216,9 @@ public final class InstanceClient implements CopycatClient {
 
     Set<EventListener> listeners = eventListeners.get(event);
     if (listeners == null) {
-      listeners = new HashSet<>();
+      listeners = new CopyOnWriteArraySet<>();
       eventListeners.put(event, listeners);
-      this.listeners.put(event, client.onEvent(event, message -> handleEvent(event, message)));
+      dispatcher.subscribe(event);
     }
 
     EventListener context = new EventListener(event, listener);
@@ -169,16 +227,14 @@ public final class InstanceClient implements CopycatClient {
   }
 
   /**
-   * Handles receiving a resource message.
+   * Handles receiving a resource message routed by the {@link InstanceEventDispatcher}.
    */
   @SuppressWarnings("unchecked")
-  private void handleEvent(String event, InstanceEvent<?> message) {
-    if (message.resource() == resource) {
-      Set<EventListener> listeners = eventListeners.get(event);
-      if (listeners != null) {
-        for (EventListener listener : listeners) {
-          listener.accept(message.message());
-        }
+  void handleEvent(String event, InstanceEvent<?> message) {
+    Set<EventListener> listeners = eventListeners.get(event);
+    if (listeners != null) {
+      for (EventListener listener : listeners) {
+        listener.accept(message.message());
       }
     }
   }
@@ -189,7 +245,39 @@ public final class InstanceClient implements CopycatClient {
       return Futures.exceptionalFuture(new IllegalStateException("client already open"));
 
     if (openFuture == null) {
-      openFuture = client.submit(new GetResource(instance.key(), instance.type(), instance.config())).thenApply(this::completeOpen);
+      openFuture = (readOnly ? lookup() : client.submit(new GetResource(instance.key(), instance.type(), instance.config()))).thenApply(this::completeOpen);
+    }
+    return openFuture;
+  }
+
+  /**
+   * Resolves the resource info for a read-only instance.
+   */
+  private CompletableFuture<ResourceInfo> lookup() {
+    return client.submit(new LookupResource(instance.key(), instance.type())).thenApply(info -> {
+      if (info == null) {
+        throw new ResourceManagerException("unknown resource: " + instance.key());
+      }
+      return info;
+    });
+  }
+
+  /**
+   * Connects the client using the output of a {@link io.atomix.manager.internal.GetResources} command
+   * submitted on behalf of the instance.
+   * <p>
+   * Once the given future has been completed, subsequent calls to {@link #connect()} return the same future,
+   * allowing the resource to be opened without submitting another command to the cluster.
+   *
+   * @param future A future to be completed with the resource info for the instance.
+   * @return A completable future to be completed once the client has been connected.
+   */
+  public synchronized CompletableFuture<CopycatClient> connect(CompletableFuture<ResourceInfo> future) {
+    if (state != State.CLOSED)
+      return Futures.exceptionalFuture(new IllegalStateException("client already open"));
+
+    if (openFuture == null) {
+      openFuture = future.thenApply(this::completeOpen);
     }
     return openFuture;
   }
@@ -206,8 +294,17 @@ public final class InstanceClient implements CopycatClient {
   /**
    * Completes the registration of a new session.
    */
-  private synchronized CopycatClient completeOpen(long resourceId) {
+  private synchronized CopycatClient completeOpen(ResourceInfo info) {
+    long resourceId = info.id();
+
+    // Read-only instances cannot register listeners in the cluster, so they're not registered with the
+    // dispatcher and never replace the read-write instance receiving events for the same resource.
+    if (!readOnly && resourceId != resource) {
+      dispatcher.unregister(resource, this);
+      dispatcher.register(resourceId, this);
+    }
     this.resource = resourceId;
+    this.config = info.config();
     this.clientSession = client.session();
     this.session = new InstanceSession(resourceId, clientSession, client.context());
     this.state = State.CONNECTED;
@@ -223,7 +320,7 @@ public final class InstanceClient implements CopycatClient {
       return Futures.exceptionalFuture(new IllegalStateException("client not suspended"));
 
     if (recoverFuture == null) {
-      recoverFuture = client.submit(new GetResource(instance.key(), instance.type(), instance.config())).thenApply(this::completeOpen);
+      recoverFuture = (readOnly ? lookup() : recovery.recover(instance)).thenApply(this::completeOpen);
     }
     return recoverFuture;
   }
@@ -233,25 +330,37 @@ public final class InstanceClient implements CopycatClient {
     if (state == State.CLOSED)
       return Futures.exceptionalFuture(new IllegalStateException("client already closed"));
 
+    // Read-only instances have no session to close in the cluster.
+    if (readOnly) {
+      completeClose();
+      return CompletableFuture.completedFuture(null);
+    }
+
     if (closeFuture == null) {
       closeFuture = client.submit(new CloseResource(resource))
-        .whenComplete((result, error) -> {
-          synchronized (this) {
-            instance.close();
-            changeListener.close();
-            for (Map.Entry<String, Listener<InstanceEvent<?>>> entry : listeners.entrySet()) {
-              entry.getValue().close();
-            }
-            listeners.clear();
-            this.state = State.CLOSED;
-            changeListeners.forEach(l -> l.accept(State.CLOSED));
-            closeFuture = null;
-          }
-        });
+        .whenComplete((result, error) -> completeClose());
     }
     return closeFuture;
   }
 
+  /**
+   * Completes closing the instance.
+   */
+  private synchronized void completeClose() {
+    instance.close();
+    changeListener.close();
+    if (!readOnly) {
+      dispatcher.unregister(resource, this);
+    }
+    for (String event : eventListeners.keySet()) {
+      dispatcher.unsubscribe(event);
+    }
+    eventListeners.clear();
+    this.state = State.CLOSED;
+    changeListeners.forEach(l -> l.accept(State.CLOSED));
+    closeFuture = null;
+  }
+
   @Override
   public String toString() {
     return String.format("%s[resource=%d]", getClass().getSimpleName(), resource);
@@ -282,10 +391,7 @@ public final class InstanceClient implements CopycatClient {
           listeners.remove(this);
           if (listeners.isEmpty()) {
             eventListeners.remove(event);
-            Listener listener = InstanceClient.this.listeners.remove(event);
-            if (listener != null) {
-              listener.close();
-            }
+            dispatcher.unsubscribe(event);
           }
         }
       }
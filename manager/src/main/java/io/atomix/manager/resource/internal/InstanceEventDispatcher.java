@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.resource.internal;
+
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.client.CopycatClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes {@link InstanceEvent}s received by a {@link CopycatClient} to {@link InstanceClient}s.
+ * <p>
+ * All resource instances opened on a client share the client's session, so events published by any resource
+ * state machine are received by the same client. Rather than having each instance register its own listener
+ * with the client and filter events by resource ID, the dispatcher registers a single listener per event name
+ * and routes each event to the instance for the event's resource ID with a hash lookup. This keeps the cost
+ * of dispatching an event constant regardless of the number of open resource instances.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+public final class InstanceEventDispatcher {
+  private final CopycatClient client;
+  private final Map<Long, InstanceClient> instances = new ConcurrentHashMap<>();
+  private final Map<String, Subscription> subscriptions = new HashMap<>();
+
+  /**
+   * @throws NullPointerException if {@code client} is null
+   */
+  public InstanceEventDispatcher(CopycatClient client) {
+    this.client = Assert.notNull(client, "client");
+  }
+
+  /**
+   * Registers an instance to receive events for the given resource.
+   */
+  void register(long resource, InstanceClient instance) {
+    instances.put(resource, instance);
+  }
+
+  /**
+   * Unregisters an instance from receiving events for the given resource.
+   */
+  void unregister(long resource, InstanceClient instance) {
+    instances.remove(resource, instance);
+  }
+
+  /**
+   * Subscribes to the given event on the underlying client.
+   */
+  synchronized void subscribe(String event) {
+    Subscription subscription = subscriptions.get(event);
+    if (subscription == null) {
+      Listener<InstanceEvent<?>> listener = client.onEvent(event, (InstanceEvent<?> message) -> dispatch(event, message));
+      subscription = new Subscription(listener);
+      subscriptions.put(event, subscription);
+    }
+    subscription.references++;
+  }
+
+  /**
+   * Unsubscribes from the given event on the underlying client once no instances are subscribed to it.
+   */
+  synchronized void unsubscribe(String event) {
+    Subscription subscription = subscriptions.get(event);
+    if (subscription != null && --subscription.references == 0) {
+      subscriptions.remove(event);
+      subscription.listener.close();
+    }
+  }
+
+  /**
+   * Dispatches an event to the instance for the event's resource.
+   */
+  private void dispatch(String event, InstanceEvent<?> message) {
+    InstanceClient instance = instances.get(message.resource());
+    if (instance != null) {
+      instance.handleEvent(event, message);
+    }
+  }
+
+  /**
+   * Event subscription.
+   */
+  private static class Subscription {
+    private final Listener<InstanceEvent<?>> listener;
+    private int references;
+
+    private Subscription(Listener<InstanceEvent<?>> listener) {
+      this.listener = listener;
+    }
+  }
+
+}
@@ -28,12 +28,18 @@ import io.atomix.resource.Resource;
  * Instance operations are submitted by {@link Resource} instances to a specific state machine
  * in the Atomix cluster. The operation {@link #resource()} identifies the state machine to which
  * the operation is being submitted.
+ * <p>
+ * Instance operations are serialized as a single flat frame consisting of the resource ID encoded
+ * as a variable-length integer followed by the serialized resource operation, including its type ID.
+ * Resource operations are not wrapped in any additional envelope, so the operation deserialized from
+ * the frame can be applied directly to the resource state machine.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public abstract class InstanceOperation<T extends Operation<U>, U> implements Operation<U>, CatalystSerializable {
   protected long resource;
   protected T operation;
+  int size;
 
   protected InstanceOperation() {
   }
@@ -61,16 +67,56 @@ public abstract class InstanceOperation<T extends Operation<U>, U> implements Op
     return operation;
   }
 
+  /**
+   * Returns the serialized size of the operation.
+   * <p>
+   * The size is recorded when the operation is deserialized, so it is only known on the server for operations
+   * read from a request or from the log. The size of an operation that was created locally is {@code 0}.
+   *
+   * @return The number of bytes from which the operation was read.
+   */
+  public int size() {
+    return size;
+  }
+
   @Override
   public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
-    buffer.writeLong(resource);
+    writeVarLong(resource, buffer);
     serializer.writeObject(operation, buffer);
   }
 
   @Override
   public void readObject(BufferInput<?> buffer, Serializer serializer) {
-    resource = buffer.readLong();
+    long remaining = buffer.remaining();
+    resource = readVarLong(buffer);
     operation = serializer.readObject(buffer);
+    size = (int) (remaining - buffer.remaining());
+  }
+
+  /**
+   * Writes an unsigned variable-length long to the given buffer, seven bits per byte.
+   */
+  static void writeVarLong(long value, BufferOutput<?> buffer) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.writeByte((int) value);
+  }
+
+  /**
+   * Reads an unsigned variable-length long from the given buffer.
+   */
+  static long readVarLong(BufferInput<?> buffer) {
+    long value = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = buffer.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
   }
 
   @Override
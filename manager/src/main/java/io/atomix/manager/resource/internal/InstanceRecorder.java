@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.resource.internal;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.client.CopycatClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Records the operation submitted by a resource instance rather than submitting it to the cluster.
+ * <p>
+ * While a recorder is active on the current thread, {@link InstanceClient}s hand their operations to the
+ * recorder instead of submitting them. This allows operations on resource instances to be collected into
+ * an {@link InstanceBatch} using the resource's own API. The future returned to the resource is completed
+ * once the output of the recorded operation is known.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class InstanceRecorder {
+  private static final ThreadLocal<InstanceRecorder> CURRENT = new ThreadLocal<>();
+  private CopycatClient client;
+  private InstanceOperation<?, ?> operation;
+  private CompletableFuture<Object> future;
+  private Object result;
+
+  private InstanceRecorder() {
+  }
+
+  /**
+   * Records the single operation submitted by the given supplier.
+   *
+   * @param supplier The supplier that submits an operation on a resource instance.
+   * @return The recorder.
+   * @throws NullPointerException if {@code supplier} is null
+   * @throws IllegalStateException if an operation is already being recorded on the current thread
+   * @throws IllegalArgumentException if the supplier did not submit exactly one operation
+   */
+  public static InstanceRecorder record(Supplier<?> supplier) {
+    Assert.notNull(supplier, "supplier");
+    Assert.state(CURRENT.get() == null, "cannot record operations recursively");
+    InstanceRecorder recorder = new InstanceRecorder();
+    CURRENT.set(recorder);
+    try {
+      recorder.result = supplier.get();
+    } finally {
+      CURRENT.remove();
+    }
+    Assert.arg(recorder.operation != null, "no resource operation was submitted");
+    return recorder;
+  }
+
+  /**
+   * Returns the recorder for the current thread.
+   */
+  static InstanceRecorder current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Records an operation.
+   */
+  @SuppressWarnings("unchecked")
+  <T> CompletableFuture<T> record(CopycatClient client, InstanceOperation<?, T> operation) {
+    Assert.arg(this.operation == null, "only a single resource operation can be recorded");
+    this.client = client;
+    this.operation = operation;
+    this.future = new CompletableFuture<>();
+    return (CompletableFuture<T>) future;
+  }
+
+  /**
+   * Returns the client through which the recorded operation would have been submitted.
+   *
+   * @return The client for the recorded operation's partition.
+   */
+  public CopycatClient client() {
+    return client;
+  }
+
+  /**
+   * Returns the recorded operation.
+   *
+   * @return The recorded operation.
+   */
+  public InstanceOperation<?, ?> operation() {
+    return operation;
+  }
+
+  /**
+   * Returns the future to complete with the recorded operation's output.
+   *
+   * @return The future for the recorded operation.
+   */
+  public CompletableFuture<Object> future() {
+    return future;
+  }
+
+  /**
+   * Returns the value returned by the recorded supplier.
+   *
+   * @return The value returned by the supplier.
+   */
+  public Object result() {
+    return result;
+  }
+
+}
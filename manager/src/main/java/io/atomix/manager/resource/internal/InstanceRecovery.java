@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.resource.internal;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.manager.ResourceManagerException;
+import io.atomix.manager.internal.GetResource;
+import io.atomix.manager.internal.RecoverResources;
+import io.atomix.manager.internal.ResourceInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Coalesces the recovery of {@link InstanceClient}s sharing a {@link CopycatClient}.
+ * <p>
+ * When the client's session is lost, every instance opened on the client attempts to recover at once. Rather
+ * than having each instance submit its own {@link GetResource} command, instances register their recovery with
+ * the shared recovery, and recoveries requested before the client's context next runs are submitted together
+ * as a single {@link RecoverResources} command. The output of the command is then fanned back out to each
+ * recovering instance.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class InstanceRecovery {
+  private final CopycatClient client;
+  private List<GetResource> operations = new ArrayList<>();
+  private List<CompletableFuture<ResourceInfo>> futures = new ArrayList<>();
+
+  /**
+   * @throws NullPointerException if {@code client} is null
+   */
+  public InstanceRecovery(CopycatClient client) {
+    this.client = Assert.notNull(client, "client");
+  }
+
+  /**
+   * Registers the recovery of the given resource instance.
+   *
+   * @param instance The instance to recover.
+   * @return A future to be completed with the recovered resource info.
+   */
+  synchronized CompletableFuture<ResourceInfo> recover(ResourceInstance instance) {
+    if (operations.isEmpty()) {
+      client.context().execute(this::flush);
+    }
+    CompletableFuture<ResourceInfo> future = new CompletableFuture<>();
+    operations.add(new GetResource(instance.key(), instance.type(), instance.config()));
+    futures.add(future);
+    return future;
+  }
+
+  /**
+   * Submits the pending recoveries.
+   */
+  private void flush() {
+    List<GetResource> operations;
+    List<CompletableFuture<ResourceInfo>> futures;
+    synchronized (this) {
+      operations = this.operations;
+      futures = this.futures;
+      this.operations = new ArrayList<>();
+      this.futures = new ArrayList<>();
+    }
+
+    // A single recovery is submitted as a plain get resource command.
+    if (operations.size() == 1) {
+      client.submit(operations.get(0)).whenComplete((result, error) -> {
+        if (error == null) {
+          futures.get(0).complete(result);
+        } else {
+          futures.get(0).completeExceptionally(error);
+        }
+      });
+      return;
+    }
+
+    client.submit(new RecoverResources(operations)).whenComplete((results, error) -> {
+      for (int i = 0; i < futures.size(); i++) {
+        if (error != null) {
+          futures.get(i).completeExceptionally(error);
+        } else if (results.get(i) == null) {
+          futures.get(i).completeExceptionally(new ResourceManagerException("failed to recover resource: " + operations.get(i).key()));
+        } else {
+          futures.get(i).complete(results.get(i));
+        }
+      }
+    });
+  }
+
+}
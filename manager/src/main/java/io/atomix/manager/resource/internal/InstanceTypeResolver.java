@@ -30,6 +30,8 @@ public class InstanceTypeResolver implements SerializableTypeResolver {
     registry.register(InstanceCommand.class, -55);
     registry.register(InstanceQuery.class, -56);
     registry.register(InstanceEvent.class, -57);
+    registry.register(InstanceBatch.class, -107);
+    registry.register(InstanceBatch.Failure.class, -108);
   }
 
 }
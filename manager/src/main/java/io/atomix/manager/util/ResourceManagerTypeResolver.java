@@ -17,6 +17,8 @@ package io.atomix.manager.util;
 
 import io.atomix.catalyst.serializer.SerializableTypeResolver;
 import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.manager.ResourceKeyPage;
+import io.atomix.manager.ResourceMetrics;
 import io.atomix.manager.internal.*;
 import io.atomix.manager.resource.internal.InstanceTypeResolver;
 import io.atomix.resource.ResourceType;
@@ -49,6 +51,14 @@ public class ResourceManagerTypeResolver implements SerializableTypeResolver {
     registry.register(ResourceExists.class, -61);
     registry.register(CloseResource.class, -62);
     registry.register(DeleteResource.class, -63);
+    registry.register(GetResourceKeyPage.class, -64);
+    registry.register(ResourceKeyPage.class, -109);
+    registry.register(ResourceInfo.class, -125);
+    registry.register(GetResources.class, -126);
+    registry.register(RecoverResources.class, -127);
+    registry.register(ResourceMetrics.class, -128);
+    registry.register(GetResourceMetrics.class, -129);
+    registry.register(LookupResource.class, -133);
   }
 
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.util;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.manager.ResourceOperationTrace;
+import io.atomix.manager.ResourceOperationTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs resource operations that take longer than a threshold to apply.
+ * <p>
+ * Operations that block the state machine thread delay every other operation in the same partition and
+ * typically surface as client timeouts. The slow operation logger logs a warning with the resource key,
+ * operation type, index, apply time and result size of each operation that exceeds the threshold.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SlowOperationLogger implements ResourceOperationTracer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SlowOperationLogger.class);
+  private final long threshold;
+
+  /**
+   * @throws NullPointerException if {@code threshold} is null
+   * @throws IllegalArgumentException if {@code threshold} is negative
+   */
+  public SlowOperationLogger(Duration threshold) {
+    Assert.argNot(Assert.notNull(threshold, "threshold").isNegative(), "threshold cannot be negative");
+    this.threshold = threshold.toNanos();
+  }
+
+  @Override
+  public void trace(ResourceOperationTrace trace) {
+    if (trace.duration() >= threshold) {
+      LOGGER.warn("Slow {} on resource {}: {} at index {} took {}ms and returned {} results",
+        trace.isCommand() ? "command" : "query", trace.key(), trace.operation().getName(), trace.index(),
+        TimeUnit.NANOSECONDS.toMillis(trace.duration()), trace.resultSize());
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.util.ConfigurationException;
+import io.atomix.manager.ResourceServer;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+/**
+ * Resource manager partitions test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class ResourceManagerPartitionsTest {
+
+  /**
+   * Tests that partition addresses are offset from the node address.
+   */
+  public void testPartitionAddress() {
+    Address address = new Address("localhost", 5000);
+    assertSame(ResourceManagerPartitions.address(address, 0), address);
+    assertEquals(ResourceManagerPartitions.address(address, 2), new Address("localhost", 5002));
+  }
+
+  /**
+   * Tests that non-overlapping port ranges are accepted.
+   */
+  public void testValidateDisjointRanges() {
+    ResourceManagerPartitions.validate(Arrays.asList(
+      new Address("localhost", 5000),
+      new Address("localhost", 5003),
+      new Address("localhost", 5000),
+      new Address("otherhost", 5001)), 3);
+  }
+
+  /**
+   * Tests that overlapping port ranges on the same host are rejected.
+   */
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testValidateOverlappingRanges() {
+    ResourceManagerPartitions.validate(Arrays.asList(new Address("localhost", 5000), new Address("localhost", 5001)), 3);
+  }
+
+  /**
+   * Tests that port ranges extending beyond the maximum port are rejected.
+   */
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testValidatePortOverflow() {
+    ResourceManagerPartitions.validate(Arrays.asList(new Address("localhost", 65534)), 3);
+  }
+
+  /**
+   * Tests that a server whose client and server port ranges overlap fails to build.
+   */
+  @Test(expectedExceptions = ConfigurationException.class)
+  public void testServerClientAndServerRangesOverlap() {
+    ResourceServer.builder(new Address("localhost", 5000), new Address("localhost", 5001))
+      .withPartitions(3)
+      .build();
+  }
+
+}
@@ -0,0 +1,844 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.Snapshottable;
+import io.atomix.copycat.server.StateMachineContext;
+import io.atomix.copycat.server.StateMachineExecutor;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.Sessions;
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
+import io.atomix.copycat.server.storage.snapshot.Snapshot;
+import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotStore;
+import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
+import io.atomix.manager.ResourceKeyPage;
+import io.atomix.manager.ResourceManagerException;
+import io.atomix.manager.ResourceMetrics;
+import io.atomix.manager.ResourceOperationTrace;
+import io.atomix.manager.ResourceOperationTracer;
+import io.atomix.manager.resource.internal.InstanceBatch;
+import io.atomix.manager.resource.internal.InstanceCommand;
+import io.atomix.manager.resource.internal.InstanceQuery;
+import io.atomix.manager.util.ResourceManagerTypeResolver;
+import io.atomix.resource.*;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * Resource manager state test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class ResourceManagerStateTest {
+  private static final List<TestStateMachine> STATE_MACHINES = new ArrayList<>();
+  private Serializer serializer;
+  private ServerSession session;
+  private AtomicLong index;
+  private AtomicLong time;
+
+  @BeforeMethod
+  protected void beforeMethod() {
+    STATE_MACHINES.clear();
+    serializer = new Serializer();
+    serializer.resolve(new ResourceManagerTypeResolver());
+    session = mock(ServerSession.class);
+    when(session.id()).thenReturn(1L);
+    index = new AtomicLong();
+    time = new AtomicLong();
+  }
+
+  /**
+   * Tests that a snapshot restores resources whose creation commits have been compacted.
+   */
+  public void testSnapshotInstallsMissingResources() {
+    ResourceManagerState state1 = createState();
+    index.set(10);
+    state1.getResource(createCommit(10, "test"));
+    STATE_MACHINES.get(0).value = 42;
+
+    Snapshot snapshot = snapshot(state1, 20);
+
+    ResourceManagerState state2 = createState();
+    try (SnapshotReader reader = snapshot.reader()) {
+      state2.install(reader);
+    }
+
+    assertEquals(STATE_MACHINES.size(), 2);
+    assertEquals(STATE_MACHINES.get(1).value, 42);
+    assertEquals(STATE_MACHINES.get(1).sessions, 1);
+    assertTrue(state2.resourceExists(createExistsCommit("test")));
+  }
+
+  /**
+   * Tests that installing a snapshot merges with resources restored from the log and removes deleted resources.
+   */
+  public void testSnapshotMergesExistingResources() {
+    ResourceManagerState state1 = createState();
+    index.set(10);
+    state1.getResource(createCommit(10, "test"));
+    STATE_MACHINES.get(0).value = 42;
+
+    Snapshot snapshot = snapshot(state1, 20);
+
+    ResourceManagerState state2 = createState();
+    index.set(10);
+    state2.getResource(createCommit(10, "test"));
+    index.set(15);
+    state2.getResource(createCommit(15, "deleted"));
+
+    try (SnapshotReader reader = snapshot.reader()) {
+      state2.install(reader);
+    }
+
+    assertEquals(STATE_MACHINES.size(), 3);
+    assertEquals(STATE_MACHINES.get(1).value, 42);
+    assertTrue(STATE_MACHINES.get(2).deleted);
+    assertTrue(state2.resourceExists(createExistsCommit("test")));
+    assertFalse(state2.resourceExists(createExistsCommit("deleted")));
+  }
+
+  /**
+   * Tests that creation commits are released only once a subsequent snapshot has been taken.
+   */
+  public void testSnapshotReleasesCreationCommits() {
+    ResourceManagerState state = createState();
+    index.set(10);
+    Commit<GetResource> commit = createCommit(10, "test");
+    state.getResource(commit);
+
+    snapshot(state, 20);
+    verify(commit, never()).close();
+
+    snapshot(state, 30);
+    verify(commit).close();
+  }
+
+  /**
+   * Tests that batched operations are applied in order and that the batch commit is released once all operations are released.
+   */
+  @SuppressWarnings("unchecked")
+  public void testBatchOperations() {
+    ResourceManagerState state = createState();
+    index.set(10);
+    long resource1 = state.getResource(createCommit(10, "test1"));
+    index.set(11);
+    long resource2 = state.getResource(createCommit(11, "test2"));
+
+    List<InstanceCommand<?, ?>> commands = new ArrayList<>();
+    commands.add(new InstanceCommand<>(resource1, new TestCommand(1)));
+    commands.add(new InstanceCommand<>(resource2, new TestCommand(2)));
+    commands.add(new InstanceCommand<>(100, new TestCommand(3)));
+
+    Commit<InstanceBatch> commit = mock(Commit.class);
+    when(commit.index()).thenReturn(20L);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new InstanceBatch(commands));
+
+    index.set(20);
+    List<Object> results = state.operateBatch(commit);
+    assertEquals(results.size(), 3);
+    assertEquals(results.get(0), 1L);
+    assertEquals(results.get(1), 2L);
+    assertTrue(results.get(2) instanceof InstanceBatch.Failure);
+    assertEquals(((InstanceBatch.Failure) results.get(2)).type(), ResourceManagerException.class.getName());
+    assertEquals(STATE_MACHINES.get(0).value, 1);
+    assertEquals(STATE_MACHINES.get(1).value, 2);
+
+    verify(commit, times(2)).acquire();
+    verify(commit, times(3)).release();
+    verify(commit, never()).close();
+  }
+
+  /**
+   * Tests that no batched operation is applied if a batch condition is not met.
+   */
+  @SuppressWarnings("unchecked")
+  public void testBatchConditions() {
+    ResourceManagerState state = createState();
+    index.set(10);
+    long resource1 = state.getResource(createCommit(10, "test1"));
+    index.set(11);
+    long resource2 = state.getResource(createCommit(11, "test2"));
+    STATE_MACHINES.get(0).value = 1;
+
+    List<InstanceCommand<?, ?>> commands = new ArrayList<>();
+    commands.add(new InstanceCommand<>(resource2, new TestCommand(2)));
+    List<InstanceQuery<?, ?>> conditions = new ArrayList<>();
+    conditions.add(new InstanceQuery<>(resource1, new TestQuery()));
+
+    Commit<InstanceBatch> commit1 = mock(Commit.class);
+    when(commit1.session()).thenReturn(session);
+    when(commit1.operation()).thenReturn(new InstanceBatch(commands, conditions, Collections.singletonList(2L)));
+    assertNull(state.operateBatch(commit1));
+    assertEquals(STATE_MACHINES.get(1).value, 0);
+    verify(commit1).acquire();
+    verify(commit1, times(2)).release();
+
+    Commit<InstanceBatch> commit2 = mock(Commit.class);
+    when(commit2.session()).thenReturn(session);
+    when(commit2.operation()).thenReturn(new InstanceBatch(commands, conditions, Collections.singletonList(1L)));
+    assertEquals(state.operateBatch(commit2), Collections.singletonList(2L));
+    assertEquals(STATE_MACHINES.get(1).value, 2);
+  }
+
+  /**
+   * Tests that operation metrics are recorded for each resource.
+   */
+  @SuppressWarnings("unchecked")
+  public void testResourceMetrics() {
+    ResourceManagerState state = createState();
+    index.set(10);
+    long resource1 = state.getResource(createCommit(10, "test1"));
+    index.set(11);
+    long resource2 = state.getResource(createCommit(11, "test2"));
+
+    List<InstanceCommand<?, ?>> commands = new ArrayList<>();
+    commands.add(new InstanceCommand<>(resource1, new TestCommand(1)));
+    commands.add(new InstanceCommand<>(resource2, new TestCommand(2)));
+    List<InstanceQuery<?, ?>> conditions = new ArrayList<>();
+    conditions.add(new InstanceQuery<>(resource1, new TestQuery()));
+
+    Commit<InstanceBatch> commit = mock(Commit.class);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new InstanceBatch(commands, conditions, Collections.singletonList(0L)));
+    index.set(20);
+    state.operateBatch(commit);
+
+    Commit<GetResourceMetrics> query = mock(Commit.class);
+    when(query.operation()).thenReturn(new GetResourceMetrics());
+    List<ResourceMetrics> metrics = state.getResourceMetrics(query);
+    verify(query).close();
+    assertEquals(metrics.size(), 2);
+
+    ResourceMetrics metrics1 = metrics.get(0).key().equals("test1") ? metrics.get(0) : metrics.get(1);
+    assertEquals(metrics1.type(), 1);
+    assertEquals(metrics1.commands(), 1);
+    assertEquals(metrics1.queries(), 1);
+    assertEquals(metrics1.retainedCommits(), 0);
+    assertEquals(metrics1.operations().get("TestCommand"), Long.valueOf(1));
+    assertEquals(metrics1.operations().get("TestQuery"), Long.valueOf(1));
+    assertEquals(Arrays.stream(metrics1.applyTimeHistogram()).sum(), 2);
+    assertTrue(metrics1.maxApplyTime() <= metrics1.applyTime());
+
+    ResourceMetrics copy = serializer.copy(metrics1);
+    assertEquals(copy.key(), "test1");
+    assertEquals(copy.commands(), 1);
+    assertEquals(copy.operations(), metrics1.operations());
+    assertEquals(copy.applyTimeHistogram(), metrics1.applyTimeHistogram());
+
+    Commit<DeleteResource> delete = mock(Commit.class);
+    when(delete.operation()).thenReturn(new DeleteResource(resource2));
+    state.deleteResource(delete);
+    assertEquals(state.metrics().size(), 1);
+  }
+
+  /**
+   * Tests that retained commits are accounted by operation type and that growing retention is flagged.
+   */
+  @SuppressWarnings("unchecked")
+  public void testRetentionAccounting() {
+    serializer.register(TestRetainCommand.class);
+    ResourceManagerState state = createState();
+    index.set(10);
+    long resource = state.getResource(createCommit(10, "test"));
+
+    InstanceBatch batch = serializer.copy(new InstanceBatch(Collections.singletonList(new InstanceCommand<>(resource, new TestRetainCommand()))));
+    int size = batch.commands().get(0).size();
+    assertTrue(size > 0);
+
+    for (int i = 0; i < 5; i++) {
+      Commit<InstanceBatch> commit = mock(Commit.class);
+      when(commit.session()).thenReturn(session);
+      when(commit.operation()).thenReturn(batch);
+      index.set(20 + i);
+      state.operateBatch(commit);
+      state.checkRetention();
+
+      ResourceMetrics metrics = state.metrics().get(0);
+      assertEquals(metrics.retainedCommits(), i + 1);
+      assertEquals(metrics.retainedBytes(), (i + 1) * size);
+      assertEquals(metrics.retainedOperations().get("TestRetainCommand"), Long.valueOf(i + 1));
+      assertEquals(metrics.retainedOperationBytes().get("TestRetainCommand"), Long.valueOf((i + 1) * size));
+      assertEquals(metrics.isLeakSuspected(), i == 4);
+    }
+
+    ResourceMetrics copy = serializer.copy(state.metrics().get(0));
+    assertTrue(copy.isLeakSuspected());
+    assertEquals(copy.retainedBytes(), 5 * size);
+    assertEquals(copy.retainedOperations().get("TestRetainCommand"), Long.valueOf(5));
+
+    STATE_MACHINES.get(0).retained.forEach(Commit::close);
+    state.checkRetention();
+    ResourceMetrics metrics = state.metrics().get(0);
+    assertEquals(metrics.retainedCommits(), 0);
+    assertEquals(metrics.retainedBytes(), 0);
+    assertTrue(metrics.retainedOperations().isEmpty());
+    assertFalse(metrics.isLeakSuspected());
+  }
+
+  /**
+   * Tests that the operation tracer is invoked for each applied operation and that tracer failures are ignored.
+   */
+  @SuppressWarnings("unchecked")
+  public void testOperationTracer() {
+    List<ResourceOperationTrace> traces = new ArrayList<>();
+    ResourceManagerState state = createState(null, trace -> {
+      traces.add(trace);
+      throw new IllegalStateException();
+    });
+    index.set(10);
+    long resource1 = state.getResource(createCommit(10, "test1"));
+
+    List<InstanceCommand<?, ?>> commands = new ArrayList<>();
+    commands.add(new InstanceCommand<>(resource1, new TestCommand(3)));
+    commands.add(new InstanceCommand<>(100, new TestCommand(4)));
+    Commit<InstanceBatch> commit = mock(Commit.class);
+    when(commit.index()).thenReturn(20L);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new InstanceBatch(commands));
+    index.set(20);
+    assertEquals(state.operateBatch(commit).get(0), 3L);
+    assertEquals(traces.size(), 1);
+    ResourceOperationTrace trace = traces.get(0);
+    assertEquals(trace.key(), "test1");
+    assertEquals(trace.type().id(), 1);
+    assertEquals(trace.operation(), TestCommand.class);
+    assertTrue(trace.isCommand());
+    assertFalse(trace.isFailed());
+    assertEquals(trace.index(), 20);
+    assertEquals(trace.resultSize(), 1);
+    assertTrue(trace.duration() >= 0);
+  }
+
+  /**
+   * Tests that state detached by a deleted resource is reclaimed in bounded slices as commands are applied.
+   */
+  @SuppressWarnings("unchecked")
+  public void testIncrementalDeletion() {
+    ResourceManagerState state = createState();
+    index.set(10);
+    long resource1 = state.getResource(createCommit(10, "test1"));
+    index.set(11);
+    long resource2 = state.getResource(createCommit(11, "test2"));
+    TestStateMachine stateMachine = STATE_MACHINES.get(0);
+    stateMachine.detached = 2000;
+
+    Commit<DeleteResource> delete = mock(Commit.class);
+    when(delete.operation()).thenReturn(new DeleteResource(resource1));
+    index.set(12);
+    state.deleteResource(delete);
+    assertTrue(stateMachine.deleted);
+    assertEquals(stateMachine.reclaimed, 0);
+
+    // Queries are applied on a single server and never advance reclamation.
+    Commit<InstanceBatch> query = mock(Commit.class);
+    when(query.session()).thenReturn(session);
+    when(query.operation()).thenReturn(new InstanceBatch(Collections.emptyList(),
+      Collections.singletonList(new InstanceQuery<>(resource2, new TestQuery())), Collections.singletonList(0L)));
+    state.operateBatch(query);
+    assertEquals(stateMachine.reclaimed, 0);
+
+    index.set(13);
+    state.operateBatch(createBatchCommit(resource2, 1));
+    assertEquals(stateMachine.reclaimed, 1024);
+
+    index.set(14);
+    state.operateBatch(createBatchCommit(resource2, 2));
+    assertEquals(stateMachine.reclaimed, 2000);
+    assertFalse(stateMachine.isReclaiming());
+  }
+
+  /**
+   * Tests that session events are only delivered to the resources on which the session is open.
+   */
+  public void testSessionEventsOnlyVisitOpenResources() {
+    ServerSession session2 = mock(ServerSession.class);
+    when(session2.id()).thenReturn(2L);
+
+    ResourceManagerState state = createState();
+    index.set(10);
+    state.getResource(createCommit(10, "test1"));
+    index.set(11);
+    state.getResource(createCommit(11, "test2", session2));
+    index.set(12);
+    state.getResource(createCommit(12, "test1", session2));
+
+    state.expire(session);
+    state.close(session);
+    assertEquals(STATE_MACHINES.get(0).closed, 1);
+    assertEquals(STATE_MACHINES.get(1).closed, 0);
+
+    state.expire(session2);
+    state.close(session2);
+    assertEquals(STATE_MACHINES.get(0).closed, 2);
+    assertEquals(STATE_MACHINES.get(1).closed, 1);
+
+    state.close(session);
+    assertEquals(STATE_MACHINES.get(0).closed, 2);
+  }
+
+  /**
+   * Tests listing resource keys by prefix and page.
+   */
+  public void testResourceKeyPages() {
+    ResourceManagerState state = createState();
+    String[] keys = {"a/1", "b/1", "b/2", "b/3", "c/1"};
+    for (int i = 0; i < keys.length; i++) {
+      index.set(10 + i);
+      state.getResource(createCommit(10 + i, keys[i]));
+    }
+
+    ResourceKeyPage page1 = state.getResourceKeyPage(createKeyPageCommit("b/", 0, null, 2));
+    assertEquals(page1.keys(), Arrays.asList("b/1", "b/2"));
+    assertEquals(page1.nextPageToken(), "b/2");
+
+    ResourceKeyPage page2 = state.getResourceKeyPage(createKeyPageCommit("b/", 0, page1.nextPageToken(), 2));
+    assertEquals(page2.keys(), Collections.singletonList("b/3"));
+    assertNull(page2.nextPageToken());
+
+    ResourceKeyPage all = state.getResourceKeyPage(createKeyPageCommit("", 1, null, 10));
+    assertEquals(all.keys(), Arrays.asList(keys));
+    assertNull(all.nextPageToken());
+    assertTrue(state.getResourceKeyPage(createKeyPageCommit("", 2, null, 10)).keys().isEmpty());
+  }
+
+  /**
+   * Tests creating and opening multiple resources in a single commit.
+   */
+  @SuppressWarnings("unchecked")
+  public void testGetResources() {
+    ResourceManagerState state = createState();
+    index.set(10);
+    Properties config = new Properties();
+    config.setProperty("foo", "bar");
+    Commit<GetResource> commit1 = createCommit(10, "a");
+    when(commit1.operation()).thenReturn(new GetResource("a", new ResourceType(TestResource.class), config));
+    ResourceInfo info = state.openResource(commit1);
+    assertEquals(info.id(), 10);
+    assertEquals(info.config().getProperty("foo"), "bar");
+
+    index.set(20);
+    Commit<GetResources> commit2 = mock(Commit.class);
+    when(commit2.index()).thenReturn(20L);
+    when(commit2.session()).thenReturn(session);
+    when(commit2.operation()).thenReturn(new GetResources(Arrays.asList("a", "b", "c"), new ResourceType(TestResource.class), new Properties()));
+    List<ResourceInfo> results = state.getResources(commit2);
+    assertEquals(results.size(), 3);
+    assertEquals(results.get(0).id(), 10);
+    assertEquals(results.get(0).config().getProperty("foo"), "bar");
+    assertEquals(results.get(1).id(), 20);
+    assertEquals(results.get(2).id(), 20 | 1L << 48);
+    assertEquals(STATE_MACHINES.size(), 3);
+    verify(commit2, times(2)).acquire();
+
+    // The existing resource's session was already registered by the first commit, so its reference is released.
+    verify(commit2, times(1)).release();
+    assertTrue(state.resourceExists(createExistsCommit("c")));
+  }
+
+  /**
+   * Tests reopening multiple resources in a single commit.
+   */
+  @SuppressWarnings("unchecked")
+  public void testRecoverResources() {
+    ResourceManagerState state = createState();
+    index.set(10);
+    state.getResource(createCommit(10, "a"));
+
+    index.set(20);
+    ResourceType type = new ResourceType(TestResource.class);
+    Commit<RecoverResources> commit = mock(Commit.class);
+    when(commit.index()).thenReturn(20L);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new RecoverResources(Arrays.asList(new GetResource("a", type, new Properties()), new GetResource("b", type, new Properties()))));
+    List<ResourceInfo> results = state.recoverResources(commit);
+    assertEquals(results.size(), 2);
+    assertEquals(results.get(0).id(), 10);
+    assertEquals(results.get(1).id(), 20);
+    verify(commit, times(1)).acquire();
+  }
+
+  /**
+   * Tests resolving a resource without opening a session on it.
+   */
+  @SuppressWarnings("unchecked")
+  public void testLookupResource() {
+    ResourceManagerState state = createState();
+    assertNull(state.lookupResource(createLookupCommit("test", new ResourceType(TestResource.class))));
+
+    index.set(10);
+    state.getResource(createCommit(10, "test"));
+    assertEquals(STATE_MACHINES.get(0).sessions, 1);
+
+    Commit<LookupResource> commit = createLookupCommit("test", new ResourceType(TestResource.class));
+    ResourceInfo info = state.lookupResource(commit);
+    assertEquals(info.id(), 10);
+    assertEquals(STATE_MACHINES.size(), 1);
+    assertEquals(STATE_MACHINES.get(0).sessions, 1);
+    verify(commit).close();
+    verify(commit, never()).acquire();
+
+    try {
+      state.lookupResource(createLookupCommit("test", new ResourceType(OtherResource.class)));
+      fail();
+    } catch (ResourceManagerException e) {
+    }
+
+    // Queries from sessions that are not registered with the resource share a single unregistered session.
+    ServerSession session2 = mock(ServerSession.class);
+    when(session2.id()).thenReturn(2L);
+    for (int i = 0; i < 2; i++) {
+      Commit<InstanceBatch> query = mock(Commit.class);
+      when(query.session()).thenReturn(session2);
+      when(query.operation()).thenReturn(new InstanceBatch(Collections.emptyList(),
+        Collections.singletonList(new InstanceQuery<>(info.id(), new TestQuery())), Collections.singletonList(0L)));
+      state.operateBatch(query);
+    }
+    assertEquals(STATE_MACHINES.get(0).querySessionIds, Arrays.asList(2L, 2L));
+    assertSame(STATE_MACHINES.get(0).querySessions.get(0), STATE_MACHINES.get(0).querySessions.get(1));
+    assertEquals(STATE_MACHINES.get(0).sessions, 1);
+  }
+
+  /**
+   * Tests that idle resources are hibernated and rehydrated with their state on the next access.
+   */
+  public void testHibernateIdleResources() {
+    ResourceManagerState state = createState(Duration.ofSeconds(10));
+    index.set(10);
+    state.getResource(createCommit(10, "test"));
+    STATE_MACHINES.get(0).value = 42;
+
+    // Resources with open sessions are not hibernated.
+    time.set(20000);
+    state.hibernateResources();
+    assertEquals(STATE_MACHINES.size(), 1);
+    assertFalse(STATE_MACHINES.get(0).deleted);
+
+    state.close(session);
+    time.set(25000);
+    state.hibernateResources();
+    time.set(40000);
+    state.hibernateResources();
+
+    // Snapshots include the state of hibernated resources.
+    Snapshot snapshot = snapshot(state, 20);
+    ResourceManagerState state2 = createState();
+    try (SnapshotReader reader = snapshot.reader()) {
+      state2.install(reader);
+    }
+    assertEquals(STATE_MACHINES.size(), 2);
+    assertEquals(STATE_MACHINES.get(1).value, 42);
+
+    // The next access to the resource rehydrates its state machine.
+    index.set(30);
+    state.getResource(createCommit(30, "test"));
+    assertEquals(STATE_MACHINES.size(), 3);
+    assertEquals(STATE_MACHINES.get(2).value, 42);
+    assertEquals(STATE_MACHINES.get(2).sessions, 1);
+  }
+
+  /**
+   * Tests that queries against a hibernated resource read its state without waking or touching it.
+   */
+  @SuppressWarnings("unchecked")
+  public void testQueryHibernatedResource() {
+    ResourceManagerState state = createState(Duration.ofSeconds(10));
+    index.set(10);
+    long resource = state.getResource(createCommit(10, "test"));
+    STATE_MACHINES.get(0).value = 42;
+    state.close(session);
+    time.set(20000);
+    state.hibernateResources();
+    assertTrue(STATE_MACHINES.get(0).closed > 0);
+
+    Commit<InstanceBatch> commit = mock(Commit.class);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new InstanceBatch(Collections.emptyList(),
+      Collections.singletonList(new InstanceQuery<>(resource, new TestQuery())), Collections.singletonList(42L)));
+    index.set(20);
+    assertNotNull(state.operateBatch(commit));
+    assertEquals(STATE_MACHINES.size(), 2);
+    assertEquals(STATE_MACHINES.get(1).value, 42);
+
+    // The query loaded a temporary copy, so the next access rehydrates the resource again.
+    index.set(30);
+    state.getResource(createCommit(30, "test"));
+    assertEquals(STATE_MACHINES.size(), 3);
+    assertEquals(STATE_MACHINES.get(2).value, 42);
+  }
+
+  /**
+   * Creates a resource manager state machine.
+   */
+  private ResourceManagerState createState() {
+    return createState(null);
+  }
+
+  /**
+   * Creates a resource manager state machine with the given hibernation timeout.
+   */
+  private ResourceManagerState createState(Duration hibernationTimeout) {
+    return createState(hibernationTimeout, null);
+  }
+
+  /**
+   * Creates a resource manager state machine with the given hibernation timeout and operation tracer.
+   */
+  private ResourceManagerState createState(Duration hibernationTimeout, ResourceOperationTracer tracer) {
+    Sessions sessions = mock(Sessions.class);
+    when(sessions.session(1L)).thenReturn(session);
+
+    StateMachineContext context = mock(StateMachineContext.class);
+    when(context.index()).thenAnswer(invocation -> index.get());
+    when(context.sessions()).thenReturn(sessions);
+    Clock clock = mock(Clock.class);
+    when(clock.millis()).thenAnswer(invocation -> time.get());
+    when(context.clock()).thenReturn(clock);
+
+    StateMachineExecutor executor = mock(StateMachineExecutor.class);
+    when(executor.context()).thenReturn(context);
+    when(executor.serializer()).thenReturn(serializer);
+
+    ResourceManagerState state = new ResourceManagerState(hibernationTimeout, null, tracer);
+    state.configure(executor);
+    return state;
+  }
+
+  /**
+   * Takes a snapshot of the given state machine at the given index.
+   */
+  private Snapshot snapshot(ResourceManagerState state, long index) {
+    this.index.set(index);
+    Snapshot snapshot = new SnapshotStore("test", new Storage(StorageLevel.MEMORY), serializer).createSnapshot(index);
+    try (SnapshotWriter writer = snapshot.writer()) {
+      state.snapshot(writer);
+    }
+    return snapshot.complete();
+  }
+
+  /**
+   * Creates a get resource commit.
+   */
+  @SuppressWarnings("unchecked")
+  private Commit<GetResource> createCommit(long index, String key) {
+    return createCommit(index, key, session);
+  }
+
+  /**
+   * Creates a get resource commit for the given session.
+   */
+  @SuppressWarnings("unchecked")
+  private Commit<GetResource> createCommit(long index, String key, ServerSession session) {
+    Commit<GetResource> commit = mock(Commit.class);
+    when(commit.index()).thenReturn(index);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new GetResource(key, new ResourceType(TestResource.class), new Properties()));
+    return commit;
+  }
+
+  /**
+   * Creates a batch commit containing a single command.
+   */
+  @SuppressWarnings("unchecked")
+  private Commit<InstanceBatch> createBatchCommit(long resource, long value) {
+    Commit<InstanceBatch> commit = mock(Commit.class);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new InstanceBatch(Collections.singletonList(new InstanceCommand<>(resource, new TestCommand(value)))));
+    return commit;
+  }
+
+  /**
+   * Creates a get resource key page commit.
+   */
+  @SuppressWarnings("unchecked")
+  private Commit<GetResourceKeyPage> createKeyPageCommit(String prefix, int type, String token, int limit) {
+    Commit<GetResourceKeyPage> commit = mock(Commit.class);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new GetResourceKeyPage(prefix, type, token, limit));
+    return commit;
+  }
+
+  /**
+   * Creates a lookup resource commit.
+   */
+  @SuppressWarnings("unchecked")
+  private Commit<LookupResource> createLookupCommit(String key, ResourceType type) {
+    Commit<LookupResource> commit = mock(Commit.class);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new LookupResource(key, type));
+    return commit;
+  }
+
+  /**
+   * Creates a resource exists commit.
+   */
+  @SuppressWarnings("unchecked")
+  private Commit<ResourceExists> createExistsCommit(String key) {
+    Commit<ResourceExists> commit = mock(Commit.class);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(new ResourceExists(key));
+    return commit;
+  }
+
+  @ResourceTypeInfo(id=1, factory=TestResourceFactory.class)
+  public static class TestResource extends AbstractResource<TestResource> {
+    public TestResource(CopycatClient client, ResourceType type, Properties options) {
+      super(client, type, options);
+    }
+  }
+
+  @ResourceTypeInfo(id=2, factory=TestResourceFactory.class)
+  public static class OtherResource extends AbstractResource<OtherResource> {
+    public OtherResource(CopycatClient client, ResourceType type, Properties options) {
+      super(client, type, options);
+    }
+  }
+
+  public static class TestResourceFactory implements ResourceFactory<TestResource> {
+    @Override
+    public ResourceStateMachine createStateMachine(Properties config) {
+      return new TestStateMachine(config);
+    }
+    @Override
+    public TestResource createInstance(CopycatClient client, Properties options) {
+      return null;
+    }
+  }
+
+  public static class TestCommand implements Command<Long> {
+    private long value;
+
+    public TestCommand(long value) {
+      this.value = value;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+  }
+
+  public static class TestQuery implements Query<Long> {
+  }
+
+  public static class TestRetainCommand implements Command<Void>, CatalystSerializable {
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeLong(0);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      buffer.readLong();
+    }
+  }
+
+  public static class TestStateMachine extends ResourceStateMachine implements Snapshottable {
+    private long value;
+    private int sessions;
+    private int closed;
+    private boolean deleted;
+    private int detached;
+    private int reclaimed;
+    private final List<Commit<TestRetainCommand>> retained = new ArrayList<>();
+    private final List<ServerSession> querySessions = new ArrayList<>();
+    private final List<Long> querySessionIds = new ArrayList<>();
+
+    public TestStateMachine(Properties config) {
+      super(config);
+      STATE_MACHINES.add(this);
+    }
+
+    @Override
+    public void register(ServerSession session) {
+      sessions++;
+    }
+
+    @Override
+    public void close(ServerSession session) {
+      closed++;
+    }
+
+    @Override
+    public void delete() {
+      deleted = true;
+      reclaim(IntStream.range(0, detached).iterator(), i -> reclaimed++);
+    }
+
+    public long get(Commit<TestQuery> commit) {
+      try {
+        querySessions.add(commit.session());
+        querySessionIds.add(commit.session().id());
+        return value;
+      } finally {
+        commit.close();
+      }
+    }
+
+    public long test(Commit<TestCommand> commit) {
+      try {
+        value = commit.operation().value;
+        return value;
+      } finally {
+        commit.close();
+      }
+    }
+
+    public void retain(Commit<TestRetainCommand> commit) {
+      retained.add(commit);
+    }
+
+    @Override
+    public void snapshot(SnapshotWriter writer) {
+      writer.writeLong(value);
+    }
+
+    @Override
+    public void install(SnapshotReader reader) {
+      value = reader.readLong();
+    }
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.resource.internal;
+
+import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.copycat.error.ApplicationException;
+import io.atomix.manager.ResourceManagerException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * Batching Copycat client test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class BatchingCopycatClientTest {
+  private List<Command<?>> submitted;
+  private List<CompletableFuture<Object>> futures;
+  private BatchingCopycatClient client;
+
+  @BeforeMethod
+  @SuppressWarnings("unchecked")
+  protected void beforeMethod() {
+    submitted = new ArrayList<>();
+    futures = new ArrayList<>();
+    CopycatClient parent = mock(CopycatClient.class);
+    when(parent.submit(any(Command.class))).thenAnswer(invocation -> {
+      submitted.add((Command<?>) invocation.getArguments()[0]);
+      CompletableFuture<Object> future = new CompletableFuture<>();
+      futures.add(future);
+      return future;
+    });
+    when(parent.submit(any(Query.class))).thenReturn(CompletableFuture.completedFuture(null));
+    client = new BatchingCopycatClient(parent, 2, 1);
+  }
+
+  /**
+   * Tests that commands are submitted immediately while the client is not saturated and batched once it is.
+   */
+  public void testBatchWhileSaturated() throws Exception {
+    CompletableFuture<Long> future1 = client.submit(new InstanceCommand<>(1, new TestCommand()));
+    CompletableFuture<Long> future2 = client.submit(new InstanceCommand<>(2, new TestCommand()));
+    CompletableFuture<Long> future3 = client.submit(new InstanceCommand<>(3, new TestCommand()));
+    assertEquals(submitted.size(), 1);
+    assertTrue(submitted.get(0) instanceof InstanceCommand);
+
+    futures.get(0).complete(1L);
+    assertEquals(future1.get().longValue(), 1L);
+    assertEquals(submitted.size(), 2);
+    assertTrue(submitted.get(1) instanceof InstanceBatch);
+    assertEquals(((InstanceBatch) submitted.get(1)).commands().size(), 2);
+
+    futures.get(1).complete(Arrays.asList(2L, new InstanceBatch.Failure(new IllegalStateException("not open"))));
+    assertEquals(future2.get().longValue(), 2L);
+    try {
+      future3.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ApplicationException);
+      assertEquals(e.getCause().getMessage(), "java.lang.IllegalStateException: not open");
+    }
+  }
+
+  /**
+   * Tests that batch failures complete with an application exception as unbatched commands do.
+   */
+  public void testBatchFailureException() {
+    InstanceBatch.Failure failure = new InstanceBatch.Failure(new ResourceManagerException("unknown resource: %s%%", 100));
+    assertEquals(failure.type(), ResourceManagerException.class.getName());
+    assertEquals(failure.message(), "unknown resource: 100%");
+    ApplicationException error = failure.exception();
+    assertEquals(error.getMessage(), ResourceManagerException.class.getName() + ": unknown resource: 100%");
+
+    assertEquals(new InstanceBatch.Failure().exception().getMessage(), "an application error occurred");
+  }
+
+  /**
+   * Tests that commands for the same resource are never submitted in the same batch.
+   */
+  public void testSameResourceSplitsBatch() {
+    client.submit(new InstanceCommand<>(1, new TestCommand()));
+    client.submit(new InstanceCommand<>(1, new TestCommand()));
+    client.submit(new InstanceCommand<>(1, new TestCommand()));
+    assertEquals(submitted.size(), 1);
+
+    futures.get(0).complete(null);
+    assertEquals(submitted.size(), 2);
+    assertTrue(submitted.get(1) instanceof InstanceCommand);
+    futures.get(1).complete(null);
+    assertEquals(submitted.size(), 3);
+    assertTrue(submitted.get(2) instanceof InstanceCommand);
+  }
+
+  /**
+   * Tests that queries flush pending batches so they observe prior commands.
+   */
+  public void testQueryFlushesBatches() {
+    client.submit(new InstanceCommand<>(1, new TestCommand()));
+    client.submit(new InstanceCommand<>(2, new TestCommand()));
+    assertEquals(submitted.size(), 1);
+    client.submit(new InstanceQuery<>(1, new TestQuery()));
+    assertEquals(submitted.size(), 2);
+  }
+
+  public static class TestCommand implements Command<Long> {
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+  }
+
+  public static class TestQuery implements Query<Long> {
+  }
+
+}
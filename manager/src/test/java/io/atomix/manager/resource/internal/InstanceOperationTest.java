@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.resource.internal;
+
+import io.atomix.catalyst.buffer.Buffer;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.manager.util.ResourceManagerTypeResolver;
+import io.atomix.resource.internal.ResourceCommand;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Instance operation test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class InstanceOperationTest {
+  private Serializer serializer;
+
+  @BeforeMethod
+  protected void beforeMethod() {
+    serializer = new Serializer();
+    serializer.resolve(new ResourceManagerTypeResolver());
+    serializer.resolve(new InstanceTypeResolver());
+  }
+
+  /**
+   * Tests that an instance command is decoded directly to the resource operation.
+   */
+  public void testCommandRoundTrip() {
+    for (long resource : new long[]{0, 1, 127, 128, 16384, Integer.MAX_VALUE, Long.MAX_VALUE}) {
+      InstanceCommand<?, ?> command = serializer.readObject(serializer.writeObject(new InstanceCommand<>(resource, new ResourceCommand.Delete())).flip());
+      assertEquals(command.resource(), resource);
+      assertTrue(command.operation() instanceof ResourceCommand.Delete);
+    }
+  }
+
+  /**
+   * Tests that the resource ID is encoded as a variable-length integer.
+   */
+  public void testVariableLengthResourceId() {
+    Buffer small = serializer.writeObject(new InstanceCommand<>(1, new ResourceCommand.Delete())).flip();
+    Buffer large = serializer.writeObject(new InstanceCommand<>(1 << 20, new ResourceCommand.Delete())).flip();
+    assertEquals(large.remaining() - small.remaining(), 2);
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.manager.resource.internal;
+
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.manager.internal.GetResource;
+import io.atomix.manager.internal.RecoverResources;
+import io.atomix.manager.internal.ResourceInfo;
+import io.atomix.manager.internal.ResourceManagerStateTest;
+import io.atomix.resource.ResourceType;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * Instance recovery test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class InstanceRecoveryTest {
+  private List<Command<?>> submitted;
+  private List<CompletableFuture<Object>> futures;
+  private List<Runnable> tasks;
+  private InstanceRecovery recovery;
+
+  @BeforeMethod
+  @SuppressWarnings("unchecked")
+  protected void beforeMethod() {
+    submitted = new ArrayList<>();
+    futures = new ArrayList<>();
+    tasks = new ArrayList<>();
+    ThreadContext context = mock(ThreadContext.class);
+    when(context.execute(any(Runnable.class))).thenAnswer(invocation -> {
+      tasks.add((Runnable) invocation.getArguments()[0]);
+      return CompletableFuture.completedFuture(null);
+    });
+    CopycatClient client = mock(CopycatClient.class);
+    when(client.context()).thenReturn(context);
+    when(client.submit(any(Command.class))).thenAnswer(invocation -> {
+      submitted.add((Command<?>) invocation.getArguments()[0]);
+      CompletableFuture<Object> future = new CompletableFuture<>();
+      futures.add(future);
+      return future;
+    });
+    recovery = new InstanceRecovery(client);
+  }
+
+  /**
+   * Tests that recoveries requested together are submitted as a single command.
+   */
+  public void testCoalesceRecoveries() throws Exception {
+    CompletableFuture<ResourceInfo> future1 = recovery.recover(createInstance("a"));
+    CompletableFuture<ResourceInfo> future2 = recovery.recover(createInstance("b"));
+    CompletableFuture<ResourceInfo> future3 = recovery.recover(createInstance("c"));
+    assertEquals(tasks.size(), 1);
+    assertTrue(submitted.isEmpty());
+
+    tasks.get(0).run();
+    assertEquals(submitted.size(), 1);
+    assertEquals(((RecoverResources) submitted.get(0)).resources().size(), 3);
+
+    futures.get(0).complete(Arrays.asList(new ResourceInfo(1, new Properties()), null, new ResourceInfo(3, new Properties())));
+    assertEquals(future1.get().id(), 1);
+    assertTrue(future2.isCompletedExceptionally());
+    assertEquals(future3.get().id(), 3);
+  }
+
+  /**
+   * Tests that a single recovery is submitted as a get resource command.
+   */
+  public void testSingleRecovery() throws Exception {
+    CompletableFuture<ResourceInfo> future = recovery.recover(createInstance("a"));
+    tasks.get(0).run();
+    assertEquals(submitted.size(), 1);
+    assertTrue(submitted.get(0) instanceof GetResource);
+
+    futures.get(0).complete(new ResourceInfo(1, new Properties()));
+    assertEquals(future.get().id(), 1);
+
+    recovery.recover(createInstance("b"));
+    assertEquals(tasks.size(), 2);
+  }
+
+  /**
+   * Creates a resource instance.
+   */
+  private ResourceInstance createInstance(String key) {
+    return new ResourceInstance(key, new ResourceType(ResourceManagerStateTest.TestResource.class), new Properties(), instance -> {});
+  }
+
+}
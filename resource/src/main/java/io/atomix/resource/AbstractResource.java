@@ -21,7 +21,6 @@ import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.util.Assert;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.resource.internal.ResourceCommand;
-import io.atomix.resource.internal.ResourceCopycatClient;
 import io.atomix.resource.internal.ResourceEvent;
 import io.atomix.resource.internal.ResourceQuery;
 
@@ -55,7 +54,7 @@ public abstract class AbstractResource<T extends Resource<T>> implements Resourc
   }
 
   protected AbstractResource(CopycatClient client, ResourceType type, Properties options) {
-    this.client = new ResourceCopycatClient(Assert.notNull(client, "client"));
+    this.client = Assert.notNull(client, "client");
     if (type == null)
       type = new ResourceType(getClass());
     this.type = type;
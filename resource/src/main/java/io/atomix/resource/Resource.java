@@ -76,12 +76,36 @@ public interface Resource<T extends Resource<T>> extends Managed<T> {
    * instance. Those initial options configure the behavior of the resource instance on the local node only.
    */
   class Options extends Properties {
+    private static final String READ_ONLY = "readOnly";
+
     public Options() {
     }
 
     public Options(Properties defaults) {
       super(defaults);
     }
+
+    /**
+     * Marks the resource instance as read-only.
+     * <p>
+     * Read-only instances cannot submit commands, so resources must not enable features that rely on commands
+     * for reads when the instance is read-only. This option is set by the resource manager for read-only instances.
+     *
+     * @return The resource options.
+     */
+    public Options withReadOnly() {
+      setProperty(READ_ONLY, "true");
+      return this;
+    }
+
+    /**
+     * Returns whether the resource instance is read-only.
+     *
+     * @return Whether the resource instance is read-only.
+     */
+    public boolean isReadOnly() {
+      return Boolean.parseBoolean(getProperty(READ_ONLY, "false"));
+    }
   }
 
   /**
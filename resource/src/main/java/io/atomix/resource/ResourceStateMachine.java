@@ -26,6 +26,7 @@ import io.atomix.resource.internal.ResourceEvent;
 import io.atomix.resource.internal.ResourceQuery;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Base class for resource state machines.
@@ -112,6 +113,7 @@ import java.util.*;
 public abstract class ResourceStateMachine extends StateMachine implements SessionListener {
   protected final Properties config;
   private final Map<Integer, Set<ServerSession>> eventListeners = new HashMap<>();
+  private final Deque<Reclaim<?>> reclaims = new ArrayDeque<>();
 
   protected ResourceStateMachine(Properties config) {
     this.config = Assert.notNull(config, "config");
@@ -159,12 +161,26 @@ public abstract class ResourceStateMachine extends StateMachine implements Sessi
   protected void notify(Resource.Event event) {
     Set<ServerSession> sessions = eventListeners.get(event.type().id());
     if (sessions != null) {
+      ResourceEvent resourceEvent = new ResourceEvent(event.type().id(), event);
       for (ServerSession session : sessions) {
-        session.publish("event", new ResourceEvent(event.type().id(), event));
+        session.publish("event", resourceEvent);
       }
     }
   }
 
+  /**
+   * Returns a boolean indicating whether any client is subscribed to the given event type.
+   * <p>
+   * State machines can check for listeners before constructing an event to avoid allocating
+   * events that no client will receive.
+   *
+   * @param type The event type.
+   * @return Indicates whether any client is subscribed to the event type.
+   */
+  protected boolean hasListeners(Resource.EventType type) {
+    return eventListeners.containsKey(type.id());
+  }
+
   /**
    * Returns the resource configuration.
    */
@@ -233,9 +249,100 @@ public abstract class ResourceStateMachine extends StateMachine implements Sessi
    *   }
    * </pre>
    * Failing to override this method to clean up commits held by a resource state machine is considered
-   * a bug and will eventually result in disk filling up.
+   * a bug and will eventually result in disk filling up. State machines that may hold many commits should
+   * detach their state and {@link #reclaim(Iterator, Consumer) reclaim} it incrementally.
    */
   public void delete() {
   }
 
+  /**
+   * Releases detached state incrementally.
+   * <p>
+   * Releasing every commit held by a large resource in a single operation blocks the state machine thread, delaying
+   * every other resource managed by the same server. Instead of releasing state in {@link #delete()} or when a resource
+   * is cleared, state machines can detach the state, for instance by replacing a map with a new empty map, and pass
+   * an iterator over the detached state to this method. The detached elements are then passed to the given releaser
+   * in bounded slices as subsequent operations are applied.
+   * <pre>
+   *   {@code
+   *   public void delete() {
+   *     Map<Object, Commit<PutCommand>> detached = map;
+   *     map = new HashMap<>();
+   *     reclaim(detached.values().iterator(), Commit::close);
+   *   }
+   *   }
+   * </pre>
+   * Detached state must no longer be reachable from operations or scheduled tasks, and the iterator must not be
+   * modified once passed to this method. Detached elements are released on the state machine thread, but not
+   * necessarily at the same index on all servers, so releasers may only release resources like commits and timers
+   * and must not modify state machine state.
+   *
+   * @param iterator An iterator over the detached elements.
+   * @param releaser The function with which to release each element.
+   * @param <T> The element type.
+   * @throws NullPointerException if {@code iterator} or {@code releaser} are null
+   */
+  protected <T> void reclaim(Iterator<T> iterator, Consumer<? super T> releaser) {
+    Assert.notNull(iterator, "iterator");
+    Assert.notNull(releaser, "releaser");
+    if (iterator.hasNext()) {
+      reclaims.add(new Reclaim<>(iterator, releaser));
+    }
+  }
+
+  /**
+   * Returns a boolean indicating whether detached state remains to be released.
+   *
+   * @return Indicates whether detached state remains to be {@link #reclaim(int) reclaimed}.
+   */
+  public boolean isReclaiming() {
+    return !reclaims.isEmpty();
+  }
+
+  /**
+   * Releases up to the given number of detached elements.
+   * <p>
+   * This method is called by the resource manager, which continues to release detached state after the resource
+   * has been deleted.
+   *
+   * @param limit The maximum number of elements to release.
+   * @return The number of elements released.
+   */
+  public int reclaim(int limit) {
+    int count = 0;
+    while (count < limit && !reclaims.isEmpty()) {
+      Reclaim<?> reclaim = reclaims.peek();
+      count += reclaim.release(limit - count);
+      if (!reclaim.iterator.hasNext()) {
+        reclaims.remove();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Detached state to be released.
+   */
+  private static final class Reclaim<T> {
+    private final Iterator<T> iterator;
+    private final Consumer<? super T> releaser;
+
+    private Reclaim(Iterator<T> iterator, Consumer<? super T> releaser) {
+      this.iterator = iterator;
+      this.releaser = releaser;
+    }
+
+    /**
+     * Releases up to the given number of elements.
+     */
+    private int release(int limit) {
+      int count = 0;
+      while (count < limit && iterator.hasNext()) {
+        releaser.accept(iterator.next());
+        count++;
+      }
+      return count;
+    }
+  }
+
 }
@@ -39,8 +39,10 @@ import org.slf4j.Logger;
 /**
  * Custom executor for executing {@link ResourceStateMachine} {@link ResourceOperation operations}.
  * <p>
- * This is a special executor used by Atomix to execute resource state machines to unwrap
- * resource {@link ResourceCommand commands} and {@link ResourceQuery queries}.
+ * This is a special executor used by Atomix to execute resource state machines. Resource operations
+ * are submitted unwrapped and are registered directly with the parent executor, so operations are
+ * applied without any additional indirection. Operations wrapped in {@link ResourceCommand} and
+ * {@link ResourceQuery} by older clients are unwrapped and dispatched to the same callbacks.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
@@ -111,6 +113,7 @@ public final class ResourceStateMachineExecutor implements StateMachineExecutor
   @SuppressWarnings("unchecked")
   public <T extends Operation<U>, U> StateMachineExecutor register(Class<T> type, Function<Commit<T>, U> callback) {
     callbacks.put(type, Assert.notNull(callback, "callback"));
+    parent.register(type, callback);
     return this;
   }
 
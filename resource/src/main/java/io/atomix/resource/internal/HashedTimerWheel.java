@@ -0,0 +1,274 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.resource.internal;
+
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.server.StateMachineExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic hashed timer wheel for state machine timers.
+ * <p>
+ * Scheduling a task on the Copycat {@link StateMachineExecutor} allocates a task that is tracked in a list which
+ * must be scanned on every tick, and cancelling a task requires removing it from the list. State machines that
+ * schedule a timer per key, per lock waiter, or per member can therefore accumulate millions of tasks. The timer
+ * wheel instead multiplexes any number of timers onto a single periodic task on the underlying executor.
+ * <p>
+ * Timers are hashed into buckets by the tick at which they expire, so scheduling and cancelling a timer are
+ * constant time operations. The wheel is advanced by the periodic task according to the state machine's
+ * deterministic log time, so timers expire at the same point in the log on all servers. Timers may fire up to
+ * one tick after their deadline but never before it. The periodic task is only scheduled while timers are pending.
+ * <p>
+ * Like the executor itself, the timer wheel is not thread safe and must only be accessed from the state machine thread.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+public final class HashedTimerWheel {
+  private static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+  private static final int DEFAULT_BUCKETS = 512;
+
+  private final StateMachineExecutor executor;
+  private final long tick;
+  private final Timer[] buckets;
+  private final int mask;
+  private long currentTick = -1;
+  private int size;
+  private Scheduled ticker;
+
+  public HashedTimerWheel(StateMachineExecutor executor) {
+    this(executor, DEFAULT_TICK, DEFAULT_BUCKETS);
+  }
+
+  /**
+   * @throws NullPointerException if {@code executor} or {@code tick} are null
+   * @throws IllegalArgumentException if {@code tick} is not positive or {@code buckets} is not a positive power of two
+   */
+  public HashedTimerWheel(StateMachineExecutor executor, Duration tick, int buckets) {
+    this.executor = Assert.notNull(executor, "executor");
+    this.tick = Assert.notNull(tick, "tick").toMillis();
+    Assert.arg(this.tick > 0, "tick must be positive");
+    Assert.arg(buckets > 0 && (buckets & (buckets - 1)) == 0, "buckets must be a positive power of two");
+    this.buckets = new Timer[buckets];
+    this.mask = buckets - 1;
+  }
+
+  /**
+   * Returns the number of pending timers.
+   *
+   * @return The number of pending timers.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Schedules a callback to be run once after the given delay.
+   *
+   * @param delay The delay after which to run the callback.
+   * @param callback The callback to run.
+   * @return The scheduled timer.
+   */
+  public Scheduled schedule(Duration delay, Runnable callback) {
+    return schedule(delay, Duration.ZERO, callback, null);
+  }
+
+  /**
+   * Schedules a callback to be run periodically.
+   *
+   * @param initialDelay The delay after which to first run the callback.
+   * @param interval The interval at which to run the callback thereafter.
+   * @param callback The callback to run.
+   * @return The scheduled timer.
+   */
+  public Scheduled schedule(Duration initialDelay, Duration interval, Runnable callback) {
+    return schedule(initialDelay, interval, callback, null);
+  }
+
+  /**
+   * Schedules a callback, notifying the given listener once the timer is complete.
+   * <p>
+   * The listener is called once a non-periodic timer has fired or once any timer has been cancelled, allowing
+   * callers that track timers to release them without allocating a wrapper per timer.
+   *
+   * @param initialDelay The delay after which to first run the callback.
+   * @param interval The interval at which to run the callback thereafter, or zero to run it once.
+   * @param callback The callback to run.
+   * @param listener The listener to call once the timer is complete, or {@code null}.
+   * @return The scheduled timer.
+   */
+  public Scheduled schedule(Duration initialDelay, Duration interval, Runnable callback, Consumer<Scheduled> listener) {
+    Assert.notNull(initialDelay, "initialDelay");
+    Assert.notNull(interval, "interval");
+    Assert.notNull(callback, "callback");
+    Timer timer = new Timer(interval.toMillis(), callback, listener);
+    add(timer, now() + Math.max(initialDelay.toMillis(), 0));
+    return timer;
+  }
+
+  /**
+   * Returns the current deterministic state machine time.
+   */
+  private long now() {
+    return executor.context().clock().millis();
+  }
+
+  /**
+   * Adds a timer to the wheel.
+   */
+  private void add(Timer timer, long deadline) {
+    // Timers always expire on a tick after the current tick to ensure they never fire early.
+    if (currentTick < 0) {
+      currentTick = now() / tick;
+    }
+    timer.deadline = deadline;
+    timer.expireTick = Math.max((deadline + tick - 1) / tick, currentTick + 1);
+
+    int index = (int) (timer.expireTick & mask);
+    Timer head = buckets[index];
+    timer.bucket = index;
+    timer.next = head;
+    timer.prev = null;
+    if (head != null) {
+      head.prev = timer;
+    }
+    buckets[index] = timer;
+
+    if (size++ == 0 && ticker == null) {
+      Duration interval = Duration.ofMillis(tick);
+      ticker = executor.schedule(interval, interval, this::advance);
+    }
+  }
+
+  /**
+   * Removes a timer from the wheel.
+   */
+  private void remove(Timer timer) {
+    if (timer.prev != null) {
+      timer.prev.next = timer.next;
+    } else {
+      buckets[timer.bucket] = timer.next;
+    }
+    if (timer.next != null) {
+      timer.next.prev = timer.prev;
+    }
+    timer.next = null;
+    timer.prev = null;
+    timer.bucket = -1;
+    size--;
+  }
+
+  /**
+   * Advances the wheel to the current state machine time, expiring all timers that are due.
+   */
+  private void advance() {
+    long targetTick = now() / tick;
+    if (targetTick <= currentTick) {
+      return;
+    }
+
+    // If more ticks have elapsed than there are buckets, each bucket only needs to be visited once.
+    long ticks = Math.min(targetTick - currentTick, buckets.length);
+    List<Timer> expired = null;
+    for (long i = 1; i <= ticks; i++) {
+      Timer timer = buckets[(int) ((currentTick + i) & mask)];
+      while (timer != null) {
+        Timer next = timer.next;
+        if (timer.expireTick <= targetTick) {
+          remove(timer);
+          if (expired == null) {
+            expired = new ArrayList<>();
+          }
+          expired.add(timer);
+        }
+        timer = next;
+      }
+    }
+    currentTick = targetTick;
+
+    // Run expired timers only once the wheel is consistent so that callbacks can safely schedule or cancel timers.
+    if (expired != null) {
+      for (Timer timer : expired) {
+        timer.expire();
+      }
+    }
+
+    if (size == 0 && ticker != null) {
+      ticker.cancel();
+      ticker = null;
+      currentTick = -1;
+    }
+  }
+
+  /**
+   * Timer wheel timer.
+   */
+  private final class Timer implements Scheduled {
+    private final long interval;
+    private final Runnable callback;
+    private final Consumer<Scheduled> listener;
+    private long deadline;
+    private long expireTick;
+    private int bucket = -1;
+    private boolean cancelled;
+    private Timer next;
+    private Timer prev;
+
+    private Timer(long interval, Runnable callback, Consumer<Scheduled> listener) {
+      this.interval = interval;
+      this.callback = callback;
+      this.listener = listener;
+    }
+
+    /**
+     * Runs the timer callback and reschedules periodic timers.
+     */
+    private void expire() {
+      if (cancelled) {
+        return;
+      }
+
+      if (interval > 0) {
+        add(this, deadline + interval);
+        callback.run();
+      } else {
+        cancelled = true;
+        callback.run();
+        if (listener != null) {
+          listener.accept(this);
+        }
+      }
+    }
+
+    @Override
+    public void cancel() {
+      if (!cancelled) {
+        cancelled = true;
+        if (bucket >= 0) {
+          remove(this);
+        }
+        if (listener != null) {
+          listener.accept(this);
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.resource.internal;
+
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.copycat.server.StateMachineContext;
+import io.atomix.copycat.server.StateMachineExecutor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * Hashed timer wheel test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class HashedTimerWheelTest {
+  private AtomicLong time;
+  private List<Runnable> tickers;
+  private Scheduled ticker;
+  private HashedTimerWheel timers;
+
+  @BeforeMethod
+  protected void beforeMethod() {
+    time = new AtomicLong(1000);
+    tickers = new ArrayList<>();
+    ticker = mock(Scheduled.class);
+
+    StateMachineContext context = mock(StateMachineContext.class);
+    when(context.clock()).thenAnswer(invocation -> Clock.fixed(Instant.ofEpochMilli(time.get()), ZoneOffset.UTC));
+
+    StateMachineExecutor executor = mock(StateMachineExecutor.class);
+    when(executor.context()).thenReturn(context);
+    when(executor.schedule(any(Duration.class), any(Duration.class), any(Runnable.class))).thenAnswer(invocation -> {
+      tickers.add((Runnable) invocation.getArguments()[2]);
+      return ticker;
+    });
+
+    timers = new HashedTimerWheel(executor, Duration.ofMillis(10), 8);
+  }
+
+  /**
+   * Advances the state machine time and runs the wheel's ticker.
+   */
+  private void advance(long millis) {
+    time.addAndGet(millis);
+    for (Runnable runnable : new ArrayList<>(tickers)) {
+      runnable.run();
+    }
+  }
+
+  /**
+   * Tests that a timer fires on the first tick after its deadline and never before it.
+   */
+  public void testTimerExpiresAfterDeadline() {
+    AtomicInteger count = new AtomicInteger();
+    timers.schedule(Duration.ofMillis(25), count::incrementAndGet);
+    assertEquals(timers.size(), 1);
+    assertEquals(tickers.size(), 1);
+
+    advance(20);
+    assertEquals(count.get(), 0);
+    advance(10);
+    assertEquals(count.get(), 1);
+    assertEquals(timers.size(), 0);
+    verify(ticker).cancel();
+  }
+
+  /**
+   * Tests that timers spanning multiple rotations of the wheel expire at the correct tick.
+   */
+  public void testTimerExpiresAfterMultipleRotations() {
+    AtomicInteger count = new AtomicInteger();
+    timers.schedule(Duration.ofMillis(200), count::incrementAndGet);
+    for (int i = 0; i < 19; i++) {
+      advance(10);
+      assertEquals(count.get(), 0);
+    }
+    advance(10);
+    assertEquals(count.get(), 1);
+  }
+
+  /**
+   * Tests that all due timers expire when the state machine time jumps past many rotations.
+   */
+  public void testBulkExpiry() {
+    AtomicInteger count = new AtomicInteger();
+    for (int i = 0; i < 1000; i++) {
+      timers.schedule(Duration.ofMillis(i), count::incrementAndGet);
+    }
+    timers.schedule(Duration.ofMillis(5000), count::incrementAndGet);
+
+    advance(1000);
+    assertEquals(count.get(), 1000);
+    assertEquals(timers.size(), 1);
+  }
+
+  /**
+   * Tests cancelling a timer.
+   */
+  public void testCancelTimer() {
+    AtomicInteger count = new AtomicInteger();
+    List<Scheduled> completed = new ArrayList<>();
+    Scheduled timer = timers.schedule(Duration.ofMillis(10), Duration.ZERO, count::incrementAndGet, completed::add);
+    timer.cancel();
+    assertEquals(timers.size(), 0);
+    assertEquals(completed.size(), 1);
+
+    advance(100);
+    assertEquals(count.get(), 0);
+  }
+
+  /**
+   * Tests a periodic timer.
+   */
+  public void testPeriodicTimer() {
+    AtomicInteger count = new AtomicInteger();
+    List<Scheduled> completed = new ArrayList<>();
+    Scheduled timer = timers.schedule(Duration.ofMillis(10), Duration.ofMillis(20), count::incrementAndGet, completed::add);
+
+    advance(10);
+    assertEquals(count.get(), 1);
+    advance(10);
+    assertEquals(count.get(), 1);
+    advance(10);
+    assertEquals(count.get(), 2);
+    assertTrue(completed.isEmpty());
+
+    timer.cancel();
+    advance(100);
+    assertEquals(count.get(), 2);
+    assertEquals(completed.size(), 1);
+  }
+
+}
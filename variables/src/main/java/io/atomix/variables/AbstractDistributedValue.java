@@ -23,6 +23,7 @@ import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.resource.AbstractResource;
 import io.atomix.resource.ReadConsistency;
+import io.atomix.resource.ResourceType;
 import io.atomix.variables.internal.ValueCommands;
 
 import java.time.Duration;
@@ -48,6 +49,10 @@ public abstract class AbstractDistributedValue<T extends AbstractDistributedValu
     super(client, options);
   }
 
+  protected AbstractDistributedValue(CopycatClient client, ResourceType type, Properties options) {
+    super(client, type, options);
+  }
+
   /**
    * Registers a listener to be called when the value changes.
    *
@@ -17,6 +17,7 @@ package io.atomix.variables;
 
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.resource.ReadConsistency;
+import io.atomix.resource.ResourceType;
 import io.atomix.resource.ResourceTypeInfo;
 import io.atomix.variables.internal.LongCommands;
 import io.atomix.variables.util.DistributedLongFactory;
@@ -49,6 +50,10 @@ import java.util.concurrent.CompletableFuture;
  * Periodically, a 64-bit snapshot of the resource's state is written to disk, and prior
  * {@link #incrementAndGet() increment} and {@link #decrementAndGet() decrement} operations are removed
  * from the replicated log during compaction.
+ * <p>
+ * Because the value is stored as a primitive, a long is never {@code null}: setting a {@code null} value sets
+ * the long to {@code 0}, and a {@link #compareAndSet(Object, Object) compareAndSet} that expects {@code null}
+ * never succeeds.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
@@ -59,6 +64,10 @@ public class DistributedLong extends AbstractDistributedValue<DistributedLong, L
     super(client, options);
   }
 
+  protected DistributedLong(CopycatClient client, ResourceType type, Properties options) {
+    super(client, type, options);
+  }
+
   /**
    * Adds a delta to the long and returns the updated value.
    * <p>
@@ -16,6 +16,7 @@
 package io.atomix.variables;
 
 import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.ResourceType;
 import io.atomix.resource.ResourceTypeInfo;
 import io.atomix.variables.util.DistributedValueFactory;
 
@@ -56,4 +57,8 @@ public class DistributedValue<T> extends AbstractDistributedValue<DistributedVal
     super(client, options);
   }
 
+  protected DistributedValue(CopycatClient client, ResourceType type, Properties options) {
+    super(client, type, options);
+  }
+
 }
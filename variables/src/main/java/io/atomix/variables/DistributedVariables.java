@@ -0,0 +1,236 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.variables;
+
+import io.atomix.catalyst.concurrent.Futures;
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.ResourceType;
+import io.atomix.resource.ResourceTypeInfo;
+import io.atomix.variables.internal.VariableClient;
+import io.atomix.variables.internal.VariableCommands;
+import io.atomix.variables.util.DistributedVariablesFactory;
+
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Stores many lightweight {@link DistributedLong} and {@link DistributedValue} variables in a single resource.
+ * <p>
+ * Each {@link DistributedLong} or {@link DistributedValue} resource is backed by its own state machine on each
+ * replica, and opening one requires a round trip to the cluster. For applications that use large numbers of small
+ * variables such as per-user counters and flags, the variables resource instead stores many named variables in
+ * slots of a single state machine:
+ * <pre>
+ *   {@code
+ *   DistributedVariables counters = atomix.getVariables("counters").get();
+ *   DistributedLong counter = counters.getLong("user-123");
+ *   counter.incrementAndGet().thenAccept(value -> {
+ *     ...
+ *   });
+ *   }
+ * </pre>
+ * Lightweight variables are created locally without communicating with the cluster, and a variable only occupies
+ * memory in the cluster while it holds a non-default value. Lightweight variables support the same operations as
+ * standalone variables, but they share the state of the resource that stores them and do not support change events.
+ * Closing a lightweight variable does not close the resource that stores it.
+ * <h3>Implementation</h3>
+ * Variables are stored in a snapshottable state machine that releases each operation's commit as soon as it's
+ * applied. Long variables are stored as 64-bit values that default to {@code 0}. Values with a time-to-live expire
+ * lazily according to the time at which they're next accessed.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-3, factory=DistributedVariablesFactory.class)
+public class DistributedVariables extends AbstractResource<DistributedVariables> {
+  private static final ResourceType LONG_TYPE = new ResourceType(DistributedLong.class);
+  private static final ResourceType VALUE_TYPE = new ResourceType(DistributedValue.class);
+
+  public DistributedVariables(CopycatClient client, Properties options) {
+    super(client, options);
+  }
+
+  /**
+   * Returns a lightweight long variable stored in this resource.
+   * <p>
+   * The variable is created locally without communicating with the cluster. Long variables have an initial
+   * value of {@code 0}.
+   *
+   * @param name The variable name.
+   * @return The long variable.
+   * @throws NullPointerException if {@code name} is null
+   */
+  public DistributedLong getLong(String name) {
+    return new LightweightLong(this, new VariableClient(client, VariableCommands.SlotType.LONG, Assert.notNull(name, "name")));
+  }
+
+  /**
+   * Returns a lightweight value variable stored in this resource.
+   * <p>
+   * The variable is created locally without communicating with the cluster. Value variables have an initial
+   * value of {@code null}.
+   *
+   * @param name The variable name.
+   * @param <T> The value type.
+   * @return The value variable.
+   * @throws NullPointerException if {@code name} is null
+   */
+  public <T> DistributedValue<T> getValue(String name) {
+    return new LightweightValue<>(this, new VariableClient(client, VariableCommands.SlotType.VALUE, Assert.notNull(name, "name")));
+  }
+
+  /**
+   * Lightweight long variable.
+   */
+  private static class LightweightLong extends DistributedLong {
+    private final DistributedVariables variables;
+    private final String name;
+
+    private LightweightLong(DistributedVariables variables, VariableClient client) {
+      super(client, LONG_TYPE, variables.options);
+      this.variables = variables;
+      this.name = client.name();
+    }
+
+    @Override
+    public CompletableFuture<DistributedLong> open() {
+      return CompletableFuture.completedFuture(this);
+    }
+
+    @Override
+    public CompletableFuture<Listener<ChangeEvent<Long>>> onChange(Consumer<ChangeEvent<Long>> callback) {
+      return Futures.exceptionalFuture(new UnsupportedOperationException("lightweight variables do not support events"));
+    }
+
+    @Override
+    public Config config() {
+      return variables.config();
+    }
+
+    @Override
+    public State state() {
+      return variables.state();
+    }
+
+    @Override
+    public Listener<State> onStateChange(Consumer<State> callback) {
+      return variables.onStateChange(callback);
+    }
+
+    @Override
+    public Listener<Integer> onRecovery(Consumer<Integer> callback) {
+      return variables.onRecovery(callback);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return variables.isOpen();
+    }
+
+    @Override
+    public boolean isClosed() {
+      return variables.isClosed();
+    }
+
+    @Override
+    public int hashCode() {
+      return 37 * variables.hashCode() + name.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      return object instanceof LightweightLong && ((LightweightLong) object).variables.equals(variables) && ((LightweightLong) object).name.equals(name);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[variables=%s, name=%s]", DistributedLong.class.getSimpleName(), variables, name);
+    }
+  }
+
+  /**
+   * Lightweight value variable.
+   */
+  private static class LightweightValue<T> extends DistributedValue<T> {
+    private final DistributedVariables variables;
+    private final String name;
+
+    private LightweightValue(DistributedVariables variables, VariableClient client) {
+      super(client, VALUE_TYPE, variables.options);
+      this.variables = variables;
+      this.name = client.name();
+    }
+
+    @Override
+    public CompletableFuture<DistributedValue<T>> open() {
+      return CompletableFuture.completedFuture(this);
+    }
+
+    @Override
+    public CompletableFuture<Listener<ChangeEvent<T>>> onChange(Consumer<ChangeEvent<T>> callback) {
+      return Futures.exceptionalFuture(new UnsupportedOperationException("lightweight variables do not support events"));
+    }
+
+    @Override
+    public Config config() {
+      return variables.config();
+    }
+
+    @Override
+    public State state() {
+      return variables.state();
+    }
+
+    @Override
+    public Listener<State> onStateChange(Consumer<State> callback) {
+      return variables.onStateChange(callback);
+    }
+
+    @Override
+    public Listener<Integer> onRecovery(Consumer<Integer> callback) {
+      return variables.onRecovery(callback);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return variables.isOpen();
+    }
+
+    @Override
+    public boolean isClosed() {
+      return variables.isClosed();
+    }
+
+    @Override
+    public int hashCode() {
+      return 37 * variables.hashCode() + name.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      return object instanceof LightweightValue && ((LightweightValue) object).variables.equals(variables) && ((LightweightValue) object).name.equals(name);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[variables=%s, name=%s]", DistributedValue.class.getSimpleName(), variables, name);
+    }
+  }
+
+}
@@ -19,17 +19,21 @@ import io.atomix.copycat.server.Commit;
 import io.atomix.copycat.server.Snapshottable;
 import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
 import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
+import io.atomix.variables.AbstractDistributedValue;
 import io.atomix.variables.DistributedLong;
 
 import java.util.Properties;
 
 /**
  * Long state machine.
+ * <p>
+ * The value is stored as a primitive, and change events are only constructed when a client is listening for
+ * changes, so arithmetic operations do not allocate.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 public class LongState extends AbstractValueState<Long> implements Snapshottable {
-  private Long value = 0L;
+  private long value;
 
   public LongState(Properties config) {
     super(config);
@@ -51,9 +55,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
   @Override
   public void set(Commit<ValueCommands.Set<Long>> commit) {
     try {
-      Long oldValue = value;
-      value = commit.operation().value();
-      notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      long oldValue = value;
+      value = valueOf(commit.operation().value());
+      change(oldValue, value);
     } finally {
       commit.close();
     }
@@ -77,9 +81,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
   @Override
   public Long getAndSet(Commit<ValueCommands.GetAndSet<Long>> commit) {
     try {
-      Long oldValue = value;
-      value = commit.operation().value();
-      notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      long oldValue = value;
+      value = valueOf(commit.operation().value());
+      change(oldValue, value);
       return oldValue;
     } finally {
       commit.close();
@@ -93,10 +97,10 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
   public boolean compareAndSet(Commit<ValueCommands.CompareAndSet<Long>> commit) {
     try {
       Long expect = commit.operation().expect();
-      if ((value == null && expect == null) || (value != null && value.equals(expect))) {
-        Long oldValue = value;
-        value = commit.operation().update();
-        notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      if (expect != null && value == expect) {
+        long oldValue = value;
+        value = valueOf(commit.operation().update());
+        change(oldValue, value);
         return true;
       }
       return false;
@@ -110,9 +114,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long incrementAndGet(Commit<LongCommands.IncrementAndGet> commit) {
     try {
-      Long oldValue = value;
+      long oldValue = value;
       value = oldValue + 1;
-      notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      change(oldValue, value);
       return value;
     } finally {
       commit.close();
@@ -124,9 +128,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long decrementAndGet(Commit<LongCommands.DecrementAndGet> commit) {
     try {
-      Long oldValue = value;
+      long oldValue = value;
       value = oldValue - 1;
-      notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      change(oldValue, value);
       return value;
     } finally {
       commit.close();
@@ -138,9 +142,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long getAndIncrement(Commit<LongCommands.GetAndIncrement> commit) {
     try {
-      Long oldValue = value;
+      long oldValue = value;
       value = oldValue + 1;
-      notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      change(oldValue, value);
       return oldValue;
     } finally {
       commit.close();
@@ -152,9 +156,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long getAndDecrement(Commit<LongCommands.GetAndDecrement> commit) {
     try {
-      Long oldValue = value;
+      long oldValue = value;
       value = oldValue - 1;
-      notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      change(oldValue, value);
       return oldValue;
     } finally {
       commit.close();
@@ -166,9 +170,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long addAndGet(Commit<LongCommands.AddAndGet> commit) {
     try {
-      Long oldValue = value;
+      long oldValue = value;
       value = oldValue + commit.operation().delta();
-      notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      change(oldValue, value);
       return value;
     } finally {
       commit.close();
@@ -180,12 +184,29 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long getAndAdd(Commit<LongCommands.GetAndAdd> commit) {
     try {
-      Long oldValue = value;
+      long oldValue = value;
       value = oldValue + commit.operation().delta();
-      notify(new DistributedLong.ChangeEvent<>(oldValue, value));
+      change(oldValue, value);
       return oldValue;
     } finally {
       commit.close();
     }
   }
+
+  /**
+   * Returns the primitive value for the given boxed value, treating {@code null} as {@code 0}.
+   */
+  private static long valueOf(Long value) {
+    return value != null ? value : 0;
+  }
+
+  /**
+   * Notifies listeners of a change in the value.
+   */
+  private void change(long oldValue, long newValue) {
+    if (hasListeners(AbstractDistributedValue.Events.CHANGE)) {
+      notify(new DistributedLong.ChangeEvent<>(oldValue, newValue));
+    }
+  }
+
 }
@@ -17,6 +17,7 @@ package io.atomix.variables.internal;
 
 import io.atomix.catalyst.concurrent.Scheduled;
 import io.atomix.copycat.server.Commit;
+import io.atomix.variables.AbstractDistributedValue;
 import io.atomix.variables.DistributedValue;
 
 import java.time.Duration;
@@ -80,7 +81,7 @@ public class ValueState<T> extends AbstractValueState<T> {
     T oldValue = value;
     value = commit.operation().value();
     setCurrent(commit);
-    notify(new DistributedValue.ChangeEvent<>(oldValue, value));
+    change(oldValue, value);
   }
 
   /**
@@ -92,7 +93,7 @@ public class ValueState<T> extends AbstractValueState<T> {
       value = commit.operation().update();
       cleanCurrent();
       setCurrent(commit);
-      notify(new DistributedValue.ChangeEvent<>(oldValue, value));
+      change(oldValue, value);
       return true;
     } else {
       commit.close();
@@ -108,7 +109,7 @@ public class ValueState<T> extends AbstractValueState<T> {
     value = commit.operation().value();
     cleanCurrent();
     setCurrent(commit);
-    notify(new DistributedValue.ChangeEvent<>(oldValue, value));
+    change(oldValue, value);
     return oldValue;
   }
 
@@ -125,4 +126,13 @@ public class ValueState<T> extends AbstractValueState<T> {
     }
   }
 
+  /**
+   * Notifies listeners of a change in the value if any client is listening for changes.
+   */
+  private void change(T oldValue, T newValue) {
+    if (hasListeners(AbstractDistributedValue.Events.CHANGE)) {
+      notify(new DistributedValue.ChangeEvent<>(oldValue, newValue));
+    }
+  }
+
 }
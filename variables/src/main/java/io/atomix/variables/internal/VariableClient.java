@@ -13,14 +13,15 @@
  * See the License for the specific language governing permissions and
  * limitations under the License
  */
-package io.atomix.resource.internal;
+package io.atomix.variables.internal;
 
+import io.atomix.catalyst.concurrent.Futures;
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.transport.Address;
 import io.atomix.catalyst.transport.Transport;
 import io.atomix.catalyst.util.Assert;
-import io.atomix.catalyst.concurrent.Listener;
-import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.copycat.Command;
 import io.atomix.copycat.Query;
 import io.atomix.copycat.client.CopycatClient;
@@ -31,16 +32,46 @@ import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
- * Special {@link io.atomix.copycat.client.CopycatClient} implementation that wraps commands
- * and queries in {@link ResourceCommand} and {@link ResourceQuery} objects respectively.
+ * Client for a lightweight variable stored in a slot of a {@link io.atomix.variables.DistributedVariables} resource.
+ * <p>
+ * The variable client wraps each operation submitted by a lightweight variable in a {@link VariableCommands.SlotCommand}
+ * or {@link VariableCommands.SlotQuery} and submits it through the client of the resource that stores the variable.
+ * Lightweight variables share the state and lifecycle of the resource that stores them, so the variable client
+ * neither registers listeners with nor connects or closes the underlying client.
  *
- * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class ResourceCopycatClient implements CopycatClient {
+public class VariableClient implements CopycatClient {
+  private static final Listener<State> NOOP_LISTENER = new Listener<State>() {
+    @Override
+    public void accept(State state) {
+    }
+
+    @Override
+    public void close() {
+    }
+  };
+
   private final CopycatClient client;
+  private final VariableCommands.SlotType type;
+  private final String name;
 
-  public ResourceCopycatClient(CopycatClient client) {
+  /**
+   * @throws NullPointerException if any argument is null
+   */
+  public VariableClient(CopycatClient client, VariableCommands.SlotType type, String name) {
     this.client = Assert.notNull(client, "client");
+    this.type = Assert.notNull(type, "type");
+    this.name = Assert.notNull(name, "name");
+  }
+
+  /**
+   * Returns the variable name.
+   *
+   * @return The variable name.
+   */
+  public String name() {
+    return name;
   }
 
   @Override
@@ -50,7 +81,7 @@ public class ResourceCopycatClient implements CopycatClient {
 
   @Override
   public Listener<State> onStateChange(Consumer<State> callback) {
-    return client.onStateChange(callback);
+    return NOOP_LISTENER;
   }
 
   @Override
@@ -74,37 +105,45 @@ public class ResourceCopycatClient implements CopycatClient {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T> CompletableFuture<T> submit(Command<T> command) {
-    return client.submit(new ResourceCommand<>(command));
+    return (CompletableFuture<T>) client.submit(new VariableCommands.SlotCommand(type, name, command));
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T> CompletableFuture<T> submit(Query<T> query) {
-    return client.submit(new ResourceQuery<>(query));
+    return (CompletableFuture<T>) client.submit(new VariableCommands.SlotQuery(type, name, query));
   }
 
   @Override
   public Listener<Void> onEvent(String event, Runnable callback) {
-    return client.onEvent(event, callback);
+    throw new UnsupportedOperationException("lightweight variables do not support events");
   }
 
   @Override
   public <T> Listener<T> onEvent(String event, Consumer<T> callback) {
-    return client.onEvent(event, callback);
+    throw new UnsupportedOperationException("lightweight variables do not support events");
   }
 
   @Override
   public CompletableFuture<CopycatClient> connect(Collection<Address> members) {
-    return client.connect(members);
+    return CompletableFuture.completedFuture(this);
   }
 
   @Override
   public CompletableFuture<CopycatClient> recover() {
-    return client.recover();
+    return Futures.exceptionalFuture(new UnsupportedOperationException("lightweight variables cannot be recovered"));
   }
 
   @Override
   public CompletableFuture<Void> close() {
-    return client.close();
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[type=%s, name=%s]", getClass().getSimpleName(), type, name);
   }
+
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.variables.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
+
+/**
+ * Variable commands.
+ * <p>
+ * Variable commands and queries wrap the operations of a lightweight {@link io.atomix.variables.DistributedLong}
+ * or {@link io.atomix.variables.DistributedValue} with the name of the slot in which the variable is stored.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class VariableCommands {
+
+  private VariableCommands() {
+  }
+
+  /**
+   * Variable slot type.
+   */
+  public enum SlotType {
+    LONG,
+    VALUE,
+  }
+
+  /**
+   * Variable slot command.
+   */
+  public static class SlotCommand implements Command<Object>, CatalystSerializable {
+    private SlotType type;
+    private String name;
+    private Command<?> command;
+
+    public SlotCommand() {
+    }
+
+    /**
+     * @throws NullPointerException if any argument is null
+     */
+    public SlotCommand(SlotType type, String name, Command<?> command) {
+      this.type = Assert.notNull(type, "type");
+      this.name = Assert.notNull(name, "name");
+      this.command = Assert.notNull(command, "command");
+    }
+
+    /**
+     * Returns the slot type.
+     *
+     * @return The slot type.
+     */
+    public SlotType type() {
+      return type;
+    }
+
+    /**
+     * Returns the slot name.
+     *
+     * @return The slot name.
+     */
+    public String name() {
+      return name;
+    }
+
+    /**
+     * Returns the wrapped command.
+     *
+     * @return The wrapped command.
+     */
+    public Command<?> command() {
+      return command;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      // Slots are stored in a snapshottable state machine that releases commits as soon as they're applied.
+      return CompactionMode.SNAPSHOT;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeByte(type.ordinal());
+      buffer.writeUTF8(name);
+      serializer.writeObject(command, buffer);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      type = SlotType.values()[buffer.readByte()];
+      name = buffer.readUTF8();
+      command = serializer.readObject(buffer);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[type=%s, name=%s, command=%s]", getClass().getSimpleName(), type, name, command);
+    }
+  }
+
+  /**
+   * Variable slot query.
+   */
+  public static class SlotQuery implements Query<Object>, CatalystSerializable {
+    private SlotType type;
+    private String name;
+    private Query<?> query;
+
+    public SlotQuery() {
+    }
+
+    /**
+     * @throws NullPointerException if any argument is null
+     */
+    public SlotQuery(SlotType type, String name, Query<?> query) {
+      this.type = Assert.notNull(type, "type");
+      this.name = Assert.notNull(name, "name");
+      this.query = Assert.notNull(query, "query");
+    }
+
+    /**
+     * Returns the slot type.
+     *
+     * @return The slot type.
+     */
+    public SlotType type() {
+      return type;
+    }
+
+    /**
+     * Returns the slot name.
+     *
+     * @return The slot name.
+     */
+    public String name() {
+      return name;
+    }
+
+    /**
+     * Returns the wrapped query.
+     *
+     * @return The wrapped query.
+     */
+    public Query<?> query() {
+      return query;
+    }
+
+    @Override
+    public ConsistencyLevel consistency() {
+      return query.consistency();
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeByte(type.ordinal());
+      buffer.writeUTF8(name);
+      serializer.writeObject(query, buffer);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      type = SlotType.values()[buffer.readByte()];
+      name = buffer.readUTF8();
+      query = serializer.readObject(buffer);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[type=%s, name=%s, query=%s]", getClass().getSimpleName(), type, name, query);
+    }
+  }
+
+  /**
+   * Variable command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      new LongCommands.TypeResolver().resolve(registry);
+      registry.register(SlotCommand.class, -123);
+      registry.register(SlotQuery.class, -124);
+    }
+  }
+
+}
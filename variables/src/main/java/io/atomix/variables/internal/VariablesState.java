@@ -0,0 +1,400 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.variables.internal;
+
+import io.atomix.copycat.Command;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.Snapshottable;
+import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
+import io.atomix.resource.ResourceStateMachine;
+import io.atomix.resource.internal.ResourceCommand;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Distributed variables state machine.
+ * <p>
+ * The variables state machine stores many lightweight variables in named slots. Long slots default to {@code 0},
+ * and a slot is removed whenever its value returns to the default. Value slots are removed whenever their value
+ * is set to {@code null}. Slot names are arbitrary strings, so slots are keyed by name in hash maps, but each long
+ * slot holds its value in a mutable primitive field so that arithmetic updates the slot in place rather than
+ * boxing a new {@link Long} into the map on every command.
+ * <p>
+ * Both long and value slots may be set with a time-to-live, after which a long slot reverts to {@code 0} and a
+ * value slot reverts to {@code null}. Expiration is driven by the commit time of commands rather than by
+ * scheduled tasks, so the state machine never holds commits or timers and can be compacted entirely via snapshots.
+ * Expiring slots are indexed by their expiration time, and each command sweeps up to {@link #SWEEP_LIMIT} expired
+ * slots before it's applied, so slots that are never read again are still removed. Slots that have expired but
+ * have not yet been swept are treated as expired by both commands and queries. Queries never remove slots since
+ * they're only evaluated on a single server.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class VariablesState extends ResourceStateMachine implements Snapshottable {
+  private static final int SWEEP_LIMIT = 100;
+  private final Map<String, LongSlot> longs = new HashMap<>();
+  private final Map<String, ValueSlot> values = new HashMap<>();
+  private final TreeMap<Long, Set<Slot>> expirations = new TreeMap<>();
+
+  public VariablesState(Properties config) {
+    super(config);
+  }
+
+  /**
+   * Applies a slot command.
+   */
+  public Object command(Commit<VariableCommands.SlotCommand> commit) {
+    try {
+      long time = commit.time().toEpochMilli();
+      sweep(time);
+      VariableCommands.SlotCommand operation = commit.operation();
+      if (operation.type() == VariableCommands.SlotType.LONG) {
+        return applyLong(operation.name(), operation.command(), time);
+      } else {
+        return applyValue(operation.name(), operation.command(), time);
+      }
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Applies a slot query.
+   */
+  public Object query(Commit<VariableCommands.SlotQuery> commit) {
+    try {
+      VariableCommands.SlotQuery operation = commit.operation();
+      if (!(operation.query() instanceof ValueCommands.Get)) {
+        throw new IllegalArgumentException("unsupported variable query: " + operation.query());
+      }
+
+      long time = commit.time().toEpochMilli();
+      if (operation.type() == VariableCommands.SlotType.LONG) {
+        LongSlot slot = longs.get(operation.name());
+        return slot != null && !slot.isExpired(time) ? slot.value : 0L;
+      }
+
+      ValueSlot slot = values.get(operation.name());
+      return slot != null && !slot.isExpired(time) ? slot.value : null;
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Removes up to {@link #SWEEP_LIMIT} slots that expired at or before the given time.
+   */
+  private void sweep(long time) {
+    int count = 0;
+    Iterator<Map.Entry<Long, Set<Slot>>> entries = expirations.headMap(time, true).entrySet().iterator();
+    while (entries.hasNext() && count < SWEEP_LIMIT) {
+      Iterator<Slot> slots = entries.next().getValue().iterator();
+      while (slots.hasNext() && count < SWEEP_LIMIT) {
+        Slot slot = slots.next();
+        slots.remove();
+        slot.expiration = 0;
+        slot.remove();
+        count++;
+      }
+      if (!slots.hasNext()) {
+        entries.remove();
+      }
+    }
+  }
+
+  /**
+   * Applies a command to a long slot.
+   */
+  private Object applyLong(String name, Command<?> command, long time) {
+    LongSlot slot = longs.get(name);
+    if (slot != null && slot.isExpired(time)) {
+      clear(slot);
+      slot = null;
+    }
+
+    long value = slot != null ? slot.value : 0;
+    if (command instanceof LongCommands.IncrementAndGet) {
+      return updateLong(name, slot, value + 1);
+    } else if (command instanceof LongCommands.DecrementAndGet) {
+      return updateLong(name, slot, value - 1);
+    } else if (command instanceof LongCommands.GetAndIncrement) {
+      updateLong(name, slot, value + 1);
+      return value;
+    } else if (command instanceof LongCommands.GetAndDecrement) {
+      updateLong(name, slot, value - 1);
+      return value;
+    } else if (command instanceof LongCommands.AddAndGet) {
+      return updateLong(name, slot, value + ((LongCommands.AddAndGet) command).delta());
+    } else if (command instanceof LongCommands.GetAndAdd) {
+      updateLong(name, slot, value + ((LongCommands.GetAndAdd) command).delta());
+      return value;
+    } else if (command instanceof ValueCommands.Set) {
+      ValueCommands.Set set = (ValueCommands.Set) command;
+      setLong(name, slot, (Long) set.value(), set.ttl(), time);
+      return null;
+    } else if (command instanceof ValueCommands.GetAndSet) {
+      ValueCommands.GetAndSet getAndSet = (ValueCommands.GetAndSet) command;
+      setLong(name, slot, (Long) getAndSet.value(), getAndSet.ttl(), time);
+      return value;
+    } else if (command instanceof ValueCommands.CompareAndSet) {
+      ValueCommands.CompareAndSet compareAndSet = (ValueCommands.CompareAndSet) command;
+      if (compareAndSet.expect() != null && compareAndSet.expect().equals(value)) {
+        setLong(name, slot, (Long) compareAndSet.update(), compareAndSet.ttl(), time);
+        return true;
+      }
+      return false;
+    } else if (command instanceof ResourceCommand.Delete) {
+      if (slot != null) {
+        clear(slot);
+      }
+      return null;
+    }
+    throw new IllegalArgumentException("unsupported variable command: " + command);
+  }
+
+  /**
+   * Updates the value of a long slot, retaining the slot's existing expiration.
+   */
+  private long updateLong(String name, LongSlot slot, long value) {
+    if (value == 0) {
+      if (slot != null) {
+        clear(slot);
+      }
+    } else if (slot != null) {
+      slot.value = value;
+    } else {
+      longs.put(name, new LongSlot(name, value));
+    }
+    return value;
+  }
+
+  /**
+   * Sets the value and expiration of a long slot.
+   */
+  private void setLong(String name, LongSlot slot, Long value, long ttl, long time) {
+    if (value == null || value == 0) {
+      if (slot != null) {
+        clear(slot);
+      }
+      return;
+    }
+
+    if (slot == null) {
+      slot = new LongSlot(name, value);
+      longs.put(name, slot);
+    } else {
+      slot.value = value;
+    }
+    expire(slot, ttl > 0 ? time + ttl : 0);
+  }
+
+  /**
+   * Applies a command to a value slot.
+   */
+  private Object applyValue(String name, Command<?> command, long time) {
+    ValueSlot slot = values.get(name);
+    if (slot != null && slot.isExpired(time)) {
+      clear(slot);
+      slot = null;
+    }
+
+    Object value = slot != null ? slot.value : null;
+    if (command instanceof ValueCommands.Set) {
+      ValueCommands.Set set = (ValueCommands.Set) command;
+      setValue(name, slot, set.value(), set.ttl(), time);
+      return null;
+    } else if (command instanceof ValueCommands.GetAndSet) {
+      ValueCommands.GetAndSet getAndSet = (ValueCommands.GetAndSet) command;
+      setValue(name, slot, getAndSet.value(), getAndSet.ttl(), time);
+      return value;
+    } else if (command instanceof ValueCommands.CompareAndSet) {
+      ValueCommands.CompareAndSet compareAndSet = (ValueCommands.CompareAndSet) command;
+      if (Objects.equals(value, compareAndSet.expect())) {
+        setValue(name, slot, compareAndSet.update(), compareAndSet.ttl(), time);
+        return true;
+      }
+      return false;
+    } else if (command instanceof ResourceCommand.Delete) {
+      if (slot != null) {
+        clear(slot);
+      }
+      return null;
+    }
+    throw new IllegalArgumentException("unsupported variable command: " + command);
+  }
+
+  /**
+   * Sets the value and expiration of a value slot.
+   */
+  private void setValue(String name, ValueSlot slot, Object value, long ttl, long time) {
+    if (value == null) {
+      if (slot != null) {
+        clear(slot);
+      }
+      return;
+    }
+
+    if (slot == null) {
+      slot = new ValueSlot(name, value);
+      values.put(name, slot);
+    } else {
+      slot.value = value;
+    }
+    expire(slot, ttl > 0 ? time + ttl : 0);
+  }
+
+  /**
+   * Updates the expiration of a slot, re-indexing the slot by its new expiration time.
+   */
+  private void expire(Slot slot, long expiration) {
+    if (slot.expiration == expiration) {
+      return;
+    }
+
+    if (slot.expiration > 0) {
+      Set<Slot> slots = expirations.get(slot.expiration);
+      if (slots != null) {
+        slots.remove(slot);
+        if (slots.isEmpty()) {
+          expirations.remove(slot.expiration);
+        }
+      }
+    }
+
+    slot.expiration = expiration;
+    if (expiration > 0) {
+      expirations.computeIfAbsent(expiration, e -> new LinkedHashSet<>()).add(slot);
+    }
+  }
+
+  /**
+   * Removes a slot and its expiration.
+   */
+  private void clear(Slot slot) {
+    expire(slot, 0);
+    slot.remove();
+  }
+
+  @Override
+  public void snapshot(SnapshotWriter writer) {
+    writer.writeInt(longs.size());
+    for (LongSlot slot : longs.values()) {
+      writer.writeString(slot.name);
+      writer.writeLong(slot.value);
+      writer.writeLong(slot.expiration);
+    }
+
+    writer.writeInt(values.size());
+    for (ValueSlot slot : values.values()) {
+      writer.writeString(slot.name);
+      writer.writeObject(slot.value);
+      writer.writeLong(slot.expiration);
+    }
+  }
+
+  @Override
+  public void install(SnapshotReader reader) {
+    delete();
+
+    int longCount = reader.readInt();
+    for (int i = 0; i < longCount; i++) {
+      LongSlot slot = new LongSlot(reader.readString(), reader.readLong());
+      longs.put(slot.name, slot);
+      expire(slot, reader.readLong());
+    }
+
+    int valueCount = reader.readInt();
+    for (int i = 0; i < valueCount; i++) {
+      ValueSlot slot = new ValueSlot(reader.readString(), reader.readObject());
+      values.put(slot.name, slot);
+      expire(slot, reader.readLong());
+    }
+  }
+
+  @Override
+  public void delete() {
+    longs.clear();
+    values.clear();
+    expirations.clear();
+  }
+
+  /**
+   * Variable slot.
+   */
+  private abstract class Slot {
+    protected final String name;
+    protected long expiration;
+
+    protected Slot(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Returns a boolean indicating whether the slot has expired at the given time.
+     */
+    boolean isExpired(long time) {
+      return expiration > 0 && expiration <= time;
+    }
+
+    /**
+     * Removes the slot from its map.
+     */
+    abstract void remove();
+  }
+
+  /**
+   * Long slot.
+   */
+  private class LongSlot extends Slot {
+    private long value;
+
+    private LongSlot(String name, long value) {
+      super(name);
+      this.value = value;
+    }
+
+    @Override
+    void remove() {
+      longs.remove(name);
+    }
+  }
+
+  /**
+   * Value slot.
+   */
+  private class ValueSlot extends Slot {
+    private Object value;
+
+    private ValueSlot(String name, Object value) {
+      super(name);
+      this.value = value;
+    }
+
+    @Override
+    void remove() {
+      values.remove(name);
+    }
+  }
+
+}
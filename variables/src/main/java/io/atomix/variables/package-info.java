@@ -15,8 +15,9 @@
  */
 
 /**
- * Provides distributed variables such as {@link io.atomix.variables.DistributedValue}
- * and {@link io.atomix.variables.DistributedLong}.
+ * Provides distributed variables such as {@link io.atomix.variables.DistributedValue},
+ * {@link io.atomix.variables.DistributedLong}, and lightweight variables stored in
+ * {@link io.atomix.variables.DistributedVariables}.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.variables;
+
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributed variables test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedVariablesTest extends AbstractCopycatTest<DistributedVariables> {
+
+  @Override
+  protected Class<? super DistributedVariables> type() {
+    return DistributedVariables.class;
+  }
+
+  /**
+   * Tests operations on lightweight long variables.
+   */
+  public void testLongVariables() throws Throwable {
+    createServers(3);
+    DistributedVariables variables1 = createResource();
+    DistributedVariables variables2 = createResource();
+
+    DistributedLong foo = variables1.getLong("foo");
+    DistributedLong bar = variables1.getLong("bar");
+    threadAssertEquals(foo.get().get(10, TimeUnit.SECONDS), 0L);
+    threadAssertEquals(foo.incrementAndGet().get(10, TimeUnit.SECONDS), 1L);
+    threadAssertEquals(foo.addAndGet(10).get(10, TimeUnit.SECONDS), 11L);
+    threadAssertEquals(bar.getAndDecrement().get(10, TimeUnit.SECONDS), 0L);
+    threadAssertTrue(foo.compareAndSet(11L, 20L).get(10, TimeUnit.SECONDS));
+    threadAssertFalse(foo.compareAndSet(11L, 30L).get(10, TimeUnit.SECONDS));
+
+    threadAssertEquals(variables2.getLong("foo").get().get(10, TimeUnit.SECONDS), 20L);
+    threadAssertEquals(variables2.getLong("bar").get().get(10, TimeUnit.SECONDS), -1L);
+
+    foo.delete().get(10, TimeUnit.SECONDS);
+    threadAssertEquals(foo.get().get(10, TimeUnit.SECONDS), 0L);
+    threadAssertEquals(bar.get().get(10, TimeUnit.SECONDS), -1L);
+  }
+
+  /**
+   * Tests expiring lightweight long variables.
+   */
+  public void testLongVariableExpiration() throws Throwable {
+    createServers(3);
+    DistributedVariables variables = createResource();
+
+    DistributedLong foo = variables.getLong("foo");
+    foo.set(10L, Duration.ofMillis(100)).get(10, TimeUnit.SECONDS);
+    threadAssertEquals(foo.incrementAndGet().get(10, TimeUnit.SECONDS), 11L);
+    Thread.sleep(500);
+    threadAssertEquals(foo.incrementAndGet().get(10, TimeUnit.SECONDS), 1L);
+    threadAssertEquals(foo.get().get(10, TimeUnit.SECONDS), 1L);
+  }
+
+  /**
+   * Tests operations on lightweight value variables.
+   */
+  public void testValueVariables() throws Throwable {
+    createServers(3);
+    DistributedVariables variables = createResource();
+
+    DistributedValue<String> foo = variables.getValue("foo");
+    threadAssertNull(foo.get().get(10, TimeUnit.SECONDS));
+    foo.set("Hello world!").get(10, TimeUnit.SECONDS);
+    threadAssertEquals(foo.get().get(10, TimeUnit.SECONDS), "Hello world!");
+    threadAssertEquals(foo.getAndSet("Hello again!").get(10, TimeUnit.SECONDS), "Hello world!");
+    threadAssertTrue(foo.compareAndSet("Hello again!", "Goodbye world!").get(10, TimeUnit.SECONDS));
+    threadAssertEquals(variables.<String>getValue("foo").get().get(10, TimeUnit.SECONDS), "Goodbye world!");
+    threadAssertNull(variables.getValue("bar").get().get(10, TimeUnit.SECONDS));
+
+    foo.set("Hello world!", Duration.ofMillis(100)).get(10, TimeUnit.SECONDS);
+    Thread.sleep(500);
+    threadAssertFalse(foo.compareAndSet("Hello world!", "Goodbye world!").get(10, TimeUnit.SECONDS));
+  }
+
+}
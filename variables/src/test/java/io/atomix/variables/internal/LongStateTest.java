@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.variables.internal;
+
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.copycat.Operation;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.StateMachineContext;
+import io.atomix.copycat.server.StateMachineExecutor;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.Sessions;
+import io.atomix.resource.Resource;
+import io.atomix.resource.internal.ResourceCommand;
+import io.atomix.variables.AbstractDistributedValue;
+import io.atomix.variables.DistributedLong;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * Long state machine test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class LongStateTest {
+  private final Map<Class, Function> callbacks = new HashMap<>();
+  private final List<Resource.Event> events = new ArrayList<>();
+  private ServerSession session;
+  private LongState state;
+
+  @BeforeMethod
+  @SuppressWarnings("unchecked")
+  protected void beforeMethod() {
+    callbacks.clear();
+    events.clear();
+    session = mock(ServerSession.class);
+
+    StateMachineContext context = mock(StateMachineContext.class);
+    when(context.sessions()).thenReturn(mock(Sessions.class));
+
+    StateMachineExecutor executor = mock(StateMachineExecutor.class);
+    when(executor.context()).thenReturn(context);
+    when(executor.serializer()).thenReturn(new Serializer());
+    doAnswer(invocation -> {
+      callbacks.put((Class) invocation.getArguments()[0], (Function) invocation.getArguments()[1]);
+      return executor;
+    }).when(executor).register(any(Class.class), any(Function.class));
+
+    state = new LongState(new Properties()) {
+      @Override
+      protected void notify(Resource.Event event) {
+        events.add(event);
+        super.notify(event);
+      }
+    };
+    state.init(executor);
+  }
+
+  /**
+   * Tests that setting a null value sets the long to zero.
+   */
+  public void testSetNull() {
+    apply(new LongCommands.AddAndGet(10));
+    apply(new ValueCommands.Set<>(null));
+    assertEquals(apply(new ValueCommands.Get<>()), Long.valueOf(0));
+    assertEquals(apply(new ValueCommands.GetAndSet<>(5L)), Long.valueOf(0));
+    assertEquals(apply(new ValueCommands.GetAndSet<>(null)), Long.valueOf(5));
+    assertEquals(apply(new ValueCommands.Get<>()), Long.valueOf(0));
+  }
+
+  /**
+   * Tests that a null expected value never matches, even when the long is zero.
+   */
+  public void testCompareAndSetNull() {
+    assertEquals(apply(new ValueCommands.CompareAndSet<>(null, 10L)), Boolean.FALSE);
+    assertEquals(apply(new ValueCommands.Get<>()), Long.valueOf(0));
+    assertEquals(apply(new ValueCommands.CompareAndSet<>(0L, 10L)), Boolean.TRUE);
+    assertEquals(apply(new ValueCommands.Get<>()), Long.valueOf(10));
+  }
+
+  /**
+   * Tests that change events are only constructed while a client is listening for changes.
+   */
+  public void testChangeEventsRequireListeners() {
+    apply(new LongCommands.IncrementAndGet());
+    assertTrue(events.isEmpty());
+
+    int event = AbstractDistributedValue.Events.CHANGE.id();
+    apply(new ResourceCommand.Register(event));
+    apply(new LongCommands.IncrementAndGet());
+    assertEquals(events.size(), 1);
+    DistributedLong.ChangeEvent<?> change = (DistributedLong.ChangeEvent<?>) events.get(0);
+    assertEquals(change.oldValue(), 1L);
+    assertEquals(change.newValue(), 2L);
+    verify(session).publish(eq("event"), any());
+
+    apply(new ResourceCommand.Unregister(event));
+    apply(new LongCommands.DecrementAndGet());
+    assertEquals(events.size(), 1);
+  }
+
+  /**
+   * Applies an operation to the state machine.
+   */
+  @SuppressWarnings("unchecked")
+  private Object apply(Operation<?> operation) {
+    Commit commit = mock(Commit.class);
+    when(commit.session()).thenReturn(session);
+    when(commit.operation()).thenReturn(operation);
+    when(commit.command()).thenReturn(operation);
+    return callbacks.get(operation.getClass()).apply(commit);
+  }
+
+}